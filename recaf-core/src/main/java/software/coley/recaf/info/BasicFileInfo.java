@@ -4,7 +4,10 @@
 import software.coley.recaf.info.builder.FileInfoBuilder;
 import software.coley.recaf.info.properties.Property;
 import software.coley.recaf.info.properties.PropertyContainer;
+import software.coley.recaf.util.io.ByteSource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -17,11 +20,13 @@ public class BasicFileInfo implements FileInfo {
 	private final PropertyContainer properties;
 	private final String name;
 	private final byte[] rawContent;
+	private final ByteSource lazyContent;
 
 	public BasicFileInfo(@Nonnull FileInfoBuilder<?> builder) {
-		this(builder.getName(),
-				builder.getRawContent(),
-				builder.getProperties());
+		this.name = builder.getName();
+		this.rawContent = builder.getRawContent();
+		this.lazyContent = builder.getLazyContent();
+		this.properties = builder.getProperties();
 	}
 
 	/**
@@ -35,13 +40,28 @@ public BasicFileInfo(@Nonnull FileInfoBuilder<?> builder) {
 	public BasicFileInfo(@Nonnull String name, @Nonnull byte[] rawContent, @Nonnull PropertyContainer properties) {
 		this.name = name;
 		this.rawContent = rawContent;
+		this.lazyContent = null;
 		this.properties = properties;
 	}
 
 	@Nonnull
 	@Override
 	public byte[] getRawContent() {
-		return rawContent;
+		if (rawContent != null)
+			return rawContent;
+		try {
+			// Content is not held in memory, and must be read on demand.
+			return lazyContent.readAll();
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to read content of '" + name + "'", ex);
+		}
+	}
+
+	/**
+	 * @return {@code true} when the content is not held by this info, but read on demand.
+	 */
+	public boolean isLazy() {
+		return rawContent == null;
 	}
 
 	@Nonnull
@@ -56,7 +76,7 @@ public boolean equals(Object o) {
 		if (o == null) return false;
 		if (o instanceof FileInfo other) {
 			if (!name.equals(other.getName())) return false;
-			return Arrays.equals(rawContent, other.getRawContent());
+			return Arrays.equals(getRawContent(), other.getRawContent());
 		}
 		return false;
 	}
@@ -64,7 +84,7 @@ public boolean equals(Object o) {
 	@Override
 	public int hashCode() {
 		int result = name.hashCode();
-		result = 31 * result + Arrays.hashCode(rawContent);
+		result = 31 * result + Arrays.hashCode(getRawContent());
 		return result;
 	}
 
@@ -3,7 +3,11 @@
 import jakarta.annotation.Nonnull;
 import org.objectweb.asm.ClassReader;
 import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.storage.BytecodeStorage;
+import software.coley.recaf.info.storage.BytecodeStorageType;
+import software.coley.recaf.info.storage.StoredBytecode;
 
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 
 /**
@@ -12,9 +16,10 @@
  * @author Matt Coley
  */
 public class BasicJvmClassInfo extends BasicClassInfo implements JvmClassInfo {
-	private final byte[] bytecode;
+	private final StoredBytecode bytecode;
 	private final int version;
 	private ClassReader reader;
+	private SoftReference<ClassReader> softReader;
 
 	/**
 	 * @param builder
@@ -22,24 +27,44 @@ public class BasicJvmClassInfo extends BasicClassInfo implements JvmClassInfo {
 	 */
 	public BasicJvmClassInfo(@Nonnull JvmClassInfoBuilder builder) {
 		super(builder);
-		this.bytecode = builder.getBytecode();
+		this.bytecode = builder.getBytecodeStorage().store(builder.getBytecode());
 		this.version = builder.getVersion();
 	}
 
 	@Nonnull
 	@Override
 	public byte[] getBytecode() {
-		return bytecode;
+		return bytecode.get();
 	}
 
 	@Nonnull
 	@Override
 	public ClassReader getClassReader() {
-		if (reader == null)
-			reader = new ClassReader(bytecode);
+		// Only hold onto the reader when the bytecode is held on the heap anyways.
+		// Other storage types would have the reader keep a copy of the bytecode, defeating their purpose,
+		// so their reader is only kept around until memory is needed elsewhere.
+		ClassReader reader = this.reader;
+		if (reader != null)
+			return reader;
+		SoftReference<ClassReader> softReader = this.softReader;
+		if (softReader != null && (reader = softReader.get()) != null)
+			return reader;
+		reader = new ClassReader(bytecode.get());
+		if (bytecode.getStorage().getType() == BytecodeStorageType.HEAP)
+			this.reader = reader;
+		else
+			this.softReader = new SoftReference<>(reader);
 		return reader;
 	}
 
+	/**
+	 * @return Storage holding the bytecode of this class.
+	 */
+	@Nonnull
+	public BytecodeStorage getBytecodeStorage() {
+		return bytecode.getStorage();
+	}
+
 	@Override
 	public int getVersion() {
 		return version;
@@ -52,7 +77,7 @@ public boolean equals(Object o) {
 
 		if (o instanceof JvmClassInfo other) {
 			if (version != other.getVersion()) return false;
-			return Arrays.equals(bytecode, other.getBytecode());
+			return Arrays.equals(getBytecode(), other.getBytecode());
 		} else if (!super.equals(o)) {
 			return false;
 		}
@@ -63,7 +88,7 @@ public boolean equals(Object o) {
 	@Override
 	public int hashCode() {
 		int result = super.hashCode();
-		result = 31 * result + Arrays.hashCode(bytecode);
+		result = 31 * result + Arrays.hashCode(getBytecode());
 		result = 31 * result + version;
 		return result;
 	}
@@ -7,6 +7,7 @@
 import software.coley.recaf.info.properties.PropertyContainer;
 import software.coley.recaf.util.StringDecodingResult;
 import software.coley.recaf.util.StringUtil;
+import software.coley.recaf.util.io.ByteSource;
 
 /**
  * Common builder info for {@link FileInfo}.
@@ -20,6 +21,7 @@
 	private PropertyContainer properties = new BasicPropertyContainer();
 	private String name;
 	private byte[] rawContent;
+	private ByteSource lazyContent;
 	protected StringDecodingResult decodingResult;
 
 	public FileInfoBuilder() {
@@ -35,7 +37,10 @@ protected FileInfoBuilder(@Nonnull FileInfo fileInfo) {
 
 	protected FileInfoBuilder(@Nonnull FileInfoBuilder<?> other) {
 		withName(other.getName());
-		withRawContent(other.getRawContent());
+		if (other.getLazyContent() != null)
+			withLazyContent(other.getLazyContent());
+		else
+			withRawContent(other.getRawContent());
 		withProperties(other.getProperties());
 	}
 
@@ -91,10 +96,30 @@ public B withName(@Nonnull String name) {
 	@SuppressWarnings("unchecked")
 	public B withRawContent(@Nonnull byte[] rawContent) {
 		this.rawContent = rawContent;
+		this.lazyContent = null;
 		decodingResult = null; // Clear decoding when content changes
 		return (B) this;
 	}
 
+	/**
+	 * Sets the content to be read on demand from the given source, rather than held by the built file info.
+	 * <br>
+	 * Since the content is not available at build time, no content based type mapping is done.
+	 * For instance, a plain {@link FileInfoBuilder} will not map lazy content to a {@link TextFileInfo}.
+	 *
+	 * @param lazyContent
+	 * 		Source to read the content from when it is requested.
+	 *
+	 * @return Self.
+	 */
+	@SuppressWarnings("unchecked")
+	public B withLazyContent(@Nonnull ByteSource lazyContent) {
+		this.lazyContent = lazyContent;
+		this.rawContent = null;
+		decodingResult = null;
+		return (B) this;
+	}
+
 	public PropertyContainer getProperties() {
 		return properties;
 	}
@@ -107,6 +132,13 @@ public byte[] getRawContent() {
 		return rawContent;
 	}
 
+	/**
+	 * @return Source to read content from on demand, or {@code null} if the content is held directly.
+	 */
+	public ByteSource getLazyContent() {
+		return lazyContent;
+	}
+
 	/**
 	 * @return Computed string decoding result.
 	 */
@@ -120,6 +152,7 @@ protected StringDecodingResult getDecodingResult() {
 	@Nonnull
 	public BasicFileInfo build() {
 		if (name == null) throw new IllegalArgumentException("Name is required");
+		if (lazyContent != null) return new BasicFileInfo(this);
 		if (rawContent == null) throw new IllegalArgumentException("Content is required");
 		if (getDecodingResult().couldDecode())
 			return new TextFileInfoBuilder(this, getDecodingResult()).build();
@@ -29,6 +29,8 @@
 import software.coley.recaf.info.member.LocalVariable;
 import software.coley.recaf.info.member.MethodMember;
 import software.coley.recaf.info.properties.builtin.UnknownAttributesProperty;
+import software.coley.recaf.info.storage.BytecodeStorage;
+import software.coley.recaf.info.storage.HeapBytecodeStorage;
 import software.coley.recaf.util.MultiMap;
 
 import java.util.ArrayList;
@@ -51,6 +53,7 @@
  */
 public class JvmClassInfoBuilder extends AbstractClassInfoBuilder<JvmClassInfoBuilder> {
 	private byte[] bytecode;
+	private BytecodeStorage bytecodeStorage = HeapBytecodeStorage.INSTANCE;
 	private int version = JvmClassInfo.BASE_VERSION + 8; // Java 8
 	private boolean skipValidationChecks = true;
 	@Nullable
@@ -73,6 +76,8 @@ public JvmClassInfoBuilder(@Nonnull JvmClassInfo classInfo) {
 		super(classInfo);
 		withBytecode(classInfo.getBytecode());
 		withVersion(classInfo.getVersion());
+		if (classInfo instanceof BasicJvmClassInfo basicClassInfo)
+			withBytecodeStorage(basicClassInfo.getBytecodeStorage());
 	}
 
 	/**
@@ -246,6 +251,20 @@ public JvmClassInfoBuilder withBytecode(byte[] bytecode) {
 		return this;
 	}
 
+	/**
+	 * The default value is {@link HeapBytecodeStorage}, which holds the bytecode as-is.
+	 *
+	 * @param bytecodeStorage
+	 * 		Storage to hold the bytecode of the built class in.
+	 *
+	 * @return {@code JvmClassInfoBuilder}
+	 */
+	@Nonnull
+	public JvmClassInfoBuilder withBytecodeStorage(@Nonnull BytecodeStorage bytecodeStorage) {
+		this.bytecodeStorage = bytecodeStorage;
+		return this;
+	}
+
 	@Nonnull
 	public JvmClassInfoBuilder withVersion(int version) {
 		this.version = version;
@@ -271,6 +290,11 @@ public byte[] getBytecode() {
 		return bytecode;
 	}
 
+	@Nonnull
+	public BytecodeStorage getBytecodeStorage() {
+		return bytecodeStorage;
+	}
+
 	public int getVersion() {
 		return version;
 	}
@@ -0,0 +1,63 @@
+package software.coley.recaf.info.properties.builtin;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.properties.BasicProperty;
+import software.coley.recaf.info.properties.Property;
+import software.coley.recaf.info.properties.PropertyContainer;
+import software.coley.recaf.info.storage.BytecodeStorageType;
+import software.coley.recaf.services.workspace.processors.BytecodeStorageProcessor;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+
+/**
+ * Built in property to select how the bytecode of classes in a {@link WorkspaceResource} is stored.
+ * Takes priority over the storage configured for all supporting resources.
+ *
+ * @author Matt Coley
+ * @see BytecodeStorageProcessor
+ */
+public class BytecodeStorageProperty extends BasicProperty<BytecodeStorageType> {
+	public static final String KEY = "bytecode-storage";
+
+	/**
+	 * @param value
+	 * 		Storage type to hold bytecode with.
+	 */
+	public BytecodeStorageProperty(@Nonnull BytecodeStorageType value) {
+		super(KEY, value);
+	}
+
+	/**
+	 * @param container
+	 * 		Resource or other property container.
+	 *
+	 * @return Storage type to hold bytecode with.
+	 * {@code null} when no property value is assigned.
+	 */
+	@Nullable
+	public static BytecodeStorageType get(@Nonnull PropertyContainer container) {
+		Property<BytecodeStorageType> property = container.getProperty(KEY);
+		if (property != null) {
+			return property.value();
+		}
+		return null;
+	}
+
+	/**
+	 * @param container
+	 * 		Resource or other property container.
+	 * @param value
+	 * 		Storage type to hold bytecode with.
+	 */
+	public static void set(@Nonnull PropertyContainer container, @Nonnull BytecodeStorageType value) {
+		container.setProperty(new BytecodeStorageProperty(value));
+	}
+
+	/**
+	 * @param container
+	 * 		Resource or other property container.
+	 */
+	public static void remove(@Nonnull PropertyContainer container) {
+		container.removeProperty(KEY);
+	}
+}
@@ -0,0 +1,74 @@
+package software.coley.recaf.info.properties.builtin;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.ClassInfo;
+import software.coley.recaf.info.properties.BasicProperty;
+import software.coley.recaf.services.decompile.Decompiler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Built in property recording which decompiler yielded the result of a decompiler race for a class.
+ * When the preferred decompiler loses a race for a class, later requests can skip straight to the winner.
+ *
+ * @author Matt Coley
+ */
+public class DecompileRaceWinnerProperty extends BasicProperty<Map<String, String>> {
+	public static final String KEY = "decompile-race-winner";
+
+	/**
+	 * New empty record of winners.
+	 */
+	public DecompileRaceWinnerProperty() {
+		super(KEY, new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * @param classInfo
+	 * 		Class that was raced.
+	 * @param preferred
+	 * 		Preferred decompiler of the race.
+	 * @param winner
+	 * 		Decompiler which yielded the result.
+	 */
+	public static void set(@Nonnull ClassInfo classInfo, @Nonnull Decompiler preferred, @Nonnull Decompiler winner) {
+		Map<String, String> winners = classInfo.getPropertyValueOrNull(KEY);
+		if (winners == null) {
+			DecompileRaceWinnerProperty property = new DecompileRaceWinnerProperty();
+			classInfo.setProperty(property);
+			winners = property.value();
+		}
+		winners.put(preferred.getName(), winner.getName());
+	}
+
+	/**
+	 * @param classInfo
+	 * 		Class that was raced.
+	 * @param preferred
+	 * 		Preferred decompiler of the race.
+	 *
+	 * @return Name of the decompiler which won the race, or {@code null} if no race has been recorded.
+	 */
+	@Nullable
+	public static String get(@Nonnull ClassInfo classInfo, @Nonnull Decompiler preferred) {
+		Map<String, String> winners = classInfo.getPropertyValueOrNull(KEY);
+		if (winners == null) return null;
+		return winners.get(preferred.getName());
+	}
+
+	/**
+	 * @param info
+	 * 		Info instance.
+	 */
+	public static void remove(@Nonnull ClassInfo info) {
+		info.removeProperty(KEY);
+	}
+
+	@Override
+	public boolean persistent() {
+		// Changes to the class may change which decompiler handles it best.
+		return false;
+	}
+}
@@ -0,0 +1,27 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+import software.coley.recaf.info.JvmClassInfo;
+
+/**
+ * Backend for holding the bytecode of {@link JvmClassInfo} instances.
+ *
+ * @author Matt Coley
+ * @see BytecodeStorageType
+ */
+public interface BytecodeStorage {
+	/**
+	 * @param bytecode
+	 * 		Bytecode to store.
+	 *
+	 * @return Handle to the stored bytecode.
+	 */
+	@Nonnull
+	StoredBytecode store(@Nonnull byte[] bytecode);
+
+	/**
+	 * @return Type of storage.
+	 */
+	@Nonnull
+	BytecodeStorageType getType();
+}
@@ -0,0 +1,40 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Available {@link BytecodeStorage} implementations.
+ *
+ * @author Matt Coley
+ */
+public enum BytecodeStorageType {
+	/**
+	 * Bytecode is held as-is on the heap.
+	 */
+	HEAP,
+	/**
+	 * Bytecode is compressed and held on the heap.
+	 */
+	COMPRESSED,
+	/**
+	 * Bytecode is held in native memory, outside the heap.
+	 */
+	OFF_HEAP,
+	/**
+	 * Bytecode is written to a temporary file on disk.
+	 */
+	DISK;
+
+	/**
+	 * @return New storage of this type.
+	 */
+	@Nonnull
+	public BytecodeStorage newStorage() {
+		return switch (this) {
+			case HEAP -> HeapBytecodeStorage.INSTANCE;
+			case COMPRESSED -> CompressedBytecodeStorage.INSTANCE;
+			case OFF_HEAP -> new OffHeapBytecodeStorage();
+			case DISK -> new DiskBytecodeStorage();
+		};
+	}
+}
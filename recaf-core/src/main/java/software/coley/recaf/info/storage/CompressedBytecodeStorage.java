@@ -0,0 +1,76 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage which holds compressed bytecode on the heap, decompressing it when requested.
+ *
+ * @author Matt Coley
+ */
+public final class CompressedBytecodeStorage implements BytecodeStorage {
+	public static final CompressedBytecodeStorage INSTANCE = new CompressedBytecodeStorage();
+
+	private CompressedBytecodeStorage() {}
+
+	@Nonnull
+	@Override
+	public StoredBytecode store(@Nonnull byte[] bytecode) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+		try {
+			deflater.setInput(bytecode);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytecode.length / 2));
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				out.write(buffer, 0, count);
+			}
+			return new Stored(out.toByteArray(), bytecode.length);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Nonnull
+	@Override
+	public BytecodeStorageType getType() {
+		return BytecodeStorageType.COMPRESSED;
+	}
+
+	private record Stored(@Nonnull byte[] compressed, int length) implements StoredBytecode {
+		@Nonnull
+		@Override
+		public byte[] get() {
+			Inflater inflater = new Inflater(true);
+			try {
+				inflater.setInput(compressed);
+				byte[] bytecode = new byte[length];
+				int offset = 0;
+				while (offset < length && !inflater.finished()) {
+					int count = inflater.inflate(bytecode, offset, length - offset);
+					if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+						break;
+					offset += count;
+				}
+				if (offset != length)
+					throw new IllegalStateException("Compressed bytecode was truncated");
+				return bytecode;
+			} catch (DataFormatException ex) {
+				throw new IllegalStateException("Compressed bytecode is corrupt", ex);
+			} finally {
+				inflater.end();
+			}
+		}
+
+		@Nonnull
+		@Override
+		public BytecodeStorage getStorage() {
+			return INSTANCE;
+		}
+	}
+}
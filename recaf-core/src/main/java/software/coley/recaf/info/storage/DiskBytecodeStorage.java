@@ -0,0 +1,107 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Storage which spills bytecode to a temporary file, reading it back when requested.
+ * <br>
+ * The file is deleted once the storage and all bytecode stored in it are no longer reachable,
+ * or when the application exits.
+ *
+ * @author Matt Coley
+ */
+public final class DiskBytecodeStorage implements BytecodeStorage {
+	private static final Cleaner CLEANER = Cleaner.create();
+	private final FileChannel channel;
+	private long size;
+
+	/**
+	 * New storage backed by a new temporary file.
+	 */
+	public DiskBytecodeStorage() {
+		try {
+			Path path = Files.createTempFile("recaf-bytecode", ".bin");
+			path.toFile().deleteOnExit();
+			channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.DELETE_ON_CLOSE);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to create bytecode storage file", ex);
+		}
+
+		// Capture only the channel so the cleaner action does not keep this storage reachable.
+		FileChannel channel = this.channel;
+		CLEANER.register(this, () -> {
+			try {
+				channel.close();
+			} catch (IOException ignored) {
+				// Best effort, the file will also be deleted on exit.
+			}
+		});
+	}
+
+	@Nonnull
+	@Override
+	public StoredBytecode store(@Nonnull byte[] bytecode) {
+		long position;
+		synchronized (this) {
+			position = size;
+			size += bytecode.length;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(bytecode);
+			long offset = position;
+			while (buffer.hasRemaining())
+				offset += channel.write(buffer, offset);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to write bytecode to storage file", ex);
+		}
+		return new Stored(this, position, bytecode.length);
+	}
+
+	@Nonnull
+	@Override
+	public BytecodeStorageType getType() {
+		return BytecodeStorageType.DISK;
+	}
+
+	@Nonnull
+	private byte[] read(long position, int length) {
+		byte[] bytecode = new byte[length];
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(bytecode);
+			long offset = position;
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, offset);
+				if (read < 0)
+					throw new IOException("Unexpected end of storage file");
+				offset += read;
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to read bytecode from storage file", ex);
+		}
+		return bytecode;
+	}
+
+	private record Stored(@Nonnull DiskBytecodeStorage storage, long position, int length) implements StoredBytecode {
+		@Nonnull
+		@Override
+		public byte[] get() {
+			return storage.read(position, length);
+		}
+
+		@Nonnull
+		@Override
+		public BytecodeStorage getStorage() {
+			return storage;
+		}
+	}
+}
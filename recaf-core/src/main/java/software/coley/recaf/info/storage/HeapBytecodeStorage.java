@@ -0,0 +1,45 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Storage which holds bytecode as-is on the heap.
+ *
+ * @author Matt Coley
+ */
+public final class HeapBytecodeStorage implements BytecodeStorage {
+	public static final HeapBytecodeStorage INSTANCE = new HeapBytecodeStorage();
+
+	private HeapBytecodeStorage() {}
+
+	@Nonnull
+	@Override
+	public StoredBytecode store(@Nonnull byte[] bytecode) {
+		return new Stored(bytecode);
+	}
+
+	@Nonnull
+	@Override
+	public BytecodeStorageType getType() {
+		return BytecodeStorageType.HEAP;
+	}
+
+	private record Stored(@Nonnull byte[] bytecode) implements StoredBytecode {
+		@Nonnull
+		@Override
+		public byte[] get() {
+			return bytecode;
+		}
+
+		@Override
+		public int length() {
+			return bytecode.length;
+		}
+
+		@Nonnull
+		@Override
+		public BytecodeStorage getStorage() {
+			return INSTANCE;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Storage which holds bytecode in native memory, outside the heap.
+ * <br>
+ * Memory is allocated from an automatic arena, so it is released once the storage and all
+ * bytecode stored in it are no longer reachable.
+ *
+ * @author Matt Coley
+ */
+public final class OffHeapBytecodeStorage implements BytecodeStorage {
+	private final Arena arena = Arena.ofAuto();
+
+	@Nonnull
+	@Override
+	public StoredBytecode store(@Nonnull byte[] bytecode) {
+		MemorySegment segment = arena.allocate(Math.max(1, bytecode.length));
+		MemorySegment.copy(bytecode, 0, segment, ValueLayout.JAVA_BYTE, 0, bytecode.length);
+		return new Stored(this, segment, bytecode.length);
+	}
+
+	@Nonnull
+	@Override
+	public BytecodeStorageType getType() {
+		return BytecodeStorageType.OFF_HEAP;
+	}
+
+	private record Stored(@Nonnull OffHeapBytecodeStorage storage, @Nonnull MemorySegment segment,
+	                      int length) implements StoredBytecode {
+		@Nonnull
+		@Override
+		public byte[] get() {
+			byte[] bytecode = new byte[length];
+			MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, 0, bytecode, 0, length);
+			return bytecode;
+		}
+
+		@Nonnull
+		@Override
+		public BytecodeStorage getStorage() {
+			return storage;
+		}
+	}
+}
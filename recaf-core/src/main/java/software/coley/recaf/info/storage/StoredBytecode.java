@@ -0,0 +1,28 @@
+package software.coley.recaf.info.storage;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Handle to bytecode held by a {@link BytecodeStorage}.
+ *
+ * @author Matt Coley
+ */
+public interface StoredBytecode {
+	/**
+	 * @return Bytecode content. Storage implementations which do not hold the bytecode directly on the heap
+	 * will yield a new copy for each call.
+	 */
+	@Nonnull
+	byte[] get();
+
+	/**
+	 * @return Length of the bytecode content.
+	 */
+	int length();
+
+	/**
+	 * @return Storage holding the bytecode.
+	 */
+	@Nonnull
+	BytecodeStorage getStorage();
+}
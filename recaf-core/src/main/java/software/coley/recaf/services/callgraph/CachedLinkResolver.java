@@ -10,8 +10,10 @@
 import software.coley.recaf.info.member.MethodMember;
 import software.coley.recaf.util.MemoizedFunctions;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 
 /**
  * Memoized implementation of {@link LinkResolver}.
@@ -20,64 +22,75 @@
  */
 public class CachedLinkResolver implements LinkResolver<JvmClassInfo, MethodMember, FieldMember> {
 	private final LinkResolver<JvmClassInfo, MethodMember, FieldMember> backedResolver = LinkResolver.jvm();
-	private final Function<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
-			virtualMethodResolver = MemoizedFunctions.memoize(
-			c -> MemoizedFunctions.memoize((name, descriptor) -> backedResolver.resolveVirtualMethod(c, name, descriptor))
-	);
-	private final Function<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
-			staticMethodResolver = MemoizedFunctions.memoize(
-			c -> MemoizedFunctions.memoize((name, descriptor) -> backedResolver.resolveStaticMethod(c, name, descriptor))
-	);
-	private final Function<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
-			interfaceMethodResolver = MemoizedFunctions.memoize(
-			c -> MemoizedFunctions.memoize((name, descriptor) -> backedResolver.resolveInterfaceMethod(c, name, descriptor))
-	);
-	private final Function<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, FieldMember>>>>
-			virtualFieldResolver = MemoizedFunctions.memoize(
-			c -> MemoizedFunctions.memoize((name, descriptor) -> backedResolver.resolveVirtualField(c, name, descriptor))
-	);
-	private final Function<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, FieldMember>>>>
-			staticFieldResolver = MemoizedFunctions.memoize(
-			c -> MemoizedFunctions.memoize((name, descriptor) -> backedResolver.resolveStaticField(c, name, descriptor))
-	);
-	private final Function<dev.xdark.jlinker.ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
-			specialMethodResolver = MemoizedFunctions.memoize(
-			c -> MemoizedFunctions.memoize((name, descriptor) -> backedResolver.resolveSpecialMethod(c, name, descriptor))
-	);
+	private final Map<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
+			virtualMethodResolver = new ConcurrentHashMap<>();
+	private final Map<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
+			staticMethodResolver = new ConcurrentHashMap<>();
+	private final Map<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
+			interfaceMethodResolver = new ConcurrentHashMap<>();
+	private final Map<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, FieldMember>>>>
+			virtualFieldResolver = new ConcurrentHashMap<>();
+	private final Map<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, FieldMember>>>>
+			staticFieldResolver = new ConcurrentHashMap<>();
+	private final Map<ClassInfo<JvmClassInfo>, BiFunction<String, String, Result<Resolution<JvmClassInfo, MethodMember>>>>
+			specialMethodResolver = new ConcurrentHashMap<>();
+
+	/**
+	 * Drops cached results for the given owner classes.
+	 *
+	 * @param owners
+	 * 		Classes to drop cached resolution results of.
+	 */
+	public void evict(@Nonnull Collection<? extends ClassInfo<JvmClassInfo>> owners) {
+		for (ClassInfo<JvmClassInfo> owner : owners) {
+			virtualMethodResolver.remove(owner);
+			staticMethodResolver.remove(owner);
+			interfaceMethodResolver.remove(owner);
+			virtualFieldResolver.remove(owner);
+			staticFieldResolver.remove(owner);
+			specialMethodResolver.remove(owner);
+		}
+	}
 
 	@Override
 	public Result<Resolution<JvmClassInfo, MethodMember>> resolveStaticMethod(@Nonnull ClassInfo<JvmClassInfo> owner,
 																			  @Nonnull String name, @Nonnull String descriptor, boolean itf) {
-		return staticMethodResolver.apply(owner).apply(name, descriptor);
+		return staticMethodResolver.computeIfAbsent(owner, c -> MemoizedFunctions.memoize((n, d) -> backedResolver.resolveStaticMethod(c, n, d)))
+				.apply(name, descriptor);
 	}
 
 	@Override
 	public Result<Resolution<JvmClassInfo, MethodMember>> resolveSpecialMethod(@Nonnull ClassInfo<JvmClassInfo> owner,
 																			   @Nonnull String name, @Nonnull String descriptor, boolean itf) {
-		return specialMethodResolver.apply(owner).apply(name, descriptor);
+		return specialMethodResolver.computeIfAbsent(owner, c -> MemoizedFunctions.memoize((n, d) -> backedResolver.resolveSpecialMethod(c, n, d)))
+				.apply(name, descriptor);
 	}
 
 	@Override
 	public Result<Resolution<JvmClassInfo, MethodMember>> resolveVirtualMethod(@Nonnull ClassInfo<JvmClassInfo> owner,
 																			   @Nonnull String name, @Nonnull String descriptor) {
-		return virtualMethodResolver.apply(owner).apply(name, descriptor);
+		return virtualMethodResolver.computeIfAbsent(owner, c -> MemoizedFunctions.memoize((n, d) -> backedResolver.resolveVirtualMethod(c, n, d)))
+				.apply(name, descriptor);
 	}
 
 	@Override
 	public Result<Resolution<JvmClassInfo, MethodMember>> resolveInterfaceMethod(@Nonnull ClassInfo<JvmClassInfo> owner,
 																				 @Nonnull String name, @Nonnull String descriptor) {
-		return interfaceMethodResolver.apply(owner).apply(name, descriptor);
+		return interfaceMethodResolver.computeIfAbsent(owner, c -> MemoizedFunctions.memoize((n, d) -> backedResolver.resolveInterfaceMethod(c, n, d)))
+				.apply(name, descriptor);
 	}
 
 	@Override
 	public Result<Resolution<JvmClassInfo, FieldMember>> resolveStaticField(@Nonnull ClassInfo<JvmClassInfo> owner,
 																			@Nonnull String name, @Nonnull String descriptor) {
-		return staticFieldResolver.apply(owner).apply(name, descriptor);
+		return staticFieldResolver.computeIfAbsent(owner, c -> MemoizedFunctions.memoize((n, d) -> backedResolver.resolveStaticField(c, n, d)))
+				.apply(name, descriptor);
 	}
 
 	@Override
 	public Result<Resolution<JvmClassInfo, FieldMember>> resolveVirtualField(@Nonnull ClassInfo<JvmClassInfo> owner,
 																			 @Nonnull String name, @Nonnull String descriptor) {
-		return virtualFieldResolver.apply(owner).apply(name, descriptor);
+		return virtualFieldResolver.computeIfAbsent(owner, c -> MemoizedFunctions.memoize((n, d) -> backedResolver.resolveVirtualField(c, n, d)))
+				.apply(name, descriptor);
 	}
 }
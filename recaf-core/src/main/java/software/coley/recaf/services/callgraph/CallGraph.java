@@ -20,6 +20,7 @@
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.member.MethodMember;
 import software.coley.recaf.util.MultiMap;
+import software.coley.recaf.util.threading.ComputeLane;
 import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.WorkspaceModificationListener;
@@ -27,10 +28,14 @@
 import software.coley.recaf.workspace.model.resource.ResourceJvmClassListener;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -39,6 +44,11 @@
 
 /**
  * Represents method calls as a navigable graph.
+ * <p>
+ * The graph is populated in parallel, with classes of each resource split into batches across the
+ * {@link ComputeLane#CPU CPU lane}. Readiness is published per resource via {@link #isReady(WorkspaceResource)},
+ * and for the workspace as a whole via {@link #isReady()}. Once populated, updates to classes only re-link the
+ * outgoing calls of the updated class. Incoming calls are moved over to the matching methods of the updated class.
  *
  * @author Amejonah
  * @author Matt Coley
@@ -46,10 +56,12 @@
  */
 public class CallGraph implements WorkspaceModificationListener, ResourceJvmClassListener {
 	private static final DebuggingLogger logger = Logging.get(CallGraph.class);
-	private final ExecutorService threadPool = ThreadPoolFactory.newFixedThreadPool("call-graph", 1, true);
-	private final CachedLinkResolver resolver = new CachedLinkResolver();
-	private final Map<JvmClassInfo, LinkedClass> classToLinkerType = Collections.synchronizedMap(new IdentityHashMap<>());
-	private final Map<JvmClassInfo, ClassMethodsContainer> classToMethodsContainer = Collections.synchronizedMap(new IdentityHashMap<>());
+	private static final int MIN_BATCH_SIZE = 64;
+	private static final int BATCHES_PER_CORE = 4;
+	private final ExecutorService threadPool = ThreadPoolFactory.newFixedThreadPool("call-graph", ComputeLane.BACKGROUND);
+	private final Map<ClassKey, LinkedClass> classToLinkerType = new ConcurrentHashMap<>();
+	private final Map<ClassKey, ClassMethodsContainer> classToMethodsContainer = new ConcurrentHashMap<>();
+	private final Map<WorkspaceResource, ObservableBoolean> resourceReadiness = Collections.synchronizedMap(new IdentityHashMap<>());
 	private final MultiMap<String, MethodRef, Set<MethodRef>> unresolvedDeclarations = MultiMap.from(
 			new ConcurrentHashMap<>(),
 			ConcurrentHashMap::newKeySet);
@@ -57,6 +69,8 @@ public class CallGraph implements WorkspaceModificationListener, ResourceJvmClas
 			new ConcurrentHashMap<>(),
 			ConcurrentHashMap::newKeySet);
 	private final ObservableBoolean isReady = new ObservableBoolean(false);
+	private final Map<String, Set<LinkedClass>> linkedChildren = new ConcurrentHashMap<>();
+	private final CachedLinkResolver resolver = new CachedLinkResolver();
 	private final Workspace workspace;
 	private final ClassLookup lookup;
 	private boolean initialized;
@@ -86,6 +100,18 @@ public ObservableBoolean isReady() {
 		return isReady;
 	}
 
+	/**
+	 * @param resource
+	 * 		Resource in the workspace.
+	 *
+	 * @return Observable boolean tracking the state of the call-graph's parsing of classes in the given resource,
+	 * including classes of its embedded resources.
+	 */
+	@Nonnull
+	public ObservableBoolean isReady(@Nonnull WorkspaceResource resource) {
+		return resourceReadiness.computeIfAbsent(resource, r -> new ObservableBoolean(false));
+	}
+
 	/**
 	 * @param classInfo
 	 * 		Class to wrap.
@@ -94,7 +120,7 @@ public ObservableBoolean isReady() {
 	 */
 	@Nonnull
 	public ClassMethodsContainer getClassMethodsContainer(@Nonnull JvmClassInfo classInfo) {
-		return classToMethodsContainer.computeIfAbsent(classInfo, c -> new ClassMethodsContainer(classInfo));
+		return classToMethodsContainer.computeIfAbsent(new ClassKey(classInfo), c -> new ClassMethodsContainer(classInfo));
 	}
 
 	/**
@@ -119,7 +145,30 @@ public MethodVertex getVertex(@Nonnull MethodMember method) {
 	 */
 	@Nonnull
 	private LinkedClass linked(@Nonnull JvmClassInfo classInfo) {
-		return classToLinkerType.computeIfAbsent(classInfo, c -> new LinkedClass(lookup, c));
+		return classToLinkerType.computeIfAbsent(new ClassKey(classInfo), c -> new LinkedClass(classInfo, this::linkParent));
+	}
+
+	/**
+	 * Records the child as depending on the parent type, even if the parent type is missing, so that the linking
+	 * results of the child can be dropped when the parent type changes or appears.
+	 *
+	 * @param child
+	 * 		Class looking up one of its parent types.
+	 * @param parentName
+	 * 		Name of the parent type.
+	 *
+	 * @return JLinker wrapper for the parent type, or {@code null} if it could not be found.
+	 */
+	@Nullable
+	private LinkedClass linkParent(@Nonnull LinkedClass child, @Nonnull String parentName) {
+		linkedChildren.compute(parentName, (name, children) -> {
+			if (children == null)
+				children = ConcurrentHashMap.newKeySet();
+			children.add(child);
+			return children;
+		});
+		JvmClassInfo parent = lookup.apply(parentName);
+		return parent == null ? null : linked(parent);
 	}
 
 	/**
@@ -134,15 +183,13 @@ public void initialize() {
 		workspace.addWorkspaceModificationListener(this);
 		workspace.getPrimaryResource().addResourceJvmClassListener(this);
 
-		// Initialize asynchronously, and mark 'isReady' if completed successfully
-		CompletableFuture.runAsync(() -> {
-			for (WorkspaceResource resource : workspace.getAllResources(false)) {
-				resource.jvmAllClassBundleStreamRecursive().forEach(bundle -> {
-					for (JvmClassInfo jvmClass : bundle.values())
-						visit(jvmClass);
-				});
-			}
-		}, threadPool).whenComplete((unused, t) -> {
+		// Initialize asynchronously, and mark 'isReady' if completed successfully.
+		// Resources are submitted in order, so the primary resource's batches are scheduled first.
+		List<WorkspaceResource> resources = workspace.getAllResources(false);
+		CompletableFuture<?>[] resourceFutures = new CompletableFuture[resources.size()];
+		for (int i = 0; i < resources.size(); i++)
+			resourceFutures[i] = visitResource(resources.get(i));
+		CompletableFuture.allOf(resourceFutures).whenComplete((unused, t) -> {
 			if (t == null) {
 				isReady.setValue(true);
 			} else {
@@ -152,6 +199,34 @@ public void initialize() {
 		});
 	}
 
+	/**
+	 * Visits all classes in the given resource, in batches across the {@link #threadPool}.
+	 *
+	 * @param resource
+	 * 		Resource to visit.
+	 *
+	 * @return Future of the visiting completion. Marks the resource's {@link #isReady(WorkspaceResource) readiness}
+	 * when completed successfully.
+	 */
+	@Nonnull
+	private CompletableFuture<Void> visitResource(@Nonnull WorkspaceResource resource) {
+		List<JvmClassInfo> classes = new ArrayList<>();
+		resource.jvmAllClassBundleStreamRecursive().forEach(bundle -> classes.addAll(bundle.values()));
+
+		int batchSize = Math.max(MIN_BATCH_SIZE, classes.size() / (Runtime.getRuntime().availableProcessors() * BATCHES_PER_CORE) + 1);
+		List<CompletableFuture<Void>> batches = new ArrayList<>();
+		for (int start = 0; start < classes.size(); start += batchSize) {
+			List<JvmClassInfo> batch = classes.subList(start, Math.min(classes.size(), start + batchSize));
+			batches.add(CompletableFuture.runAsync(() -> batch.forEach(this::visit), threadPool));
+		}
+		return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).whenComplete((unused, t) -> {
+			if (t == null)
+				isReady(resource).setValue(true);
+			else
+				logger.error("Call graph initialization failed for resource", t);
+		});
+	}
+
 	/**
 	 * Populate {@link MethodVertex} for all methods in {@link JvmClassInfo#getMethods()}.
 	 *
@@ -374,10 +449,7 @@ public Result<Resolution<JvmClassInfo, MethodMember>> resolve(int opcode, @Nonnu
 	@Override
 	public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
 		// Visit all library classes
-		library.jvmAllClassBundleStreamRecursive().forEach(bundle -> {
-			for (JvmClassInfo jvmClass : bundle.values())
-				onNewClass(library, bundle, jvmClass);
-		});
+		visitResource(library);
 	}
 
 	@Override
@@ -387,17 +459,53 @@ public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceReso
 			for (JvmClassInfo jvmClass : bundle.values())
 				onRemoveClass(library, bundle, jvmClass);
 		});
+		resourceReadiness.remove(library);
 	}
 
 	@Override
 	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
+		// Classes which failed to find this class as a parent type can now be linked to it.
+		evictLinking(cls);
 		visit(cls);
 	}
 
 	@Override
 	public void onUpdateClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo oldCls, @Nonnull JvmClassInfo newCls) {
-		onRemoveClass(resource, bundle, oldCls);
-		onNewClass(resource, bundle, newCls);
+		// Resolved hierarchies and members may refer to the old class, so linking caches depending on it must be dropped.
+		evictLinking(oldCls);
+
+		// Unresolved calls made from the old class will be re-recorded when visiting the new class.
+		for (Map.Entry<String, Set<CallingContext>> entry : unresolvedReferences.entrySet())
+			entry.getValue().removeIf(context -> context.callingClass() == oldCls);
+
+		ClassMethodsContainer oldContainer = classToMethodsContainer.remove(new ClassKey(oldCls));
+		if (oldContainer != null) {
+			ClassMethodsContainer newContainer = getClassMethodsContainer(newCls);
+			for (MethodVertex vertex : oldContainer.getVertices()) {
+				if (!(vertex instanceof MutableMethodVertex oldVertex)) {
+					logger.warn("Could not relink reference: {}", vertex.getMethod());
+					continue;
+				}
+
+				// Drop outgoing calls, they are re-linked when visiting the new class.
+				oldVertex.pruneCalls();
+
+				// Move incoming calls over to the matching method in the new class.
+				// If the method no longer exists, track it as an unresolved declaration.
+				MethodRef ref = oldVertex.getMethod();
+				MutableMethodVertex newVertex = (MutableMethodVertex) newContainer.getVertex(ref.name(), ref.desc());
+				if (newVertex == null) {
+					if (!oldVertex.getCallers().isEmpty())
+						unresolvedDeclarations.put(newCls.getName(), ref);
+					oldVertex.pruneCallers();
+				} else {
+					oldVertex.moveCallersTo(newVertex);
+				}
+			}
+		}
+
+		// Link outgoing calls of the new class.
+		visit(newCls);
 	}
 
 	@Override
@@ -416,8 +524,59 @@ public void onRemoveClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClass
 		}
 
 		// Remove from maps
-		classToLinkerType.remove(cls);
-		classToMethodsContainer.remove(cls);
+		evictLinking(cls);
+		classToMethodsContainer.remove(new ClassKey(cls));
+	}
+
+	/**
+	 * Drops cached linking results of the given class and of classes that have looked it up as a parent type,
+	 * directly or through other parent types, so that future call resolution uses the current state of the class.
+	 * Only the subtree of child types is visited, other linking results are kept.
+	 *
+	 * @param cls
+	 * 		Class to drop linking results of.
+	 */
+	private void evictLinking(@Nonnull JvmClassInfo cls) {
+		List<LinkedClass> evicted = new ArrayList<>();
+		LinkedClass linked = classToLinkerType.remove(new ClassKey(cls));
+		if (linked != null)
+			evicted.add(linked);
+
+		Set<String> visited = new HashSet<>();
+		Deque<String> queue = new ArrayDeque<>();
+		queue.add(cls.getName());
+		while (!queue.isEmpty()) {
+			String name = queue.poll();
+			if (!visited.add(name))
+				continue;
+			Set<LinkedClass> children = linkedChildren.remove(name);
+			if (children == null)
+				continue;
+			for (LinkedClass child : children) {
+				JvmClassInfo childInfo = child.innerValue();
+				if (classToLinkerType.remove(new ClassKey(childInfo), child))
+					evicted.add(child);
+				queue.add(childInfo.getName());
+			}
+		}
+
+		// Evicted classes will not be looked up through their other parent types anymore.
+		for (LinkedClass child : evicted) {
+			JvmClassInfo childInfo = child.innerValue();
+			String superName = childInfo.getSuperName();
+			if (superName != null)
+				removeLinkedChild(superName, child);
+			for (String itf : childInfo.getInterfaces())
+				removeLinkedChild(itf, child);
+		}
+		resolver.evict(evicted);
+	}
+
+	private void removeLinkedChild(@Nonnull String parentName, @Nonnull LinkedClass child) {
+		linkedChildren.computeIfPresent(parentName, (name, children) -> {
+			children.remove(child);
+			return children.isEmpty() ? null : children;
+		});
 	}
 
 	/**
@@ -429,6 +588,25 @@ MultiMap<String, MethodRef, Set<MethodRef>> getUnresolvedDeclarations() {
 		return unresolvedDeclarations;
 	}
 
+	/**
+	 * Key for classes in maps, which compares by identity. The {@link JvmClassInfo#equals(Object)} implementation
+	 * compares class contents, which we do not want for tracking the graph model of individual class instances.
+	 *
+	 * @param info
+	 * 		Wrapped class.
+	 */
+	private record ClassKey(@Nonnull JvmClassInfo info) {
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof ClassKey other && info == other.info;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(info);
+		}
+	}
+
 	/**
 	 * Models the calling context to some method.
 	 *
@@ -464,8 +642,8 @@ public int hashCode() {
 	 * Mutable impl of {@link MethodVertex}.
 	 */
 	static class MutableMethodVertex implements MethodVertex {
-		private final Set<MethodVertex> callers = Collections.synchronizedSet(new HashSet<>());
-		private final Set<MethodVertex> calls = Collections.synchronizedSet(new HashSet<>());
+		private final Set<MethodVertex> callers = ConcurrentHashMap.newKeySet();
+		private final Set<MethodVertex> calls = ConcurrentHashMap.newKeySet();
 		private final MethodRef method;
 		private final MethodMember resolvedMethod;
 
@@ -478,19 +656,62 @@ static class MutableMethodVertex implements MethodVertex {
 		 * Removes this method vertex from connected vertices.
 		 */
 		private void prune() {
-			// Remove this vertex as a caller from the methods we call
+			pruneCalls();
+			pruneCallers();
+		}
+
+		/**
+		 * Removes this vertex as a caller from the methods it calls.
+		 */
+		private void pruneCalls() {
 			for (MethodVertex out : getCalls()) {
 				if (out instanceof MutableMethodVertex) {
-					out.getCallers().remove(this);
+					removeIdentity(out.getCallers(), this);
+				}
+			}
+			calls.clear();
+		}
+
+		/**
+		 * Removes this vertex as a destination from methods that call it.
+		 */
+		private void pruneCallers() {
+			for (MethodVertex in : getCallers()) {
+				if (in instanceof MutableMethodVertex) {
+					removeIdentity(in.getCalls(), this);
 				}
 			}
+			callers.clear();
+		}
 
-			// Remove this vertex as a destination from methods that call us
+		/**
+		 * Moves callers of this vertex to the given vertex.
+		 *
+		 * @param replacement
+		 * 		Vertex to replace this one as the call destination of our callers.
+		 */
+		private void moveCallersTo(@Nonnull MutableMethodVertex replacement) {
 			for (MethodVertex in : getCallers()) {
 				if (in instanceof MutableMethodVertex) {
-					in.getCalls().remove(this);
+					removeIdentity(in.getCalls(), this);
+					in.getCalls().add(replacement);
+					replacement.getCallers().add(in);
 				}
 			}
+			callers.clear();
+		}
+
+		/**
+		 * Vertex equality is based on the method reference, which is shared between the old and new state of an
+		 * updated class. This removes the given vertex instance without removing an equal vertex of the other state.
+		 *
+		 * @param vertices
+		 * 		Collection to remove from.
+		 * @param vertex
+		 * 		Vertex instance to remove.
+		 */
+		private static void removeIdentity(@Nonnull Collection<MethodVertex> vertices, @Nonnull MethodVertex vertex) {
+			vertices.removeIf(v -> v == vertex);
 		}
 
 		@Nonnull
@@ -6,9 +6,8 @@
 import software.coley.recaf.info.member.MethodMember;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Representation of a {@link JvmClassInfo} for {@link CallGraph}.
@@ -18,7 +17,7 @@
  * @author Matt Coley
  */
 public class ClassMethodsContainer {
-	private final Map<MethodMember, MethodVertex> methodVertices = Collections.synchronizedMap(new IdentityHashMap<>());
+	private final Map<String, MethodVertex> methodVertices = new ConcurrentHashMap<>();
 	private final JvmClassInfo jvmClass;
 
 	/**
@@ -74,7 +73,7 @@ public MethodVertex getVertex(@Nonnull String name, @Nonnull String descriptor)
 	public MethodVertex getVertex(@Nonnull MethodMember member) throws IllegalArgumentException {
 		if (member.getDeclaringClass() != jvmClass)
 			throw new IllegalArgumentException("Member does not belong to class from this vertex");
-		return methodVertices.computeIfAbsent(member, m -> new CallGraph.MutableMethodVertex(
+		return methodVertices.computeIfAbsent(member.getName() + member.getDescriptor(), k -> new CallGraph.MutableMethodVertex(
 				new MethodRef(jvmClass.getName(), member.getName(), member.getDescriptor()),
 				member)
 		);
@@ -30,16 +30,33 @@ public class LinkedClass implements ClassInfo<JvmClassInfo> {
 	private final BiFunction<String, String, MemberInfo<FieldMember>> fieldLookup;
 	private final BiFunction<String, String, MemberInfo<MethodMember>> methodLookup;
 
+	/**
+	 * @param lookup
+	 * 		Lookup for parent types, which are each wrapped in a new instance.
+	 * @param info
+	 * 		Class to wrap.
+	 */
 	public LinkedClass(@Nonnull ClassLookup lookup, @Nonnull JvmClassInfo info) {
+		this(info, (child, parentName) -> {
+			JvmClassInfo parent = lookup.apply(parentName);
+			return parent == null ? null : new LinkedClass(lookup, parent);
+		});
+	}
+
+	/**
+	 * @param info
+	 * 		Class to wrap.
+	 * @param parentLinker
+	 * 		Provider of wrappers for parent types. Each parent type is only requested once, even if it is missing.
+	 */
+	public LinkedClass(@Nonnull JvmClassInfo info, @Nonnull ParentLinker parentLinker) {
 		this.info = info;
 
 		superClassLookup = MemoizedFunctions.memoize((String superName) -> {
-			JvmClassInfo superClass = lookup.apply(superName);
-			if (superClass == null) {
+			LinkedClass superClass = parentLinker.link(this, superName);
+			if (superClass == null)
 				logger.debugging(l -> l.warn("Lookup failed for super-class: {}", superName));
-				return null;
-			}
-			return new LinkedClass(lookup, superClass);
+			return superClass;
 		});
 
 		interfacesLookup = MemoizedFunctions.memoize((List<String> interfaces) -> {
@@ -47,11 +64,11 @@ public LinkedClass(@Nonnull ClassLookup lookup, @Nonnull JvmClassInfo info) {
 				return Collections.emptyList();
 			List<ClassInfo<JvmClassInfo>> values = new ArrayList<>();
 			for (String itf : interfaces) {
-				JvmClassInfo itfInfo = lookup.apply(itf);
-				if (itfInfo == null)
+				LinkedClass linkedItf = parentLinker.link(this, itf);
+				if (linkedItf == null)
 					logger.debugging(l -> l.warn("Lookup failed for interface: {}", itf));
 				else
-					values.add(new LinkedClass(lookup, itfInfo));
+					values.add(linkedItf);
 			}
 			return values;
 		});
@@ -139,4 +156,20 @@ public MemberInfo<MethodMember> getMethod(String name, String descriptor) {
 	public MemberInfo<FieldMember> getField(String name, String descriptor) {
 		return fieldLookup.apply(name, descriptor);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Provider of wrappers for parent types of a {@link LinkedClass}.
+	 */
+	public interface ParentLinker {
+		/**
+		 * @param child
+		 * 		Class looking up one of its parent types.
+		 * @param parentName
+		 * 		Name of the parent type.
+		 *
+		 * @return Wrapper of the parent type, or {@code null} if it could not be found.
+		 */
+		@Nullable
+		LinkedClass link(@Nonnull LinkedClass child, @Nonnull String parentName);
+	}
+}
@@ -12,22 +12,30 @@
 import software.coley.recaf.services.phantom.GeneratedPhantomWorkspaceResource;
 import software.coley.recaf.services.phantom.PhantomGenerationException;
 import software.coley.recaf.services.phantom.PhantomGenerator;
+import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.util.ReflectUtil;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
 import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -46,15 +54,29 @@ public class JavacCompiler implements Service {
 	public static final int MIN_DOWNSAMPLE_VER = 8;
 	private static final DebuggingLogger logger = Logging.get(JavacCompiler.class);
 	private static final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+	private static final int MAX_POOLED_FILE_MANAGERS = 4;
+	private static final int MAX_POOLED_ARGUMENTS = 8;
 	private static int minTargetVersion = 7;
+	private final Map<String, Queue<PooledFileManager>> fileManagers = new LinkedHashMap<>(16, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Queue<PooledFileManager>> eldest) {
+			if (size() <= MAX_POOLED_ARGUMENTS)
+				return false;
+			eldest.getValue().forEach(JavacCompiler::closeFileManager);
+			return true;
+		}
+	};
 	private final PhantomGenerator phantomGenerator;
 	private final JavacCompilerConfig config;
 
 	@Inject
-	public JavacCompiler(@Nonnull PhantomGenerator phantomGenerator,
+	public JavacCompiler(@Nonnull WorkspaceManager workspaceManager,
+	                     @Nonnull PhantomGenerator phantomGenerator,
 	                     @Nonnull JavacCompilerConfig config) {
 		this.phantomGenerator = phantomGenerator;
 		this.config = config;
+
+		workspaceManager.addWorkspaceCloseListener(workspace -> closeFileManagers());
 	}
 
 	/**
@@ -102,9 +124,9 @@ public CompilerResult compile(@Nonnull JavacArguments arguments,
 		VirtualUnitMap unitMap = new VirtualUnitMap();
 		unitMap.addSource(className, arguments.getClassSource());
 
-		// Create a file manager to track files in-memory rather than on-disk
+		// Collect resources for the in-memory classpath.
 		List<WorkspaceResource> virtualClassPath = workspace == null ?
-				Collections.emptyList() : workspace.getAllResources(true);
+				Collections.emptyList() : workspace.getInternalSupportingResources();
 		if (supplementaryResources != null)
 			virtualClassPath = Lists.combine(virtualClassPath, supplementaryResources);
 
@@ -128,11 +150,6 @@ public CompilerResult compile(@Nonnull JavacArguments arguments,
 			}
 		}
 
-		List<CompilerDiagnostic> diagnostics = new ArrayList<>();
-		JavacListener listenerWrapper = createRecordingListener(listener, diagnostics);
-		JavaFileManager fmFallback = compiler.getStandardFileManager(listenerWrapper, Locale.getDefault(), UTF_8);
-		JavaFileManager fm = new VirtualFileManager(unitMap, virtualClassPath, fmFallback);
-
 		// Populate arguments
 		List<String> args = new ArrayList<>();
 
@@ -155,6 +172,19 @@ public CompilerResult compile(@Nonnull JavacArguments arguments,
 		args.add(debugArg);
 		logger.debugging(l -> l.info("Compiler debug: {}", debugArg));
 
+		// The standard file manager caches the platform classes of the target release.
+		// We reuse file managers between compilations with the same arguments so that the cache is only populated once.
+		// Only the most recently used sets of arguments have pooled file managers, and others are closed.
+		String fileManagerKey = String.join("\0", args);
+		List<CompilerDiagnostic> diagnostics = new ArrayList<>();
+		JavacListener listenerWrapper = createRecordingListener(listener, diagnostics);
+		PooledFileManager fmFallback = borrowFileManager(fileManagerKey, listenerWrapper);
+
+		// Create a file manager to track files in-memory rather than on-disk.
+		// Classes in the workspace are looked up through the workspace's class index.
+		// Other resources are small, or only exist for this compilation, so they are scanned when needed.
+		JavaFileManager fm = new VirtualFileManager(unitMap, workspace, virtualClassPath, fmFallback.fileManager);
+
 		// Invoke compiler
 		try {
 			JavaCompiler.CompilationTask task =
@@ -174,6 +204,67 @@ else if (downsampleTarget >= 0)
 		} catch (RuntimeException ex) {
 			logger.debugging(l -> l.error("Compilation of '{}' crashed", className, ex));
 			return new CompilerResult(ex);
+		} finally {
+			releaseFileManager(fileManagerKey, fmFallback);
+		}
+	}
+
+	/**
+	 * @param key
+	 * 		Key of the compiler arguments the file manager will be used with.
+	 * @param listener
+	 * 		Listener of the compilation the file manager will be used with.
+	 *
+	 * @return Pooled file manager for the arguments, or a new one if none are available.
+	 */
+	@Nonnull
+	private PooledFileManager borrowFileManager(@Nonnull String key, @Nonnull JavacListener listener) {
+		PooledFileManager fm;
+		synchronized (fileManagers) {
+			fm = fileManagers.computeIfAbsent(key, k -> new ArrayDeque<>()).poll();
+		}
+		if (fm == null)
+			fm = new PooledFileManager();
+		fm.listener = listener;
+		return fm;
+	}
+
+	/**
+	 * @param key
+	 * 		Key of the compiler arguments the file manager was used with.
+	 * @param fm
+	 * 		File manager to return to the pool.
+	 */
+	private void releaseFileManager(@Nonnull String key, @Nonnull PooledFileManager fm) {
+		fm.listener = null;
+		synchronized (fileManagers) {
+			// The pool may have been evicted while the file manager was in use.
+			Queue<PooledFileManager> pool = fileManagers.get(key);
+			if (pool != null && pool.size() < MAX_POOLED_FILE_MANAGERS) {
+				pool.add(fm);
+				return;
+			}
+		}
+		closeFileManager(fm);
+	}
+
+	/**
+	 * Closes all pooled file managers.
+	 */
+	private void closeFileManagers() {
+		List<PooledFileManager> pooled = new ArrayList<>();
+		synchronized (fileManagers) {
+			fileManagers.values().forEach(pooled::addAll);
+			fileManagers.clear();
+		}
+		pooled.forEach(JavacCompiler::closeFileManager);
+	}
+
+	private static void closeFileManager(@Nonnull PooledFileManager fm) {
+		try {
+			fm.fileManager.close();
+		} catch (IOException ex) {
+			logger.debug("Failed to close file manager", ex);
 		}
 	}
 
@@ -247,6 +338,22 @@ public JavacCompilerConfig getServiceConfig() {
 		return config;
 	}
 
+	/**
+	 * Standard file manager which can be pooled between compilations. The file manager reports its diagnostics
+	 * to the listener of whichever compilation has currently borrowed it.
+	 */
+	private static class PooledFileManager implements DiagnosticListener<JavaFileObject> {
+		private final StandardJavaFileManager fileManager = compiler.getStandardFileManager(this, Locale.getDefault(), UTF_8);
+		private volatile JavacListener listener;
+
+		@Override
+		public void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+			JavacListener current = listener;
+			if (current != null)
+				current.report(diagnostic);
+		}
+	}
+
 	static {
 		// Lookup oldest supported version
 		try {
@@ -1,6 +1,8 @@
 package software.coley.recaf.services.compile;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
 import javax.tools.FileObject;
@@ -9,10 +11,12 @@
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * File manager extension for handling updates to java file object's output stream.
@@ -22,6 +26,7 @@
  */
 public class VirtualFileManager extends ForwardingJavaFileManager<JavaFileManager> {
 	private final VirtualUnitMap unitMap;
+	private final Workspace workspace;
 	private final List<WorkspaceResource> virtualClasspath;
 
 	/**
@@ -33,7 +38,23 @@ public class VirtualFileManager extends ForwardingJavaFileManager<JavaFileManage
 	 * 		Fallback manager.
 	 */
 	public VirtualFileManager(@Nonnull VirtualUnitMap unitMap, @Nonnull List<WorkspaceResource> virtualClasspath, @Nonnull JavaFileManager fallback) {
+		this(unitMap, null, virtualClasspath, fallback);
+	}
+
+	/**
+	 * @param unitMap
+	 * 		Class input map.
+	 * @param workspace
+	 * 		Optional workspace, whose primary and supporting resources are checked before the additional in-memory classpath.
+	 * @param virtualClasspath
+	 * 		Additional in-memory classpath, not covered by the workspace.
+	 * @param fallback
+	 * 		Fallback manager.
+	 */
+	public VirtualFileManager(@Nonnull VirtualUnitMap unitMap, @Nullable Workspace workspace,
+	                          @Nonnull List<WorkspaceResource> virtualClasspath, @Nonnull JavaFileManager fallback) {
 		super(fallback);
+		this.workspace = workspace;
 		this.virtualClasspath = virtualClasspath;
 		this.unitMap = unitMap;
 	}
@@ -43,7 +64,8 @@ public Iterable<JavaFileObject> list(@Nonnull Location location, @Nonnull String
 	                                     @Nonnull Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
 		Iterable<JavaFileObject> list = super.list(location, packageName, kinds, recurse);
 		if (StandardLocation.CLASS_PATH.equals(location) && kinds.contains(JavaFileObject.Kind.CLASS)) {
-			String formatted = packageName.isEmpty() ? "" : packageName.replace('.', '/') + '/';
+			String packagePath = packageName.replace('.', '/');
+			String formatted = packageName.isEmpty() ? "" : packagePath + '/';
 			Predicate<String> check;
 			if (recurse) {
 				check = name -> name.startsWith(formatted);
@@ -51,11 +73,18 @@ public Iterable<JavaFileObject> list(@Nonnull Location location, @Nonnull String
 				check = name -> name.startsWith(formatted) &&
 						name.indexOf('/', formatted.length()) == -1;
 			}
-			return () -> new ClassPathIterator(list.iterator(), virtualClasspath.stream()
+			// Workspace classes are looked up by package through its class index, rather than by scanning them.
+			List<JavaFileObject> indexed = workspace == null ? Collections.emptyList() :
+					workspace.findJvmClassesInPackage(packagePath, recurse).stream()
+							.map(path -> new ResourceVirtualJavaFileObject(path.getValue().getName(),
+									path.getValue().asJvmClass().getBytecode(), JavaFileObject.Kind.CLASS))
+							.map(JavaFileObject.class::cast)
+							.toList();
+			return () -> new ClassPathIterator(list.iterator(), Stream.concat(indexed.stream(), virtualClasspath.stream()
 					.flatMap(resource -> resource.jvmClassBundleStreamRecursive().flatMap(b -> b.entrySet().stream()))
 					.filter(entry -> check.test(entry.getKey()))
-					.<JavaFileObject>map(entry -> new ResourceVirtualJavaFileObject(entry.getKey(),
-							entry.getValue().getBytecode(), JavaFileObject.Kind.CLASS))
+					.map(entry -> new ResourceVirtualJavaFileObject(entry.getKey(),
+							entry.getValue().getBytecode(), JavaFileObject.Kind.CLASS)))
 					.iterator());
 		}
 		return list;
@@ -0,0 +1,99 @@
+package software.coley.recaf.services.compute;
+
+import jakarta.annotation.Nonnull;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import software.coley.recaf.services.Service;
+import software.coley.recaf.util.threading.ComputeLane;
+import software.coley.recaf.util.threading.ComputeScheduler;
+import software.coley.recaf.util.threading.LaneMetrics;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service offering access to the shared {@link ComputeScheduler} used for parallel work across Recaf.
+ * <br>
+ * The same scheduler backs {@link ThreadPoolFactory}, so work submitted through either shares the same lanes.
+ *
+ * @author Matt Coley
+ * @see ComputeScheduler
+ */
+@ApplicationScoped
+public class ComputeService implements Service {
+	public static final String SERVICE_ID = "compute";
+	private final ComputeServiceConfig config;
+	private final ComputeScheduler scheduler = ComputeScheduler.getDefault();
+
+	@Inject
+	public ComputeService(@Nonnull ComputeServiceConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * @return Shared scheduler.
+	 */
+	@Nonnull
+	public ComputeScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * @param lane
+	 * 		Lane to get the executor of.
+	 *
+	 * @return Executor which runs tasks directly in the given lane.
+	 */
+	@Nonnull
+	public Executor executor(@Nonnull ComputeLane lane) {
+		return scheduler.executor(lane);
+	}
+
+	/**
+	 * @param name
+	 * 		Group name, used for logging.
+	 * @param lane
+	 * 		Lane to run tasks in.
+	 * @param maxConcurrency
+	 * 		Maximum number of tasks from the group to run at the same time.
+	 *
+	 * @return New task group that runs tasks in the given lane.
+	 */
+	@Nonnull
+	public ExecutorService newTaskGroup(@Nonnull String name, @Nonnull ComputeLane lane, int maxConcurrency) {
+		return scheduler.newTaskGroup(name, lane, maxConcurrency);
+	}
+
+	/**
+	 * @param lane
+	 * 		Lane to get metrics of.
+	 *
+	 * @return Snapshot of the lane's queue depth and busy time.
+	 */
+	@Nonnull
+	public LaneMetrics getMetrics(@Nonnull ComputeLane lane) {
+		return scheduler.getMetrics(lane);
+	}
+
+	/**
+	 * @return Snapshot of all lane's queue depth and busy time.
+	 */
+	@Nonnull
+	public List<LaneMetrics> getMetrics() {
+		return scheduler.getMetrics();
+	}
+
+	@Nonnull
+	@Override
+	public String getServiceId() {
+		return SERVICE_ID;
+	}
+
+	@Nonnull
+	@Override
+	public ComputeServiceConfig getServiceConfig() {
+		return config;
+	}
+}
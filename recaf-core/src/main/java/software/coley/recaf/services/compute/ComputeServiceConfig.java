@@ -0,0 +1,20 @@
+package software.coley.recaf.services.compute;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import software.coley.recaf.config.BasicConfigContainer;
+import software.coley.recaf.config.ConfigGroups;
+import software.coley.recaf.services.ServiceConfig;
+
+/**
+ * Config for {@link ComputeService}
+ *
+ * @author Matt Coley
+ */
+@ApplicationScoped
+public class ComputeServiceConfig extends BasicConfigContainer implements ServiceConfig {
+	@Inject
+	public ComputeServiceConfig() {
+		super(ConfigGroups.SERVICE, ComputeService.SERVICE_ID + CONFIG_SUFFIX);
+	}
+}
@@ -7,7 +7,9 @@
 import software.coley.recaf.workspace.model.Workspace;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Basic setup for {@link JvmDecompiler}.
@@ -49,14 +51,25 @@ public final DecompileResult decompile(@Nonnull Workspace workspace, @Nonnull Jv
 		DecompileResult result = decompileInternal(workspace, filteredBytecode);
 
 		// Adapt output decompilation if output filters are registered.
-		if (result.getType() == DecompileResult.ResultType.SUCCESS && result.getText() != null && !textFilters.isEmpty()) {
-			String text = result.getText();
-			for (OutputTextFilter filter : textFilters)
-				text = filter.filter(workspace, classInfo, text);
-			result = result.withText(text);
-		}
+		return applyTextFilters(workspace, classInfo, result);
+	}
 
-		return result;
+	@Nonnull
+	@Override
+	public final Map<String, DecompileResult> decompile(@Nonnull Workspace workspace, @Nonnull List<JvmClassInfo> classes) {
+		// Get bytecode of all classes and run through filters.
+		List<JvmClassInfo> filteredClasses = new ArrayList<>(classes.size());
+		for (JvmClassInfo classInfo : classes)
+			filteredClasses.add(JvmBytecodeFilter.applyFilters(workspace, classInfo, bytecodeFilters));
+
+		// Pass to implementation.
+		Map<String, DecompileResult> results = decompileInternal(workspace, filteredClasses);
+
+		// Adapt output decompilations if output filters are registered.
+		if (!textFilters.isEmpty())
+			for (JvmClassInfo classInfo : classes)
+				results.computeIfPresent(classInfo.getName(), (name, result) -> applyTextFilters(workspace, classInfo, result));
+		return results;
 	}
 
 	/**
@@ -72,6 +85,37 @@ public final DecompileResult decompile(@Nonnull Workspace workspace, @Nonnull Jv
 	@Nonnull
 	protected abstract DecompileResult decompileInternal(@Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo);
 
+	/**
+	 * Takes on the work of {@link #decompile(Workspace, List)} after the {@link #bytecodeFilters} have been applied
+	 * to the classes. By default, each class is decompiled individually. Implementations which can share work between
+	 * classes should override this.
+	 *
+	 * @param workspace
+	 * 		Workspace to pull data from.
+	 * @param classes
+	 * 		Classes to decompile.
+	 *
+	 * @return Mutable map of class names to their decompilation results.
+	 */
+	@Nonnull
+	protected Map<String, DecompileResult> decompileInternal(@Nonnull Workspace workspace, @Nonnull List<JvmClassInfo> classes) {
+		Map<String, DecompileResult> results = new LinkedHashMap<>();
+		for (JvmClassInfo classInfo : classes)
+			results.put(classInfo.getName(), decompileInternal(workspace, classInfo));
+		return results;
+	}
+
+	@Nonnull
+	private DecompileResult applyTextFilters(@Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo, @Nonnull DecompileResult result) {
+		if (result.getType() == DecompileResult.ResultType.SUCCESS && result.getText() != null && !textFilters.isEmpty()) {
+			String text = result.getText();
+			for (OutputTextFilter filter : textFilters)
+				text = filter.filter(workspace, classInfo, text);
+			result = result.withText(text);
+		}
+		return result;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -0,0 +1,40 @@
+package software.coley.recaf.services.decompile;
+
+/**
+ * Limits on the resources a single decompilation may use before it is cancelled.
+ *
+ * @param timeoutMillis
+ * 		Maximum time in milliseconds a decompilation may run for, or {@code 0} for no limit.
+ * @param maxAllocatedBytes
+ * 		Maximum number of bytes the decompiling thread may allocate, or {@code 0} for no limit.
+ *
+ * @author Matt Coley
+ * @see DecompilerManager#decompile(JvmDecompiler, software.coley.recaf.workspace.model.Workspace, software.coley.recaf.info.JvmClassInfo, DecompileBudget)
+ */
+public record DecompileBudget(long timeoutMillis, long maxAllocatedBytes) {
+	/**
+	 * Budget without any limits.
+	 */
+	public static final DecompileBudget UNLIMITED = new DecompileBudget(0, 0);
+
+	/**
+	 * @return {@code true} when the budget has a time limit.
+	 */
+	public boolean hasTimeout() {
+		return timeoutMillis > 0;
+	}
+
+	/**
+	 * @return {@code true} when the budget has an allocation limit.
+	 */
+	public boolean hasAllocationLimit() {
+		return maxAllocatedBytes > 0;
+	}
+
+	/**
+	 * @return {@code true} when the budget has any limit.
+	 */
+	public boolean isLimited() {
+		return hasTimeout() || hasAllocationLimit();
+	}
+}
@@ -0,0 +1,451 @@
+package software.coley.recaf.services.decompile;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.config.ConfigValue;
+import software.coley.recaf.info.InnerClassInfo;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.workspace.model.Workspace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content addressed disk cache of decompiler output.
+ * <br>
+ * Entries are keyed by a digest of the bytecode given to the decompiler, along with the decompiler name, version
+ * and current config values. The bytecode is digested after input filters are applied, so the active filters are
+ * part of the key as well. Decompilers inline inner classes and resolve the types a class references, so the
+ * bytecode of those classes is also part of the key when a workspace is given. This allows cached results to be
+ * re-used across restarts, workspace re-opens, and across different {@link JvmClassInfo} instances of the same class,
+ * without serving stale output when a related class is changed.
+ * <br>
+ * Entries are stored compressed, and the least recently used entries are removed once the total size of the
+ * cache exceeds its limit.
+ *
+ * @author Matt Coley
+ */
+public class DecompileCache {
+	private static final Logger logger = Logging.get(DecompileCache.class);
+	private static final String EXTENSION = ".gz";
+	private final Map<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75F, true);
+	private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+	private final LongSupplier maxBytes;
+	private final Path directory;
+	private volatile boolean loaded;
+	private long size;
+
+	/**
+	 * @param directory
+	 * 		Directory to store cache entries in.
+	 * @param maxBytes
+	 * 		Supplier of the maximum number of bytes the cache can use on disk.
+	 */
+	public DecompileCache(@Nonnull Path directory, @Nonnull LongSupplier maxBytes) {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * @param decompiler
+	 * 		Decompiler to compute a key for.
+	 * @param bytecode
+	 * 		Bytecode passed to the decompiler.
+	 *
+	 * @return Key of the decompiler output for the given bytecode, with the decompiler's current config.
+	 */
+	@Nonnull
+	public static String key(@Nonnull Decompiler decompiler, @Nonnull byte[] bytecode) {
+		return HexFormat.of().formatHex(digest(decompiler, bytecode).digest());
+	}
+
+	/**
+	 * @param decompiler
+	 * 		Decompiler to compute a key for.
+	 * @param workspace
+	 * 		Workspace the decompiler pulls additional information from.
+	 * @param classInfo
+	 * 		Class being decompiled.
+	 * @param bytecode
+	 * 		Bytecode passed to the decompiler.
+	 *
+	 * @return Key of the decompiler output for the given bytecode, with the decompiler's current config,
+	 * and the current state of the inner classes and referenced classes of the class in the workspace.
+	 */
+	@Nonnull
+	public static String key(@Nonnull Decompiler decompiler, @Nonnull Workspace workspace,
+	                         @Nonnull JvmClassInfo classInfo, @Nonnull byte[] bytecode) {
+		MessageDigest digest = digest(decompiler, bytecode);
+		for (String name : relatedClasses(workspace, classInfo)) {
+			digest.update(name.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+
+			// Classes not in the workspace, such as core classes, are only recorded by name.
+			// If they are added to the workspace later, the key will change.
+			ClassPathNode path = workspace.findJvmClass(false, name);
+			if (path != null)
+				digest.update(path.getValue().asJvmClass().getBytecode());
+			digest.update((byte) 0);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to pull classes from.
+	 * @param classInfo
+	 * 		Class being decompiled.
+	 *
+	 * @return Names of the inner classes of the class, including nested inner classes,
+	 * and of the classes referenced by the class or any of its inner classes.
+	 */
+	@Nonnull
+	private static Set<String> relatedClasses(@Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo) {
+		Set<String> related = new TreeSet<>();
+		Set<String> visited = new HashSet<>();
+		Deque<JvmClassInfo> queue = new ArrayDeque<>();
+		queue.add(classInfo);
+		visited.add(classInfo.getName());
+		while (!queue.isEmpty()) {
+			JvmClassInfo current = queue.poll();
+			related.addAll(current.getReferencedClasses());
+			for (InnerClassInfo innerClass : current.getInnerClasses()) {
+				String innerName = innerClass.getInnerClassName();
+				if (!innerName.startsWith(current.getName() + '$') || !visited.add(innerName))
+					continue;
+				ClassPathNode path = workspace.findJvmClass(false, innerName);
+				if (path != null)
+					queue.add(path.getValue().asJvmClass());
+			}
+		}
+		related.remove(classInfo.getName());
+		return related;
+	}
+
+	@Nonnull
+	private static MessageDigest digest(@Nonnull Decompiler decompiler, @Nonnull byte[] bytecode) {
+		MessageDigest digest = newDigest();
+		digest.update(decompiler.getName().getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(decompiler.getVersion().getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+
+		// The config hash is built from value hash codes, which are not stable across runs for some types like enums.
+		// So we use the textual representation of all the config values instead.
+		Map<String, ConfigValue<?>> values = new TreeMap<>(decompiler.getConfig().getValues());
+		for (Map.Entry<String, ConfigValue<?>> entry : values.entrySet()) {
+			digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) '=');
+			digest.update(String.valueOf(entry.getValue().getValue()).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		digest.update(bytecode);
+		return digest;
+	}
+
+	/**
+	 * @param decompiler
+	 * 		Decompiler the output belongs to.
+	 * @param key
+	 * 		Key from {@link #key(Decompiler, Workspace, JvmClassInfo, byte[])}.
+	 *
+	 * @return Cached decompiler output, or {@code null} if there is no cached output for the key.
+	 */
+	@Nullable
+	public String get(@Nonnull Decompiler decompiler, @Nonnull String key) {
+		Counters decompilerCounters = counters(decompiler);
+		ensureLoaded();
+		synchronized (entrySizes) {
+			if (entrySizes.get(key) == null) {
+				decompilerCounters.misses.increment();
+				return null;
+			}
+		}
+		Path path = path(key);
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+			String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+			// Update the modified time so the usage order is retained across restarts.
+			Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+			decompilerCounters.hits.increment();
+			return text;
+		} catch (IOException ex) {
+			logger.debug("Failed to read decompile cache entry '{}', removing it", key, ex);
+			remove(key);
+			decompilerCounters.misses.increment();
+			return null;
+		}
+	}
+
+	/**
+	 * @param decompiler
+	 * 		Decompiler the output belongs to.
+	 * @param key
+	 * 		Key from {@link #key(Decompiler, Workspace, JvmClassInfo, byte[])}.
+	 * @param text
+	 * 		Decompiler output to cache.
+	 */
+	public void put(@Nonnull Decompiler decompiler, @Nonnull String key, @Nonnull String text) {
+		ensureLoaded();
+		Path path = path(key);
+		try {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(text.length() / 4);
+			try (OutputStream out = new GZIPOutputStream(compressed)) {
+				out.write(text.getBytes(StandardCharsets.UTF_8));
+			}
+			long entrySize = compressed.size();
+			if (entrySize > maxBytes.getAsLong())
+				return;
+
+			// Write to a temporary file first so that concurrent readers never see partial entries.
+			Files.createDirectories(path.getParent());
+			Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+			Files.write(temp, compressed.toByteArray());
+			try {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+			synchronized (entrySizes) {
+				Long existing = entrySizes.put(key, entrySize);
+				if (existing != null)
+					size -= existing;
+				size += entrySize;
+			}
+			counters(decompiler).writes.increment();
+			evict();
+		} catch (IOException ex) {
+			logger.debug("Failed to write decompile cache entry '{}'", key, ex);
+		}
+	}
+
+	/**
+	 * Removes all cache entries.
+	 */
+	public void clear() {
+		ensureLoaded();
+		List<String> keys;
+		synchronized (entrySizes) {
+			keys = new ArrayList<>(entrySizes.keySet());
+		}
+		keys.forEach(this::remove);
+	}
+
+	/**
+	 * @return Total number of bytes used by cache entries on disk.
+	 */
+	public long getSize() {
+		ensureLoaded();
+		synchronized (entrySizes) {
+			return size;
+		}
+	}
+
+	/**
+	 * @return Number of entries in the cache.
+	 */
+	public int getEntryCount() {
+		ensureLoaded();
+		synchronized (entrySizes) {
+			return entrySizes.size();
+		}
+	}
+
+	/**
+	 * @param decompiler
+	 * 		Decompiler to get statistics of.
+	 *
+	 * @return Cache usage statistics of the decompiler.
+	 */
+	@Nonnull
+	public Statistics getStatistics(@Nonnull Decompiler decompiler) {
+		return counters(decompiler).snapshot();
+	}
+
+	/**
+	 * @return Cache usage statistics of all decompilers which have used the cache, keyed by decompiler name.
+	 */
+	@Nonnull
+	public Map<String, Statistics> getStatistics() {
+		Map<String, Statistics> statistics = new TreeMap<>();
+		counters.forEach((name, decompilerCounters) -> statistics.put(name, decompilerCounters.snapshot()));
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * Removes the least recently used entries until the cache is within its size limit.
+	 */
+	private void evict() {
+		List<String> evicted = new ArrayList<>();
+		synchronized (entrySizes) {
+			long max = maxBytes.getAsLong();
+			Iterator<Map.Entry<String, Long>> iterator = entrySizes.entrySet().iterator();
+			while (size > max && iterator.hasNext()) {
+				Map.Entry<String, Long> entry = iterator.next();
+				size -= entry.getValue();
+				evicted.add(entry.getKey());
+				iterator.remove();
+			}
+		}
+		for (String key : evicted)
+			delete(key);
+	}
+
+	private void remove(@Nonnull String key) {
+		synchronized (entrySizes) {
+			Long existing = entrySizes.remove(key);
+			if (existing != null)
+				size -= existing;
+		}
+		delete(key);
+	}
+
+	private void delete(@Nonnull String key) {
+		try {
+			Files.deleteIfExists(path(key));
+		} catch (IOException ex) {
+			logger.debug("Failed to delete decompile cache entry '{}'", key, ex);
+		}
+	}
+
+	/**
+	 * Populates the entry index from the existing files in the cache directory, oldest first.
+	 * This is deferred until the cache is first used, so that creating the cache does not do any IO.
+	 */
+	private void ensureLoaded() {
+		if (!loaded)
+			synchronized (this) {
+				if (!loaded) {
+					loadEntries();
+					loaded = true;
+				}
+			}
+	}
+
+	private void loadEntries() {
+		if (!Files.isDirectory(directory))
+			return;
+		record Entry(String key, long size, long modified) {}
+		List<Entry> entries = new ArrayList<>();
+		try (Stream<Path> stream = Files.walk(directory, 2)) {
+			stream.forEach(path -> {
+				String fileName = path.getFileName().toString();
+				if (fileName.endsWith(".tmp")) {
+					delete(path);
+				} else if (fileName.endsWith(EXTENSION) && Files.isRegularFile(path)) {
+					try {
+						String key = fileName.substring(0, fileName.length() - EXTENSION.length());
+						entries.add(new Entry(key, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+					} catch (IOException ex) {
+						delete(path);
+					}
+				}
+			});
+		} catch (IOException ex) {
+			logger.warn("Failed to load decompile cache entries", ex);
+		}
+		entries.sort((a, b) -> Long.compare(a.modified, b.modified));
+		synchronized (entrySizes) {
+			for (Entry entry : entries) {
+				entrySizes.put(entry.key, entry.size);
+				size += entry.size;
+			}
+		}
+		evict();
+	}
+
+	private static void delete(@Nonnull Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ignored) {
+			// Will be cleaned up on the next load
+		}
+	}
+
+	@Nonnull
+	private Path path(@Nonnull String key) {
+		// Split entries into sub-directories by the first byte of their key to keep directory sizes reasonable.
+		return directory.resolve(key.substring(0, 2)).resolve(key + EXTENSION);
+	}
+
+	@Nonnull
+	private Counters counters(@Nonnull Decompiler decompiler) {
+		return counters.computeIfAbsent(decompiler.getName(), n -> new Counters());
+	}
+
+	@Nonnull
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			// Should never happen since all JVMs are required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Snapshot of cache usage for a single decompiler.
+	 *
+	 * @param hits
+	 * 		Number of lookups which found cached output.
+	 * @param misses
+	 * 		Number of lookups which did not find cached output.
+	 * @param writes
+	 * 		Number of outputs written to the cache.
+	 */
+	public record Statistics(long hits, long misses, long writes) {
+		/**
+		 * @return Ratio of lookups which found cached output, or {@code 0} if there have been no lookups.
+		 */
+		public double hitRate() {
+			long lookups = hits + misses;
+			return lookups == 0 ? 0 : hits / (double) lookups;
+		}
+	}
+
+	/**
+	 * Live cache usage counters for a single decompiler.
+	 */
+	private static class Counters {
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder writes = new LongAdder();
+
+		@Nonnull
+		private Statistics snapshot() {
+			return new Statistics(hits.sum(), misses.sum(), writes.sum());
+		}
+	}
+}
@@ -14,12 +14,22 @@
 import software.coley.recaf.analytics.logging.DebuggingLogger;
 import software.coley.recaf.analytics.logging.Logging;
 import software.coley.recaf.info.AndroidClassInfo;
+import software.coley.recaf.info.InnerClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.properties.builtin.CachedDecompileProperty;
+import software.coley.recaf.info.properties.builtin.DecompileRaceWinnerProperty;
+import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.services.Service;
+import software.coley.recaf.services.decompile.batch.BatchDecompileResult;
+import software.coley.recaf.services.decompile.batch.DecompileOutputWriter;
+import software.coley.recaf.services.decompile.fallback.FallbackDecompiler;
 import software.coley.recaf.services.decompile.filter.JvmBytecodeFilter;
 import software.coley.recaf.services.decompile.filter.OutputTextFilter;
+import software.coley.recaf.services.file.RecafDirectoriesConfig;
+import software.coley.recaf.util.TestEnvironment;
+import software.coley.recaf.util.threading.ComputeLane;
 import software.coley.recaf.util.threading.ThreadPoolFactory;
+import software.coley.recaf.util.threading.ThreadUtil;
 import software.coley.recaf.util.visitors.BogusNameRemovingVisitor;
 import software.coley.recaf.util.visitors.ClassHollowingVisitor;
 import software.coley.recaf.util.visitors.DuplicateAnnotationRemovingVisitor;
@@ -29,16 +39,35 @@
 import software.coley.recaf.util.visitors.LongExceptionRemovingVisitor;
 import software.coley.recaf.util.visitors.SyntheticRemovingVisitor;
 import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Manager of multiple {@link Decompiler} instances.
@@ -51,27 +80,45 @@ public class DecompilerManager implements Service {
 	private static final DebuggingLogger logger = Logging.get(DecompilerManager.class);
 	private static final NoopJvmDecompiler NO_OP_JVM = NoopJvmDecompiler.getInstance();
 	private static final NoopAndroidDecompiler NO_OP_ANDROID = NoopAndroidDecompiler.getInstance();
+	private static final int BATCH_CHUNK_SIZE = 32;
+	private static final long PREFETCH_BACKOFF_MS = 100;
+	private static final long BUDGET_CHECK_MS = 100;
 	private final JvmBytecodeFilter layeredJvmFilter = new LayeredJvmBytecodeFilter();
 	private final ExecutorService decompileThreadPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID);
+	private final ExecutorService budgetedThreadPool = ThreadPoolFactory.newCachedThreadPool(SERVICE_ID + ":budgeted");
+	private final ExecutorService prefetchThreadPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID + ":prefetch", 1, ComputeLane.BACKGROUND);
+	private final ScheduledExecutorService budgetMonitor = ThreadPoolFactory.newScheduledThreadPool(SERVICE_ID + ":budget");
+	private final Set<BudgetedTask<?>> budgetedTasks = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean budgetMonitorStarted = new AtomicBoolean();
+	private final AtomicInteger foregroundTasks = new AtomicInteger();
 	private final List<JvmBytecodeFilter> bytecodeFilters = new CopyOnWriteArrayList<>();
 	private final List<OutputTextFilter> outputTextFilters = new CopyOnWriteArrayList<>();
 	private final Map<String, JvmDecompiler> jvmDecompilers = new TreeMap<>();
 	private final Map<String, AndroidDecompiler> androidDecompilers = new TreeMap<>();
 	private final DecompilerManagerConfig config;
+	private final DecompileCache diskCache;
 	private final ObservableObject<JvmDecompiler> targetJvmDecompiler;
 	private final ObservableObject<AndroidDecompiler> targetAndroidDecompiler;
+	private volatile PrefetchSession prefetchSession;
 
 	/**
 	 * @param config
 	 * 		Config to pull values from.
+	 * @param directories
+	 * 		Directories config, for locating the decompilation disk cache.
 	 * @param implementations
 	 * 		CDI provider of decompiler implementations.
 	 */
 	@Inject
 	public DecompilerManager(@Nonnull DecompilerManagerConfig config,
+	                         @Nonnull RecafDirectoriesConfig directories,
 	                         @Nonnull Instance<Decompiler> implementations) {
 		this.config = config;
 
+		// Skip persisting decompilations in test environments
+		diskCache = TestEnvironment.isTestEnv() ? null : new DecompileCache(directories.getBaseDirectory().resolve("decompile-cache"),
+				() -> config.getDiskCacheSize().getValue() * 1024L * 1024L);
+
 		// Register implementations
 		for (Decompiler implementation : implementations) {
 			if (implementation instanceof JvmDecompiler jvmDecompiler) {
@@ -132,39 +179,658 @@ public CompletableFuture<DecompileResult> decompile(@Nonnull Workspace workspace
 	 */
 	@Nonnull
 	public CompletableFuture<DecompileResult> decompile(@Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo) {
-		return CompletableFuture.supplyAsync(() -> {
-			boolean doCache = config.getCacheDecompilations().getValue();
+		return decompile(decompiler, workspace, classInfo, getDefaultBudget());
+	}
+
+	/**
+	 * Uses the built-in thread-pool to schedule the decompilation.
+	 * <br>
+	 * If the decompilation exceeds the given budget, the returned future is completed with a failed result and
+	 * the decompiling thread is interrupted. Cancellation is only cooperative, so decompilers which do not respond
+	 * to interruption keep running until they finish on their own. To prevent such abandoned work from starving
+	 * other requests, single class decompilations are run on {@link ComputeLane#BLOCKING blocking lane} threads
+	 * of their own rather than on the shared {@link ComputeLane#CPU} lane workers.
+	 * <br>
+	 * When {@link DecompilerManagerConfig#getRaceFallback() racing} is enabled, the {@link FallbackDecompiler} is run
+	 * at the same time as the requested decompiler, and the first successful result of the two is used. If the fallback
+	 * finishes first it is recorded as the winner for the class, so that later requests for the same class do not need
+	 * to wait on the requested decompiler again. If the requested decompiler fails outright, the fallback result is
+	 * used without being recorded as the winner.
+	 *
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classInfo
+	 * 		Class to decompile.
+	 * @param budget
+	 * 		Limits on the resources the decompilation may use.
+	 *
+	 * @return Future of decompilation result.
+	 */
+	@Nonnull
+	public CompletableFuture<DecompileResult> decompile(@Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace,
+	                                                    @Nonnull JvmClassInfo classInfo, @Nonnull DecompileBudget budget) {
+		JvmDecompiler fallback = jvmDecompilers.get(FallbackDecompiler.NAME);
+		if (!config.getRaceFallback().getValue() || fallback == null || fallback == decompiler)
+			return submit(decompiler, workspace, classInfo, budget);
+
+		// Skip the race if the requested decompiler already lost a race for this class.
+		String winnerName = DecompileRaceWinnerProperty.get(classInfo, decompiler);
+		JvmDecompiler winner = winnerName == null ? null : jvmDecompilers.get(winnerName);
+		if (winner != null)
+			return submit(winner, workspace, classInfo, budget);
+
+		CompletableFuture<DecompileResult> race = new CompletableFuture<>();
+		CompletableFuture<DecompileResult> preferredFuture = submit(decompiler, workspace, classInfo, budget);
+		CompletableFuture<DecompileResult> fallbackFuture = submit(fallback, workspace, classInfo, budget);
+
+		// Once the race is decided, the remaining decompilation is no longer needed.
+		race.whenComplete((result, error) -> {
+			preferredFuture.cancel(true);
+			fallbackFuture.cancel(true);
+		});
+		preferredFuture.whenComplete((result, error) -> {
+			if (isSuccess(result, error))
+				race.complete(result);
+			else if (fallbackFuture.isDone())
+				completeRace(race, preferredFuture, fallbackFuture);
+		});
+		fallbackFuture.whenComplete((result, error) -> {
+			if (!isSuccess(result, error)) {
+				if (preferredFuture.isDone())
+					completeRace(race, preferredFuture, fallbackFuture);
+			} else if (!preferredFuture.isDone()) {
+				// Only record the fallback as the winner when it beat the requested decompiler.
+				if (race.complete(result))
+					DecompileRaceWinnerProperty.set(classInfo, decompiler, fallback);
+			} else {
+				completeRace(race, preferredFuture, fallbackFuture);
+			}
+		});
+		return race;
+	}
+
+	/**
+	 * Completes a race once both decompilations are done, preferring any successful result.
+	 * If neither yielded usable output, the outcome of the requested decompiler is reported.
+	 *
+	 * @param race
+	 * 		Race future to complete.
+	 * @param preferredFuture
+	 * 		Completed future of the requested decompiler.
+	 * @param fallbackFuture
+	 * 		Completed future of the fallback decompiler.
+	 */
+	private static void completeRace(@Nonnull CompletableFuture<DecompileResult> race,
+	                                 @Nonnull CompletableFuture<DecompileResult> preferredFuture,
+	                                 @Nonnull CompletableFuture<DecompileResult> fallbackFuture) {
+		DecompileResult fallbackResult = fallbackFuture.isCompletedNormally() ? fallbackFuture.getNow(null) : null;
+		if (isSuccess(fallbackResult, null)) {
+			race.complete(fallbackResult);
+			return;
+		}
+		try {
+			race.complete(preferredFuture.join());
+		} catch (Throwable t) {
+			race.completeExceptionally(t);
+		}
+	}
+
+	/**
+	 * @param result
+	 * 		Decompilation result, if any.
+	 * @param error
+	 * 		Decompilation error, if any.
+	 *
+	 * @return {@code true} when the decompilation yielded usable output.
+	 */
+	private static boolean isSuccess(@Nullable DecompileResult result, @Nullable Throwable error) {
+		return error == null && result != null && result.getType() == DecompileResult.ResultType.SUCCESS;
+	}
+
+	/**
+	 * @return Budget for decompilations based on the current config.
+	 */
+	@Nonnull
+	public DecompileBudget getDefaultBudget() {
+		return new DecompileBudget(config.getBudgetTimeoutSeconds().getValue() * 1000L,
+				config.getBudgetAllocationMegabytes().getValue() * 1024L * 1024L);
+	}
+
+	/**
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classInfo
+	 * 		Class to decompile.
+	 * @param budget
+	 * 		Limits on the resources the decompilation may use.
+	 *
+	 * @return Future of decompilation result, watched by the budget monitor if the budget has any limits.
+	 * Completing the future early interrupts the decompiling thread.
+	 */
+	@Nonnull
+	private CompletableFuture<DecompileResult> submit(@Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace,
+	                                                  @Nonnull JvmClassInfo classInfo, @Nonnull DecompileBudget budget) {
+		return submit(budgetedThreadPool, true, decompiler, workspace, classInfo, budget);
+	}
+
+	/**
+	 * @param executor
+	 * 		Executor to run the decompilation on.
+	 * @param foreground
+	 * 		Flag indicating the decompilation is foreground work, which background prefetching yields to.
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classInfo
+	 * 		Class to decompile.
+	 * @param budget
+	 * 		Limits on the resources the decompilation may use.
+	 *
+	 * @return Future of decompilation result, watched by the budget monitor if the budget has any limits.
+	 * Completing the future early interrupts the decompiling thread.
+	 */
+	@Nonnull
+	private CompletableFuture<DecompileResult> submit(@Nonnull ExecutorService executor, boolean foreground,
+	                                                  @Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace,
+	                                                  @Nonnull JvmClassInfo classInfo, @Nonnull DecompileBudget budget) {
+		return submitBudgeted(executor, foreground, decompiler, budget, () -> decompileNow(decompiler, workspace, classInfo),
+				exceeded -> new DecompileResult(exceeded, decompiler.getConfig().getHash()));
+	}
+
+	/**
+	 * @param executor
+	 * 		Executor to run the action on.
+	 * @param foreground
+	 * 		Flag indicating the action is foreground work, which background prefetching yields to.
+	 * @param decompiler
+	 * 		Decompiler implementation used by the action.
+	 * @param budget
+	 * 		Limits on the resources the action may use.
+	 * @param action
+	 * 		Decompilation action to run.
+	 * @param exceededResult
+	 * 		Mapping of budget violations to results, or {@code null} to complete the future exceptionally
+	 * 		when the budget is exceeded.
+	 * @param <T>
+	 * 		Action result type.
+	 *
+	 * @return Future of action result, watched by the budget monitor if the budget has any limits.
+	 * Completing the future early interrupts the thread running the action.
+	 */
+	@Nonnull
+	private <T> CompletableFuture<T> submitBudgeted(@Nonnull ExecutorService executor, boolean foreground,
+	                                                @Nonnull JvmDecompiler decompiler, @Nonnull DecompileBudget budget,
+	                                                @Nonnull Supplier<T> action,
+	                                                @Nullable Function<Throwable, T> exceededResult) {
+		BudgetedTask<T> task = new BudgetedTask<>(decompiler, budget, exceededResult);
+		executor.execute(() -> {
+			// Skip if cancelled before the task could start.
+			if (task.future.isDone())
+				return;
+
+			// The task stops counting as foreground work once its result is provided, even if the decompiler
+			// has been abandoned and is still running.
+			if (foreground) {
+				foregroundTasks.incrementAndGet();
+				task.future.whenComplete((result, error) -> foregroundTasks.decrementAndGet());
+			}
+			task.start();
+			try {
+				task.future.complete(action.get());
+			} catch (Throwable t) {
+				task.future.completeExceptionally(t);
+			} finally {
+				task.finish();
+			}
+		});
+		if (budget.isLimited()) {
+			budgetedTasks.add(task);
+			task.future.whenComplete((result, error) -> budgetedTasks.remove(task));
+			if (budgetMonitorStarted.compareAndSet(false, true))
+				budgetMonitor.scheduleAtFixedRate(this::checkBudgets, BUDGET_CHECK_MS, BUDGET_CHECK_MS, TimeUnit.MILLISECONDS);
+		}
+		return task.future;
+	}
+
+	/**
+	 * Cancels any running decompilations which have exceeded their budgets.
+	 */
+	private void checkBudgets() {
+		for (BudgetedTask<?> task : budgetedTasks) {
+			Throwable exceeded = task.checkBudget();
+			if (exceeded != null) {
+				logger.warn("Cancelling decompilation with {}: {}", task.decompiler.getName(), exceeded.getMessage());
+				task.exceed(exceeded);
+			}
+		}
+	}
+
+	/**
+	 * Decompiles a class on the current thread, using and populating the caches.
+	 *
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classInfo
+	 * 		Class to decompile.
+	 *
+	 * @return Decompilation result.
+	 */
+	@Nonnull
+	private DecompileResult decompileNow(@Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo) {
+		boolean doCache = config.getCacheDecompilations().getValue();
+		if (doCache) {
+			// Check for cached result, returning the cached result if found
+			// and only if the current config matches the one that yielded the cached result.
+			DecompileResult cachedResult = CachedDecompileProperty.get(classInfo, decompiler);
+			if (cachedResult != null) {
+				if (cachedResult.getConfigHash() == decompiler.getConfig().getHash())
+					return cachedResult;
+
+				// Config changed, void the cache.
+				CachedDecompileProperty.remove(classInfo);
+			}
+		}
+
+		// We will use the layered filter manually here so any user requested cleanup is done before we pass the class to the decompiler.
+		// The decompiler base implementation skips some work if there are no registered filters so doing it externally like this is
+		// better for performance. If the user has no filtering enabled then no re-reads and re-writes are necessary.
+		JvmClassInfo filteredClass = JvmBytecodeFilter.applyFilters(workspace, classInfo, Collections.singletonList(layeredJvmFilter));
+
+		// Check the disk cache, which is keyed by the filtered bytecode so that the active filters are accounted for.
+		DecompileCache diskCache = config.getDiskCacheDecompilations().getValue() ? this.diskCache : null;
+		String diskCacheKey = diskCache == null ? null : DecompileCache.key(decompiler, workspace, classInfo, filteredClass.getBytecode());
+		String cachedText = diskCacheKey == null ? null : diskCache.get(decompiler, diskCacheKey);
+
+		// Decompile and cache the results.
+		DecompileResult result;
+		if (cachedText != null) {
+			result = new DecompileResult(cachedText, decompiler.getConfig().getHash());
+		} else {
+			result = decompiler.decompile(workspace, filteredClass);
+			if (diskCacheKey != null && result.getType() == DecompileResult.ResultType.SUCCESS && result.getText() != null)
+				diskCache.put(decompiler, diskCacheKey, result.getText());
+		}
+		String decompilation = result.getText();
+		if (decompilation != null && !outputTextFilters.isEmpty()) {
+			// Apply output filters and re-wrap the result with the new output text.
+			for (OutputTextFilter textFilter : outputTextFilters)
+				decompilation = textFilter.filter(workspace, classInfo, decompilation);
+			result = new DecompileResult(decompilation, result.getConfigHash());
+		}
+		if (doCache)
+			CachedDecompileProperty.set(classInfo, decompiler, result);
+		return result;
+	}
+
+	/**
+	 * Schedules background decompilation of classes likely to be opened after the given class, so that their
+	 * results are cached by the time they are opened. In order of priority, the candidates are:
+	 * <ol>
+	 *     <li>Inner classes of the class</li>
+	 *     <li>Classes referenced by the class</li>
+	 *     <li>Other classes in the same package as the class</li>
+	 * </ol>
+	 * Only classes in the same resource as the given class are considered. Any prior prefetch that has not yet
+	 * completed is cancelled, so that the background work always follows what the user is currently looking at.
+	 * Background work runs on a single worker in the {@link ComputeLane#BACKGROUND} lane, and pauses between classes
+	 * while foreground decompilations are running. Each class is decompiled with a
+	 * {@link DecompilerManagerConfig#getPrefetchTimeoutSeconds() prefetch budget}, so a single slow class is abandoned
+	 * rather than holding up the rest of the prefetch.
+	 *
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classInfo
+	 * 		Class which was opened.
+	 *
+	 * @return Future completed when the prefetch finishes or is cancelled.
+	 */
+	@Nonnull
+	public CompletableFuture<Void> prefetch(@Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo) {
+		cancelPrefetch();
+
+		// Prefetching is pointless if there is nowhere to put the results.
+		boolean hasCache = config.getCacheDecompilations().getValue()
+				|| (diskCache != null && config.getDiskCacheDecompilations().getValue());
+		if (!config.getPrefetchDecompilations().getValue() || !hasCache)
+			return CompletableFuture.completedFuture(null);
+
+		PrefetchSession session = new PrefetchSession(decompiler, workspace, classInfo);
+		prefetchSession = session;
+		prefetchThreadPool.execute(() -> runPrefetch(session));
+		return session.completion;
+	}
+
+	/**
+	 * Cancels any background decompilation started by {@link #prefetch(JvmDecompiler, Workspace, JvmClassInfo)}.
+	 */
+	public void cancelPrefetch() {
+		PrefetchSession session = prefetchSession;
+		if (session != null) {
+			session.cancel();
+			prefetchSession = null;
+		}
+	}
+
+	private void runPrefetch(@Nonnull PrefetchSession session) {
+		try {
+			if (session.queue == null)
+				session.queue = new ArrayDeque<>(collectPrefetchTargets(session));
+			DecompileBudget budget = new DecompileBudget(config.getPrefetchTimeoutSeconds().getValue() * 1000L,
+					config.getBudgetAllocationMegabytes().getValue() * 1024L * 1024L);
+			while (!session.isCancelled()) {
+				// Yield to foreground work, checking back in later.
+				if (foregroundTasks.get() > 0) {
+					CompletableFuture.delayedExecutor(PREFETCH_BACKOFF_MS, TimeUnit.MILLISECONDS, prefetchThreadPool)
+							.execute(() -> runPrefetch(session));
+					return;
+				}
+
+				JvmClassInfo next = session.queue.poll();
+				if (next == null)
+					break;
+				if (isCached(session.decompiler, next))
+					continue;
+
+				// Queue the decompilation behind this task on the prefetch worker, continuing with the next
+				// class once it completes or exceeds its budget.
+				CompletableFuture<DecompileResult> current = submit(prefetchThreadPool, false, session.decompiler,
+						session.workspace, next, budget);
+				session.current = current;
+				current.whenCompleteAsync((result, error) -> runPrefetch(session), prefetchThreadPool);
+				if (session.isCancelled())
+					current.cancel(true);
+				return;
+			}
+			session.completion.complete(null);
+		} catch (Throwable t) {
+			logger.debugging(l -> l.warn("Failed to prefetch decompilations for '{}'", session.classInfo.getName(), t));
+			session.completion.complete(null);
+		}
+	}
+
+	@Nonnull
+	private Collection<JvmClassInfo> collectPrefetchTargets(@Nonnull PrefetchSession session) {
+		Workspace workspace = session.workspace;
+		JvmClassInfo classInfo = session.classInfo;
+		String name = classInfo.getName();
+		ClassPathNode classPath = workspace.findJvmClass(false, name);
+		if (classPath == null)
+			return Collections.emptyList();
+		WorkspaceResource resource = classPath.getValueOfType(WorkspaceResource.class);
+		JvmClassBundle bundle = classPath.getValueOfType(JvmClassBundle.class);
+		if (resource == null || bundle == null)
+			return Collections.emptyList();
+
+		int limit = config.getPrefetchLimit().getValue();
+		Set<JvmClassInfo> targets = new LinkedHashSet<>();
+
+		// Inner classes.
+		for (InnerClassInfo innerClass : classInfo.getInnerClasses()) {
+			if (targets.size() >= limit)
+				return targets;
+			String innerName = innerClass.getInnerClassName();
+			if (!innerName.equals(name))
+				addPrefetchTarget(targets, workspace, resource, innerName);
+		}
+
+		// Referenced classes.
+		for (String referenced : classInfo.getReferencedClasses()) {
+			if (targets.size() >= limit)
+				return targets;
+			if (!referenced.equals(name))
+				addPrefetchTarget(targets, workspace, resource, referenced);
+		}
+
+		// Classes in the same package.
+		int packageEnd = name.lastIndexOf('/');
+		String packagePrefix = packageEnd < 0 ? "" : name.substring(0, packageEnd + 1);
+		for (JvmClassInfo neighbor : bundle.values()) {
+			if (targets.size() >= limit)
+				return targets;
+			String neighborName = neighbor.getName();
+			if (neighborName.startsWith(packagePrefix) && neighborName.indexOf('/', packagePrefix.length()) < 0
+					&& !neighborName.equals(name) && !neighbor.isInnerClass())
+				targets.add(neighbor);
+		}
+		return targets;
+	}
+
+	private static void addPrefetchTarget(@Nonnull Set<JvmClassInfo> targets, @Nonnull Workspace workspace,
+	                                      @Nonnull WorkspaceResource resource, @Nonnull String name) {
+		ClassPathNode path = workspace.findJvmClass(false, name);
+		if (path != null && path.getValueOfType(WorkspaceResource.class) == resource)
+			targets.add(path.getValue().asJvmClass());
+	}
+
+	private boolean isCached(@Nonnull JvmDecompiler decompiler, @Nonnull JvmClassInfo classInfo) {
+		DecompileResult cachedResult = CachedDecompileProperty.get(classInfo, decompiler);
+		return cachedResult != null && cachedResult.getConfigHash() == decompiler.getConfig().getHash();
+	}
+
+	/**
+	 * Uses the built-in thread-pool to decompile many classes, writing the results to the given output as they complete.
+	 * <br>
+	 * Classes are split into chunks, and each chunk is passed to the decompiler together so that decompilers which
+	 * support it can share state between the classes of a chunk. Only the outputs of the chunks currently being
+	 * processed are held in memory. Inner classes are skipped when their outermost class is also in the batch,
+	 * as their source is included in the output of the outer class.
+	 * <br>
+	 * Results are not stored in the in-memory decompilation cache, since the point of the batch is to not retain
+	 * all outputs at once. The disk cache is still used.
+	 * <br>
+	 * Uses the {@link #getDefaultBudget() default budget} for each class.
+	 *
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classes
+	 * 		Classes to decompile.
+	 * @param writer
+	 * 		Output to write decompiled sources to. Not closed when the batch completes.
+	 * @param completionListener
+	 * 		Optional listener notified with the name of each class when it has been handled, successfully or not.
+	 *
+	 * @return Future of the batch summary.
+	 */
+	@Nonnull
+	public CompletableFuture<BatchDecompileResult> decompileAll(@Nonnull JvmDecompiler decompiler,
+	                                                            @Nonnull Workspace workspace,
+	                                                            @Nonnull Collection<JvmClassInfo> classes,
+	                                                            @Nonnull DecompileOutputWriter writer,
+	                                                            @Nullable Consumer<String> completionListener) {
+		return decompileAll(decompiler, workspace, classes, writer, completionListener, getDefaultBudget());
+	}
+
+	/**
+	 * Uses the built-in thread-pool to decompile many classes, writing the results to the given output as they complete.
+	 * <br>
+	 * Classes are split into chunks, and each chunk is passed to the decompiler together so that decompilers which
+	 * support it can share state between the classes of a chunk. Only the outputs of the chunks currently being
+	 * processed are held in memory. Inner classes are skipped when their outermost class is also in the batch,
+	 * as their source is included in the output of the outer class.
+	 * <br>
+	 * Each chunk may use the given budget once for each of its classes. If a chunk fails or exceeds its budget,
+	 * its classes are decompiled again individually, each with the given budget, so that a single problematic class
+	 * only fails itself rather than the whole batch.
+	 * <br>
+	 * Results are not stored in the in-memory decompilation cache, since the point of the batch is to not retain
+	 * all outputs at once. The disk cache is still used.
+	 *
+	 * @param decompiler
+	 * 		Decompiler implementation to use.
+	 * @param workspace
+	 * 		Workspace to pull additional information from.
+	 * @param classes
+	 * 		Classes to decompile.
+	 * @param writer
+	 * 		Output to write decompiled sources to. Not closed when the batch completes.
+	 * @param completionListener
+	 * 		Optional listener notified with the name of each class when it has been handled, successfully or not.
+	 * @param budget
+	 * 		Limits on the resources the decompilation of each class may use.
+	 *
+	 * @return Future of the batch summary.
+	 */
+	@Nonnull
+	public CompletableFuture<BatchDecompileResult> decompileAll(@Nonnull JvmDecompiler decompiler,
+	                                                            @Nonnull Workspace workspace,
+	                                                            @Nonnull Collection<JvmClassInfo> classes,
+	                                                            @Nonnull DecompileOutputWriter writer,
+	                                                            @Nullable Consumer<String> completionListener,
+	                                                            @Nonnull DecompileBudget budget) {
+		long start = System.nanoTime();
+
+		// Skip inner classes which will be emitted as part of their outer class.
+		Set<String> names = new HashSet<>(classes.size());
+		for (JvmClassInfo classInfo : classes)
+			names.add(classInfo.getName());
+		List<JvmClassInfo> targets = new ArrayList<>(classes.size());
+		for (JvmClassInfo classInfo : classes) {
+			List<String> breadcrumbs = classInfo.getOuterClassBreadcrumbs();
+			if (!classInfo.isInnerClass() || breadcrumbs.isEmpty() || !names.contains(breadcrumbs.getFirst()))
+				targets.add(classInfo);
+		}
+		int skipped = classes.size() - targets.size();
+
+		// Schedule each chunk of classes.
+		Map<String, Throwable> failures = new ConcurrentHashMap<>();
+		AtomicInteger decompiled = new AtomicInteger();
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < targets.size(); i += BATCH_CHUNK_SIZE) {
+			List<JvmClassInfo> chunk = targets.subList(i, Math.min(targets.size(), i + BATCH_CHUNK_SIZE));
+			futures.add(CompletableFuture.runAsync(() -> {
+				foregroundTasks.incrementAndGet();
+				try {
+					decompileChunk(decompiler, workspace, chunk, budget, writer, completionListener, failures, decompiled);
+				} finally {
+					foregroundTasks.decrementAndGet();
+				}
+			}, decompileThreadPool));
+		}
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+				.thenApply(ignored -> new BatchDecompileResult(decompiled.get(), skipped, failures, System.nanoTime() - start));
+	}
+
+	private void decompileChunk(@Nonnull JvmDecompiler decompiler,
+	                            @Nonnull Workspace workspace,
+	                            @Nonnull List<JvmClassInfo> chunk,
+	                            @Nonnull DecompileBudget budget,
+	                            @Nonnull DecompileOutputWriter writer,
+	                            @Nullable Consumer<String> completionListener,
+	                            @Nonnull Map<String, Throwable> failures,
+	                            @Nonnull AtomicInteger decompiled) {
+		boolean doCache = config.getCacheDecompilations().getValue();
+		DecompileCache diskCache = config.getDiskCacheDecompilations().getValue() ? this.diskCache : null;
+		Map<String, DecompileResult> results = new TreeMap<>();
+		Map<String, String> diskCacheKeys = new TreeMap<>();
+		List<JvmClassInfo> pending = new ArrayList<>(chunk.size());
+		List<JvmClassInfo> uncached = new ArrayList<>(chunk.size());
+		for (JvmClassInfo classInfo : chunk) {
+			String name = classInfo.getName();
+
+			// Existing in-memory results already have output filters applied.
 			if (doCache) {
-				// Check for cached result, returning the cached result if found
-				// and only if the current config matches the one that yielded the cached result.
 				DecompileResult cachedResult = CachedDecompileProperty.get(classInfo, decompiler);
-				if (cachedResult != null) {
-					if (cachedResult.getConfigHash() == decompiler.getConfig().getHash())
-						return cachedResult;
-
-					// Config changed, void the cache.
-					CachedDecompileProperty.remove(classInfo);
+				if (cachedResult != null && cachedResult.getConfigHash() == decompiler.getConfig().getHash()) {
+					complete(name, cachedResult, writer, completionListener, failures, decompiled);
+					continue;
 				}
 			}
 
-			// We will use the layered filter manually here so any user requested cleanup is done before we pass the class to the decompiler.
-			// The decompiler base implementation skips some work if there are no registered filters so doing it externally like this is
-			// better for performance. If the user has no filtering enabled then no re-reads and re-writes are necessary.
+			// Same filtering and disk cache handling as single class decompilation.
+			pending.add(classInfo);
 			JvmClassInfo filteredClass = JvmBytecodeFilter.applyFilters(workspace, classInfo, Collections.singletonList(layeredJvmFilter));
+			String diskCacheKey = diskCache == null ? null : DecompileCache.key(decompiler, workspace, classInfo, filteredClass.getBytecode());
+			String cachedText = diskCacheKey == null ? null : diskCache.get(decompiler, diskCacheKey);
+			if (cachedText != null) {
+				results.put(name, new DecompileResult(cachedText, decompiler.getConfig().getHash()));
+			} else {
+				if (diskCacheKey != null)
+					diskCacheKeys.put(name, diskCacheKey);
+				uncached.add(filteredClass);
+			}
+		}
+
+		// Decompile remaining classes together, with a budget covering all of them.
+		if (!uncached.isEmpty()) {
+			int count = uncached.size();
+			DecompileBudget chunkBudget = new DecompileBudget(budget.timeoutMillis() * count, budget.maxAllocatedBytes() * count);
+			Map<String, DecompileResult> decompiledResults;
+			try {
+				decompiledResults = submitBudgeted(budgetedThreadPool, false, decompiler, chunkBudget,
+						() -> decompiler.decompile(workspace, uncached), null).join();
+			} catch (Throwable t) {
+				// Retry each class on its own, so only the problematic classes fail.
+				logger.warn("Failed to decompile batch of {} classes, decompiling individually", count, t);
+				decompiledResults = new TreeMap<>();
+				for (JvmClassInfo classInfo : uncached) {
+					DecompileResult result;
+					try {
+						result = submitBudgeted(budgetedThreadPool, false, decompiler, budget,
+								() -> decompiler.decompile(workspace, classInfo),
+								exceeded -> new DecompileResult(exceeded, decompiler.getConfig().getHash())).join();
+					} catch (Throwable ct) {
+						result = new DecompileResult(ct, decompiler.getConfig().getHash());
+					}
+					decompiledResults.put(classInfo.getName(), result);
+				}
+			}
+			for (Map.Entry<String, DecompileResult> entry : decompiledResults.entrySet()) {
+				String name = entry.getKey();
+				DecompileResult result = entry.getValue();
+				String diskCacheKey = diskCacheKeys.get(name);
+				if (diskCacheKey != null && result.getType() == DecompileResult.ResultType.SUCCESS && result.getText() != null)
+					diskCache.put(decompiler, diskCacheKey, result.getText());
+				results.put(name, result);
+			}
+		}
 
-			// Decompile and cache the results.
-			DecompileResult result = decompiler.decompile(workspace, filteredClass);
+		// Apply output filters and write results.
+		for (JvmClassInfo classInfo : pending) {
+			String name = classInfo.getName();
+			DecompileResult result = results.get(name);
+			if (result == null)
+				result = new DecompileResult(new IllegalStateException("Missing decompilation output"), decompiler.getConfig().getHash());
 			String decompilation = result.getText();
-			if (decompilation != null && !outputTextFilters.isEmpty()) {
-				// Apply output filters and re-wrap the result with the new output text.
+			if (result.getType() == DecompileResult.ResultType.SUCCESS && decompilation != null && !outputTextFilters.isEmpty()) {
 				for (OutputTextFilter textFilter : outputTextFilters)
 					decompilation = textFilter.filter(workspace, classInfo, decompilation);
 				result = new DecompileResult(decompilation, result.getConfigHash());
 			}
-			if (doCache)
-				CachedDecompileProperty.set(classInfo, decompiler, result);
-			return result;
-		}, decompileThreadPool);
+			complete(name, result, writer, completionListener, failures, decompiled);
+		}
+	}
+
+	private static void complete(@Nonnull String name,
+	                             @Nonnull DecompileResult result,
+	                             @Nonnull DecompileOutputWriter writer,
+	                             @Nullable Consumer<String> completionListener,
+	                             @Nonnull Map<String, Throwable> failures,
+	                             @Nonnull AtomicInteger decompiled) {
+		String text = result.getText();
+		if (result.getType() == DecompileResult.ResultType.SUCCESS && text != null) {
+			try {
+				writer.write(name, text);
+				decompiled.incrementAndGet();
+			} catch (IOException ex) {
+				failures.put(name, ex);
+			}
+		} else {
+			Throwable exception = result.getException();
+			failures.put(name, exception != null ? exception : new IllegalStateException("Decompilation was skipped"));
+		}
+		if (completionListener != null)
+			completionListener.accept(name);
 	}
 
 	/**
@@ -199,6 +865,14 @@ public CompletableFuture<DecompileResult> decompile(@Nonnull AndroidDecompiler d
 		return CompletableFuture.supplyAsync(() -> decompiler.decompile(workspace, classInfo), decompileThreadPool);
 	}
 
+	/**
+	 * @return Disk cache of decompiler outputs, or {@code null} when running in a test environment.
+	 */
+	@Nullable
+	public DecompileCache getDiskCache() {
+		return diskCache;
+	}
+
 	/**
 	 * Adds an input bytecode filter to all {@link JvmDecompiler} instances.
 	 *
@@ -403,4 +1077,115 @@ public byte[] filter(@Nonnull Workspace workspace, @Nonnull JvmClassInfo initial
 			}
 		}
 	}
+
+	/**
+	 * State of a single {@link #prefetch(JvmDecompiler, Workspace, JvmClassInfo) prefetch} request.
+	 */
+	private static class PrefetchSession {
+		private final CompletableFuture<Void> completion = new CompletableFuture<>();
+		private final JvmDecompiler decompiler;
+		private final Workspace workspace;
+		private final JvmClassInfo classInfo;
+		private volatile boolean cancelled;
+		private volatile CompletableFuture<DecompileResult> current;
+		private Queue<JvmClassInfo> queue;
+
+		private PrefetchSession(@Nonnull JvmDecompiler decompiler, @Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo) {
+			this.decompiler = decompiler;
+			this.workspace = workspace;
+			this.classInfo = classInfo;
+		}
+
+		private void cancel() {
+			cancelled = true;
+			completion.complete(null);
+
+			// Stop the class currently being decompiled, if any.
+			CompletableFuture<DecompileResult> current = this.current;
+			if (current != null)
+				current.cancel(true);
+		}
+
+		private boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Decompilation task with a {@link DecompileBudget}, tracking the thread running it so that it can be
+	 * interrupted when the budget is exceeded or the task is otherwise completed early.
+	 */
+	private static class BudgetedTask<T> {
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+		private final JvmDecompiler decompiler;
+		private final DecompileBudget budget;
+		private final Function<Throwable, T> exceededResult;
+		private Thread thread;
+		private long startNanos;
+		private long startAllocated;
+
+		private BudgetedTask(@Nonnull JvmDecompiler decompiler, @Nonnull DecompileBudget budget,
+		                     @Nullable Function<Throwable, T> exceededResult) {
+			this.decompiler = decompiler;
+			this.budget = budget;
+			this.exceededResult = exceededResult;
+
+			// If the result is provided early, by cancellation or by exceeding the budget,
+			// ask the decompiling thread to stop.
+			future.whenComplete((result, error) -> interrupt());
+		}
+
+		private synchronized void start() {
+			thread = Thread.currentThread();
+			startNanos = System.nanoTime();
+			startAllocated = budget.hasAllocationLimit() ? ThreadUtil.getThreadAllocatedBytes(thread) : -1;
+		}
+
+		private synchronized void finish() {
+			thread = null;
+
+			// Clear any interrupt sent after the decompiler finished, so it does not carry over to the next task.
+			Thread.interrupted();
+		}
+
+		/**
+		 * @param exceeded
+		 * 		Reason the budget was exceeded.
+		 */
+		private void exceed(@Nonnull Throwable exceeded) {
+			if (exceededResult == null)
+				future.completeExceptionally(exceeded);
+			else
+				future.complete(exceededResult.apply(exceeded));
+		}
+
+		private synchronized void interrupt() {
+			if (thread != null && thread != Thread.currentThread())
+				thread.interrupt();
+		}
+
+		/**
+		 * @return Reason the budget was exceeded, or {@code null} if the task is within budget or not running.
+		 */
+		@Nullable
+		private synchronized Throwable checkBudget() {
+			if (thread == null)
+				return null;
+			Throwable exceeded = null;
+			long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			if (budget.hasTimeout() && elapsedMillis > budget.timeoutMillis()) {
+				exceeded = new TimeoutException("Decompilation exceeded time limit of " + budget.timeoutMillis() + "ms");
+			} else if (budget.hasAllocationLimit() && startAllocated >= 0) {
+				long allocated = ThreadUtil.getThreadAllocatedBytes(thread) - startAllocated;
+				if (allocated > budget.maxAllocatedBytes())
+					exceeded = new IllegalStateException("Decompilation exceeded allocation limit of " +
+							(budget.maxAllocatedBytes() / 1024 / 1024) + "MB");
+			}
+
+			// The trace of the monitor thread is not useful to show to users.
+			if (exceeded != null)
+				exceeded.setStackTrace(new StackTraceElement[0]);
+			return exceeded;
+		}
+	}
 }
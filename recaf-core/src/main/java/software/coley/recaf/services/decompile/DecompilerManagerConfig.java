@@ -23,6 +23,14 @@ public class DecompilerManagerConfig extends BasicConfigContainer implements Ser
 	private final ObservableString preferredJvmDecompiler = new ObservableString(null);
 	private final ObservableString preferredAndroidDecompiler = new ObservableString(null);
 	private final ObservableBoolean cacheDecompilations = new ObservableBoolean(true);
+	private final ObservableBoolean diskCacheDecompilations = new ObservableBoolean(false);
+	private final ObservableInteger diskCacheSize = new ObservableInteger(256);
+	private final ObservableBoolean prefetchDecompilations = new ObservableBoolean(false);
+	private final ObservableInteger prefetchLimit = new ObservableInteger(8);
+	private final ObservableInteger prefetchTimeoutSeconds = new ObservableInteger(5);
+	private final ObservableInteger budgetTimeoutSeconds = new ObservableInteger(0);
+	private final ObservableInteger budgetAllocationMegabytes = new ObservableInteger(0);
+	private final ObservableBoolean raceFallback = new ObservableBoolean(false);
 	private final ObservableBoolean filterDebug = new ObservableBoolean(false);
 	private final ObservableBoolean filterHollow = new ObservableBoolean(false);
 	private final ObservableBoolean filterIllegalAnnotations = new ObservableBoolean(false);
@@ -42,6 +50,14 @@ public DecompilerManagerConfig() {
 		addValue(new BasicConfigValue<>(KEY_PREF_JVM_DECOMPILER, String.class, preferredJvmDecompiler));
 		addValue(new BasicConfigValue<>(KEY_PREF_ANDROID_DECOMPILER, String.class, preferredAndroidDecompiler));
 		addValue(new BasicConfigValue<>("cache-decompilations", boolean.class, cacheDecompilations));
+		addValue(new BasicConfigValue<>("disk-cache-decompilations", boolean.class, diskCacheDecompilations));
+		addValue(new BasicConfigValue<>("disk-cache-size", int.class, diskCacheSize));
+		addValue(new BasicConfigValue<>("prefetch-decompilations", boolean.class, prefetchDecompilations));
+		addValue(new BasicConfigValue<>("prefetch-limit", int.class, prefetchLimit));
+		addValue(new BasicConfigValue<>("prefetch-timeout-seconds", int.class, prefetchTimeoutSeconds));
+		addValue(new BasicConfigValue<>("budget-timeout-seconds", int.class, budgetTimeoutSeconds));
+		addValue(new BasicConfigValue<>("budget-allocation-mb", int.class, budgetAllocationMegabytes));
+		addValue(new BasicConfigValue<>("race-fallback", boolean.class, raceFallback));
 		addValue(new BasicConfigValue<>("filter-strip-debug", boolean.class, filterDebug));
 		addValue(new BasicConfigValue<>("filter-hollow", boolean.class, filterHollow));
 		addValue(new BasicConfigValue<>("filter-annotations-illegal", boolean.class, filterIllegalAnnotations));
@@ -79,6 +95,74 @@ public ObservableBoolean getCacheDecompilations() {
 		return cacheDecompilations;
 	}
 
+	/**
+	 * @return {@code true} to persist the results of decompilation tasks to disk via the {@link DecompileCache},
+	 * so they can be re-used across sessions. Disabled by default, since it writes decompiled sources of inputs to disk.
+	 */
+	@Nonnull
+	public ObservableBoolean getDiskCacheDecompilations() {
+		return diskCacheDecompilations;
+	}
+
+	/**
+	 * @return Maximum size of the {@link DecompileCache} on disk, in megabytes.
+	 */
+	@Nonnull
+	public ObservableInteger getDiskCacheSize() {
+		return diskCacheSize;
+	}
+
+	/**
+	 * @return {@code true} to decompile classes likely to be opened next in the background,
+	 * so that they are already cached when they are opened.
+	 */
+	@Nonnull
+	public ObservableBoolean getPrefetchDecompilations() {
+		return prefetchDecompilations;
+	}
+
+	/**
+	 * @return Maximum number of classes to decompile in the background when a class is opened.
+	 */
+	@Nonnull
+	public ObservableInteger getPrefetchLimit() {
+		return prefetchLimit;
+	}
+
+	/**
+	 * @return Time in seconds a single background decompilation may run for before it is cancelled,
+	 * or {@code 0} for no limit.
+	 */
+	@Nonnull
+	public ObservableInteger getPrefetchTimeoutSeconds() {
+		return prefetchTimeoutSeconds;
+	}
+
+	/**
+	 * @return Time in seconds a decompilation may run for before it is cancelled, or {@code 0} for no limit.
+	 */
+	@Nonnull
+	public ObservableInteger getBudgetTimeoutSeconds() {
+		return budgetTimeoutSeconds;
+	}
+
+	/**
+	 * @return Memory in megabytes a decompilation may allocate before it is cancelled, or {@code 0} for no limit.
+	 */
+	@Nonnull
+	public ObservableInteger getBudgetAllocationMegabytes() {
+		return budgetAllocationMegabytes;
+	}
+
+	/**
+	 * @return {@code true} to run the fallback decompiler alongside the requested decompiler,
+	 * using whichever output is successfully completed first.
+	 */
+	@Nonnull
+	public ObservableBoolean getRaceFallback() {
+		return raceFallback;
+	}
+
 	/**
 	 * @return {@code true} to filter out <i>all</i> debug information including generics, line numbers, variable names, etc.
 	 */
@@ -5,6 +5,10 @@
 import software.coley.recaf.services.decompile.filter.JvmBytecodeFilter;
 import software.coley.recaf.workspace.model.Workspace;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Outline for decompilers targeting {@link JvmClassInfo}.
  *
@@ -43,4 +47,23 @@ public interface JvmDecompiler extends Decompiler {
 	 */
 	@Nonnull
 	DecompileResult decompile(@Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo);
+
+	/**
+	 * Decompiles multiple classes. Implementations may share decompiler state between the classes,
+	 * such as parsed library classes, to reduce the cost of each individual decompilation.
+	 *
+	 * @param workspace
+	 * 		Workspace to pull data from.
+	 * @param classes
+	 * 		Classes to decompile.
+	 *
+	 * @return Map of class names to their decompilation results.
+	 */
+	@Nonnull
+	default Map<String, DecompileResult> decompile(@Nonnull Workspace workspace, @Nonnull List<JvmClassInfo> classes) {
+		Map<String, DecompileResult> results = new LinkedHashMap<>();
+		for (JvmClassInfo classInfo : classes)
+			results.put(classInfo.getName(), decompile(workspace, classInfo));
+		return results;
+	}
 }
@@ -0,0 +1,80 @@
+package software.coley.recaf.services.decompile.batch;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of a batch decompilation.
+ *
+ * @author Matt Coley
+ */
+public class BatchDecompileResult {
+	private final int decompiledCount;
+	private final int skippedCount;
+	private final Map<String, Throwable> failures;
+	private final long elapsedNanos;
+
+	/**
+	 * @param decompiledCount
+	 * 		Number of classes successfully decompiled and written.
+	 * @param skippedCount
+	 * 		Number of classes skipped, such as inner classes which are included in the output of their outer class.
+	 * @param failures
+	 * 		Map of class names to the reason they could not be decompiled or written.
+	 * @param elapsedNanos
+	 * 		Time taken to complete the batch.
+	 */
+	public BatchDecompileResult(int decompiledCount, int skippedCount, @Nonnull Map<String, Throwable> failures, long elapsedNanos) {
+		this.decompiledCount = decompiledCount;
+		this.skippedCount = skippedCount;
+		this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return Number of classes successfully decompiled and written.
+	 */
+	public int getDecompiledCount() {
+		return decompiledCount;
+	}
+
+	/**
+	 * @return Number of classes skipped, such as inner classes which are included in the output of their outer class.
+	 */
+	public int getSkippedCount() {
+		return skippedCount;
+	}
+
+	/**
+	 * @return Map of class names to the reason they could not be decompiled or written.
+	 */
+	@Nonnull
+	public Map<String, Throwable> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return Time taken to complete the batch, in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return Number of classes processed per second, including failures.
+	 */
+	public double getClassesPerSecond() {
+		if (elapsedNanos <= 0)
+			return 0;
+		return (decompiledCount + failures.size()) / (elapsedNanos / 1_000_000_000.0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BatchDecompileResult{decompiled=%d, skipped=%d, failed=%d, classesPerSecond=%.1f}",
+				decompiledCount, skippedCount, failures.size(), getClassesPerSecond());
+	}
+}
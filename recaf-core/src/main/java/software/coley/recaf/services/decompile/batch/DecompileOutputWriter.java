@@ -0,0 +1,67 @@
+package software.coley.recaf.services.decompile.batch;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Destination for decompiled sources of a batch decompilation.
+ * Outputs are written as they are completed, so that the full set of decompiled sources never needs to be held in memory.
+ * <br>
+ * Implementations must support being written to from multiple threads.
+ *
+ * @author Matt Coley
+ */
+public interface DecompileOutputWriter extends Closeable {
+	/**
+	 * @param className
+	 * 		Internal name of the decompiled class.
+	 * @param source
+	 * 		Decompiled source of the class.
+	 *
+	 * @throws IOException
+	 * 		When the source cannot be written.
+	 */
+	void write(@Nonnull String className, @Nonnull String source) throws IOException;
+
+	/**
+	 * @param path
+	 * 		Path to the ZIP file to write.
+	 *
+	 * @return Writer which writes decompiled sources as entries in a ZIP file.
+	 *
+	 * @throws IOException
+	 * 		When the ZIP file cannot be created.
+	 */
+	@Nonnull
+	static DecompileOutputWriter zip(@Nonnull Path path) throws IOException {
+		return new ZipDecompileOutputWriter(path);
+	}
+
+	/**
+	 * @param directory
+	 * 		Root directory to write sources into.
+	 *
+	 * @return Writer which writes decompiled sources as files in a directory.
+	 *
+	 * @throws IOException
+	 * 		When the directory cannot be created.
+	 */
+	@Nonnull
+	static DecompileOutputWriter directory(@Nonnull Path directory) throws IOException {
+		return new DirectoryDecompileOutputWriter(directory);
+	}
+
+	/**
+	 * @param className
+	 * 		Internal name of the decompiled class.
+	 *
+	 * @return Relative path of the source file for the class.
+	 */
+	@Nonnull
+	static String sourcePath(@Nonnull String className) {
+		return className + ".java";
+	}
+}
@@ -0,0 +1,45 @@
+package software.coley.recaf.services.decompile.batch;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes decompiled sources as files in a directory, following the package structure of the classes.
+ *
+ * @author Matt Coley
+ */
+public class DirectoryDecompileOutputWriter implements DecompileOutputWriter {
+	private final Path root;
+
+	/**
+	 * @param root
+	 * 		Root directory to write sources into.
+	 *
+	 * @throws IOException
+	 * 		When the directory cannot be created.
+	 */
+	public DirectoryDecompileOutputWriter(@Nonnull Path root) throws IOException {
+		this.root = root.toAbsolutePath().normalize();
+		Files.createDirectories(this.root);
+	}
+
+	@Override
+	public void write(@Nonnull String className, @Nonnull String source) throws IOException {
+		Path path = root.resolve(DecompileOutputWriter.sourcePath(className)).normalize();
+
+		// Class names are not trusted input, so we must ensure they cannot escape the output directory.
+		if (!path.startsWith(root))
+			throw new IOException("Class name '" + className + "' resolves outside of the output directory");
+		Files.createDirectories(path.getParent());
+		Files.writeString(path, source, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() {
+		// no-op
+	}
+}
@@ -0,0 +1,51 @@
+package software.coley.recaf.services.decompile.batch;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes decompiled sources as entries in a ZIP file, streaming each entry to disk as it is written.
+ *
+ * @author Matt Coley
+ */
+public class ZipDecompileOutputWriter implements DecompileOutputWriter {
+	private final ZipOutputStream zos;
+
+	/**
+	 * @param path
+	 * 		Path to the ZIP file to write.
+	 *
+	 * @throws IOException
+	 * 		When the ZIP file cannot be created.
+	 */
+	public ZipDecompileOutputWriter(@Nonnull Path path) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+	}
+
+	@Override
+	public void write(@Nonnull String className, @Nonnull String source) throws IOException {
+		byte[] content = source.getBytes(StandardCharsets.UTF_8);
+		synchronized (zos) {
+			zos.putNextEntry(new ZipEntry(DecompileOutputWriter.sourcePath(className)));
+			zos.write(content);
+			zos.closeEntry();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (zos) {
+			zos.close();
+		}
+	}
+}
@@ -40,7 +40,10 @@ public InputStream getInputStream(String resource) {
 		if (name.equals(targetInfo.getName()))
 			return new ByteArrayInputStream(targetInfo.getBytecode());
 
-		ClassPathNode node = workspace.findClass(name);
+		// Only JVM classes are relevant, so we can skip checking for Android classes.
+		ClassPathNode node = workspace.findJvmClass(name);
+		if (node == null)
+			node = workspace.findLatestVersionedJvmClass(name);
 		if (node == null) return null; // VF wants missing data to be null here, not an IOException or empty stream.
 		return new ByteArrayInputStream(node.getValue().asJvmClass().getBytecode());
 	}
@@ -5,8 +5,12 @@
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.workspace.model.Workspace;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Full library source for Vineflower.
@@ -16,6 +20,7 @@
  */
 public class LibrarySource extends BaseSource {
 	private final List<Entry> entries;
+	private final Map<String, byte[]> targetBytecode;
 
 	/**
 	 * @param entries
@@ -26,8 +31,39 @@ public class LibrarySource extends BaseSource {
 	 * 		Target class to decompile.
 	 */
 	protected LibrarySource(@Nonnull List<IContextSource.Entry> entries, @Nonnull Workspace workspace, @Nonnull JvmClassInfo targetInfo) {
-		super(workspace, targetInfo);
+		this(entries, workspace, List.of(targetInfo));
+	}
+
+	/**
+	 * @param entries
+	 * 		List of context entries in the given workspace.
+	 * @param workspace
+	 * 		Workspace to pull class files from.
+	 * @param targetInfos
+	 * 		Target classes to decompile. Must not be empty.
+	 */
+	protected LibrarySource(@Nonnull List<IContextSource.Entry> entries, @Nonnull Workspace workspace, @Nonnull List<JvmClassInfo> targetInfos) {
+		super(workspace, targetInfos.getFirst());
 		this.entries = entries;
+		if (targetInfos.size() > 1) {
+			targetBytecode = new HashMap<>(targetInfos.size());
+			for (JvmClassInfo info : targetInfos)
+				targetBytecode.put(info.getName(), info.getBytecode());
+		} else {
+			targetBytecode = Collections.emptyMap();
+		}
+	}
+
+	@Override
+	public InputStream getInputStream(String resource) {
+		// Prefer the provided bytecode of targets over the workspace copies, as they may have been filtered.
+		if (!targetBytecode.isEmpty()) {
+			String name = resource.substring(0, resource.length() - CLASS_SUFFIX.length());
+			byte[] bytecode = targetBytecode.get(name);
+			if (bytecode != null)
+				return new ByteArrayInputStream(bytecode);
+		}
+		return super.getInputStream(resource);
 	}
 
 	@Override
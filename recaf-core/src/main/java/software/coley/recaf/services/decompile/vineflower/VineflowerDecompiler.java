@@ -4,13 +4,21 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jetbrains.java.decompiler.main.Fernflower;
+import org.jetbrains.java.decompiler.main.extern.IContextSource;
 import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
 import org.jetbrains.java.decompiler.main.extern.IResultSaver;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.services.decompile.AbstractJvmDecompiler;
 import software.coley.recaf.services.decompile.DecompileResult;
+import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.workspace.model.Workspace;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Vineflower decompiler implementation.
  *
@@ -22,20 +30,25 @@ public class VineflowerDecompiler extends AbstractJvmDecompiler {
 	private final VineflowerConfig config;
 	private final IFernflowerLogger logger;
 	private final IResultSaver dummySaver = new DummyResultSaver();
-	private final WorkspaceEntriesCache workspaceEntriesCache = new WorkspaceEntriesCache();
+	private volatile EntriesSnapshot entries;
 
 	/**
 	 * New Vineflower decompiler instance.
 	 *
+	 * @param workspaceManager
+	 * 		Workspace manager.
 	 * @param config
 	 * 		Decompiler configuration.
 	 */
 	@Inject
-	public VineflowerDecompiler(@Nonnull VineflowerConfig config) {
+	public VineflowerDecompiler(@Nonnull WorkspaceManager workspaceManager, @Nonnull VineflowerConfig config) {
 		// Change this version to be dynamic when / if the Vineflower authors make a function that returns the version...
 		super(NAME, "1.11.2", config);
 		this.config = config;
 		logger = new VineflowerLogger(config);
+
+		// Do not hold onto the class names of closed workspaces.
+		workspaceManager.addWorkspaceCloseListener(workspace -> entries = null);
 	}
 
 	@Nonnull
@@ -46,7 +59,7 @@ public DecompileResult decompileInternal(@Nonnull Workspace workspace, @Nonnull
 		try {
 			ClassSource source = new ClassSource(workspace, info);
 			fernflower.addSource(source);
-			fernflower.addLibrary(new LibrarySource(workspaceEntriesCache.getCachedEntries(workspace), workspace, info));
+			fernflower.addLibrary(new LibrarySource(entries(workspace), workspace, info));
 			fernflower.decompileContext();
 
 			String decompiled = source.getSink().getDecompiledOutput().get();
@@ -58,4 +71,79 @@ public DecompileResult decompileInternal(@Nonnull Workspace workspace, @Nonnull
 			return new DecompileResult(e, config.getHash());
 		}
 	}
+
+	@Nonnull
+	@Override
+	protected Map<String, DecompileResult> decompileInternal(@Nonnull Workspace workspace, @Nonnull List<JvmClassInfo> classes) {
+		if (classes.size() <= 1)
+			return super.decompileInternal(workspace, classes);
+
+		// Decompile all classes in a single context, so that library classes are only loaded and parsed once.
+		Fernflower fernflower = new Fernflower(dummySaver, config.getFernflowerProperties(), logger);
+		try {
+			List<ClassSource> sources = new ArrayList<>(classes.size());
+			for (JvmClassInfo info : classes) {
+				ClassSource source = new ClassSource(workspace, info);
+				sources.add(source);
+				fernflower.addSource(source);
+			}
+			fernflower.addLibrary(new LibrarySource(entries(workspace), workspace, classes));
+			fernflower.decompileContext();
+
+			Map<String, DecompileResult> results = new LinkedHashMap<>();
+			for (ClassSource source : sources) {
+				String decompiled = source.getSink().getDecompiledOutput().get();
+				source.getSink().getDecompiledOutput().remove();
+				String name = source.targetInfo.getName();
+				if (decompiled == null || decompiled.isEmpty())
+					results.put(name, new DecompileResult(new IllegalStateException("Missing decompilation output"), config.getHash()));
+				else
+					results.put(name, new DecompileResult(decompiled, config.getHash()));
+			}
+			return results;
+		} catch (Exception e) {
+			// If the batch was cancelled, such as by exceeding its budget, redoing the work here would only
+			// waste time on an abandoned thread. The caller is responsible for retrying the classes individually.
+			if (Thread.currentThread().isInterrupted()) {
+				Map<String, DecompileResult> results = new LinkedHashMap<>();
+				for (JvmClassInfo info : classes)
+					results.put(info.getName(), new DecompileResult(e, config.getHash()));
+				return results;
+			}
+
+			// A failure in the shared context does not tell us which class is at fault,
+			// so decompile each class on its own to isolate the failure.
+			return super.decompileInternal(workspace, classes);
+		}
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to get the entries of.
+	 *
+	 * @return List of all distinctly named entries for classes in the workspace.
+	 * Shared between decompilations while the {@link Workspace#getJvmClassNames() class names} do not change.
+	 */
+	@Nonnull
+	private List<IContextSource.Entry> entries(@Nonnull Workspace workspace) {
+		List<String> names = workspace.getJvmClassNames();
+		EntriesSnapshot snapshot = entries;
+		if (snapshot != null && snapshot.names() == names)
+			return snapshot.entries();
+
+		List<IContextSource.Entry> built = new ArrayList<>(names.size());
+		for (String name : names)
+			built.add(new IContextSource.Entry(name, IContextSource.Entry.BASE_VERSION));
+		List<IContextSource.Entry> local = Collections.unmodifiableList(built);
+		entries = new EntriesSnapshot(names, local);
+		return local;
+	}
+
+	/**
+	 * @param names
+	 * 		Class names the entries were built from.
+	 * @param entries
+	 * 		Entries of the class names.
+	 */
+	private record EntriesSnapshot(@Nonnull List<String> names, @Nonnull List<IContextSource.Entry> entries) {}
 }
@@ -18,11 +18,15 @@
 import software.coley.recaf.services.inheritance.InheritanceGraph;
 import software.coley.recaf.services.inheritance.InheritanceGraphService;
 import software.coley.recaf.services.transform.ClassTransformer;
+import software.coley.recaf.services.transform.JvmClassSummary;
 import software.coley.recaf.services.transform.JvmClassTransformer;
 import software.coley.recaf.services.transform.JvmTransformerContext;
 import software.coley.recaf.services.transform.TransformationException;
 import software.coley.recaf.util.analysis.ReEvaluationException;
 import software.coley.recaf.util.analysis.ReEvaluator;
+import software.coley.recaf.util.analysis.ReInterpreter;
+import software.coley.recaf.util.analysis.lookup.BasicInvokeStaticLookup;
+import software.coley.recaf.util.analysis.lookup.BasicInvokeVirtualLookup;
 import software.coley.recaf.util.analysis.value.DoubleValue;
 import software.coley.recaf.util.analysis.value.LongValue;
 import software.coley.recaf.util.analysis.value.ReValue;
@@ -43,6 +47,8 @@
 @Dependent
 public class CallResultInliningTransformer implements JvmClassTransformer {
 	private final static int MAX_STEPS = 20_000; // TODO: Make configurable
+	private final static int MAX_MEMOIZED_RESULTS = 10_000;
+	private final static int MAX_NATIVE_MILLIS = 1_000;
 	private final InheritanceGraphService graphService;
 	private final Object2BooleanMap<String> canBeEvaluatedMap = new Object2BooleanArrayMap<>();
 	private InheritanceGraph inheritanceGraph;
@@ -56,7 +62,23 @@ public CallResultInliningTransformer(@Nonnull InheritanceGraphService graphServi
 	@Override
 	public void setup(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace) {
 		inheritanceGraph = graphService.getOrCreateInheritanceGraph(workspace);
-		evaluator = new ReEvaluator(workspace, context.newInterpreter(inheritanceGraph), MAX_STEPS);
+		ReInterpreter interpreter = context.newInterpreter(inheritanceGraph);
+
+		// Results of evaluating the same method with the same inputs can be re-used
+		// so long as the lookups for invoked methods do not have side effects.
+		// The evaluator does not memoize methods invoking lookups that are not deterministic, such as 'Math.random()'.
+		// Those same lookups are what native execution is limited to.
+		boolean basicLookups = interpreter.getInvokeStaticLookup() instanceof BasicInvokeStaticLookup
+				&& interpreter.getInvokeVirtualLookup() instanceof BasicInvokeVirtualLookup;
+		evaluator = new ReEvaluator(workspace, interpreter, MAX_STEPS, basicLookups ? MAX_MEMOIZED_RESULTS : 0);
+		if (basicLookups)
+			evaluator.setNativeExecutionTimeout(MAX_NATIVE_MILLIS);
+	}
+
+	@Override
+	public boolean isApplicable(@Nonnull JvmTransformerContext context, @Nonnull JvmClassSummary summary) {
+		// Only static method calls are inlined.
+		return summary.hasOpcode(Opcodes.INVOKESTATIC);
 	}
 
 	@Override
@@ -10,6 +10,7 @@
 import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.TryCatchBlockNode;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.transform.JvmClassSummary;
 import software.coley.recaf.services.transform.JvmClassTransformer;
 import software.coley.recaf.services.transform.JvmTransformerContext;
 import software.coley.recaf.services.transform.TransformationException;
@@ -46,6 +47,11 @@ public class DuplicateCatchMergingTransformer implements JvmClassTransformer {
 	 */
 	private static final int MIN_BLOCK_THRESHOLD = 4;
 
+	@Override
+	public boolean isApplicable(@Nonnull JvmTransformerContext context, @Nonnull JvmClassSummary summary) {
+		return summary.hasTryCatch();
+	}
+
 	@Override
 	public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
 	                      @Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
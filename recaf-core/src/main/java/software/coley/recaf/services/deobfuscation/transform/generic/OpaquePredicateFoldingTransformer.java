@@ -16,6 +16,7 @@
 import software.coley.recaf.services.inheritance.InheritanceGraph;
 import software.coley.recaf.services.inheritance.InheritanceGraphService;
 import software.coley.recaf.services.transform.ClassTransformer;
+import software.coley.recaf.services.transform.JvmClassSummary;
 import software.coley.recaf.services.transform.JvmClassTransformer;
 import software.coley.recaf.services.transform.JvmTransformerContext;
 import software.coley.recaf.services.transform.TransformationException;
@@ -57,6 +58,14 @@ public void setup(@Nonnull JvmTransformerContext context, @Nonnull Workspace wor
 		inheritanceGraph = graphService.getOrCreateInheritanceGraph(workspace);
 	}
 
+	@Override
+	public boolean isApplicable(@Nonnull JvmTransformerContext context, @Nonnull JvmClassSummary summary) {
+		// Only conditional jumps and switches are folded.
+		return summary.hasAnyOpcode(IFEQ, IFNE, IFLT, IFGE, IFGT, IFLE,
+				IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT, IF_ICMPLE,
+				IF_ACMPEQ, IF_ACMPNE, IFNULL, IFNONNULL, TABLESWITCH, LOOKUPSWITCH);
+	}
+
 	@Override
 	public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
 	                      @Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
@@ -21,6 +21,7 @@
 import software.coley.recaf.services.inheritance.InheritanceGraphService;
 import software.coley.recaf.services.inheritance.InheritanceVertex;
 import software.coley.recaf.services.transform.ClassTransformer;
+import software.coley.recaf.services.transform.JvmClassSummary;
 import software.coley.recaf.services.transform.JvmClassTransformer;
 import software.coley.recaf.services.transform.JvmTransformerContext;
 import software.coley.recaf.services.transform.TransformationException;
@@ -85,6 +86,11 @@ public void setup(@Nonnull JvmTransformerContext context, @Nonnull Workspace wor
 		inheritanceGraph = graphService.getOrCreateInheritanceGraph(workspace);
 	}
 
+	@Override
+	public boolean isApplicable(@Nonnull JvmTransformerContext context, @Nonnull JvmClassSummary summary) {
+		return summary.hasTryCatch();
+	}
+
 	@Override
 	public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
 	                      @Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
@@ -30,6 +30,7 @@
 import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
@@ -49,6 +50,7 @@
 public class StaticValueCollectionTransformer implements JvmClassTransformer, GetStaticLookup {
 	private final Map<String, StaticValues> classValues = new ConcurrentHashMap<>();
 	private final Map<String, EffectivelyFinalFields> classFinals = new ConcurrentHashMap<>();
+	private final Set<String> visitedClasses = ConcurrentHashMap.newKeySet();
 	private final InheritanceGraphService graphService;
 	private final WorkspaceManager workspaceManager;
 	private InheritanceGraph inheritanceGraph;
@@ -77,6 +79,17 @@ public ReValue getStaticValue(@Nonnull String className, @Nonnull String fieldNa
 		return values.get(fieldName, fieldDesc);
 	}
 
+	/**
+	 * @param className
+	 * 		Name of class defining static fields.
+	 *
+	 * @return {@code true} when any static field value is known for the class.
+	 */
+	public boolean hasStaticValues(@Nonnull String className) {
+		StaticValues values = classValues.get(className);
+		return values != null && !values.staticFieldValues.isEmpty();
+	}
+
 	@Nonnull
 	@Override
 	public ReValue get(@Nonnull FieldInsnNode field) {
@@ -216,8 +229,17 @@ else if (field.hasPrivateModifier())
 		}
 
 		// Record the values for the target class if we recorded at least one value
-		if (!valuesContainer.staticFieldValues.isEmpty())
-			classValues.put(className, valuesContainer);
+		StaticValues previous = valuesContainer.staticFieldValues.isEmpty() ?
+				classValues.remove(className) : classValues.put(className, valuesContainer);
+
+		// If the values differ from what was recorded in a prior pass, classes using them need to be revisited.
+		// On the first visit of a class there is nothing prior to compare against, and all classes are visited anyways.
+		boolean visitedBefore = !visitedClasses.add(className);
+		if (visitedBefore) {
+			Map<String, ReValue> previousValues = previous == null ? Collections.emptyMap() : previous.staticFieldValues;
+			if (!previousValues.equals(valuesContainer.staticFieldValues))
+				context.markClassDataChanged(className);
+		}
 	}
 
 	@Nonnull
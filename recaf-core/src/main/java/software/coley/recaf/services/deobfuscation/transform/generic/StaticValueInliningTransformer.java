@@ -11,6 +11,7 @@
 import org.objectweb.asm.tree.MethodNode;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.services.transform.ClassTransformer;
+import software.coley.recaf.services.transform.JvmClassSummary;
 import software.coley.recaf.services.transform.JvmClassTransformer;
 import software.coley.recaf.services.transform.JvmTransformerContext;
 import software.coley.recaf.services.transform.TransformationException;
@@ -36,6 +37,20 @@
  */
 @Dependent
 public class StaticValueInliningTransformer implements JvmClassTransformer {
+	@Override
+	public boolean isApplicable(@Nonnull JvmTransformerContext context, @Nonnull JvmClassSummary summary) {
+		// Only classes with field instructions referencing classes with collected static values can be affected.
+		StaticValueCollectionTransformer staticValueCollector = context.getOptionalJvmTransformer(StaticValueCollectionTransformer.class);
+		if (staticValueCollector == null)
+			return true;
+		if (!summary.hasAnyOpcode(Opcodes.GETSTATIC, Opcodes.PUTSTATIC, Opcodes.GETFIELD, Opcodes.PUTFIELD))
+			return false;
+		for (String owner : summary.getReferencedOwners())
+			if (staticValueCollector.hasStaticValues(owner))
+				return true;
+		return false;
+	}
+
 	@Override
 	@SuppressWarnings("OptionalGetWithoutIsPresent")
 	public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
@@ -0,0 +1,249 @@
+package software.coley.recaf.services.inheritance;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.ClassInfo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Precomputed encoding of the class hierarchy for fast subtype checks.
+ * <ul>
+ *     <li>Each class records its super-class chain as an array, from the root type down to itself.
+ *     Checking if {@code A} is a super-class of {@code B} is then a single array index comparison
+ *     at the depth of {@code A} in the chain of {@code B}.</li>
+ *     <li>Each interface is assigned an integer id, and each class records the ids of all interfaces it implements,
+ *     directly or through its parents, as a bit-set row.</li>
+ * </ul>
+ * Entries are computed on demand from the entries of their parents. Changes to a class only invalidate the entries of
+ * that class and its children, so the remaining entries stay valid as the workspace is modified.
+ *
+ * @author Matt Coley
+ */
+class HierarchyEncoding {
+	private static final String OBJECT = "java/lang/Object";
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, Integer> interfaceIds = new ConcurrentHashMap<>();
+	private final AtomicInteger nextInterfaceId = new AtomicInteger();
+	private final Function<String, InheritanceVertex> vertexLookup;
+	private final Function<String, Collection<String>> childrenLookup;
+	private volatile int generation;
+
+	/**
+	 * @param vertexLookup
+	 * 		Class vertex lookup.
+	 * @param childrenLookup
+	 * 		Class direct child lookup.
+	 */
+	HierarchyEncoding(@Nonnull Function<String, InheritanceVertex> vertexLookup,
+	                  @Nonnull Function<String, Collection<String>> childrenLookup) {
+		this.vertexLookup = vertexLookup;
+		this.childrenLookup = childrenLookup;
+	}
+
+	/**
+	 * @param parent
+	 * 		Assumed super-class or interface type.
+	 * @param child
+	 * 		Assumed child type.
+	 *
+	 * @return {@code true} when the parent type is the child type, or a parent of the child type.
+	 */
+	boolean isParentOrSelf(@Nonnull String parent, @Nonnull String child) {
+		if (parent.equals(child))
+			return true;
+		Entry childEntry = entry(child);
+		if (childEntry == null)
+			return false;
+
+		// Check super-class chain, at the depth of the parent in the chain.
+		String[] chain = childEntry.superChain;
+		Entry parentEntry = entry(parent);
+		int depth = parentEntry == null ? 0 : parentEntry.superChain.length - 1;
+		if (depth < chain.length && parent.equals(chain[depth]))
+			return true;
+
+		// Check interfaces.
+		Integer id = interfaceIds.get(parent);
+		return id != null && childEntry.interfaces.get(id);
+	}
+
+	/**
+	 * Finds the closest parent of the second type, via breadth-first search, which is also a parent of the first type.
+	 *
+	 * @param first
+	 * 		First class name.
+	 * @param second
+	 * 		Second class name.
+	 *
+	 * @return Common parent of the classes, or {@code null} if they only share {@code java/lang/Object}.
+	 */
+	@Nullable
+	String getCommon(@Nonnull String first, @Nonnull String second) {
+		if (isParentOrSelf(second, first))
+			return second;
+		Set<String> visited = new HashSet<>();
+		Queue<String> queue = new ArrayDeque<>();
+		queue.add(second);
+		while (!queue.isEmpty()) {
+			Entry entry = entry(queue.remove());
+			if (entry == null)
+				continue;
+			for (String parent : entry.parents) {
+				if (OBJECT.equals(parent) || !visited.add(parent))
+					continue;
+				if (isParentOrSelf(parent, first))
+					return parent;
+				queue.add(parent);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return {@code true} when the class exists and has an entry in the encoding.
+	 */
+	boolean contains(@Nonnull String name) {
+		return entry(name) != null;
+	}
+
+	/**
+	 * Invalidates the entries of the given class and all of its children.
+	 *
+	 * @param name
+	 * 		Name of class which had its hierarchy change.
+	 */
+	void invalidate(@Nonnull String name) {
+		generation++;
+		Queue<String> queue = new ArrayDeque<>();
+		Set<String> visited = new HashSet<>();
+		queue.add(name);
+		while (!queue.isEmpty()) {
+			String next = queue.remove();
+			if (visited.add(next)) {
+				entries.remove(next);
+				queue.addAll(childrenLookup.apply(next));
+			}
+		}
+	}
+
+	/**
+	 * Invalidates all entries.
+	 */
+	void clear() {
+		generation++;
+		entries.clear();
+	}
+
+	@Nullable
+	private Entry entry(@Nonnull String name) {
+		Entry entry = entries.get(name);
+		if (entry == null)
+			entry = entry(name, new HashSet<>(), generation);
+		return entry;
+	}
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 * @param path
+	 * 		Names of classes currently being computed, used to break cycles.
+	 * @param startGeneration
+	 * 		Generation at the start of the computation. Entries computed while the encoding was invalidated
+	 * 		are returned, but not recorded.
+	 *
+	 * @return Entry of the class, or {@code null} if it does not exist.
+	 */
+	@Nullable
+	private Entry entry(@Nonnull String name, @Nonnull Set<String> path, int startGeneration) {
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			entry = compute(name, path, startGeneration);
+			if (entry != null && startGeneration == generation) {
+				Entry existing = entries.putIfAbsent(name, entry);
+				if (existing != null)
+					entry = existing;
+			}
+		}
+		return entry;
+	}
+
+	@Nullable
+	private Entry compute(@Nonnull String name, @Nonnull Set<String> path, int startGeneration) {
+		InheritanceVertex vertex = vertexLookup.apply(name);
+		if (vertex == null || !path.add(name))
+			return null;
+		ClassInfo info = vertex.getValue();
+
+		// Super-class chain of the parent, plus this class.
+		// If the parent does not exist, the chain starts at the parent name.
+		String superName = info.getSuperName();
+		String[] chain;
+		BitSet interfaces = new BitSet();
+		if (superName == null) {
+			chain = new String[]{name};
+		} else {
+			Entry superEntry = entry(superName, path, startGeneration);
+			if (superEntry == null) {
+				chain = new String[]{superName, name};
+			} else {
+				chain = new String[superEntry.superChain.length + 1];
+				System.arraycopy(superEntry.superChain, 0, chain, 0, superEntry.superChain.length);
+				chain[chain.length - 1] = name;
+				interfaces.or(superEntry.interfaces);
+			}
+		}
+
+		// Interfaces of the parents, plus direct interfaces, plus this class if it is an interface.
+		List<String> parents = new ArrayList<>(info.getInterfaces().size() + 1);
+		if (superName != null)
+			parents.add(superName);
+		for (String itf : info.getInterfaces()) {
+			parents.add(itf);
+			interfaces.set(interfaceId(itf));
+			Entry itfEntry = entry(itf, path, startGeneration);
+			if (itfEntry != null)
+				interfaces.or(itfEntry.interfaces);
+		}
+		if (info.hasInterfaceModifier())
+			interfaces.set(interfaceId(name));
+		path.remove(name);
+		return new Entry(chain, interfaces, Collections.unmodifiableList(parents));
+	}
+
+	private int interfaceId(@Nonnull String name) {
+		Integer id = interfaceIds.get(name);
+		if (id == null) {
+			Integer newId = nextInterfaceId.getAndIncrement();
+			id = interfaceIds.putIfAbsent(name, newId);
+			if (id == null)
+				id = newId;
+		}
+		return id;
+	}
+
+	/**
+	 * @param superChain
+	 * 		Super-class chain, from the root type down to the class itself.
+	 * @param interfaces
+	 * 		Ids of all interfaces implemented by the class.
+	 * @param parents
+	 * 		Direct super-class and interfaces of the class.
+	 */
+	private record Entry(@Nonnull String[] superChain, @Nonnull BitSet interfaces, @Nonnull List<String> parents) {}
+}
@@ -20,18 +20,13 @@
 import software.coley.recaf.workspace.model.resource.ResourceJvmClassListener;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
-import java.util.SequencedSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -47,6 +42,7 @@ public class InheritanceGraph implements WorkspaceModificationListener, Workspac
 	private final Map<String, Set<String>> parentToChild;
 	private final Map<String, InheritanceVertex> vertices;
 	private final Set<String> stubs = ConcurrentHashMap.newKeySet();
+	private final HierarchyEncoding encoding = new HierarchyEncoding(this::getVertex, this::getDirectChildren);
 	private final Workspace workspace;
 
 	/**
@@ -208,6 +204,7 @@ private void removeClass(@Nonnull ClassInfo cls) {
 		removeParentToChildLookup(cls);
 
 		String name = cls.getName();
+		encoding.invalidate(name);
 		vertices.remove(name);
 	}
 
@@ -289,14 +286,8 @@ public boolean isAssignableFrom(@Nonnull String first, @Nonnull String second) {
 		if (second.equals(OBJECT))
 			return false;
 
-		// Lookup vertex for the child type, and see if any parent contains the supposed super/interface type.
-		InheritanceVertex secondVertex = getVertex(second);
-		if (secondVertex != null && secondVertex.hasParent(second))
-			return true;
-
-		// Lookup vertex for the parent type, and see if any child contains the supposed type.
-		InheritanceVertex firstVertex = getVertex(first);
-		return firstVertex != null && firstVertex.hasChild(second);
+		// Check the encoded hierarchy of the child type for the supposed super/interface type.
+		return encoding.isParentOrSelf(first, second);
 	}
 
 	/**
@@ -315,76 +306,16 @@ public String getCommon(@Nonnull String first, @Nonnull String second) {
 		if (first.equals(second))
 			return first;
 
-		// Try with the first name
-		InheritanceVertex vertex = getVertex(first);
-		if (vertex != null)
-			return getCommon(vertex, first, second);
-
-		// Try again but with the other name
-		vertex = getVertex(second);
-		if (vertex != null)
-			return getCommon(vertex, second, first);
-
-		// Neither is resolvable
-		return OBJECT;
-	}
-
-	/**
-	 * @param firstVertex
-	 * 		Vertex of the {@code first} name.
-	 * @param first
-	 * 		First class name.
-	 * @param second
-	 * 		Second class name.
-	 *
-	 * @return Common parent of the classes.
-	 */
-	@Nonnull
-	private String getCommon(@Nonnull InheritanceVertex firstVertex, @Nonnull String first, @Nonnull String second) {
-		// Full upwards hierarchy for the first
-		SequencedSet<String> firstParents = firstVertex.allParents()
-				.map(InheritanceVertex::getParentAndCurrentNames)
-				.flatMap(Collection::stream)
-				.collect(Collectors.toCollection(LinkedHashSet::new));
-		firstParents.add(first);
-
-		// Ensure 'Object' is last
-		firstParents.remove(OBJECT);
-		firstParents.add(OBJECT);
-
-		// Base case
-		if (firstParents.contains(second))
-			return second;
-
-		// Iterate over second's parents via breadth-first-search
-		Queue<String> queue = new LinkedList<>();
-		queue.add(second);
-		do {
-			// Item to fetch parents of
-			String next = queue.poll();
-			if (next == null || next.equals(OBJECT))
-				continue;
-
-			InheritanceVertex nextVertex = getVertex(next);
-			if (nextVertex == null)
-				continue;
-
-			for (String parent : nextVertex.getParents().stream()
-					.map(InheritanceVertex::getParentAndCurrentNames)
-					.flatMap(Collection::stream)
-					.toList()) {
-				if (!parent.equals(OBJECT)) {
-					// Parent in the set of visited classes? Then its valid.
-					if (firstParents.contains(parent))
-						return parent;
-					// Queue up the parent
-					queue.add(parent);
-				}
-			}
-		} while (!queue.isEmpty());
-
-		// Fallback option
-		return OBJECT;
+		// Try with the first name, or the other name if the first is not resolvable
+		if (!encoding.contains(first)) {
+			if (!encoding.contains(second))
+				return OBJECT;
+			String temp = first;
+			first = second;
+			second = temp;
+		}
+		String common = encoding.getCommon(first, second);
+		return common == null ? OBJECT : common;
 	}
 
 	/**
@@ -450,17 +381,25 @@ private void onUpdateClassImpl(@Nonnull ClassInfo oldValue, @Nonnull ClassInfo n
 		InheritanceVertex vertex = getVertex(name);
 		if (vertex != null)
 			vertex.setValue(newValue);
+
+		// Update encoded hierarchy of the class and its children if its parents changed
+		if (!Objects.equals(oldValue.getSuperName(), newValue.getSuperName())
+				|| !oldValue.getInterfaces().equals(newValue.getInterfaces())
+				|| oldValue.hasInterfaceModifier() != newValue.hasInterfaceModifier())
+			encoding.invalidate(name);
 	}
 
 
 	@Override
 	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
 		populateParentToChildLookup(cls);
+		encoding.invalidate(cls.getName());
 	}
 
 	@Override
 	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull AndroidClassBundle bundle, @Nonnull AndroidClassInfo cls) {
 		populateParentToChildLookup(cls);
+		encoding.invalidate(cls.getName());
 	}
 
 	@Override
@@ -493,6 +432,7 @@ public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResourc
 				.flatMap(Bundle::stream)
 				.forEach(c -> populateParentToChildLookup(c, visited));
 		refreshChildLookup();
+		encoding.clear();
 	}
 
 	@Override
@@ -504,6 +444,7 @@ public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceReso
 				.flatMap(Bundle::stream)
 				.forEach(this::removeClass);
 		refreshChildLookup();
+		encoding.clear();
 	}
 
 	@Override
@@ -511,6 +452,7 @@ public void onWorkspaceClosed(@Nonnull Workspace workspace) {
 		parentToChild.clear();
 		vertices.clear();
 		stubs.clear();
+		encoding.clear();
 	}
 
 	@Override
@@ -547,6 +489,7 @@ public void onPostApply(@Nonnull Workspace workspace, @Nonnull MappingResults ma
 			ClassInfo postClass = path.getValue();
 			populateParentToChildLookup(postClass, visited);
 		});
+		encoding.clear();
 	}
 
 	private static class InheritanceStubVertex extends InheritanceVertex {
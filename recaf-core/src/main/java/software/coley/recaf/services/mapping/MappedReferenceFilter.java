@@ -0,0 +1,178 @@
+package software.coley.recaf.services.mapping;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
+import software.coley.cafedude.classfile.ConstantPoolConstants;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.mapping.data.ClassMappingKey;
+import software.coley.recaf.services.mapping.data.FieldMappingKey;
+import software.coley.recaf.services.mapping.data.MappingKey;
+import software.coley.recaf.services.mapping.data.MethodMappingKey;
+import software.coley.recaf.services.mapping.data.VariableMappingKey;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Pre-check for which classes may be affected by applying some mappings.
+ * <br>
+ * A class can only be changed by applying mappings if its constant pool mentions a mapped class, or the name
+ * of a mapped field or method, or if the class is the owner of mapped variables. All of these can be checked by
+ * scanning the {@code CONSTANT_Utf8} entries of the class without parsing the rest of the class file. This is much
+ * cheaper than running the full remapping pass, so classes which cannot be affected can be skipped.
+ * <br>
+ * Member names are matched regardless of their owner, since hierarchy lookups in {@link MappingsAdapter} can map
+ * references to a member through any child type of the declaring class. Likewise, inner classes of mapped classes
+ * are matched since their names are mapped along with their outer class. Thus the filter may yield false positives,
+ * but never false negatives.
+ *
+ * @author Matt Coley
+ */
+class MappedReferenceFilter {
+	private final Set<String> classNames;
+	private final Set<String> memberNames;
+	private final Set<String> variableOwners;
+
+	private MappedReferenceFilter(@Nonnull Set<String> classNames,
+	                              @Nonnull Set<String> memberNames,
+	                              @Nonnull Set<String> variableOwners) {
+		this.classNames = classNames;
+		this.memberNames = memberNames;
+		this.variableOwners = variableOwners;
+	}
+
+	/**
+	 * @param mappings
+	 * 		Mappings to be applied.
+	 *
+	 * @return Filter for classes affected by the mappings, or {@code null} if the contents of the mappings
+	 * cannot be enumerated, in which case all classes must be considered as affected.
+	 */
+	@Nullable
+	static MappedReferenceFilter create(@Nonnull Mappings mappings) {
+		// Other implementations may compute mapped names on the fly, so we cannot know what names they affect.
+		if (!(mappings instanceof MappingsAdapter adapter))
+			return null;
+		Set<String> classNames = new HashSet<>();
+		Set<String> memberNames = new HashSet<>();
+		Set<String> variableOwners = new HashSet<>();
+		for (MappingKey key : adapter.getMappingKeys()) {
+			if (key instanceof ClassMappingKey classKey) {
+				classNames.add(classKey.getName());
+			} else if (key instanceof FieldMappingKey fieldKey) {
+				memberNames.add(fieldKey.getName());
+			} else if (key instanceof MethodMappingKey methodKey) {
+				memberNames.add(methodKey.getName());
+			} else if (key instanceof VariableMappingKey variableKey) {
+				variableOwners.add(variableKey.getOwner());
+			} else {
+				// Unknown key type from a sub-class, so we cannot tell what it affects.
+				return null;
+			}
+		}
+		return new MappedReferenceFilter(classNames, memberNames, variableOwners);
+	}
+
+	/**
+	 * @param classInfo
+	 * 		Class to check.
+	 *
+	 * @return {@code true} when the class may be affected by the mappings.
+	 * {@code false} when the class is guaranteed to not be affected.
+	 */
+	boolean mayBeAffected(@Nonnull JvmClassInfo classInfo) {
+		if (variableOwners.contains(classInfo.getName()))
+			return true;
+		try {
+			ClassReader reader = classInfo.getClassReader();
+			int itemCount = reader.getItemCount();
+			char[] buffer = new char[reader.getMaxStringLength()];
+			for (int i = 1; i < itemCount; i++) {
+				int offset = reader.getItem(i);
+				if (offset >= 10 && reader.readByte(offset - 1) == ConstantPoolConstants.UTF8
+						&& isMapped(readUtf(reader, offset, buffer)))
+					return true;
+			}
+			return false;
+		} catch (Throwable t) {
+			// Malformed pool entries, let the full remapping pass handle the class.
+			return true;
+		}
+	}
+
+	/**
+	 * @param text
+	 * 		Text of a {@code CONSTANT_Utf8} entry.
+	 *
+	 * @return {@code true} when the text is a mapped member name, a mapped class name,
+	 * or a descriptor or signature containing a mapped class name.
+	 */
+	private boolean isMapped(@Nonnull String text) {
+		if (text.isEmpty())
+			return false;
+		if (memberNames.contains(text) || isMappedClass(text))
+			return true;
+
+		// Check each 'L<name>;' or 'L<name><' sequence, as used by descriptors and signatures.
+		// We check from every 'L' since class names may contain the character as well.
+		int length = text.length();
+		for (int start = text.indexOf('L'); start >= 0; start = text.indexOf('L', start + 1)) {
+			int end = start + 1;
+			while (end < length) {
+				char c = text.charAt(end);
+				if (c == ';' || c == '<')
+					break;
+				end++;
+			}
+			if (end == length)
+				break;
+			if (end > start + 1 && isMappedClass(text.substring(start + 1, end)))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean isMappedClass(@Nonnull String name) {
+		if (classNames.contains(name))
+			return true;
+
+		// Inner classes are mapped along with their outer class, see 'MappingsAdapter.getMappedClassName(String)'.
+		for (int split = name.indexOf('$'); split > 0; split = name.indexOf('$', split + 1))
+			if (classNames.contains(name.substring(0, split)))
+				return true;
+		return false;
+	}
+
+	/**
+	 * ASM only exposes reads of UTF8 entries through references to them, so we decode the entry ourselves.
+	 *
+	 * @param reader
+	 * 		Reader of class.
+	 * @param offset
+	 * 		Offset of the {@code CONSTANT_Utf8} entry content.
+	 * @param buffer
+	 * 		Buffer large enough to hold the decoded entry.
+	 *
+	 * @return Decoded modified UTF8 text.
+	 */
+	@Nonnull
+	private static String readUtf(@Nonnull ClassReader reader, int offset, @Nonnull char[] buffer) {
+		int current = offset + 2;
+		int end = current + reader.readUnsignedShort(offset);
+		int length = 0;
+		while (current < end) {
+			int b = reader.readByte(current++);
+			if ((b & 0x80) == 0) {
+				buffer[length++] = (char) (b & 0x7F);
+			} else if ((b & 0xE0) == 0xC0) {
+				buffer[length++] = (char) (((b & 0x1F) << 6) + (reader.readByte(current++) & 0x3F));
+			} else {
+				buffer[length++] = (char) (((b & 0xF) << 12)
+						+ ((reader.readByte(current++) & 0x3F) << 6)
+						+ (reader.readByte(current++) & 0x3F));
+			}
+		}
+		return new String(buffer, 0, length);
+	}
+}
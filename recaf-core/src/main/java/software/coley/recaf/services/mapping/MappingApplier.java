@@ -86,9 +86,10 @@ public MappingResults applyToClasses(@Nonnull Mappings mappings,
 
 		// Apply mappings to the provided classes, collecting into the results model.
 		Mappings finalMappings = mappings;
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
 		ExecutorService service = ThreadUtil.phasingService(applierThreadPool);
 		for (JvmClassInfo classInfo : classes)
-			service.execute(() -> dumpIntoResults(results, workspace, resource, bundle, classInfo, finalMappings));
+			service.execute(() -> dumpIntoResults(results, workspace, resource, bundle, classInfo, finalMappings, filter));
 		ThreadUtil.blockUntilComplete(service);
 
 		// Yield results
@@ -113,11 +114,12 @@ public MappingResults applyToPrimaryResource(@Nonnull Mappings mappings) {
 
 		// Apply mappings to all classes in the primary resource, collecting into the results model.
 		Mappings finalMappings = mappings;
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
 		ExecutorService service = ThreadUtil.phasingService(applierThreadPool);
 		WorkspaceResource resource = workspace.getPrimaryResource();
 		resource.jvmAllClassBundleStreamRecursive().forEach(bundle -> {
 			bundle.forEach(classInfo -> {
-				service.execute(() -> dumpIntoResults(results, workspace, resource, bundle, classInfo, finalMappings));
+				service.execute(() -> dumpIntoResults(results, workspace, resource, bundle, classInfo, finalMappings, filter));
 			});
 		});
 		ThreadUtil.blockUntilComplete(service);
@@ -167,16 +169,24 @@ private Mappings enrich(@Nonnull Mappings mappings) {
 	 * 		The class to apply mappings to.
 	 * @param mappings
 	 * 		The mappings to apply.
+	 * @param filter
+	 * 		Filter to skip classes not affected by the mappings, or {@code null} to process all classes.
 	 */
 	private static void dumpIntoResults(@Nonnull MappingResults results,
 	                                    @Nonnull Workspace workspace,
 	                                    @Nonnull WorkspaceResource resource,
 	                                    @Nonnull JvmClassBundle bundle,
 	                                    @Nonnull JvmClassInfo classInfo,
-	                                    @Nonnull Mappings mappings) {
+	                                    @Nonnull Mappings mappings,
+	                                    @Nullable MappedReferenceFilter filter) {
+		// Skip the remapping pass if the constant pool does not mention anything that is mapped.
+		if (filter != null && !filter.mayBeAffected(classInfo))
+			return;
+
 		String originalName = classInfo.getName();
 
-		// Apply renamer
+		// Apply renamer. Passing the reader to the writer copies the existing constant pool over,
+		// so that entries are not rebuilt for classes where only a few references are mapped.
 		ClassReader reader = classInfo.getClassReader();
 		ClassWriter writer = new ClassWriter(reader, 0);
 		WorkspaceClassRemapper remapVisitor = new WorkspaceClassRemapper(writer, workspace, mappings);
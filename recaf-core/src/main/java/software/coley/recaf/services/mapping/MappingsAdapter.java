@@ -10,9 +10,13 @@
 import software.coley.recaf.workspace.model.Workspace;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -29,6 +33,8 @@
  */
 public class MappingsAdapter implements Mappings {
 	private final Map<MappingKey, String> mappings = new HashMap<>();
+	private final Map<String, Map<MappingKey, Optional<String>>> hierarchyLookups = new ConcurrentHashMap<>();
+	private volatile MemberNames mappedMemberNames;
 	private final boolean supportFieldTypeDifferentiation;
 	private final boolean supportVariableTypeDifferentiation;
 	private InheritanceGraph inheritanceGraph;
@@ -130,8 +136,8 @@ public String getMappedClassName(@Nonnull String internalName) {
 	public String getMappedFieldName(@Nonnull String ownerName, @Nonnull String fieldName, @Nonnull String fieldDesc) {
 		MappingKey key = getFieldKey(ownerName, fieldName, fieldDesc);
 		String mapped = mappings.get(key);
-		if (mapped == null && inheritanceGraph != null) {
-			mapped = findInParent(ownerName, parent -> getFieldKey(parent, fieldName, fieldDesc));
+		if (mapped == null && inheritanceGraph != null && getMappedMemberNames().mayHaveField(fieldName)) {
+			mapped = findInParentCached(key, fieldName, ownerName, parent -> getFieldKey(parent, fieldName, fieldDesc));
 		}
 		return mapped;
 	}
@@ -141,8 +147,8 @@ public String getMappedFieldName(@Nonnull String ownerName, @Nonnull String fiel
 	public String getMappedMethodName(@Nonnull String ownerName, @Nonnull String methodName, @Nonnull String methodDesc) {
 		MappingKey key = getMethodKey(ownerName, methodName, methodDesc);
 		String mapped = mappings.get(key);
-		if (mapped == null && inheritanceGraph != null) {
-			mapped = findInParent(ownerName, parent -> getMethodKey(parent, methodName, methodDesc));
+		if (mapped == null && inheritanceGraph != null && getMappedMemberNames().mayHaveMethod(methodName)) {
+			mapped = findInParentCached(key, methodName, ownerName, parent -> getMethodKey(parent, methodName, methodDesc));
 		}
 		return mapped;
 	}
@@ -186,6 +192,99 @@ public boolean doesSupportVariableTypeDifferentiation() {
 		return supportVariableTypeDifferentiation;
 	}
 
+	/**
+	 * Hierarchy lookups are done for every member reference that is not directly mapped, so the results are recorded
+	 * to make repeated lookups of the same reference constant time. Results are grouped by member name, so that adding
+	 * a mapping only resets the results for members of the same name. The whole cache is reset when a new inheritance
+	 * graph is given, which is done at the start of each mapping application.
+	 *
+	 * @param key
+	 * 		Key of the member reference being looked up.
+	 * @param name
+	 * 		Name of the member being looked up.
+	 * @param owner
+	 * 		Internal name of the class <i>"defining"</i> the member.
+	 * @param lookup
+	 * 		Function that takes in the parent names of the given member owner class,
+	 * 		and converts it to a member lookup key.
+	 *
+	 * @return The first mapping match in a parent class found by the lookup function.
+	 *
+	 * @see #findInParent(String, Function)
+	 */
+	@Nullable
+	private String findInParentCached(@Nonnull MappingKey key, @Nonnull String name, @Nonnull String owner,
+	                                  @Nonnull Function<String, ? extends MappingKey> lookup) {
+		Map<MappingKey, Optional<String>> lookups = hierarchyLookups.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+		Optional<String> result = lookups.get(key);
+		if (result == null) {
+			result = Optional.ofNullable(findInParent(owner, lookup));
+			lookups.put(key, result);
+		}
+		return result.orElse(null);
+	}
+
+	/**
+	 * A parent can only provide a mapping for a member reference if some class has a mapping for a member
+	 * of the same name. Checking the name first lets us skip walking the hierarchy for most references.
+	 *
+	 * @return Names of all mapped fields and methods.
+	 */
+	@Nonnull
+	private MemberNames getMappedMemberNames() {
+		MemberNames names = mappedMemberNames;
+		if (names == null) {
+			// Concurrent sets since names are added as mappings are added, while remapping threads may be reading them.
+			Set<String> fields = ConcurrentHashMap.newKeySet();
+			Set<String> methods = ConcurrentHashMap.newKeySet();
+			boolean complete = true;
+			for (MappingKey key : mappings.keySet()) {
+				if (key instanceof FieldMappingKey fieldKey)
+					fields.add(fieldKey.getName());
+				else if (key instanceof MethodMappingKey methodKey)
+					methods.add(methodKey.getName());
+				else if (!(key instanceof ClassMappingKey) && !(key instanceof VariableMappingKey))
+					complete = false; // Unknown key type from a sub-class, cannot tell what members it covers.
+			}
+			names = new MemberNames(fields, methods, complete);
+			mappedMemberNames = names;
+		}
+		return names;
+	}
+
+	/**
+	 * Resets cached hierarchy lookup results.
+	 */
+	private void invalidateLookups() {
+		hierarchyLookups.clear();
+		mappedMemberNames = null;
+	}
+
+	/**
+	 * Updates cached hierarchy lookup state for a newly added mapping. Only lookups of members with the same name
+	 * as the added mapping can be affected, so other cached results are kept.
+	 *
+	 * @param key
+	 * 		Key of the added mapping.
+	 */
+	private void onMappingAdded(@Nonnull MappingKey key) {
+		MemberNames names = mappedMemberNames;
+		if (key instanceof FieldMappingKey fieldKey) {
+			String name = fieldKey.getName();
+			if (names != null)
+				names.fields().add(name);
+			hierarchyLookups.remove(name);
+		} else if (key instanceof MethodMappingKey methodKey) {
+			String name = methodKey.getName();
+			if (names != null)
+				names.methods().add(name);
+			hierarchyLookups.remove(name);
+		} else if (!(key instanceof ClassMappingKey) && !(key instanceof VariableMappingKey)) {
+			// Unknown key type from a sub-class, cannot tell what members it covers.
+			invalidateLookups();
+		}
+	}
+
 	/**
 	 * @param owner
 	 * 		Internal name of the class <i>"defining"</i> the member.
@@ -239,6 +338,7 @@ private boolean isInner(String internalName) {
 	 */
 	public void enableHierarchyLookup(@Nonnull InheritanceGraph inheritanceGraph) {
 		this.inheritanceGraph = inheritanceGraph;
+		invalidateLookups();
 	}
 
 	/**
@@ -252,6 +352,18 @@ public void enableClassLookup(@Nonnull Workspace workspace) {
 		this.workspace = workspace;
 	}
 
+	/**
+	 * Adds all the entries in the given mappings to the current mappings.
+	 *
+	 * @param other
+	 * 		Other mappings to add to the current mappings.
+	 */
+	public void addAll(@Nonnull MappingsAdapter other) {
+		mappings.putAll(other.mappings);
+		for (MappingKey key : other.mappings.keySet())
+			onMappingAdded(key);
+	}
+
 	/**
 	 * Add mapping for class name.
 	 *
@@ -279,7 +391,9 @@ public void addClass(@Nonnull String originalName, @Nonnull String renamedName)
 	 */
 	public void addField(@Nonnull String owner, @Nonnull String originalName, @Nonnull String desc, @Nonnull String renamedName) {
 		if (doesSupportFieldTypeDifferentiation()) {
-			mappings.put(getFieldKey(owner, originalName, desc), renamedName);
+			MappingKey key = getFieldKey(owner, originalName, desc);
+			mappings.put(key, renamedName);
+			onMappingAdded(key);
 		} else {
 			throw new IllegalStateException("The current mapping implementation does not support " +
 					"field type differentiation");
@@ -302,7 +416,9 @@ public void addField(@Nonnull String owner, @Nonnull String originalName, @Nonnu
 			throw new IllegalStateException("The current mapping implementation requires " +
 					"specifying field descriptors");
 		} else {
-			mappings.put(getFieldKey(owner, originalName, null), renamedName);
+			MappingKey key = getFieldKey(owner, originalName, null);
+			mappings.put(key, renamedName);
+			onMappingAdded(key);
 		}
 	}
 
@@ -319,7 +435,9 @@ public void addField(@Nonnull String owner, @Nonnull String originalName, @Nonnu
 	 * 		New name of the method.
 	 */
 	public void addMethod(@Nonnull String owner, @Nonnull String originalName, @Nonnull String desc, @Nonnull String renamedName) {
-		mappings.put(getMethodKey(owner, originalName, desc), renamedName);
+		MappingKey key = getMethodKey(owner, originalName, desc);
+		mappings.put(key, renamedName);
+		onMappingAdded(key);
 	}
 
 	/**
@@ -346,6 +464,14 @@ public void addVariable(@Nonnull String className, @Nonnull String methodName, @
 		mappings.put(key, renamedName);
 	}
 
+	/**
+	 * @return Copy of the keys of all current mappings.
+	 */
+	@Nonnull
+	Set<MappingKey> getMappingKeys() {
+		return new HashSet<>(mappings.keySet());
+	}
+
 	/**
 	 * @param name
 	 * 		Class name.
@@ -408,4 +534,22 @@ protected MappingKey getVariableKey(@Nonnull String className, @Nonnull String m
 	                                    @Nullable String name, @Nullable String desc, int index) {
 		return new VariableMappingKey(className, methodName, methodDesc, name, desc);
 	}
+
+	/**
+	 * @param fields
+	 * 		Names of mapped fields. Must be safe for concurrent access.
+	 * @param methods
+	 * 		Names of mapped methods. Must be safe for concurrent access.
+	 * @param complete
+	 *        {@code true} when all mapping keys were recognized, and thus the name sets cover all mapped members.
+	 */
+	private record MemberNames(@Nonnull Set<String> fields, @Nonnull Set<String> methods, boolean complete) {
+		private boolean mayHaveField(@Nonnull String name) {
+			return !complete || fields.contains(name);
+		}
+
+		private boolean mayHaveMethod(@Nonnull String name) {
+			return !complete || methods.contains(name);
+		}
+	}
 }
@@ -17,6 +17,8 @@
 import software.coley.recaf.services.mapping.gen.filter.ExcludeEnumMethodsFilter;
 import software.coley.recaf.services.mapping.gen.filter.NameGeneratorFilter;
 import software.coley.recaf.services.mapping.gen.naming.NameGenerator;
+import software.coley.recaf.util.threading.ComputeLane;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.Bundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
@@ -27,6 +29,8 @@
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Mapping generator.
@@ -36,6 +40,7 @@
 @ApplicationScoped
 public class MappingGenerator implements Service {
 	public static final String SERVICE_ID = "mapping-generator";
+	private final ExecutorService generatorThreadPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID, ComputeLane.CPU);
 	private final MappingGeneratorConfig config;
 
 	@Inject
@@ -68,24 +73,20 @@ public Mappings generate(@Nullable Workspace workspace,
 		filter = new ExcludeEnumMethodsFilter(filter);
 
 		// Setup adapter to store our mappings in.
-		MappingsAdapter mappings = new MappingsAdapter(true, true);
-		mappings.enableHierarchyLookup(inheritanceGraph);
-		if (workspace != null)
-			mappings.enableClassLookup(workspace);
+		MappingsAdapter mappings = newAdapter(workspace, inheritanceGraph);
 		SortedMap<String, ClassInfo> classMap = new TreeMap<>();
 		resource.jvmAllClassBundleStreamRecursive()
 				.flatMap(Bundle::stream)
 				.forEach(c -> classMap.putIfAbsent(c.getName(), c));
 
-		// Pull a class, create mappings for its inheritance family, then remove those classes from the map.
-		// When the map is empty everything has been run through the mapping generation process.
+		// Pull a class, record its inheritance family, then remove those classes from the map.
+		// When the map is empty every class has been assigned to a family.
+		List<Set<InheritanceVertex>> families = new ArrayList<>();
 		while (!classMap.isEmpty()) {
 			// Get family from the class.
 			String className = classMap.firstKey();
 			Set<InheritanceVertex> family = inheritanceGraph.getVertexFamily(className, false);
-
-			// Create mappings for the family
-			generateFamilyMappings(mappings, family, generator, filter);
+			families.add(family);
 
 			// Remove all family members from the class map.
 			if (family.isEmpty())
@@ -93,6 +94,37 @@ public Mappings generate(@Nullable Workspace workspace,
 			else
 				family.forEach(vertex -> classMap.remove(vertex.getName()));
 		}
+
+		// Create mappings for each family.
+		if (generator.isStateless()) {
+			// Families do not share any members, so mappings of one family never influence the mappings of another.
+			// This allows each family to be handled in parallel with its own mappings, merged when all are done.
+			// Since the generator does not depend on call order the output is the same regardless of scheduling.
+			NameGeneratorFilter finalFilter = filter;
+			List<CompletableFuture<MappingsAdapter>> futures = new ArrayList<>(families.size());
+			for (Set<InheritanceVertex> family : families)
+				futures.add(CompletableFuture.supplyAsync(() -> {
+					MappingsAdapter familyMappings = newAdapter(workspace, inheritanceGraph);
+					generateFamilyMappings(familyMappings, family, generator, finalFilter);
+					return familyMappings;
+				}, generatorThreadPool));
+			for (CompletableFuture<MappingsAdapter> future : futures)
+				mappings.addAll(future.join());
+		} else {
+			// Generators with state yield names based on the order they are called in,
+			// so we must visit families sequentially to keep the output consistent.
+			for (Set<InheritanceVertex> family : families)
+				generateFamilyMappings(mappings, family, generator, filter);
+		}
+		return mappings;
+	}
+
+	@Nonnull
+	private static MappingsAdapter newAdapter(@Nullable Workspace workspace, @Nonnull InheritanceGraph inheritanceGraph) {
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.enableHierarchyLookup(inheritanceGraph);
+		if (workspace != null)
+			mappings.enableClassLookup(workspace);
 		return mappings;
 	}
 
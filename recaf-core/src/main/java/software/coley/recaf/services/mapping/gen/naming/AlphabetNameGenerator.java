@@ -47,6 +47,12 @@ public void setWorkspace(@Nullable Workspace workspace) {
 		this.workspace = workspace;
 	}
 
+	@Override
+	public boolean isStateless() {
+		// Names are seeded by the original names
+		return true;
+	}
+
 	@Nonnull
 	@Override
 	public String mapClass(@Nonnull ClassInfo info) {
@@ -55,4 +55,14 @@ public interface NameGenerator {
 	 */
 	@Nonnull
 	String mapVariable(@Nonnull ClassInfo owner, @Nonnull MethodMember declaringMethod, @Nonnull LocalVariable variable);
+
+	/**
+	 * Generators which yield names based only on their inputs can be called concurrently,
+	 * and will yield the same names regardless of the order they are called in.
+	 *
+	 * @return {@code true} when generated names do not depend on prior calls to this generator.
+	 */
+	default boolean isStateless() {
+		return false;
+	}
 }
@@ -1,6 +1,7 @@
 package software.coley.recaf.services.phantom;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.clyze.jphantom.ClassMembers;
@@ -24,19 +25,30 @@
 import software.coley.recaf.info.builder.JvmClassInfoBuilder;
 import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.util.ReflectUtil;
+import software.coley.recaf.util.threading.ComputeLane;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
 import software.coley.recaf.workspace.model.bundle.Bundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceResourceBuilder;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * An implementation of {@link PhantomGenerator} using {@link JPhantom}.
+ * <br>
+ * Generated phantoms are cached by a digest of the input classes. Repeated requests for the same classes,
+ * such as recompiling a class without changing it, reuse the prior output. Only changed classes, which may reference
+ * new missing types, trigger a new generation pass.
  *
  * @author Matt Coley
  */
@@ -45,6 +57,17 @@
 public class JPhantomGenerator implements PhantomGenerator {
 	public static final String SERVICE_ID = "jphantom-generator";
 	private static final Logger logger = Logging.get(JPhantomGenerator.class);
+	// JPhantom stores analysis state in global singletons, so only one generation pass can run at a time.
+	private static final Object GENERATION_LOCK = new Object();
+	private static final int PARSE_SHARD_SIZE = 500;
+	private static final int MAX_CACHED_RESULTS = 64;
+	private final Map<String, Map<String, byte[]>> generatedCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Map<String, byte[]>> eldest) {
+			return size() > MAX_CACHED_RESULTS;
+		}
+	});
+	private final ExecutorService phantomThreadPool = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID, ComputeLane.BACKGROUND);
 	private final JPhantomGeneratorConfig config;
 
 	@Inject
@@ -70,6 +93,9 @@ public JPhantomGenerator(@Nonnull JPhantomGeneratorConfig config, @Nonnull Works
 					workspace.addSupportingResource(generatedResource);
 			});
 		});
+
+		// Cached phantoms are only useful for the workspace the inputs were pulled from.
+		workspaceManager.addWorkspaceCloseListener(workspace -> generatedCache.clear());
 	}
 
 	@Nonnull
@@ -81,12 +107,7 @@ public GeneratedPhantomWorkspaceResource createPhantomsForWorkspace(@Nonnull Wor
 				.collect(Collectors.toMap(Info::getName, Function.identity()));
 
 		// Generate phantoms for them and wrap into resource
-		try {
-			Map<String, byte[]> generated = generate(workspace, classMap);
-			return wrap(generated);
-		} catch (IOException ex) {
-			throw new PhantomGenerationException(ex, "JPhantom encountered a problem");
-		}
+		return wrap(generateCached(workspace, classMap));
 	}
 
 	@Nonnull
@@ -98,12 +119,44 @@ public GeneratedPhantomWorkspaceResource createPhantomsForClasses(@Nonnull Works
 				.collect(Collectors.toMap(Info::getName, Function.identity(), (a, b) -> a));
 
 		// Generate phantoms for them and wrap into resource
-		try {
-			Map<String, byte[]> generated = generate(workspace, classMap);
-			return wrap(generated);
-		} catch (IOException ex) {
-			throw new PhantomGenerationException(ex, "JPhantom encountered a problem");
+		return wrap(generateCached(workspace, classMap));
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to check for class existence within.
+	 * @param inputMap
+	 * 		Input map of classes to create phantoms for.
+	 *
+	 * @return Map of phantom classes.
+	 *
+	 * @throws PhantomGenerationException
+	 * 		When {@link JPhantom#run()} fails.
+	 */
+	@Nonnull
+	private Map<String, byte[]> generateCached(@Nonnull Workspace workspace,
+	                                           @Nonnull Map<String, JvmClassInfo> inputMap) throws PhantomGenerationException {
+		String key = digest(inputMap);
+		Map<String, byte[]> generated = generatedCache.get(key);
+		if (generated == null) {
+			generated = new HashMap<>();
+			boolean completed;
+			try {
+				completed = generateUnfiltered(inputMap, generated, phantomThreadPool);
+			} catch (IOException ex) {
+				throw new PhantomGenerationException(ex, "JPhantom encountered a problem");
+			}
+
+			// Partial results from a failed run are still returned, but not cached so that later requests try again.
+			if (completed)
+				generatedCache.put(key, generated);
+		} else {
+			logger.debug("Reusing {} cached phantoms for {} classes", generated.size(), inputMap.size());
 		}
+
+		// The workspace may have gained classes since the phantoms were generated, so filtering
+		// out phantoms of existing classes is done on each request rather than before caching.
+		return filterExisting(workspace, generated);
 	}
 
 	/**
@@ -139,24 +192,66 @@ public static GeneratedPhantomWorkspaceResource wrap(@Nonnull Map<String, byte[]
 	@Nonnull
 	public static Map<String, byte[]> generate(@Nonnull Workspace workspace,
 	                                           @Nonnull Map<String, JvmClassInfo> inputMap) throws IOException {
-		Map<String, byte[]> out = new HashMap<>();
+		Map<String, byte[]> generated = new HashMap<>();
+		generateUnfiltered(inputMap, generated, null);
+		return filterExisting(workspace, generated);
+	}
 
-		// Write the parameter passed classes to a temp jar
+	/**
+	 * @param inputMap
+	 * 		Input map of classes to create phantoms for.
+	 * @param out
+	 * 		Map to put phantom classes into, including phantoms of classes which may exist in the workspace
+	 * 		but were not part of the input.
+	 * @param parsePool
+	 * 		Executor to parse large inputs in parallel with, or {@code null} to parse on the calling thread.
+	 *
+	 * @return {@code true} when {@link JPhantom#run()} completed normally.
+	 * {@code false} when it failed, in which case the output may only contain some of the phantom classes.
+	 *
+	 * @throws IOException
+	 * 		When reading the input classes fails.
+	 */
+	private static boolean generateUnfiltered(@Nonnull Map<String, JvmClassInfo> inputMap,
+	                                          @Nonnull Map<String, byte[]> out,
+	                                          @Nullable Executor parsePool) throws IOException {
+		// Collect the parameter passed classes
 		Map<String, byte[]> classMap = new HashMap<>();
-		Map<Type, ClassNode> nodes = new HashMap<>();
-		inputMap.forEach((name, info) -> {
-			ClassReader cr = info.getClassReader();
-			ClassNode node = new ClassNode();
-			cr.accept(node, ClassReader.SKIP_FRAMES);
-			classMap.put(name + ".class", info.getBytecode());
-			nodes.put(Type.getObjectType(node.name), node);
-		});
+		inputMap.forEach((name, info) -> classMap.put(name + ".class", info.getBytecode()));
+		Map<Type, ClassNode> nodes = parseNodes(inputMap.values(), parsePool);
 
 		// Read into JPhantom
-		Options.V().setSoftFail(true);
-		Options.V().setJavaVersion(8);
 		ClassHierarchy hierarchy = createHierarchy(classMap);
 		ClassMembers members = createMembers(classMap, hierarchy);
+		synchronized (GENERATION_LOCK) {
+			return generateLocked(out, classMap, nodes, hierarchy, members);
+		}
+	}
+
+	/**
+	 * Runs the parts of generation which interact with the global state of JPhantom.
+	 * Must only be called while holding {@link #GENERATION_LOCK}.
+	 *
+	 * @param out
+	 * 		Map to put generated classes into.
+	 * @param classMap
+	 * 		Map of input class file names to their bytecode.
+	 * @param nodes
+	 * 		Map of input class types to their nodes.
+	 * @param hierarchy
+	 * 		Hierarchy of the input classes.
+	 * @param members
+	 * 		Members of the input classes.
+	 *
+	 * @return {@code true} when {@link JPhantom#run()} completed normally.
+	 */
+	private static boolean generateLocked(@Nonnull Map<String, byte[]> out,
+	                                      @Nonnull Map<String, byte[]> classMap,
+	                                      @Nonnull Map<Type, ClassNode> nodes,
+	                                      @Nonnull ClassHierarchy hierarchy,
+	                                      @Nonnull ClassMembers members) {
+		Options.V().setSoftFail(true);
+		Options.V().setJavaVersion(8);
 		classMap.forEach((name, raw) -> {
 			if (name.contains("$"))
 				return;
@@ -176,17 +271,12 @@ public static Map<String, byte[]> generate(@Nonnull Workspace workspace,
 		try {
 			JPhantom phantom = new JPhantom(nodes, hierarchy, members);
 			phantom.run();
-			phantom.getGenerated().forEach((k, v) -> {
-				// Only put items not found in the workspace.
-				// We may call the generator on a small scope, and thus create phantoms of classes that
-				// exist in the workspace, but were not in the provided scope.
-				String name = k.getInternalName();
-				if (workspace.findJvmClass(name) == null)
-					out.put(name, decorate(v));
-			});
+			phantom.getGenerated().forEach((k, v) -> out.put(k.getInternalName(), decorate(v)));
 			logger.debug("Phantom analysis complete, generated {} classes", out.size());
+			return true;
 		} catch (Throwable t) {
 			logger.error("Phantom analysis encountered an exception.", t);
+			return false;
 		} finally {
 			// Cleanup
 			Phantoms.refresh();
@@ -195,9 +285,90 @@ public static Map<String, byte[]> generate(@Nonnull Workspace workspace,
 			FieldAccessStateMachine.refresh();
 			MethodAccessStateMachine.refresh();
 		}
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to check for class existence within.
+	 * @param generated
+	 * 		Map of generated classes.
+	 *
+	 * @return Map of generated classes, without classes found in the workspace.
+	 */
+	@Nonnull
+	private static Map<String, byte[]> filterExisting(@Nonnull Workspace workspace, @Nonnull Map<String, byte[]> generated) {
+		// Only keep items not found in the workspace.
+		// We may call the generator on a small scope, and thus create phantoms of classes that
+		// exist in the workspace, but were not in the provided scope.
+		Map<String, byte[]> out = new HashMap<>();
+		generated.forEach((name, phantom) -> {
+			if (workspace.findJvmClass(name) == null)
+				out.put(name, phantom);
+		});
 		return out;
 	}
 
+	/**
+	 * @param classes
+	 * 		Classes to parse.
+	 * @param parsePool
+	 * 		Executor to parse large inputs in parallel with, or {@code null} to parse on the calling thread.
+	 *
+	 * @return Map of class types to their nodes.
+	 */
+	@Nonnull
+	private static Map<Type, ClassNode> parseNodes(@Nonnull Collection<JvmClassInfo> classes, @Nullable Executor parsePool) {
+		// Small inputs like single classes being compiled are not worth the overhead of splitting up.
+		if (parsePool == null || classes.size() <= PARSE_SHARD_SIZE)
+			return parseShard(classes);
+
+		// Large inputs like whole workspaces are parsed in parallel shards.
+		List<JvmClassInfo> classList = new ArrayList<>(classes);
+		List<CompletableFuture<Map<Type, ClassNode>>> futures = new ArrayList<>();
+		for (int i = 0; i < classList.size(); i += PARSE_SHARD_SIZE) {
+			List<JvmClassInfo> shard = classList.subList(i, Math.min(i + PARSE_SHARD_SIZE, classList.size()));
+			futures.add(CompletableFuture.supplyAsync(() -> parseShard(shard), parsePool));
+		}
+		Map<Type, ClassNode> nodes = new HashMap<>();
+		for (CompletableFuture<Map<Type, ClassNode>> future : futures)
+			nodes.putAll(future.join());
+		return nodes;
+	}
+
+	@Nonnull
+	private static Map<Type, ClassNode> parseShard(@Nonnull Collection<JvmClassInfo> classes) {
+		Map<Type, ClassNode> nodes = new HashMap<>();
+		for (JvmClassInfo info : classes) {
+			ClassNode node = new ClassNode();
+			info.getClassReader().accept(node, ClassReader.SKIP_FRAMES);
+			nodes.put(Type.getObjectType(node.name), node);
+		}
+		return nodes;
+	}
+
+	/**
+	 * @param inputMap
+	 * 		Input map of classes to create phantoms for.
+	 *
+	 * @return Digest of the names and bytecode of the input classes.
+	 */
+	@Nonnull
+	private static String digest(@Nonnull Map<String, JvmClassInfo> inputMap) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			// Should never happen since all JVMs are required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+		for (Map.Entry<String, JvmClassInfo> entry : new TreeMap<>(inputMap).entrySet()) {
+			digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(entry.getValue().getBytecode());
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
 	/**
 	 * @param classMap
 	 * 		Map to pull classes from.
@@ -6,11 +6,15 @@
 import software.coley.recaf.services.search.result.Result;
 import software.coley.recaf.services.search.result.Results;
 
+import java.util.List;
+
 /**
  * Outline of search feedback capabilities. Allows for:
  * <ul>
  *     <li>In-progress search cancellation</li>
  *     <li>Filter classes and files visited by the search</li>
+ *     <li>Limiting the number of results, ending the search early once the limit is reached</li>
+ *     <li>Receiving results as they are found, rather than when the search completes</li>
  * </ul>
  *
  * @author Matt Coley
@@ -70,6 +74,25 @@ default boolean doAcceptResult(@Nonnull Result<?> result) {
 		return true;
 	}
 
+	/**
+	 * @return Maximum number of results to accept, after which remaining work in the search is cancelled.
+	 * Negative values indicate there is no limit.
+	 */
+	default int getResultLimit() {
+		return -1;
+	}
+
+	/**
+	 * Called when results are found, and have been {@link #doAcceptResult(Result) accepted}.
+	 * Results are grouped together by the class or file they were found in.
+	 * <p/>
+	 * This is called from search worker threads, and may be called concurrently.
+	 *
+	 * @param results
+	 * 		Batch of accepted results.
+	 */
+	default void onResultsFound(@Nonnull List<Result<?>> results) {}
+
 	/**
 	 * Called when the search query completes.
 	 */
@@ -0,0 +1,461 @@
+package software.coley.recaf.services.search;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.ClassInfo;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.path.BundlePathNode;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.path.PathNode;
+import software.coley.recaf.path.PathNodes;
+import software.coley.recaf.path.ResourcePathNode;
+import software.coley.recaf.services.search.match.NumberPredicate;
+import software.coley.recaf.services.search.match.StringPredicate;
+import software.coley.recaf.services.search.query.JvmClassQuery;
+import software.coley.recaf.services.search.query.NumberQuery;
+import software.coley.recaf.services.search.query.ReferenceQuery;
+import software.coley.recaf.services.search.query.StringQuery;
+import software.coley.recaf.services.search.result.ClassReference;
+import software.coley.recaf.services.search.result.MemberReference;
+import software.coley.recaf.util.threading.ComputeLane;
+import software.coley.recaf.util.threading.ThreadPoolFactory;
+import software.coley.recaf.util.threading.ThreadUtil;
+import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.WorkspaceModificationListener;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.ResourceJvmClassListener;
+import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static software.coley.recaf.services.search.match.StringPredicateProvider.*;
+
+/**
+ * Inverted index of class references, member references, string constants, and numeric constants
+ * to their locations within a workspace. Allows {@link SearchService} to answer common queries without
+ * re-visiting the bytecode of every class in the workspace.
+ * <p/>
+ * The index is populated once via {@link #build()} and then kept up to date via resource listeners.
+ * Once {@link #close() closed}, the index cannot be built again, and any in-progress build is cancelled.
+ * Only queries where {@link #canAnswer(JvmClassQuery)} yields {@code true} can be answered by the index.
+ * Other queries need to fall back to visiting classes directly.
+ *
+ * @author Matt Coley
+ */
+public class SearchIndex implements ResourceJvmClassListener, WorkspaceModificationListener {
+	private static final Logger logger = Logging.get(SearchIndex.class);
+	private static final StringPredicate ANY_STRING = new StringPredicate(KEY_ANYTHING, s -> true);
+	private static final NumberPredicate ANY_NUMBER = new NumberPredicate(KEY_ANYTHING, n -> true);
+	private static final JvmClassSearchVisitor COLLECTOR = new ReferenceQuery(ANY_STRING)
+			.visitor(new ReferenceQuery(ANY_STRING, ANY_STRING, ANY_STRING)
+					.visitor(new StringQuery(ANY_STRING)
+							.visitor(new NumberQuery(ANY_NUMBER).visitor((JvmClassSearchVisitor) null))));
+	private final Map<JvmClassBundle, Map<String, List<IndexedValue>>> classValues = Collections.synchronizedMap(new IdentityHashMap<>());
+	private final NavigableMap<String, Set<IndexedValue>> classRefs = new ConcurrentSkipListMap<>();
+	private final NavigableMap<String, Set<IndexedValue>> memberRefsByOwner = new ConcurrentSkipListMap<>();
+	private final NavigableMap<String, Set<IndexedValue>> memberRefsByName = new ConcurrentSkipListMap<>();
+	private final NavigableMap<String, Set<IndexedValue>> strings = new ConcurrentSkipListMap<>();
+	private final Map<Number, Set<IndexedValue>> numbers = new ConcurrentHashMap<>();
+	private final Object lock = new Object();
+	private final Workspace workspace;
+	private ExecutorService buildService;
+	private volatile boolean closed;
+	private volatile boolean ready;
+
+	/**
+	 * @param workspace
+	 * 		Workspace to index.
+	 */
+	public SearchIndex(@Nonnull Workspace workspace) {
+		this.workspace = workspace;
+	}
+
+	/**
+	 * Populates the index with the contents of all non-internal resources in the workspace,
+	 * and registers listeners to keep the index up to date.
+	 */
+	public void build() {
+		// Listeners are registered under the same lock that close takes, so that a close
+		// during the build cannot miss removing any of them.
+		ExecutorService service;
+		synchronized (lock) {
+			if (closed || buildService != null)
+				return;
+			service = ThreadPoolFactory.newFixedThreadPool(SearchService.SERVICE_ID + ":index", ComputeLane.BACKGROUND);
+			buildService = service;
+			workspace.addWorkspaceModificationListener(this);
+			for (WorkspaceResource resource : workspace.getAllResources(false)) {
+				resource.addResourceJvmClassListener(this);
+				indexResource(service, resource);
+			}
+		}
+		ThreadUtil.blockUntilComplete(service);
+		synchronized (lock) {
+			if (!closed)
+				ready = true;
+		}
+	}
+
+	/**
+	 * @return {@code true} when the initial {@link #build()} has completed.
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * @return Indexed workspace.
+	 */
+	@Nonnull
+	public Workspace getWorkspace() {
+		return workspace;
+	}
+
+	/**
+	 * @param query
+	 * 		Query to check.
+	 *
+	 * @return {@code true} when the query can be answered by {@link #search(JvmClassQuery, SearchFeedback, ResultSink)}.
+	 */
+	public boolean canAnswer(@Nonnull JvmClassQuery query) {
+		if (query instanceof ReferenceQuery referenceQuery) {
+			if (referenceQuery.isClassRefOnly())
+				return isKeyLookup(referenceQuery.getOwnerPredicate()) || isAnything(referenceQuery.getOwnerPredicate());
+			return isKeyLookup(referenceQuery.getOwnerPredicate())
+					|| isKeyLookup(referenceQuery.getNamePredicate())
+					|| (isAnything(referenceQuery.getOwnerPredicate()) && isAnything(referenceQuery.getNamePredicate()));
+		} else if (query instanceof StringQuery stringQuery) {
+			StringPredicate predicate = stringQuery.getPredicate();
+			return isKeyLookup(predicate) || isAnything(predicate);
+		}
+
+		// Numeric constants are cheap to test against predicates directly, so we support any number query.
+		return query instanceof NumberQuery;
+	}
+
+	/**
+	 * Feeds indexed values matching the given query into the given sink.
+	 *
+	 * @param query
+	 * 		Query to answer. Must be supported according to {@link #canAnswer(JvmClassQuery)}.
+	 * @param feedback
+	 * 		Search feedback for filtering visited classes and cancellation.
+	 * @param sink
+	 * 		Sink to feed matched values into.
+	 */
+	public void search(@Nonnull JvmClassQuery query, @Nonnull SearchFeedback feedback, @Nonnull ResultSink sink) {
+		Stream<IndexedValue> candidates;
+		if (query instanceof ReferenceQuery referenceQuery) {
+			if (referenceQuery.isClassRefOnly()) {
+				candidates = lookupReference(classRefs, referenceQuery.getOwnerPredicate())
+						.filter(v -> v.value instanceof ClassReference reference && referenceQuery.matches(reference));
+			} else {
+				StringPredicate ownerPredicate = referenceQuery.getOwnerPredicate();
+				StringPredicate namePredicate = referenceQuery.getNamePredicate();
+				if (isKeyLookup(ownerPredicate) || !isKeyLookup(namePredicate))
+					candidates = lookupReference(memberRefsByOwner, ownerPredicate);
+				else
+					candidates = lookupReference(memberRefsByName, namePredicate);
+				candidates = candidates
+						.filter(v -> v.value instanceof MemberReference reference && referenceQuery.matches(reference));
+			}
+		} else if (query instanceof StringQuery stringQuery) {
+			StringPredicate predicate = stringQuery.getPredicate();
+			candidates = lookup(strings, predicate)
+					.filter(v -> v.value instanceof String string && predicate.match(string));
+		} else if (query instanceof NumberQuery numberQuery) {
+			NumberPredicate predicate = numberQuery.getPredicate();
+			candidates = numbers.entrySet().stream()
+					.filter(e -> predicate.match(e.getKey()))
+					.flatMap(e -> e.getValue().stream());
+		} else {
+			throw new UnsupportedOperationException("Query not supported by index: " + query.getClass().getName());
+		}
+
+		// Classes are only checked once against the feedback, consistent with the behavior of visitor based searches.
+		Map<ClassInfo, Boolean> visitable = new IdentityHashMap<>();
+		Predicate<IndexedValue> doVisit = v -> visitable.computeIfAbsent(v.classPath.getValue(), feedback::doVisitClass);
+		candidates.distinct()
+				.takeWhile(v -> !feedback.hasRequestedCancellation())
+				.filter(doVisit)
+				.forEach(v -> sink.accept(v.path, v.value));
+	}
+
+	/**
+	 * Clears the index and removes all registered listeners.
+	 */
+	public void close() {
+		synchronized (lock) {
+			if (closed)
+				return;
+			closed = true;
+			ready = false;
+
+			// Cancel any remaining work of an in-progress build.
+			if (buildService != null)
+				buildService.shutdownNow();
+			workspace.removeWorkspaceModificationListener(this);
+			for (WorkspaceResource resource : workspace.getAllResources(false))
+				resource.removeResourceJvmClassListener(this);
+		}
+		classValues.clear();
+		classRefs.clear();
+		memberRefsByOwner.clear();
+		memberRefsByName.clear();
+		strings.clear();
+		numbers.clear();
+	}
+
+	/**
+	 * @param service
+	 * 		Executor to submit class indexing tasks to.
+	 * @param resource
+	 * 		Resource to index, along with any embedded resources.
+	 */
+	private void indexResource(@Nonnull ExecutorService service, @Nonnull WorkspaceResource resource) {
+		for (WorkspaceFileResource embeddedResource : resource.getEmbeddedResources().values())
+			indexResource(service, embeddedResource);
+		resource.jvmAllClassBundleStream().forEach(bundle -> {
+			for (JvmClassInfo classInfo : bundle) {
+				service.submit(() -> {
+					// Skip if the class was updated since the task was submitted.
+					// The listener for the update will have already indexed the newer class.
+					if (bundle.get(classInfo.getName()) == classInfo)
+						indexClass(resource, bundle, classInfo);
+				});
+			}
+		});
+	}
+
+	/**
+	 * @param resource
+	 * 		Resource to remove from the index, along with any embedded resources.
+	 */
+	private void unindexResource(@Nonnull WorkspaceResource resource) {
+		resource.jvmAllClassBundleStreamRecursive().forEach(bundle -> {
+			Map<String, List<IndexedValue>> bundleValues = classValues.remove(bundle);
+			if (bundleValues != null)
+				bundleValues.values().forEach(values -> values.forEach(this::unlink));
+		});
+	}
+
+	/**
+	 * @param resource
+	 * 		Resource containing the class.
+	 * @param bundle
+	 * 		Bundle containing the class.
+	 * @param classInfo
+	 * 		Class to index. Any prior indexed values of a class with the same name in the bundle are replaced.
+	 */
+	private void indexClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo classInfo) {
+		if (closed)
+			return;
+
+		// Paths are created the same way as the visitor based search does, so that results are consistent.
+		ResourcePathNode resourcePath = PathNodes.workspacePath(workspace).child(resource);
+		BundlePathNode bundlePath = resourcePath.child(bundle);
+		ClassPathNode classPath = bundlePath
+				.child(classInfo.getPackageName())
+				.child(classInfo);
+
+		List<IndexedValue> values = new ArrayList<>();
+		try {
+			COLLECTOR.visit((path, value) -> values.add(new IndexedValue(classPath, path, value)), classPath, classInfo);
+		} catch (Throwable t) {
+			logger.warn("Failed to index class '{}' for searching", classInfo.getName(), t);
+		}
+
+		Map<String, List<IndexedValue>> bundleValues = classValues.computeIfAbsent(bundle, b -> new ConcurrentHashMap<>());
+		List<IndexedValue> oldValues = bundleValues.put(classInfo.getName(), values);
+		if (oldValues != null)
+			oldValues.forEach(this::unlink);
+		values.forEach(this::link);
+	}
+
+	/**
+	 * @param bundle
+	 * 		Bundle containing the class.
+	 * @param classInfo
+	 * 		Class to remove from the index.
+	 */
+	private void unindexClass(@Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo classInfo) {
+		Map<String, List<IndexedValue>> bundleValues = classValues.get(bundle);
+		if (bundleValues == null)
+			return;
+		List<IndexedValue> oldValues = bundleValues.remove(classInfo.getName());
+		if (oldValues != null)
+			oldValues.forEach(this::unlink);
+	}
+
+	private void link(@Nonnull IndexedValue indexedValue) {
+		Object value = indexedValue.value;
+		if (value instanceof ClassReference reference) {
+			add(classRefs, reference.name(), indexedValue);
+		} else if (value instanceof MemberReference reference) {
+			add(memberRefsByOwner, reference.owner(), indexedValue);
+			add(memberRefsByName, reference.name(), indexedValue);
+		} else if (value instanceof String string) {
+			add(strings, string, indexedValue);
+		} else if (value instanceof Number number) {
+			add(numbers, number, indexedValue);
+		}
+	}
+
+	private void unlink(@Nonnull IndexedValue indexedValue) {
+		Object value = indexedValue.value;
+		if (value instanceof ClassReference reference) {
+			remove(classRefs, reference.name(), indexedValue);
+		} else if (value instanceof MemberReference reference) {
+			remove(memberRefsByOwner, reference.owner(), indexedValue);
+			remove(memberRefsByName, reference.name(), indexedValue);
+		} else if (value instanceof String string) {
+			remove(strings, string, indexedValue);
+		} else if (value instanceof Number number) {
+			remove(numbers, number, indexedValue);
+		}
+	}
+
+	private static <K> void add(@Nonnull Map<K, Set<IndexedValue>> map, @Nonnull K key, @Nonnull IndexedValue value) {
+		map.compute(key, (k, set) -> {
+			if (set == null) set = ConcurrentHashMap.newKeySet();
+			set.add(value);
+			return set;
+		});
+	}
+
+	private static <K> void remove(@Nonnull Map<K, Set<IndexedValue>> map, @Nonnull K key, @Nonnull IndexedValue value) {
+		map.computeIfPresent(key, (k, set) -> {
+			set.remove(value);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	/**
+	 * @param map
+	 * 		Map of reference names to values.
+	 * @param predicate
+	 * 		Predicate to lookup values with.
+	 *
+	 * @return Stream of indexed values that match the predicate. Because {@link ReferenceQuery} treats empty names
+	 * as wildcards, values of empty names are also included.
+	 */
+	@Nonnull
+	private static Stream<IndexedValue> lookupReference(@Nonnull NavigableMap<String, Set<IndexedValue>> map,
+	                                                    @Nullable StringPredicate predicate) {
+		Set<IndexedValue> emptyNameValues = map.getOrDefault("", Collections.emptySet());
+		return Stream.concat(lookup(map, predicate), emptyNameValues.stream());
+	}
+
+	/**
+	 * @param map
+	 * 		Map of strings to values.
+	 * @param predicate
+	 * 		Predicate to lookup values with. Must be an equality, prefix, or wildcard predicate.
+	 * 		A {@code null} predicate is treated as a wildcard.
+	 *
+	 * @return Stream of indexed values that match the predicate.
+	 */
+	@Nonnull
+	private static Stream<IndexedValue> lookup(@Nonnull NavigableMap<String, Set<IndexedValue>> map,
+	                                           @Nullable StringPredicate predicate) {
+		if (isAnything(predicate))
+			return map.values().stream().flatMap(Set::stream);
+
+		String key = predicate.getKey();
+		String id = predicate.getId();
+		if (KEY_EQUALS.equals(id))
+			return map.getOrDefault(key, Collections.emptySet()).stream();
+		if (KEY_STARTS_WITH.equals(id))
+			return map.tailMap(key, true).entrySet().stream()
+					.takeWhile(e -> e.getKey().startsWith(key))
+					.flatMap(e -> e.getValue().stream());
+		throw new UnsupportedOperationException("Predicate not supported by index: " + id);
+	}
+
+	/**
+	 * @param predicate
+	 * 		Some predicate.
+	 *
+	 * @return {@code true} when the predicate can be answered via a key lookup in a sorted map.
+	 */
+	private static boolean isKeyLookup(@Nullable StringPredicate predicate) {
+		if (predicate == null || predicate.getKey() == null)
+			return false;
+		String id = predicate.getId();
+		return KEY_EQUALS.equals(id) || KEY_STARTS_WITH.equals(id);
+	}
+
+	/**
+	 * @param predicate
+	 * 		Some predicate.
+	 *
+	 * @return {@code true} when the predicate matches anything.
+	 */
+	private static boolean isAnything(@Nullable StringPredicate predicate) {
+		return predicate == null || KEY_ANYTHING.equals(predicate.getId());
+	}
+
+	@Override
+	public void onNewClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
+		indexClass(resource, bundle, cls);
+	}
+
+	@Override
+	public void onUpdateClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
+	                          @Nonnull JvmClassInfo oldCls, @Nonnull JvmClassInfo newCls) {
+		indexClass(resource, bundle, newCls);
+	}
+
+	@Override
+	public void onRemoveClass(@Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo cls) {
+		unindexClass(bundle, cls);
+	}
+
+	@Override
+	public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+		synchronized (lock) {
+			if (closed)
+				return;
+			library.addResourceJvmClassListener(this);
+		}
+		ExecutorService service = ThreadPoolFactory.newFixedThreadPool(SearchService.SERVICE_ID + ":index", ComputeLane.BACKGROUND);
+		indexResource(service, library);
+		ThreadUtil.blockUntilComplete(service);
+	}
+
+	@Override
+	public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+		library.removeResourceJvmClassListener(this);
+		unindexResource(library);
+	}
+
+	/**
+	 * Wrapper of a value found in a class. Uses identity equality so that values can be
+	 * removed from the index when the containing class is updated or removed.
+	 */
+	private static final class IndexedValue {
+		private final ClassPathNode classPath;
+		private final PathNode<?> path;
+		private final Object value;
+
+		private IndexedValue(@Nonnull ClassPathNode classPath, @Nonnull PathNode<?> path, @Nonnull Object value) {
+			this.classPath = classPath;
+			this.path = path;
+			this.value = value;
+		}
+	}
+}
@@ -4,7 +4,9 @@
 import jakarta.annotation.Nullable;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import software.coley.recaf.cdi.EagerInitialization;
 import software.coley.recaf.info.AndroidClassInfo;
+import software.coley.recaf.info.ClassInfo;
 import software.coley.recaf.info.FileInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.path.BundlePathNode;
@@ -31,6 +33,10 @@
 import software.coley.recaf.services.search.result.Result;
 import software.coley.recaf.services.search.result.Results;
 import software.coley.recaf.services.search.result.StringResult;
+import software.coley.recaf.services.workspace.WorkspaceCloseListener;
+import software.coley.recaf.services.workspace.WorkspaceManager;
+import software.coley.recaf.services.workspace.WorkspaceOpenListener;
+import software.coley.recaf.util.threading.ComputeLane;
 import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.util.threading.ThreadUtil;
 import software.coley.recaf.workspace.model.Workspace;
@@ -39,9 +45,13 @@
 import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Outline for running various searches.
@@ -51,15 +61,43 @@
  * @see ReferenceQuery
  * @see DeclarationQuery
  * @see StringQuery
+ * @see SearchIndex
  */
+@EagerInitialization
 @ApplicationScoped
 public class SearchService implements Service {
 	public static final String SERVICE_ID = "search";
 	private final SearchServiceConfig config;
+	private volatile SearchIndex currentWorkspaceIndex;
 
+	/**
+	 * @param workspaceManager
+	 * 		Manager to register listeners for, in order to manage a shared search index for the current workspace.
+	 * @param config
+	 * 		Search config options.
+	 */
 	@Inject
-	public SearchService(SearchServiceConfig config) {
+	public SearchService(@Nonnull WorkspaceManager workspaceManager, @Nonnull SearchServiceConfig config) {
 		this.config = config;
+
+		ListenerHost host = new ListenerHost();
+		workspaceManager.addWorkspaceOpenListener(host);
+		workspaceManager.addWorkspaceCloseListener(host);
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to get the index of.
+	 *
+	 * @return Search index of the workspace, if the workspace is the current workspace and its index has been built.
+	 * Otherwise {@code null}.
+	 */
+	@Nullable
+	public SearchIndex getIndex(@Nonnull Workspace workspace) {
+		SearchIndex index = currentWorkspaceIndex;
+		if (index != null && index.getWorkspace() == workspace && index.isReady())
+			return index;
+		return null;
 	}
 
 	/**
@@ -116,16 +154,24 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 	@Nonnull
 	public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries, @Nonnull SearchFeedback feedback) {
 		Results results = new Results();
+		SearchContext context = new SearchContext(results, feedback);
+		SearchIndex index = getIndex(workspace);
 
 		// Build visitors
 		AndroidClassSearchVisitor androidClassVisitorTemp = null;
 		JvmClassSearchVisitor jvmClassVisitorTemp = null;
 		FileSearchVisitor fileVisitorTemp = null;
+		List<JvmClassQuery> indexedQueries = new ArrayList<>();
 		for (Query query : queries) {
 			if (query instanceof AndroidClassQuery androidClassQuery)
 				androidClassVisitorTemp = androidClassQuery.visitor(androidClassVisitorTemp);
-			if (query instanceof JvmClassQuery jvmClassQuery)
-				jvmClassVisitorTemp = jvmClassQuery.visitor(jvmClassVisitorTemp);
+			if (query instanceof JvmClassQuery jvmClassQuery) {
+				// Queries the index can answer do not need to visit classes.
+				if (index != null && index.canAnswer(jvmClassQuery))
+					indexedQueries.add(jvmClassQuery);
+				else
+					jvmClassVisitorTemp = jvmClassQuery.visitor(jvmClassVisitorTemp);
+			}
 			if (query instanceof FileQuery fileQuery)
 				fileVisitorTemp = fileQuery.visitor(fileVisitorTemp);
 		}
@@ -134,10 +180,12 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 		FileSearchVisitor fileVisitor = fileVisitorTemp;
 
 		// Run visitors on contents of workspace
-		ExecutorService service = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID + ":" + queries.hashCode());
+		ExecutorService service = ThreadPoolFactory.newFixedThreadPool(SERVICE_ID + ":" + queries.hashCode(), ComputeLane.CPU);
+		for (JvmClassQuery indexedQuery : indexedQueries)
+			service.submit(() -> context.visit(sink -> index.search(indexedQuery, context, sink)));
 		WorkspacePathNode workspaceNode = PathNodes.workspacePath(workspace);
 		for (WorkspaceResource resource : workspace.getAllResources(false))
-			searchResource(results, service, feedback, resource, workspaceNode,
+			searchResource(service, context, resource, workspaceNode,
 					androidClassVisitor, jvmClassVisitor, fileVisitor);
 		ThreadUtil.blockUntilComplete(service);
 
@@ -148,12 +196,31 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 	}
 
 	/**
-	 * @param results
-	 * 		Result container to dump into.
+	 * Runs a search in the background. Results are streamed to {@link SearchFeedback#onResultsFound(List)}
+	 * as each class or file is completed, so callers do not need to wait for the whole workspace to be searched.
+	 *
+	 * @param workspace
+	 * 		Workspace to search in.
+	 * @param queries
+	 * 		Multiple queries of search parameters.
+	 * @param feedback
+	 * 		Search visitation feedback. Allows early cancellation of searches,
+	 * 		limiting the number of results, and receiving results as they are found.
+	 *
+	 * @return Future of search results, completed when the search finishes.
+	 */
+	@Nonnull
+	public CompletableFuture<Results> searchAsync(@Nonnull Workspace workspace, @Nonnull List<Query> queries,
+	                                              @Nonnull SearchFeedback feedback) {
+		return CompletableFuture.supplyAsync(() -> search(workspace, queries, feedback), ThreadUtil.executor());
+	}
+
+	/**
 	 * @param service
 	 * 		Thread scheduler service.
-	 * @param feedback
-	 * 		Search feedback mechanism <i>(To allow user cancellation and such)</i>
+	 * @param context
+	 * 		Search context, wrapping the search feedback mechanism <i>(To allow user cancellation and such)</i>
+	 * 		and the result container to dump into.
 	 * @param resource
 	 * 		Resource to search within.
 	 * @param workspacePath
@@ -168,9 +235,8 @@ public Results search(@Nonnull Workspace workspace, @Nonnull List<Query> queries
 	 * 		File search visitor.
 	 * 		Can be {@code null} to skip searching respective content.
 	 */
-	private static void searchResource(@Nonnull Results results,
-	                                   @Nonnull ExecutorService service,
-	                                   @Nonnull SearchFeedback feedback,
+	private static void searchResource(@Nonnull ExecutorService service,
+	                                   @Nonnull SearchContext context,
 	                                   @Nonnull WorkspaceResource resource,
 	                                   @Nonnull WorkspacePathNode workspacePath,
 	                                   @Nullable AndroidClassSearchVisitor androidClassVisitor,
@@ -178,7 +244,7 @@ private static void searchResource(@Nonnull Results results,
 	                                   @Nullable FileSearchVisitor fileVisitor) {
 		// Recursively search embedded resources.
 		for (WorkspaceFileResource embeddedResource : resource.getEmbeddedResources().values()) {
-			searchResource(results, service, feedback, embeddedResource, workspacePath,
+			searchResource(service, context, embeddedResource, workspacePath,
 					androidClassVisitor, jvmClassVisitor, fileVisitor);
 		}
 
@@ -188,18 +254,14 @@ private static void searchResource(@Nonnull Results results,
 			for (AndroidClassBundle bundle : resource.getAndroidClassBundles().values()) {
 				BundlePathNode bundlePath = resourcePath.child(bundle);
 				for (AndroidClassInfo classInfo : bundle) {
-					if (feedback.hasRequestedCancellation())
+					if (context.hasRequestedCancellation())
 						break;
-					if (!feedback.doVisitClass(classInfo))
+					if (!context.doVisitClass(classInfo))
 						continue;
 					ClassPathNode classPath = bundlePath
 							.child(classInfo.getPackageName())
 							.child(classInfo);
-					service.submit(() -> {
-						if (feedback.hasRequestedCancellation())
-							return;
-						androidClassVisitor.visit(getResultSink(results, feedback), classPath, classInfo);
-					});
+					service.submit(() -> context.visit(sink -> androidClassVisitor.visit(sink, classPath, classInfo)));
 				}
 			}
 		}
@@ -209,18 +271,14 @@ private static void searchResource(@Nonnull Results results,
 			resource.jvmAllClassBundleStream().forEach(bundle -> {
 				BundlePathNode bundlePath = resourcePath.child(bundle);
 				for (JvmClassInfo classInfo : bundle) {
-					if (feedback.hasRequestedCancellation())
+					if (context.hasRequestedCancellation())
 						break;
-					if (!feedback.doVisitClass(classInfo))
+					if (!context.doVisitClass(classInfo))
 						continue;
 					ClassPathNode classPath = bundlePath
 							.child(classInfo.getPackageName())
 							.child(classInfo);
-					service.submit(() -> {
-						if (feedback.hasRequestedCancellation())
-							return;
-						jvmClassVisitor.visit(getResultSink(results, feedback), classPath, classInfo);
-					});
+					service.submit(() -> context.visit(sink -> jvmClassVisitor.visit(sink, classPath, classInfo)));
 				}
 			});
 		}
@@ -230,31 +288,18 @@ private static void searchResource(@Nonnull Results results,
 			FileBundle fileBundle = resource.getFileBundle();
 			BundlePathNode bundlePath = resourcePath.child(fileBundle);
 			for (FileInfo fileInfo : fileBundle) {
-				if (feedback.hasRequestedCancellation())
+				if (context.hasRequestedCancellation())
 					break;
-				if (!feedback.doVisitFile(fileInfo))
+				if (!context.doVisitFile(fileInfo))
 					continue;
 				FilePathNode filePath = bundlePath
 						.child(fileInfo.getDirectoryName())
 						.child(fileInfo);
-				service.submit(() -> {
-					if (feedback.hasRequestedCancellation())
-						return;
-					fileVisitor.visit(getResultSink(results, feedback), filePath, fileInfo);
-				});
+				service.submit(() -> context.visit(sink -> fileVisitor.visit(sink, filePath, fileInfo)));
 			}
 		}
 	}
 
-	@Nonnull
-	private static ResultSink getResultSink(@Nonnull Results results, @Nullable SearchFeedback feedback) {
-		return (path, value) -> {
-			Result<?> result = createResult(path, value);
-			if (feedback == null || feedback.doAcceptResult(result))
-				results.add(result);
-		};
-	}
-
 	@Nonnull
 	private static Result<?> createResult(@Nonnull PathNode<?> path, @Nonnull Object value) {
 		if (value instanceof Number number)
@@ -281,4 +326,128 @@ public String getServiceId() {
 	public SearchServiceConfig getServiceConfig() {
 		return config;
 	}
+
+	/**
+	 * Search feedback wrapper that collects results of individual classes and files into local buffers,
+	 * which are then merged into the shared {@link Results} and published to the wrapped feedback.
+	 * Also handles enforcing {@link SearchFeedback#getResultLimit() result limits}.
+	 */
+	private static class SearchContext implements SearchFeedback {
+		private final AtomicInteger resultCount = new AtomicInteger();
+		private final Results results;
+		private final SearchFeedback delegate;
+		private final int limit;
+		private volatile boolean limitReached;
+
+		private SearchContext(@Nonnull Results results, @Nonnull SearchFeedback delegate) {
+			this.results = results;
+			this.delegate = delegate;
+			this.limit = delegate.getResultLimit();
+		}
+
+		/**
+		 * @param action
+		 * 		Visitor action to run, feeding values into the given sink.
+		 */
+		private void visit(@Nonnull Consumer<ResultSink> action) {
+			if (hasRequestedCancellation())
+				return;
+
+			// Results are buffered locally so workers do not contend with each other for every single result.
+			List<Result<?>> buffer = new ArrayList<>();
+			action.accept((path, value) -> {
+				// Once the limit is reached, remaining values would be trimmed anyway, so there is no need to build them.
+				if (limitReached)
+					return;
+				Result<?> result = createResult(path, value);
+				if (delegate.doAcceptResult(result)) {
+					buffer.add(result);
+
+					// Publishing this buffer is enough to reach the limit, so we can mark it as reached early.
+					// Actions which feed many values, such as index lookups, can then stop producing them.
+					if (limit >= 0 && buffer.size() >= limit - resultCount.get())
+						limitReached = true;
+				}
+			});
+			publish(buffer);
+		}
+
+		/**
+		 * @param buffer
+		 * 		Results to publish.
+		 */
+		private void publish(@Nonnull List<Result<?>> buffer) {
+			if (buffer.isEmpty())
+				return;
+
+			// Trim results that would go past the limit, and mark the limit as reached
+			// so that remaining work is cancelled.
+			if (limit >= 0) {
+				int size = buffer.size();
+				int remaining = limit - resultCount.getAndAdd(size);
+				if (remaining <= size)
+					limitReached = true;
+				if (remaining <= 0)
+					return;
+				if (remaining < size)
+					buffer = buffer.subList(0, remaining);
+			}
+
+			results.addAll(buffer);
+			delegate.onResultsFound(Collections.unmodifiableList(buffer));
+		}
+
+		@Override
+		public boolean hasRequestedCancellation() {
+			return limitReached || delegate.hasRequestedCancellation();
+		}
+
+		@Override
+		public boolean doVisitClass(@Nonnull ClassInfo cls) {
+			return delegate.doVisitClass(cls);
+		}
+
+		@Override
+		public boolean doVisitFile(@Nonnull FileInfo file) {
+			return delegate.doVisitFile(file);
+		}
+
+		@Override
+		public boolean doAcceptResult(@Nonnull Result<?> result) {
+			return delegate.doAcceptResult(result);
+		}
+
+		@Override
+		public int getResultLimit() {
+			return limit;
+		}
+
+		@Override
+		public void onCompletion() {
+			delegate.onCompletion();
+		}
+	}
+
+	private class ListenerHost implements WorkspaceOpenListener, WorkspaceCloseListener {
+		@Override
+		public void onWorkspaceOpened(@Nonnull Workspace workspace) {
+			if (!config.getIndexWorkspace().getValue())
+				return;
+
+			// Build the index in the background. Until it is ready, searches will visit classes directly.
+			// Closing the index cancels the build if it is still running.
+			SearchIndex index = new SearchIndex(workspace);
+			currentWorkspaceIndex = index;
+			ThreadUtil.run(index::build);
+		}
+
+		@Override
+		public void onWorkspaceClosed(@Nonnull Workspace workspace) {
+			SearchIndex index = currentWorkspaceIndex;
+			if (index != null && index.getWorkspace() == workspace) {
+				currentWorkspaceIndex = null;
+				index.close();
+			}
+		}
+	}
 }
@@ -1,8 +1,11 @@
 package software.coley.recaf.services.search;
 
+import jakarta.annotation.Nonnull;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import software.coley.observables.ObservableBoolean;
 import software.coley.recaf.config.BasicConfigContainer;
+import software.coley.recaf.config.BasicConfigValue;
 import software.coley.recaf.config.ConfigGroups;
 import software.coley.recaf.services.ServiceConfig;
 
@@ -13,8 +16,20 @@
  */
 @ApplicationScoped
 public class SearchServiceConfig extends BasicConfigContainer implements ServiceConfig {
+	private final ObservableBoolean indexWorkspace = new ObservableBoolean(true);
+
 	@Inject
 	public SearchServiceConfig() {
 		super(ConfigGroups.SERVICE_ANALYSIS, SearchService.SERVICE_ID + CONFIG_SUFFIX);
+
+		addValue(new BasicConfigValue<>("index-workspace", boolean.class, indexWorkspace));
+	}
+
+	/**
+	 * @return {@code true} to build a {@link SearchIndex} when a workspace is opened.
+	 */
+	@Nonnull
+	public ObservableBoolean getIndexWorkspace() {
+		return indexWorkspace;
 	}
 }
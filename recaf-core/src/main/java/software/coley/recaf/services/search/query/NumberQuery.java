@@ -28,6 +28,14 @@ public NumberQuery(@Nonnull NumberPredicate predicate) {
 		this.predicate = predicate;
 	}
 
+	/**
+	 * @return Number matching predicate.
+	 */
+	@Nonnull
+	public NumberPredicate getPredicate() {
+		return predicate;
+	}
+
 	@Override
 	protected boolean isMatch(Object value) {
 		if (value instanceof Number number)
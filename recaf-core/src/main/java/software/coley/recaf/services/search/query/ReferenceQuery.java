@@ -93,6 +93,61 @@ public ReferenceQuery(@Nullable StringPredicate ownerPredicate,
 		classRefOnly = false;
 	}
 
+	/**
+	 * @return String matching predicate for comparison against reference owners.
+	 * May be {@code null} when reference owner names are not considered.
+	 */
+	@Nullable
+	public StringPredicate getOwnerPredicate() {
+		return ownerPredicate;
+	}
+
+	/**
+	 * @return String matching predicate for comparison against reference names.
+	 * May be {@code null} when reference names are not considered.
+	 */
+	@Nullable
+	public StringPredicate getNamePredicate() {
+		return namePredicate;
+	}
+
+	/**
+	 * @return String matching predicate for comparison against reference descriptors.
+	 * May be {@code null} when reference descriptors are not considered.
+	 */
+	@Nullable
+	public StringPredicate getDescriptorPredicate() {
+		return descriptorPredicate;
+	}
+
+	/**
+	 * @return {@code true} when this query only yields {@link ClassReference} results.
+	 * {@code false} when this query only yields {@link MemberReference} results.
+	 */
+	public boolean isClassRefOnly() {
+		return classRefOnly;
+	}
+
+	/**
+	 * @param reference
+	 * 		Some class reference.
+	 *
+	 * @return {@code true} when the reference matches this query.
+	 */
+	public boolean matches(@Nonnull ClassReference reference) {
+		return isClassRefMatch(reference.name());
+	}
+
+	/**
+	 * @param reference
+	 * 		Some member reference.
+	 *
+	 * @return {@code true} when the reference matches this query.
+	 */
+	public boolean matches(@Nonnull MemberReference reference) {
+		return isMemberRefMatch(reference.owner(), reference.name(), reference.desc());
+	}
+
 	private boolean isClassRefMatch(@Nullable String className) {
 		if (!classRefOnly || className == null || ownerPredicate == null) return false;
 		return StringUtil.isNullOrEmpty(className) || ownerPredicate.match(className);
@@ -24,6 +24,14 @@ public StringQuery(@Nonnull StringPredicate predicate) {
 		this.predicate = predicate;
 	}
 
+	/**
+	 * @return String matching predicate.
+	 */
+	@Nonnull
+	public StringPredicate getPredicate() {
+		return predicate;
+	}
+
 	@Override
 	protected boolean isMatch(Object value) {
 		if (value instanceof String text)
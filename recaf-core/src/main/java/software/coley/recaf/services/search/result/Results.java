@@ -2,8 +2,7 @@
 
 import software.coley.collections.delegate.DelegatingSortedSet;
 
-import java.util.Collections;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 /**
  * Results wrapper for a search operation.
@@ -12,9 +11,9 @@
  */
 public class Results extends DelegatingSortedSet<Result<?>> {
 	/**
-	 * New results backed by tree-set.
+	 * New results backed by a concurrent skip-list set, allowing search workers to add results without locking.
 	 */
 	public Results() {
-		super(Collections.synchronizedNavigableSet(new TreeSet<>()));
+		super(new ConcurrentSkipListSet<>());
 	}
 }
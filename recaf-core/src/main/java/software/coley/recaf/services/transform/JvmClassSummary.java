@@ -0,0 +1,235 @@
+package software.coley.recaf.services.transform;
+
+import jakarta.annotation.Nonnull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import software.coley.recaf.RecafConstants;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Summary of the code in a class, for {@link JvmClassTransformer#isApplicable(JvmTransformerContext, JvmClassSummary)}.
+ * <br>
+ * The summary is built by visiting the class without building a {@link ClassNode}, so transformers can check if a class
+ * has the content they operate on before any more expensive work is done.
+ *
+ * @author Matt Coley
+ * @see JvmTransformerContext#getSummary(JvmClassBundle, JvmClassInfo)
+ */
+public class JvmClassSummary {
+	private final int[] opcodeCounts = new int[256];
+	private final Set<String> referencedOwners = new HashSet<>();
+	private String name;
+	private boolean hasTryCatch;
+
+	private JvmClassSummary() {}
+
+	/**
+	 * @param bytecode
+	 * 		Class bytecode to summarize.
+	 *
+	 * @return Summary of the class.
+	 */
+	@Nonnull
+	public static JvmClassSummary of(@Nonnull byte[] bytecode) {
+		JvmClassSummary summary = new JvmClassSummary();
+		new ClassReader(bytecode).accept(summary.new SummaryClassVisitor(), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		return summary;
+	}
+
+	/**
+	 * @param node
+	 * 		Class node to summarize.
+	 *
+	 * @return Summary of the class.
+	 */
+	@Nonnull
+	public static JvmClassSummary of(@Nonnull ClassNode node) {
+		JvmClassSummary summary = new JvmClassSummary();
+		node.accept(summary.new SummaryClassVisitor());
+		return summary;
+	}
+
+	/**
+	 * @return Name of the class.
+	 */
+	@Nonnull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @param opcode
+	 * 		Instruction opcode.
+	 *
+	 * @return Number of instructions with the given opcode across all methods in the class.
+	 */
+	public int getOpcodeCount(int opcode) {
+		if (opcode < 0 || opcode >= opcodeCounts.length)
+			return 0;
+		return opcodeCounts[opcode];
+	}
+
+	/**
+	 * @param opcode
+	 * 		Instruction opcode.
+	 *
+	 * @return {@code true} when any method in the class has an instruction with the given opcode.
+	 */
+	public boolean hasOpcode(int opcode) {
+		return getOpcodeCount(opcode) > 0;
+	}
+
+	/**
+	 * @param opcodes
+	 * 		Instruction opcodes.
+	 *
+	 * @return {@code true} when any method in the class has an instruction with any of the given opcodes.
+	 */
+	public boolean hasAnyOpcode(int... opcodes) {
+		for (int opcode : opcodes)
+			if (hasOpcode(opcode))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return Names of types referenced as owners of field and method instructions, and as operands of type
+	 * instructions such as {@code NEW} and {@code CHECKCAST}.
+	 */
+	@Nonnull
+	public Set<String> getReferencedOwners() {
+		return Collections.unmodifiableSet(referencedOwners);
+	}
+
+	/**
+	 * @return {@code true} when any method in the class has a try-catch block.
+	 */
+	public boolean hasTryCatch() {
+		return hasTryCatch;
+	}
+
+	/**
+	 * @return {@code true} when any method in the class has an {@code invokedynamic} instruction.
+	 */
+	public boolean hasInvokeDynamic() {
+		return hasOpcode(Opcodes.INVOKEDYNAMIC);
+	}
+
+	private void count(int opcode) {
+		if (opcode >= 0 && opcode < opcodeCounts.length)
+			opcodeCounts[opcode]++;
+	}
+
+	/**
+	 * Visitor to populate the summary.
+	 */
+	private class SummaryClassVisitor extends ClassVisitor {
+		private final MethodVisitor methodVisitor = new SummaryMethodVisitor();
+
+		private SummaryClassVisitor() {
+			super(RecafConstants.getAsmVersion());
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			JvmClassSummary.this.name = name;
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+			return methodVisitor;
+		}
+	}
+
+	/**
+	 * Visitor to populate the summary with method code contents.
+	 */
+	private class SummaryMethodVisitor extends MethodVisitor {
+		private SummaryMethodVisitor() {
+			super(RecafConstants.getAsmVersion());
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			count(opcode);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			count(opcode);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int varIndex) {
+			count(opcode);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			count(opcode);
+			referencedOwners.add(type);
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+			count(opcode);
+			referencedOwners.add(owner);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+			count(opcode);
+			referencedOwners.add(owner);
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+			count(Opcodes.INVOKEDYNAMIC);
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			count(opcode);
+		}
+
+		@Override
+		public void visitLdcInsn(Object value) {
+			count(Opcodes.LDC);
+		}
+
+		@Override
+		public void visitIincInsn(int varIndex, int increment) {
+			count(Opcodes.IINC);
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+			count(Opcodes.TABLESWITCH);
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			count(Opcodes.LOOKUPSWITCH);
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+			count(Opcodes.MULTIANEWARRAY);
+		}
+
+		@Override
+		public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+			hasTryCatch = true;
+		}
+	}
+}
@@ -27,6 +27,22 @@ public interface JvmClassTransformer extends ClassTransformer {
 	 */
 	default void setup(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace) {}
 
+	/**
+	 * Used to skip classes which the transformer cannot affect, before {@link #transform} is called.
+	 * Implementations should only check the given summary and other cheap state, so that classes without any
+	 * content relevant to the transformer can be skipped without building a {@link ClassNode} of them.
+	 *
+	 * @param context
+	 * 		Transformation context for access to other transformers.
+	 * @param summary
+	 * 		Summary of the current state of the class to transform.
+	 *
+	 * @return {@code true} when the class should be transformed. {@code false} to skip the class.
+	 */
+	default boolean isApplicable(@Nonnull JvmTransformerContext context, @Nonnull JvmClassSummary summary) {
+		return true;
+	}
+
 	/**
 	 * Implementations can {@link #dependencies() depend on other transformers} and access them
 	 * via {@link JvmTransformerContext#getJvmTransformer(Class)}. This may be useful in cases where you want to have
@@ -0,0 +1,295 @@
+package software.coley.recaf.services.transform;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import jakarta.annotation.Nonnull;
+import software.coley.recaf.util.threading.ThreadUtil;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Profile of the costs of running transformers in {@link TransformationApplier#transformJvm(List)}.
+ * <br>
+ * Costs are recorded for each call to {@link JvmClassTransformer#transform}, and are summed per transformer,
+ * per transformer in each pass, and kept for the slowest individual class transformations.
+ * CPU time and allocation are measured for the thread running the transformer. If the JVM does not support
+ * measuring either of these, the respective values are {@code -1}.
+ *
+ * @author Matt Coley
+ */
+public class JvmTransformProfile {
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final int MAX_SLOWEST_CLASSES = 25;
+	private final Map<Class<? extends JvmClassTransformer>, Accumulator> transformerTotals = new ConcurrentHashMap<>();
+	private final Map<Integer, Map<Class<? extends JvmClassTransformer>, Accumulator>> passTotals = new ConcurrentHashMap<>();
+	private final PriorityQueue<ClassCost> slowestClasses = new PriorityQueue<>(Comparator.comparingLong(ClassCost::wallNanos));
+	private volatile long totalWallNanos;
+	private volatile int passes;
+
+	/**
+	 * @return Wall time of the whole transformation run, in nanoseconds.
+	 */
+	public long getTotalWallNanos() {
+		return totalWallNanos;
+	}
+
+	/**
+	 * @return Number of passes run over the classes.
+	 */
+	public int getPasses() {
+		return passes;
+	}
+
+	/**
+	 * @return Costs of each transformer, summed over all passes.
+	 */
+	@Nonnull
+	public Map<Class<? extends JvmClassTransformer>, TransformerCost> getTransformerCosts() {
+		return snapshot(transformerTotals);
+	}
+
+	/**
+	 * @return Costs of each transformer in each pass, where the keys are pass numbers starting at {@code 1}.
+	 */
+	@Nonnull
+	public SortedMap<Integer, Map<Class<? extends JvmClassTransformer>, TransformerCost>> getPassCosts() {
+		SortedMap<Integer, Map<Class<? extends JvmClassTransformer>, TransformerCost>> map = new TreeMap<>();
+		passTotals.forEach((pass, totals) -> map.put(pass, snapshot(totals)));
+		return Collections.unmodifiableSortedMap(map);
+	}
+
+	/**
+	 * @return Costs of the slowest individual class transformations, ordered from slowest to fastest.
+	 */
+	@Nonnull
+	public List<ClassCost> getSlowestClasses() {
+		List<ClassCost> list;
+		synchronized (slowestClasses) {
+			list = new ArrayList<>(slowestClasses);
+		}
+		list.sort(Comparator.comparingLong(ClassCost::wallNanos).reversed());
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * @return JSON representation of the profile.
+	 */
+	@Nonnull
+	public String toJson() {
+		StringWriter out = new StringWriter();
+		try {
+			JsonWriter jw = GSON.newJsonWriter(out);
+			jw.beginObject();
+			jw.name("total-wall-ns").value(totalWallNanos);
+			jw.name("passes").value(passes);
+			jw.name("transformers");
+			writeCosts(jw, getTransformerCosts());
+			jw.name("pass-costs").beginArray();
+			for (Map.Entry<Integer, Map<Class<? extends JvmClassTransformer>, TransformerCost>> entry : getPassCosts().entrySet()) {
+				jw.beginObject();
+				jw.name("pass").value(entry.getKey());
+				jw.name("transformers");
+				writeCosts(jw, entry.getValue());
+				jw.endObject();
+			}
+			jw.endArray();
+			jw.name("slowest-classes").beginArray();
+			for (ClassCost cost : getSlowestClasses()) {
+				jw.beginObject();
+				jw.name("class").value(cost.className());
+				jw.name("transformer").value(cost.transformer().getName());
+				jw.name("pass").value(cost.pass());
+				jw.name("wall-ns").value(cost.wallNanos());
+				jw.name("cpu-ns").value(cost.cpuNanos());
+				jw.name("allocated-bytes").value(cost.allocatedBytes());
+				jw.endObject();
+			}
+			jw.endArray();
+			jw.endObject();
+			jw.flush();
+		} catch (IOException ex) {
+			// Should never happen when writing to a string
+			throw new IllegalStateException("Failed to write profile json", ex);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * @return Current measurements of the calling thread, to pass to {@link #recordInvocation}.
+	 */
+	@Nonnull
+	static Sample sample() {
+		return new Sample(System.nanoTime(), ThreadUtil.getCurrentThreadCpuTime(), ThreadUtil.getCurrentThreadAllocatedBytes());
+	}
+
+	/**
+	 * @param transformer
+	 * 		Transformer that was run.
+	 * @param pass
+	 * 		Pass the transformer was run in.
+	 * @param className
+	 * 		Name of the class transformed.
+	 * @param start
+	 * 		Measurements of the calling thread before the transformer was run.
+	 */
+	void recordInvocation(@Nonnull Class<? extends JvmClassTransformer> transformer, int pass,
+	                      @Nonnull String className, @Nonnull Sample start) {
+		Sample end = sample();
+		long wall = end.wallNanos() - start.wallNanos();
+		long cpu = start.cpuNanos() < 0 || end.cpuNanos() < 0 ? -1 : end.cpuNanos() - start.cpuNanos();
+		long allocated = start.allocatedBytes() < 0 || end.allocatedBytes() < 0 ? -1 : end.allocatedBytes() - start.allocatedBytes();
+		transformerTotals.computeIfAbsent(transformer, t -> new Accumulator()).addInvocation(wall, cpu, allocated);
+		passTotals.computeIfAbsent(pass, p -> new ConcurrentHashMap<>())
+				.computeIfAbsent(transformer, t -> new Accumulator()).addInvocation(wall, cpu, allocated);
+		synchronized (slowestClasses) {
+			if (slowestClasses.size() < MAX_SLOWEST_CLASSES) {
+				slowestClasses.add(new ClassCost(className, transformer, pass, wall, cpu, allocated));
+			} else if (slowestClasses.peek().wallNanos() < wall) {
+				slowestClasses.poll();
+				slowestClasses.add(new ClassCost(className, transformer, pass, wall, cpu, allocated));
+			}
+		}
+	}
+
+	/**
+	 * @param transformer
+	 * 		Transformer that skipped a class.
+	 * @param pass
+	 * 		Pass the transformer skipped the class in.
+	 *
+	 * @see JvmClassTransformer#isApplicable(JvmTransformerContext, JvmClassSummary)
+	 */
+	void recordSkip(@Nonnull Class<? extends JvmClassTransformer> transformer, int pass) {
+		transformerTotals.computeIfAbsent(transformer, t -> new Accumulator()).skipped.increment();
+		passTotals.computeIfAbsent(pass, p -> new ConcurrentHashMap<>())
+				.computeIfAbsent(transformer, t -> new Accumulator()).skipped.increment();
+	}
+
+	/**
+	 * @param totalWallNanos
+	 * 		Wall time of the whole transformation run, in nanoseconds.
+	 * @param passes
+	 * 		Number of passes run over the classes.
+	 */
+	void complete(long totalWallNanos, int passes) {
+		this.totalWallNanos = totalWallNanos;
+		this.passes = passes;
+	}
+
+	private static void writeCosts(@Nonnull JsonWriter jw,
+	                               @Nonnull Map<Class<? extends JvmClassTransformer>, TransformerCost> costs) throws IOException {
+		jw.beginArray();
+		for (Map.Entry<Class<? extends JvmClassTransformer>, TransformerCost> entry : costs.entrySet()) {
+			TransformerCost cost = entry.getValue();
+			jw.beginObject();
+			jw.name("transformer").value(entry.getKey().getName());
+			jw.name("invocations").value(cost.invocations());
+			jw.name("skipped").value(cost.skipped());
+			jw.name("wall-ns").value(cost.wallNanos());
+			jw.name("cpu-ns").value(cost.cpuNanos());
+			jw.name("allocated-bytes").value(cost.allocatedBytes());
+			jw.endObject();
+		}
+		jw.endArray();
+	}
+
+	@Nonnull
+	private static Map<Class<? extends JvmClassTransformer>, TransformerCost> snapshot(@Nonnull Map<Class<? extends JvmClassTransformer>, Accumulator> totals) {
+		Map<Class<? extends JvmClassTransformer>, TransformerCost> map = new IdentityHashMap<>();
+		totals.forEach((transformer, accumulator) -> map.put(transformer, accumulator.toCost()));
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Summed costs of a transformer.
+	 *
+	 * @param invocations
+	 * 		Number of classes the transformer was run on.
+	 * @param skipped
+	 * 		Number of classes the transformer skipped as not applicable.
+	 * @param wallNanos
+	 * 		Wall time spent in the transformer, in nanoseconds.
+	 * @param cpuNanos
+	 * 		CPU time spent in the transformer, in nanoseconds. {@code -1} if not supported.
+	 * @param allocatedBytes
+	 * 		Bytes allocated by the transformer. {@code -1} if not supported.
+	 */
+	public record TransformerCost(long invocations, long skipped, long wallNanos, long cpuNanos, long allocatedBytes) {}
+
+	/**
+	 * Cost of running a transformer on a single class.
+	 *
+	 * @param className
+	 * 		Name of class transformed.
+	 * @param transformer
+	 * 		Transformer that was run.
+	 * @param pass
+	 * 		Pass the transformer was run in.
+	 * @param wallNanos
+	 * 		Wall time spent in the transformer, in nanoseconds.
+	 * @param cpuNanos
+	 * 		CPU time spent in the transformer, in nanoseconds. {@code -1} if not supported.
+	 * @param allocatedBytes
+	 * 		Bytes allocated by the transformer. {@code -1} if not supported.
+	 */
+	public record ClassCost(@Nonnull String className, @Nonnull Class<? extends JvmClassTransformer> transformer, int pass,
+	                        long wallNanos, long cpuNanos, long allocatedBytes) {}
+
+	/**
+	 * Measurements of a thread at a point in time.
+	 *
+	 * @param wallNanos
+	 * 		Wall time in nanoseconds.
+	 * @param cpuNanos
+	 * 		CPU time of the thread in nanoseconds, or {@code -1} if not supported.
+	 * @param allocatedBytes
+	 * 		Bytes allocated by the thread, or {@code -1} if not supported.
+	 */
+	record Sample(long wallNanos, long cpuNanos, long allocatedBytes) {}
+
+	/**
+	 * Thread-safe sum of transformer costs.
+	 */
+	private static class Accumulator {
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder skipped = new LongAdder();
+		private final LongAdder wallNanos = new LongAdder();
+		private final LongAdder cpuNanos = new LongAdder();
+		private final LongAdder allocatedBytes = new LongAdder();
+		private volatile boolean cpuUnsupported;
+		private volatile boolean allocationUnsupported;
+
+		private void addInvocation(long wall, long cpu, long allocated) {
+			invocations.increment();
+			wallNanos.add(wall);
+			if (cpu < 0)
+				cpuUnsupported = true;
+			else
+				cpuNanos.add(cpu);
+			if (allocated < 0)
+				allocationUnsupported = true;
+			else
+				allocatedBytes.add(allocated);
+		}
+
+		@Nonnull
+		private TransformerCost toCost() {
+			return new TransformerCost(invocations.sum(), skipped.sum(), wallNanos.sum(),
+					cpuUnsupported ? -1 : cpuNanos.sum(),
+					allocationUnsupported ? -1 : allocatedBytes.sum());
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package software.coley.recaf.services.transform;
 
+import jakarta.annotation.Nonnull;
 import software.coley.recaf.info.JvmClassInfo;
 
 /**
@@ -7,4 +8,11 @@
  *
  * @author Matt Coley
  */
-public interface JvmTransformResult extends TransformResult<JvmClassTransformer, JvmClassInfo> {}
+public interface JvmTransformResult extends TransformResult<JvmClassTransformer, JvmClassInfo> {
+	/**
+	 * @return Costs of running each transformer, such as time spent and memory allocated.
+	 * Use {@link JvmTransformProfile#toJson()} for a machine-readable report.
+	 */
+	@Nonnull
+	JvmTransformProfile getProfile();
+}
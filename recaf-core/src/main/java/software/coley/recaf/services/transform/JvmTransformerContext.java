@@ -13,6 +13,7 @@
 import software.coley.recaf.path.ResourcePathNode;
 import software.coley.recaf.services.deobfuscation.transform.generic.DeadCodeRemovingTransformer;
 import software.coley.recaf.services.deobfuscation.transform.generic.FrameRemovingTransformer;
+import software.coley.recaf.services.deobfuscation.transform.generic.StaticValueCollectionTransformer;
 import software.coley.recaf.services.inheritance.InheritanceGraph;
 import software.coley.recaf.services.mapping.aggregate.AggregatedMappings;
 import software.coley.recaf.util.analysis.ReAnalyzer;
@@ -34,6 +35,7 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -51,7 +53,9 @@ public class JvmTransformerContext {
 	private final Set<String> classesToRemove = ConcurrentHashMap.newKeySet();
 	private final Map<String, JvmClassData> classData = new ConcurrentHashMap<>();
 	private final Set<String> recomputeFrameClasses = ConcurrentHashMap.newKeySet();
+	private final Set<String> changedClassData = ConcurrentHashMap.newKeySet();
 	private final ThreadLocal<Boolean> transformerDidWork = ThreadLocal.withInitial(() -> false);
+	private final MethodFrameCache frameCache = new MethodFrameCache();
 	private final Workspace workspace;
 	private final WorkspaceResource resource;
 	private Supplier<GetFieldLookup> getFieldLookupSupplier = () -> null;
@@ -162,18 +166,23 @@ protected Map<ClassPathNode, JvmClassInfo> buildChangeMap(@Nonnull InheritanceGr
 	 * @param method
 	 * 		Method to analyze.
 	 *
-	 * @return Analyzed frames of the given method.
+	 * @return Analyzed frames of the given method. Frames are cached until the method is modified,
+	 * so they are shared between callers and must not be modified.
 	 *
 	 * @throws TransformationException
 	 * 		When the analyzer throws an exception when computing the frames of the given method.
+	 * @see #getFrameCacheHits()
+	 * @see #getFrameCacheMisses()
 	 */
 	@Nonnull
 	public Frame<ReValue>[] analyze(@Nonnull InheritanceGraph inheritanceGraph,
 	                                @Nonnull ClassNode cls,
 	                                @Nonnull MethodNode method) throws TransformationException {
 		try {
-			ReAnalyzer analyzer = newAnalyzer(inheritanceGraph, cls, method);
-			return analyzer.analyze(cls.name, method);
+			return frameCache.getOrAnalyze(inheritanceGraph, method, () -> {
+				ReAnalyzer analyzer = newAnalyzer(inheritanceGraph, cls, method);
+				return analyzer.analyze(cls.name, method);
+			});
 		} catch (Throwable t) {
 			throw new TransformationException("Error encountered when computing method frames", t);
 		}
@@ -213,6 +222,22 @@ public ReInterpreter newInterpreter(@Nonnull InheritanceGraph inheritanceGraph)
 		return interpreter;
 	}
 
+	/**
+	 * @return Number of calls to {@link #analyze(InheritanceGraph, ClassNode, MethodNode)} which reused frames
+	 * from a prior analysis of an unmodified method.
+	 */
+	public long getFrameCacheHits() {
+		return frameCache.getHits();
+	}
+
+	/**
+	 * @return Number of calls to {@link #analyze(InheritanceGraph, ClassNode, MethodNode)} which had to analyze
+	 * the method.
+	 */
+	public long getFrameCacheMisses() {
+		return frameCache.getMisses();
+	}
+
 	/**
 	 * Utility to invoke {@link DeadCodeRemovingTransformer} for a given method.
 	 * Requires the transformer to be provided to this context.
@@ -288,6 +313,24 @@ public byte[] getBytecode(@Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo
 		return getJvmClassData(bundle, info).getBytecode();
 	}
 
+	/**
+	 * Gets a summary of the current state of the given class. The summary is computed once per state of the class,
+	 * and does not require the class to be represented as a node.
+	 *
+	 * @param bundle
+	 * 		Bundle containing the class.
+	 * @param info
+	 * 		The class's model in the workspace.
+	 *
+	 * @return Summary of the current tracked/transformed state of the class.
+	 *
+	 * @see JvmClassTransformer#isApplicable(JvmTransformerContext, JvmClassSummary)
+	 */
+	@Nonnull
+	public JvmClassSummary getSummary(@Nonnull JvmClassBundle bundle, @Nonnull JvmClassInfo info) {
+		return getJvmClassData(bundle, info).getSummary();
+	}
+
 	/**
 	 * Updates the transformed state of a class by recording an ASM node representation of the class.
 	 *
@@ -381,6 +424,37 @@ public void setRecomputeFrames(@Nonnull String className) {
 		recomputeFrameClasses.add(className);
 	}
 
+	/**
+	 * Called by transformers that collect information about classes for other transformers to use,
+	 * such as {@link StaticValueCollectionTransformer}, when the collected information of a class changes.
+	 * When running multiple passes, classes which reference the given class will be revisited in the next pass
+	 * even if they were not modified in the current pass.
+	 *
+	 * @param className
+	 * 		Name of class whose collected information changed.
+	 */
+	public void markClassDataChanged(@Nonnull String className) {
+		changedClassData.add(className);
+
+		// Collected data is used by lookups during analysis, so prior analysis results of methods
+		// referencing the class may no longer be accurate.
+		frameCache.invalidateReferencesTo(className);
+	}
+
+	/**
+	 * @return Names of classes whose collected information changed since the last call to this method.
+	 *
+	 * @see #markClassDataChanged(String)
+	 */
+	@Nonnull
+	protected Set<String> drainChangedClassData() {
+		Set<String> changed = new HashSet<>();
+		for (String name : changedClassData)
+			if (changedClassData.remove(name))
+				changed.add(name);
+		return changed;
+	}
+
 	/**
 	 * Transformers that aim to rename classes, fields, and methods should register the desired mappings
 	 * here, and they will be applied after all other transformations are applied.
@@ -454,6 +528,7 @@ public void setGetFieldLookupSupplier(@Nullable Supplier<GetFieldLookup> supplie
 		if (supplier == null)
 			supplier = () -> null;
 		getFieldLookupSupplier = supplier;
+		frameCache.invalidateAll();
 	}
 
 	/**
@@ -464,6 +539,7 @@ public void setGetStaticLookupSupplier(@Nullable Supplier<GetStaticLookup> suppl
 		if (supplier == null)
 			supplier = () -> null;
 		getStaticLookupSupplier = supplier;
+		frameCache.invalidateAll();
 	}
 
 	/**
@@ -474,6 +550,7 @@ public void setInvokeVirtualLookupSupplier(@Nullable Supplier<InvokeVirtualLooku
 		if (supplier == null)
 			supplier = () -> null;
 		invokeVirtualLookupSupplier = supplier;
+		frameCache.invalidateAll();
 	}
 
 	/**
@@ -484,6 +561,7 @@ public void setInvokeStaticLookupSupplier(@Nullable Supplier<InvokeStaticLookup>
 		if (supplier == null)
 			supplier = () -> null;
 		invokeStaticLookupSupplier = supplier;
+		frameCache.invalidateAll();
 	}
 
 	/**
@@ -529,6 +607,7 @@ private class JvmClassData {
 		private final JvmClassInfo initialClass;
 		private volatile byte[] bytecode;
 		private volatile ClassNode node;
+		private volatile JvmClassSummary summary;
 		private boolean dirty;
 
 		/**
@@ -561,11 +640,32 @@ public ClassNode getOrCreateNode() {
 
 			// We always give back a copy so actions taken on this node are not affecting the cached instance
 			// unless a transformer explicitly commits the change.
+			ClassNode currentNode = node;
 			ClassNode nodeCopy = new ClassNode();
-			node.accept(nodeCopy);
+			currentNode.accept(nodeCopy);
+			frameCache.registerCopy(currentNode, nodeCopy);
 			return nodeCopy;
 		}
 
+		/**
+		 * @return Summary of the current state of the class.
+		 */
+		@Nonnull
+		public JvmClassSummary getSummary() {
+			JvmClassSummary current = summary;
+			if (current == null) {
+				synchronized (this) {
+					current = summary;
+					if (current == null) {
+						// Summarize from whichever representation is current, to avoid converting between them.
+						current = node != null ? JvmClassSummary.of(node) : JvmClassSummary.of(bytecode);
+						summary = current;
+					}
+				}
+			}
+			return current;
+		}
+
 		/**
 		 * @return Current bytecode of the class.
 		 */
@@ -591,8 +691,10 @@ public void setNode(@Nonnull ClassNode node) {
 			synchronized (this) {
 				this.node = node;
 				bytecode = null; // Invalidate bytecode state
+				summary = null;
 				dirty = true;
 			}
+			frameCache.registerMaster(node);
 		}
 
 		/**
@@ -603,6 +705,7 @@ public void setBytecode(@Nonnull byte[] bytecode) {
 			synchronized (this) {
 				this.bytecode = bytecode;
 				node = null; // Invalidate node state
+				summary = null;
 				dirty = true;
 			}
 		}
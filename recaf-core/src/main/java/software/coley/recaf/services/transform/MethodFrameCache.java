@@ -0,0 +1,379 @@
+package software.coley.recaf.services.transform;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import software.coley.recaf.services.inheritance.InheritanceGraph;
+import software.coley.recaf.util.analysis.value.ReValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of analyzed method frames for {@link JvmTransformerContext}.
+ * <br>
+ * Frames are recorded against the method instance that was analyzed, along with a snapshot of the method's
+ * instructions, their operands, and try-catch blocks. Any change to the method, such as replacing, inserting, or removing
+ * instructions, or changing the operands of existing instructions, will not match the snapshot, and the method is
+ * analyzed again.
+ * <br>
+ * Transformers are given copies of the tracked class state, so the same method will be a different instance for each
+ * transformer. To share frames between transformers, copies are registered with {@link #registerCopy(ClassNode, ClassNode)}
+ * so that unmodified copies of the same tracked method can use frames computed for one another.
+ * <br>
+ * Frames are large, so only the most recently used entries are kept. Methods revisited by later transformers are
+ * only served from the cache while they are still among the most recently used entries.
+ *
+ * @author Matt Coley
+ */
+class MethodFrameCache {
+	private static final int MAX_CACHED_METHODS = 2048;
+	private final Map<MethodNode, CachedFrames> methodFrames = newLruMap();
+	private final Map<MethodNode, MethodOrigin> methodOrigins = Collections.synchronizedMap(new WeakHashMap<>());
+	private final Map<OriginKey, CachedFrames> sharedFrames = newLruMap();
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param inheritanceGraph
+	 * 		Inheritance graph used for analysis.
+	 * @param method
+	 * 		Method to get frames of.
+	 * @param analysis
+	 * 		Action to compute the frames if they are not cached.
+	 *
+	 * @return Frames of the method.
+	 *
+	 * @throws AnalyzerException
+	 * 		When the frames could not be computed.
+	 */
+	@Nonnull
+	Frame<ReValue>[] getOrAnalyze(@Nonnull InheritanceGraph inheritanceGraph,
+	                              @Nonnull MethodNode method,
+	                              @Nonnull Analysis analysis) throws AnalyzerException {
+		long currentGeneration = generation.get();
+
+		// Check for frames of this exact method instance.
+		CachedFrames cached = methodFrames.get(method);
+		if (cached != null && cached.isValid(inheritanceGraph, currentGeneration, method)) {
+			hits.incrementAndGet();
+			return cached.frames();
+		}
+
+		// Check for frames of other unmodified copies of the same tracked method.
+		MethodOrigin origin = methodOrigins.get(method);
+		if (origin != null && !origin.shape().matches(method))
+			origin = null;
+		if (origin != null) {
+			cached = sharedFrames.get(origin.key());
+			if (cached != null && cached.graph() == inheritanceGraph && cached.generation() == currentGeneration) {
+				hits.incrementAndGet();
+				methodFrames.put(method, cached.withShape(origin.shape()));
+				return cached.frames();
+			}
+		}
+
+		// Not cached, so analyze the method.
+		misses.incrementAndGet();
+		long currentEvictions = evictions.get();
+		Frame<ReValue>[] frames = analysis.analyze();
+
+		// If entries were evicted while analyzing, the frames may have been computed with outdated data.
+		// We do not know if the eviction applied to this method, so we do not cache the frames to be safe.
+		if (currentEvictions != evictions.get())
+			return frames;
+		CachedFrames computed = new CachedFrames(inheritanceGraph, currentGeneration, MethodShape.of(method), frames);
+		methodFrames.put(method, computed);
+		if (origin != null)
+			sharedFrames.put(origin.key(), computed);
+		return frames;
+	}
+
+	/**
+	 * Records the methods of a copy of a tracked class, so that frames can be shared between copies.
+	 *
+	 * @param master
+	 * 		Tracked class state.
+	 * @param copy
+	 * 		Copy of the tracked class state given to a transformer.
+	 */
+	void registerCopy(@Nonnull ClassNode master, @Nonnull ClassNode copy) {
+		List<MethodNode> methods = copy.methods;
+		for (int i = 0; i < methods.size(); i++) {
+			MethodNode method = methods.get(i);
+			methodOrigins.put(method, new MethodOrigin(new OriginKey(master, i), MethodShape.of(method)));
+		}
+	}
+
+	/**
+	 * Called when a transformer commits a new tracked class state. Methods in the new state which were analyzed
+	 * and have not changed since will have their frames shared with future copies of the new state.
+	 *
+	 * @param master
+	 * 		New tracked class state.
+	 */
+	void registerMaster(@Nonnull ClassNode master) {
+		List<MethodNode> methods = master.methods;
+		for (int i = 0; i < methods.size(); i++) {
+			MethodNode method = methods.get(i);
+			CachedFrames cached = methodFrames.get(method);
+			if (cached != null && cached.shape().matches(method))
+				sharedFrames.put(new OriginKey(master, i), cached);
+		}
+	}
+
+	/**
+	 * Invalidates all cached frames. Called when state outside of methods that analysis may depend on changes,
+	 * such as the values given by lookups to the analyzer's interpreter.
+	 */
+	void invalidateAll() {
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Invalidates cached frames of methods that reference the given class. Called when state about a class outside
+	 * of methods that analysis may depend on changes, such as values given by lookups for the class's fields.
+	 *
+	 * @param className
+	 * 		Name of class that was changed.
+	 */
+	void invalidateReferencesTo(@Nonnull String className) {
+		evictions.incrementAndGet();
+		evictReferencesTo(methodFrames, className);
+		evictReferencesTo(sharedFrames, className);
+	}
+
+	/**
+	 * @return Number of analysis requests served from the cache.
+	 */
+	long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return Number of analysis requests which had to analyze the method.
+	 */
+	long getMisses() {
+		return misses.get();
+	}
+
+	private static void evictReferencesTo(@Nonnull Map<?, CachedFrames> map, @Nonnull String className) {
+		synchronized (map) {
+			map.values().removeIf(cached -> cached.shape().references(className));
+		}
+	}
+
+	@Nonnull
+	private static <K> Map<K, CachedFrames> newLruMap() {
+		return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, CachedFrames> eldest) {
+				return size() > MAX_CACHED_METHODS;
+			}
+		});
+	}
+
+	/**
+	 * Action to compute frames of a method.
+	 */
+	interface Analysis {
+		/**
+		 * @return Frames of the method.
+		 *
+		 * @throws AnalyzerException
+		 * 		When the frames could not be computed.
+		 */
+		@Nonnull
+		Frame<ReValue>[] analyze() throws AnalyzerException;
+	}
+
+	/**
+	 * @param master
+	 * 		Tracked class state. Compared by identity.
+	 * @param index
+	 * 		Index of the method in the class.
+	 */
+	private record OriginKey(@Nonnull ClassNode master, int index) {}
+
+	/**
+	 * @param key
+	 * 		Key of the tracked method the method was copied from.
+	 * @param shape
+	 * 		Shape of the method when it was copied.
+	 */
+	private record MethodOrigin(@Nonnull OriginKey key, @Nonnull MethodShape shape) {}
+
+	/**
+	 * @param graph
+	 * 		Inheritance graph used for analysis.
+	 * @param generation
+	 * 		Cache generation at the time of analysis.
+	 * @param shape
+	 * 		Shape of the method when analyzed.
+	 * @param frames
+	 * 		Analyzed frames.
+	 */
+	private record CachedFrames(@Nonnull InheritanceGraph graph, long generation,
+	                            @Nonnull MethodShape shape, @Nonnull Frame<ReValue>[] frames) {
+		private boolean isValid(@Nonnull InheritanceGraph graph, long generation, @Nonnull MethodNode method) {
+			return this.graph == graph && this.generation == generation && shape.matches(method);
+		}
+
+		@Nonnull
+		private CachedFrames withShape(@Nonnull MethodShape shape) {
+			return new CachedFrames(graph, generation, shape, frames);
+		}
+	}
+
+	/**
+	 * Snapshot of the parts of a method that affect analysis. Instructions and try-catch labels are compared by identity,
+	 * which detects any instruction being replaced, inserted, or removed. Opcodes and operands of instructions are
+	 * recorded as well, since transformers may modify instructions in place, such as changing the constant of an
+	 * {@link LdcInsnNode}.
+	 *
+	 * @param access
+	 * 		Method access flags.
+	 * @param desc
+	 * 		Method descriptor.
+	 * @param maxLocals
+	 * 		Max local variable slots.
+	 * @param maxStack
+	 * 		Max stack size.
+	 * @param instructions
+	 * 		Method instructions.
+	 * @param opcodes
+	 * 		Opcode of each instruction.
+	 * @param operands
+	 * 		Operands of each instruction, see {@link #operands(AbstractInsnNode)}.
+	 * @param tryCatchNodes
+	 * 		Start, end, and handler labels, and the type of each try-catch block.
+	 */
+	private record MethodShape(int access, @Nonnull String desc, int maxLocals, int maxStack,
+	                           @Nonnull AbstractInsnNode[] instructions, @Nonnull int[] opcodes,
+	                           @Nonnull Object[] operands, @Nonnull Object[] tryCatchNodes) {
+		@Nonnull
+		private static MethodShape of(@Nonnull MethodNode method) {
+			List<TryCatchBlockNode> blocks = method.tryCatchBlocks;
+			int blockCount = blocks == null ? 0 : blocks.size();
+			Object[] tryCatchNodes = new Object[blockCount * 4];
+			for (int i = 0; i < blockCount; i++) {
+				TryCatchBlockNode block = blocks.get(i);
+				tryCatchNodes[i * 4] = block.start;
+				tryCatchNodes[i * 4 + 1] = block.end;
+				tryCatchNodes[i * 4 + 2] = block.handler;
+				tryCatchNodes[i * 4 + 3] = block.type;
+			}
+			AbstractInsnNode[] instructions = method.instructions.toArray();
+			int[] opcodes = new int[instructions.length];
+			Object[] operands = new Object[instructions.length];
+			for (int i = 0; i < instructions.length; i++) {
+				AbstractInsnNode insn = instructions[i];
+				opcodes[i] = insn.getOpcode();
+				operands[i] = operands(insn);
+			}
+			return new MethodShape(method.access, method.desc, method.maxLocals, method.maxStack,
+					instructions, opcodes, operands, tryCatchNodes);
+		}
+
+		/**
+		 * @param className
+		 * 		Some class name.
+		 *
+		 * @return {@code true} when any field or method instruction of the method refers to the given class.
+		 */
+		private boolean references(@Nonnull String className) {
+			for (AbstractInsnNode insn : instructions) {
+				if (insn instanceof FieldInsnNode field && className.equals(field.owner))
+					return true;
+				if (insn instanceof MethodInsnNode call && className.equals(call.owner))
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @param insn
+		 * 		Some instruction.
+		 *
+		 * @return Snapshot of the instruction's operands which can be compared with {@link Objects#equals(Object, Object)},
+		 * or {@code null} for instructions without operands.
+		 */
+		@Nullable
+		private static Object operands(@Nonnull AbstractInsnNode insn) {
+			if (insn instanceof LdcInsnNode ldc)
+				return ldc.cst;
+			if (insn instanceof IntInsnNode intInsn)
+				return intInsn.operand;
+			if (insn instanceof VarInsnNode var)
+				return var.var;
+			if (insn instanceof IincInsnNode iinc)
+				return Arrays.asList(iinc.var, iinc.incr);
+			if (insn instanceof TypeInsnNode type)
+				return type.desc;
+			if (insn instanceof FieldInsnNode field)
+				return Arrays.asList(field.owner, field.name, field.desc);
+			if (insn instanceof MethodInsnNode call)
+				return Arrays.asList(call.owner, call.name, call.desc, call.itf);
+			if (insn instanceof InvokeDynamicInsnNode indy)
+				return Arrays.asList(indy.name, indy.desc, indy.bsm, Arrays.asList(indy.bsmArgs.clone()));
+			if (insn instanceof JumpInsnNode jump)
+				return jump.label;
+			if (insn instanceof TableSwitchInsnNode tableSwitch)
+				return Arrays.asList(tableSwitch.min, tableSwitch.max, tableSwitch.dflt, new ArrayList<>(tableSwitch.labels));
+			if (insn instanceof LookupSwitchInsnNode lookupSwitch)
+				return Arrays.asList(lookupSwitch.dflt, new ArrayList<>(lookupSwitch.keys), new ArrayList<>(lookupSwitch.labels));
+			if (insn instanceof MultiANewArrayInsnNode multiArray)
+				return Arrays.asList(multiArray.desc, multiArray.dims);
+			return null;
+		}
+
+		private boolean matches(@Nonnull MethodNode method) {
+			if (access != method.access || maxLocals != method.maxLocals || maxStack != method.maxStack
+					|| !desc.equals(method.desc) || instructions.length != method.instructions.size())
+				return false;
+			int i = 0;
+			for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext(), i++)
+				if (instructions[i] != insn || opcodes[i] != insn.getOpcode() || !Objects.equals(operands[i], operands(insn)))
+					return false;
+			List<TryCatchBlockNode> blocks = method.tryCatchBlocks;
+			int blockCount = blocks == null ? 0 : blocks.size();
+			if (tryCatchNodes.length != blockCount * 4)
+				return false;
+			for (int b = 0; b < blockCount; b++) {
+				TryCatchBlockNode block = blocks.get(b);
+				if (tryCatchNodes[b * 4] != block.start
+						|| tryCatchNodes[b * 4 + 1] != block.end
+						|| tryCatchNodes[b * 4 + 2] != block.handler
+						|| !Objects.equals(tryCatchNodes[b * 4 + 3], block.type))
+					return false;
+			}
+			return true;
+		}
+	}
+}
@@ -14,6 +14,7 @@
 import software.coley.recaf.services.mapping.IntermediateMappings;
 import software.coley.recaf.services.mapping.MappingApplier;
 import software.coley.recaf.services.mapping.MappingResults;
+import software.coley.recaf.util.threading.ComputeLane;
 import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
@@ -22,13 +23,16 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -121,7 +125,9 @@ public JvmTransformResult transformJvm(@Nonnull List<Class<? extends JvmClassTra
 	public JvmTransformResult transformJvm(@Nonnull List<Class<? extends JvmClassTransformer>> transformerClasses,
 	                                       @Nullable JvmClassTransformerPredicate predicate) throws TransformationException {
 		// Build transformer visitation order.
+		long startNanos = System.nanoTime();
 		TransformerQueue queue = buildQueue(cast(transformerClasses));
+		JvmTransformProfile profile = new JvmTransformProfile();
 
 		// Map to hold transformation errors for each class:transformer.
 		Map<ClassPathNode, Map<Class<? extends JvmClassTransformer>, Throwable>> transformJvmFailures = Collections.synchronizedMap(new IdentityHashMap<>());
@@ -147,33 +153,50 @@ public JvmTransformResult transformJvm(@Nonnull List<Class<? extends JvmClassTra
 		AtomicInteger finalPass = new AtomicInteger();
 		List<JvmClassTransformer> prunedTransformers = new ArrayList<>();
 		try (ExecutorService service = transformApplyConfig.doParallelize().getValue() ?
-				ThreadPoolFactory.newFixedThreadPool("transform-apply") :
+				ThreadPoolFactory.newFixedThreadPool("transform-apply", ComputeLane.CPU) :
 				ThreadPoolFactory.newSingleThreadExecutor("transform-apply")) {
 			resource.jvmAllClassBundleStreamRecursive().forEach(bundle -> {
-				List<Callable<Void>> tasks = new ArrayList<>(bundle.size());
 				BundlePathNode bundlePathNode = resourcePath.child(bundle);
-				for (int pass = 1; pass <= getMaxPasses(); pass++) {
+
+				// The first pass visits all classes that pass the predicate.
+				Map<String, JvmClassInfo> eligibleClasses = new LinkedHashMap<>();
+				for (JvmClassInfo cls : bundle)
+					if (predicate == null || predicate.shouldTransform(workspace, resource, bundle, cls))
+						eligibleClasses.put(cls.getName(), cls);
+				Collection<JvmClassInfo> worklist = eligibleClasses.values();
+				Map<String, Set<JvmClassInfo>> referencingClasses = null;
+				for (int pass = 1; pass <= getMaxPasses() && !worklist.isEmpty(); pass++) {
 					finalPass.set(pass);
-					AtomicBoolean anyWorkDone = new AtomicBoolean(false);
-					for (JvmClassTransformer transformer : transformers) {
-						AtomicBoolean transformerWorkDone = new AtomicBoolean(false);
-						final int currentPass = pass;
+					final int currentPass = pass;
+					Set<String> modifiedClasses = ConcurrentHashMap.newKeySet();
+					Set<JvmClassTransformer> workingTransformers = ConcurrentHashMap.newKeySet();
 
-						// Transformers can be run in parallel per each pass across all classes in the bundle.
-						tasks.clear();
-						for (JvmClassInfo cls : bundle)
+					// Each transformer is run across all classes in the worklist before the next transformer starts,
+					// so that transformers which pull state from other classes see them fully transformed by prior transformers.
+					for (JvmClassTransformer transformer : transformers) {
+						List<Callable<Void>> tasks = new ArrayList<>(worklist.size());
+						for (JvmClassInfo cls : worklist)
 							tasks.add(() -> {
-								// Skip if the class does not pass the predicate
-								if (predicate != null && !predicate.shouldTransform(workspace, resource, bundle, cls))
-									return null;
-
 								try {
+									// Skip classes the transformer has declared it cannot affect.
+									if (!transformer.isApplicable(context, context.getSummary(bundle, cls))) {
+										profile.recordSkip(transformer.getClass(), currentPass);
+										logger.debugging(l -> l.debug("Pass {}: Transformer {} skipped {}",
+												currentPass, transformer.getClass().getSimpleName(), cls.getName()));
+										return null;
+									}
+
 									context.resetTransformerTracking();
-									transformer.transform(context, workspace, resource, bundle, cls);
+									JvmTransformProfile.Sample sample = JvmTransformProfile.sample();
+									try {
+										transformer.transform(context, workspace, resource, bundle, cls);
+									} finally {
+										profile.recordInvocation(transformer.getClass(), currentPass, cls.getName(), sample);
+									}
 									if (context.didTransformerDoWork()) {
 										// Transformer modified this class, record the interaction
-										anyWorkDone.set(true);
-										transformerWorkDone.set(true);
+										modifiedClasses.add(cls.getName());
+										workingTransformers.add(transformer);
 										Collection<ClassPathNode> paths = transformerToModifiedClasses.computeIfAbsent(transformer.getClass(),
 												t -> Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>())));
 
@@ -196,16 +219,18 @@ public JvmTransformResult transformJvm(@Nonnull List<Class<? extends JvmClassTra
 								return null;
 							});
 
-						// Invoke and wait for all classes in this bundle to be visited/transformed.
+						// Invoke and wait for all classes in the worklist to be visited/transformed by this transformer.
 						try {
 							service.invokeAll(tasks);
 						} catch (InterruptedException ex) {
 							throw new RuntimeException("Interrupt", ex);
 						}
+					}
 
-						// If a transformer is prunable (they no longer execute after a full pass without any work completed)
-						// schedule it for removal so that it will not be executed in following passes.
-						if (!transformerWorkDone.get() && transformer.pruneAfterNoWork()) {
+					// If a transformer is prunable (they no longer execute after a full pass without any work completed)
+					// schedule it for removal so that it will not be executed in following passes.
+					for (JvmClassTransformer transformer : transformers) {
+						if (!workingTransformers.contains(transformer) && transformer.pruneAfterNoWork()) {
 							logger.debug("Pruning transformer '{}' after pass {} completed with no work done", transformer.name(), pass);
 							prunedTransformers.add(transformer);
 						}
@@ -214,9 +239,30 @@ public JvmTransformResult transformJvm(@Nonnull List<Class<? extends JvmClassTra
 					// Remove pruned transformers.
 					transformers.removeAll(prunedTransformers);
 
-					// Break if this transformer has done no work has been done this pass.
-					if (!anyWorkDone.get())
+					// Break if no work has been done this pass.
+					Set<String> changedClassData = context.drainChangedClassData();
+					if (modifiedClasses.isEmpty())
 						break;
+
+					// The next pass only needs to revisit classes that were modified in this pass, and classes referencing
+					// other classes that were modified or whose collected data changed in this pass. For instance, a caller
+					// can have a call result inlined once the callee was simplified.
+					if (referencingClasses == null)
+						referencingClasses = buildReferenceIndex(eligibleClasses.values());
+					Set<JvmClassInfo> nextWorklist = Collections.newSetFromMap(new LinkedHashMap<>());
+					for (String name : modifiedClasses) {
+						JvmClassInfo cls = eligibleClasses.get(name);
+						nextWorklist.add(cls);
+
+						// Transformations can introduce new references, so the index is updated to the modified state.
+						for (String reference : context.getSummary(bundle, cls).getReferencedOwners())
+							referencingClasses.computeIfAbsent(reference, k -> new LinkedHashSet<>()).add(cls);
+					}
+					for (String name : Sets.combine(modifiedClasses, changedClassData))
+						nextWorklist.addAll(referencingClasses.getOrDefault(name, Collections.emptySet()));
+					logger.debugging(l -> l.debug("Pass {}: {} classes modified, {} classes to revisit",
+							currentPass, modifiedClasses.size(), nextWorklist.size()));
+					worklist = nextWorklist;
 				}
 			});
 		} catch (RuntimeException ex) {
@@ -226,8 +272,11 @@ public JvmTransformResult transformJvm(@Nonnull List<Class<? extends JvmClassTra
 
 		// Update the workspace contents with the transformation results
 		Map<ClassPathNode, JvmClassInfo> transformedJvmClasses = context.buildChangeMap(inheritanceGraph);
-		logger.debug("Computed transformations with {} transformers, affecting {} classes after {} passes",
-				transformerClasses.size(), transformedJvmClasses.size(), finalPass.get());
+		profile.complete(System.nanoTime() - startNanos, finalPass.get());
+		logger.debug("Computed transformations with {} transformers, affecting {} classes after {} passes " +
+						"(method analysis: {} cached, {} computed)",
+				transformerClasses.size(), transformedJvmClasses.size(), finalPass.get(),
+				context.getFrameCacheHits(), context.getFrameCacheMisses());
 		return new JvmTransformResult() {
 			@Nonnull
 			@Override
@@ -261,6 +310,12 @@ public Map<Class<? extends JvmClassTransformer>, Collection<ClassPathNode>> getM
 				return transformerToModifiedClasses;
 			}
 
+			@Nonnull
+			@Override
+			public JvmTransformProfile getProfile() {
+				return profile;
+			}
+
 			@Override
 			public void apply() {
 				// Dump transformed classes into the workspace
@@ -287,6 +342,21 @@ public void apply() {
 		};
 	}
 
+	/**
+	 * @param classes
+	 * 		Classes to index.
+	 *
+	 * @return Map of class names to the classes which reference them.
+	 */
+	@Nonnull
+	private static Map<String, Set<JvmClassInfo>> buildReferenceIndex(@Nonnull Collection<JvmClassInfo> classes) {
+		Map<String, Set<JvmClassInfo>> index = new HashMap<>();
+		for (JvmClassInfo cls : classes)
+			for (String reference : cls.getReferencedClasses())
+				index.computeIfAbsent(reference, k -> new LinkedHashSet<>()).add(cls);
+		return index;
+	}
+
 	@Nonnull
 	private TransformerQueue buildQueue(@Nonnull List<Class<? extends ClassTransformer>> transformerClasses) throws TransformationException {
 		TransformerQueue queue = new TransformerQueue();
@@ -13,6 +13,8 @@
 import software.coley.recaf.workspace.model.EmptyWorkspace;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.WorkspaceModificationListener;
+import software.coley.recaf.workspace.model.bundle.BasicBundle;
+import software.coley.recaf.workspace.model.bundle.HistoryRetention;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
 import java.util.Comparator;
@@ -31,12 +33,20 @@ public class BasicWorkspaceManager implements WorkspaceManager {
 	private final List<WorkspaceOpenListener> openListeners = new CopyOnWriteArrayList<>();
 	private final List<WorkspaceCloseListener> closeListeners = new CopyOnWriteArrayList<>();
 	private final List<WorkspaceModificationListener> defaultModificationListeners = new CopyOnWriteArrayList<>();
+	private final HistoryRetention historyRetention = new HistoryRetention();
+	private final WorkspaceModificationListener historyRetentionListener = new HistoryRetentionListener();
 	private final WorkspaceManagerConfig config;
 	private Workspace current;
 
 	@Inject
 	public BasicWorkspaceManager(@Nonnull WorkspaceManagerConfig config) {
 		this.config = config;
+
+		// The history limits apply to the current workspace as a whole.
+		historyRetention.setMaxDepth(config.getHistoryRetentionDepth().getValue());
+		historyRetention.setMemoryBudget(config.getHistoryMemoryBudgetBytes());
+		config.getHistoryRetentionDepth().addChangeListener((ob, old, cur) -> historyRetention.setMaxDepth(cur));
+		config.getHistoryMemoryBudget().addChangeListener((ob, old, cur) -> historyRetention.setMemoryBudget(config.getHistoryMemoryBudgetBytes()));
 	}
 
 	@Nonnull
@@ -64,6 +74,8 @@ public void setCurrentIgnoringConditions(Workspace workspace) {
 		}
 		current = workspace;
 		if (workspace != null) {
+			workspace.getAllResources(false).forEach(resource -> setHistoryRetention(resource, historyRetention));
+			workspace.addWorkspaceModificationListener(historyRetentionListener);
 			defaultModificationListeners.forEach(workspace::addWorkspaceModificationListener);
 			Unchecked.checkedForEach(openListeners, listener -> listener.onWorkspaceOpened(workspace),
 					(listener, t) -> logger.error("Exception thrown by when opening workspace", t));
@@ -146,6 +158,19 @@ public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceReso
 		});
 	}
 
+	/**
+	 * @param resource
+	 * 		Resource to update.
+	 * @param retention
+	 * 		Limits on the history of items in the bundles of the resource.
+	 */
+	private static void setHistoryRetention(@Nonnull WorkspaceResource resource, @Nonnull HistoryRetention retention) {
+		resource.bundleStreamRecursive().forEach(bundle -> {
+			if (bundle instanceof BasicBundle<?> basicBundle)
+				basicBundle.setHistoryRetention(retention);
+		});
+	}
+
 	@Nonnull
 	@Override
 	public String getServiceId() {
@@ -157,4 +182,20 @@ public String getServiceId() {
 	public WorkspaceManagerConfig getServiceConfig() {
 		return config;
 	}
+
+	/**
+	 * Shares the history limits of the current workspace with libraries added to it,
+	 * and stops accounting the history of libraries removed from it.
+	 */
+	private class HistoryRetentionListener implements WorkspaceModificationListener {
+		@Override
+		public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+			setHistoryRetention(library, historyRetention);
+		}
+
+		@Override
+		public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+			setHistoryRetention(library, new HistoryRetention());
+		}
+	}
 }
@@ -1,10 +1,18 @@
 package software.coley.recaf.services.workspace;
 
+import jakarta.annotation.Nonnull;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import software.coley.observables.ObservableInteger;
+import software.coley.observables.ObservableObject;
 import software.coley.recaf.config.BasicConfigContainer;
+import software.coley.recaf.config.BasicConfigValue;
 import software.coley.recaf.config.ConfigGroups;
+import software.coley.recaf.info.properties.builtin.BytecodeStorageProperty;
+import software.coley.recaf.info.storage.BytecodeStorageType;
 import software.coley.recaf.services.ServiceConfig;
+import software.coley.recaf.services.workspace.processors.BytecodeStorageProcessor;
+import software.coley.recaf.workspace.model.bundle.HistoryRetention;
 
 /**
  * Config for {@link WorkspaceManager}
@@ -13,8 +21,56 @@
  */
 @ApplicationScoped
 public class WorkspaceManagerConfig extends BasicConfigContainer implements ServiceConfig {
+	private static final long MB = 1024 * 1024;
+	private final ObservableObject<BytecodeStorageType> supportingBytecodeStorage = new ObservableObject<>(BytecodeStorageType.HEAP);
+	private final ObservableInteger historyRetentionDepth = new ObservableInteger(HistoryRetention.DEFAULT_MAX_DEPTH);
+	private final ObservableInteger historyMemoryBudget = new ObservableInteger((int) (HistoryRetention.DEFAULT_MEMORY_BUDGET / MB));
+
 	@Inject
 	public WorkspaceManagerConfig() {
 		super(ConfigGroups.SERVICE_IO, WorkspaceManager.SERVICE_ID + CONFIG_SUFFIX);
+
+		addValue(new BasicConfigValue<>("supporting-bytecode-storage", BytecodeStorageType.class, supportingBytecodeStorage));
+		addValue(new BasicConfigValue<>("history-retention-depth", int.class, historyRetentionDepth));
+		addValue(new BasicConfigValue<>("history-memory-budget", int.class, historyMemoryBudget));
+	}
+
+	/**
+	 * @return Storage type to hold bytecode of classes in supporting resources with,
+	 * unless a resource selects its own storage with {@link BytecodeStorageProperty}.
+	 *
+	 * @see BytecodeStorageProcessor
+	 */
+	@Nonnull
+	public ObservableObject<BytecodeStorageType> getSupportingBytecodeStorage() {
+		return supportingBytecodeStorage;
+	}
+
+	/**
+	 * @return Maximum number of intermediate states to retain in the history of each workspace item.
+	 *
+	 * @see HistoryRetention
+	 */
+	@Nonnull
+	public ObservableInteger getHistoryRetentionDepth() {
+		return historyRetentionDepth;
+	}
+
+	/**
+	 * @return Maximum number of megabytes to use for intermediate history states across the workspace.
+	 *
+	 * @see #getHistoryMemoryBudgetBytes()
+	 * @see HistoryRetention
+	 */
+	@Nonnull
+	public ObservableInteger getHistoryMemoryBudget() {
+		return historyMemoryBudget;
+	}
+
+	/**
+	 * @return Maximum number of bytes to use for intermediate history states across the workspace.
+	 */
+	public long getHistoryMemoryBudgetBytes() {
+		return historyMemoryBudget.getValue() * MB;
 	}
-}
\ No newline at end of file
+}
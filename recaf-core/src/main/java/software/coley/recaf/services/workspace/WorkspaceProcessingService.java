@@ -9,6 +9,7 @@
 import software.coley.collections.Unchecked;
 import software.coley.recaf.Bootstrap;
 import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.behavior.PriorityKeys;
 import software.coley.recaf.cdi.EagerInitialization;
 import software.coley.recaf.services.Service;
 import software.coley.recaf.workspace.model.Workspace;
@@ -56,8 +57,18 @@ public WorkspaceProcessingService(@Nonnull WorkspaceManager workspaceManager,
 			});
 		}
 
-		// Apply processors when new workspace is opened
-		workspaceManager.addWorkspaceOpenListener(this::processWorkspace);
+		// Apply processors when new workspace is opened, before other listeners start to use the workspace
+		workspaceManager.addWorkspaceOpenListener(new WorkspaceOpenListener() {
+			@Override
+			public void onWorkspaceOpened(@Nonnull Workspace workspace) {
+				processWorkspace(workspace);
+			}
+
+			@Override
+			public int getPriority() {
+				return PriorityKeys.EARLIEST;
+			}
+		});
 	}
 
 	/**
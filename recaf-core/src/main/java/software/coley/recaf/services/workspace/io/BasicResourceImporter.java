@@ -12,14 +12,20 @@
 import software.coley.lljzip.util.ExtraFieldTime;
 import software.coley.lljzip.util.MemorySegmentUtil;
 import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.info.BasicFileInfo;
 import software.coley.recaf.info.DexFileInfo;
 import software.coley.recaf.info.FileInfo;
 import software.coley.recaf.info.Info;
 import software.coley.recaf.info.JarFileInfo;
 import software.coley.recaf.info.JvmClassInfo;
 import software.coley.recaf.info.ModulesFileInfo;
+import software.coley.recaf.info.TextFileInfo;
 import software.coley.recaf.info.ZipFileInfo;
+import software.coley.recaf.info.builder.AudioFileInfoBuilder;
 import software.coley.recaf.info.builder.FileInfoBuilder;
+import software.coley.recaf.info.builder.ImageFileInfoBuilder;
+import software.coley.recaf.info.builder.NativeLibraryFileInfoBuilder;
+import software.coley.recaf.info.builder.VideoFileInfoBuilder;
 import software.coley.recaf.info.builder.ZipFileInfoBuilder;
 import software.coley.recaf.info.properties.builtin.InputFilePathProperty;
 import software.coley.recaf.info.properties.builtin.PathOriginalNameProperty;
@@ -35,13 +41,16 @@
 import software.coley.recaf.info.properties.builtin.ZipModificationTimeProperty;
 import software.coley.recaf.info.properties.builtin.ZipPrefixDataProperty;
 import software.coley.recaf.services.Service;
+import software.coley.recaf.util.ByteHeaderUtil;
 import software.coley.recaf.util.IOUtil;
 import software.coley.recaf.util.ModulesIOUtil;
 import software.coley.recaf.util.StringUtil;
 import software.coley.recaf.util.android.DexIOUtil;
 import software.coley.recaf.util.io.ByteSource;
 import software.coley.recaf.util.io.ByteSources;
+import software.coley.recaf.util.io.ContentCache;
 import software.coley.recaf.util.io.LocalFileHeaderSource;
+import software.coley.recaf.util.threading.ComputeLane;
 import software.coley.recaf.util.threading.ThreadPoolFactory;
 import software.coley.recaf.workspace.model.bundle.AndroidClassBundle;
 import software.coley.recaf.workspace.model.bundle.BasicFileBundle;
@@ -72,6 +81,7 @@
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -85,14 +95,23 @@
 @ApplicationScoped
 public class BasicResourceImporter implements ResourceImporter, Service {
 	private static final Logger logger = Logging.get(BasicResourceImporter.class);
+	private static final Set<String> DEFERRED_EXTENSIONS = Set.of(
+			"PNG", "JPG", "JPEG", "GIF", "BMP", "ICO", "WEBP", "TIF", "TIFF",
+			"WAV", "MP3", "OGG", "M4A", "FLAC",
+			"MP4", "MKV", "WEBM", "MOV", "AVI",
+			"SO", "DLL", "DYLIB", "JNILIB", "EXE",
+			"TTF", "OTF", "WOFF", "WOFF2", "BIN", "DAT");
+	private static final int DEFERRED_HEADER_SIZE = 16;
 	private final InfoImporter infoImporter;
 	private final ResourceImporterConfig config;
+	private final ContentCache lazyContentCache;
 
 	@Inject
 	public BasicResourceImporter(@Nonnull InfoImporter infoImporter,
 	                             @Nonnull ResourceImporterConfig config) {
 		this.infoImporter = infoImporter;
 		this.config = config;
+		lazyContentCache = new ContentCache(() -> config.getLazyContentCacheSize().getValue() * 1024L * 1024L);
 	}
 
 	/**
@@ -146,6 +165,11 @@ private WorkspaceResource handleSingle(@Nonnull WorkspaceFileResourceBuilder bui
 		// Check for general ZIP container format (ZIP/JAR/WAR/APK/JMod)
 		if (readInfoAsFile.isZipFile()) {
 			ZipFileInfo readInfoAsZip = readInfoAsFile.asZipFile();
+
+			// When reading content on demand, the archive's content is read from the source when needed
+			// instead of being held by the file info.
+			if (config.doLazyZipContent().getValue())
+				readInfoAsZip = readInfoAsZip.toFileBuilder().withLazyContent(source).build().asZipFile();
 			return handleZip(builder, readInfoAsZip, source);
 		} else if (ZipMarkerProperty.get(readInfoAsFile)) {
 			// In some cases the file may have been matched as something else (like an executable)
@@ -194,8 +218,13 @@ private WorkspaceFileResource handleZip(@Nonnull WorkspaceFileResourceBuilder bu
 		Map<String, WorkspaceFileResource> embeddedResources = new ConcurrentHashMap<>();
 
 		// Read ZIP
+		//  - When reading content on demand we map the source, which for files on disk avoids reading
+		//    the archive into the heap. Entries are then decompressed from the mapped archive when accessed.
+		//  - Otherwise, we parse the content already held by the zip info to avoid making another copy of it.
 		boolean isAndroid = zipInfo.getName().toLowerCase().endsWith(".apk");
-		ZipArchive archive = config.mapping().apply(source.readAll());
+		boolean isLazy = config.doLazyZipContent().getValue();
+		MemorySegment zipData = isLazy ? source.mmap() : MemorySegment.ofArray(zipInfo.getRawContent());
+		ZipArchive archive = config.segmentMapping().apply(zipData);
 
 		// Sanity check, if there's data at the head of the file AND its otherwise empty its probably junk.
 		MemorySegment prefixData = archive.getPrefixData();
@@ -212,7 +241,7 @@ private WorkspaceFileResource handleZip(@Nonnull WorkspaceFileResourceBuilder bu
 		// Build model from the contained files in the ZIP
 		int maxZipDepth = config.getMaxEmbeddedZipDepth().getValue();
 		try (ExecutorService service = config.doParallelize().getValue() ?
-				ThreadPoolFactory.newFixedThreadPool("zip-import") :
+				ThreadPoolFactory.newFixedThreadPool("zip-import", ComputeLane.IO) :
 				ThreadPoolFactory.newSingleThreadExecutor("zip-import")) {
 			List<Callable<Void>> tasks = new ArrayList<>();
 			List<LocalFileHeader> localFiles = archive.getLocalFiles();
@@ -232,7 +261,10 @@ private WorkspaceFileResource handleZip(@Nonnull WorkspaceFileResourceBuilder bu
 					// Read the value of the entry to figure out how to handle adding it to the resource builder.
 					Info info;
 					try {
-						info = infoImporter.readInfo(entryName, headerSource);
+						if (isLazy && isDeferrable(entryName))
+							info = readDeferred(entryName, header, headerSource, isAndroid);
+						else
+							info = infoImporter.readInfo(entryName, headerSource);
 						ZipEntryIndexProperty.set(info, entryIndex);
 					} catch (IOException ex) {
 						logger.error("IO error reading ZIP entry '{}' - skipping", entryName, ex);
@@ -257,8 +289,8 @@ private WorkspaceFileResource handleZip(@Nonnull WorkspaceFileResourceBuilder bu
 
 					// Skipping ZIP bombs
 					if (info.isFile() && info.asFile().isZipFile()) {
-						ZipFileInfo zipFile = info.asFile().asZipFile();
-						if (Arrays.equals(zipFile.getRawContent(), zipInfo.getRawContent())) {
+						MemorySegment entryData = headerSource.mmap();
+						if (entryData.byteSize() == zipData.byteSize() && entryData.mismatch(zipData) == -1) {
 							logger.warn("Skip self-extracting ZIP bomb: {}", entryName);
 							return null;
 						} else if (Arrays.stream(Thread.currentThread().getStackTrace())
@@ -269,6 +301,13 @@ private WorkspaceFileResource handleZip(@Nonnull WorkspaceFileResourceBuilder bu
 						}
 					}
 
+					// Swap out the read content for content which will be decompressed again on demand.
+					if (isLazy && isLazyCandidate(info)) {
+						info = info.asFile().toFileBuilder()
+								.withLazyContent(lazySource(header, isAndroid))
+								.build();
+					}
+
 					// Add the info to the appropriate bundle
 					addInfo(classes, files, androidClassBundles, versionedJvmClassBundles, embeddedResources,
 							headerSource, entryName, info);
@@ -302,7 +341,7 @@ private WorkspaceDirectoryResource handleDirectory(@Nonnull WorkspaceResourceBui
 
 		// Walk the directory
 		try (ExecutorService service = config.doParallelize().getValue() ?
-				ThreadPoolFactory.newFixedThreadPool("directory-import") :
+				ThreadPoolFactory.newFixedThreadPool("directory-import", ComputeLane.IO) :
 				ThreadPoolFactory.newSingleThreadExecutor("directory-import")) {
 			List<Callable<Void>> tasks = new ArrayList<>();
 			Files.walkFileTree(directoryPath, new SimpleFileVisitor<>() {
@@ -344,6 +383,87 @@ public FileVisitResult visitFile(@Nonnull Path file, @Nonnull BasicFileAttribute
 				.build();
 	}
 
+	/**
+	 * @param entryName
+	 * 		Name of ZIP entry.
+	 *
+	 * @return {@code true} when the entry is a kind of file which does not need its full content to be imported,
+	 * so decompressing it can be deferred until its content is first accessed.
+	 */
+	private static boolean isDeferrable(@Nonnull String entryName) {
+		String extension = IOUtil.getExtension(entryName);
+		return extension != null && DEFERRED_EXTENSIONS.contains(extension.toUpperCase());
+	}
+
+	/**
+	 * Reads a ZIP entry without decompressing all of its content. Only the start of the content is decompressed,
+	 * to determine the type of file from its header. Unlike {@link InfoImporter#readInfo(String, ByteSource)}
+	 * the content is not scanned for embedded archives or text.
+	 *
+	 * @param entryName
+	 * 		Name of ZIP entry.
+	 * @param header
+	 * 		Header of ZIP entry.
+	 * @param headerSource
+	 * 		Source of the entry content.
+	 * @param isAndroid
+	 * 		Flag indicating the entry belongs to an APK, where malformed compressed content is treated as stored.
+	 *
+	 * @return File info which decompresses its content when accessed.
+	 *
+	 * @throws IOException
+	 * 		When the start of the entry content cannot be read.
+	 */
+	@Nonnull
+	private FileInfo readDeferred(@Nonnull String entryName, @Nonnull LocalFileHeader header,
+	                              @Nonnull LocalFileHeaderSource headerSource, boolean isAndroid) throws IOException {
+		byte[] prefix = headerSource.peek(DEFERRED_HEADER_SIZE);
+		FileInfoBuilder<?> builder;
+		if (ByteHeaderUtil.matchAny(prefix, ByteHeaderUtil.IMAGE_HEADERS))
+			builder = new ImageFileInfoBuilder();
+		else if (ByteHeaderUtil.matchAny(prefix, ByteHeaderUtil.AUDIO_HEADERS))
+			builder = new AudioFileInfoBuilder();
+		else if (ByteHeaderUtil.matchAny(prefix, ByteHeaderUtil.VIDEO_HEADERS))
+			builder = new VideoFileInfoBuilder();
+		else if (ByteHeaderUtil.matchAny(prefix, ByteHeaderUtil.PROGRAM_HEADERS))
+			builder = new NativeLibraryFileInfoBuilder();
+		else
+			builder = new FileInfoBuilder<>();
+		return builder.withName(entryName)
+				.withLazyContent(lazySource(header, isAndroid))
+				.build();
+	}
+
+	/**
+	 * @param header
+	 * 		Header of ZIP entry.
+	 * @param isAndroid
+	 * 		Flag indicating the entry belongs to an APK, where malformed compressed content is treated as stored.
+	 *
+	 * @return Source which decompresses the entry content on demand, through the lazy content cache.
+	 * Each read uses a new header source since they hold onto their decompressed content.
+	 */
+	@Nonnull
+	private ByteSource lazySource(@Nonnull LocalFileHeader header, boolean isAndroid) {
+		return ByteSources.cached(() -> new LocalFileHeaderSource(header, isAndroid), lazyContentCache);
+	}
+
+	/**
+	 * @param info
+	 * 		Some read info.
+	 *
+	 * @return {@code true} when the info's content can be read on demand rather than being held in memory.
+	 * Classes and text files have their content parsed into other models, so they are always held.
+	 */
+	private static boolean isLazyCandidate(@Nonnull Info info) {
+		if (!info.isFile())
+			return false;
+		FileInfo file = info.asFile();
+		if (file instanceof BasicFileInfo basicFile && basicFile.isLazy())
+			return false;
+		return !(file instanceof TextFileInfo) && !(file instanceof DexFileInfo) && !(file instanceof ModulesFileInfo);
+	}
+
 	private void addInfo(@Nonnull BasicJvmClassBundle classes,
 	                     @Nonnull BasicFileBundle files,
 	                     @Nonnull Map<String, AndroidClassBundle> androidClassBundles,
@@ -43,6 +43,8 @@ public class ResourceImporterConfig extends BasicConfigContainer implements Serv
 	private final ObservableBoolean adoptStandardCenFileNames = new ObservableBoolean(false);
 	private final ObservableInteger maxEmbeddedZipDepth = new ObservableInteger(3);
 	private final ObservableBoolean parallelize = new ObservableBoolean(true);
+	private final ObservableBoolean lazyZipContent = new ObservableBoolean(false);
+	private final ObservableInteger lazyContentCacheSize = new ObservableInteger(64);
 
 	@Inject
 	public ResourceImporterConfig() {
@@ -55,6 +57,8 @@ public ResourceImporterConfig() {
 		addValue(new BasicConfigValue<>("adapt-standard-cen-file-names", boolean.class, adoptStandardCenFileNames));
 		addValue(new BasicConfigValue<>("max-embedded-zip-depth", int.class, maxEmbeddedZipDepth));
 		addValue(new BasicConfigValue<>("parallelize", boolean.class, parallelize));
+		addValue(new BasicConfigValue<>("lazy-zip-content", boolean.class, lazyZipContent));
+		addValue(new BasicConfigValue<>("lazy-content-cache-size", int.class, lazyContentCacheSize));
 	}
 
 	/**
@@ -131,11 +135,44 @@ public ObservableBoolean doParallelize() {
 		return parallelize;
 	}
 
+	/**
+	 * When enabled, ZIP archives are memory mapped rather than read into the heap, and the content of
+	 * non-class file entries is not held in memory. Instead, entry content is decompressed on demand
+	 * when accessed, and recently accessed content is kept in a cache bounded by {@link #getLazyContentCacheSize()}.
+	 * Media, native library and other binary entries are not decompressed at all during import,
+	 * while other entries are decompressed once to determine their type and then released.
+	 * <br>
+	 * Since content is read from the input on demand, the input file should not be modified while it is open.
+	 *
+	 * @return {@code true} to read ZIP file entry content on demand.
+	 */
+	@Nonnull
+	public ObservableBoolean doLazyZipContent() {
+		return lazyZipContent;
+	}
+
+	/**
+	 * @return Size in megabytes of the cache holding content read on demand when {@link #doLazyZipContent()} is enabled.
+	 */
+	@Nonnull
+	public ObservableInteger getLazyContentCacheSize() {
+		return lazyContentCacheSize;
+	}
+
 	/**
 	 * @return Mapping of input bytes to a ZIP archive model.
 	 */
 	@Nonnull
 	public UncheckedFunction<byte[], ZipArchive> mapping() {
+		UncheckedFunction<MemorySegment, ZipArchive> mapping = segmentMapping();
+		return input -> mapping.apply(MemorySegment.ofArray(input));
+	}
+
+	/**
+	 * @return Mapping of input memory to a ZIP archive model.
+	 */
+	@Nonnull
+	public UncheckedFunction<MemorySegment, ZipArchive> segmentMapping() {
 		ZipStrategy strategy = zipStrategy.getValue();
 		if (strategy == ZipStrategy.JVM)
 			return newJvmMapping();
@@ -145,12 +182,12 @@ public UncheckedFunction<byte[], ZipArchive> mapping() {
 	}
 
 	@Nonnull
-	private UncheckedFunction<byte[], ZipArchive> newNaiveMapping() {
+	private UncheckedFunction<MemorySegment, ZipArchive> newNaiveMapping() {
 		return input -> ZipIO.read(input, new NaiveLocalFileZipReader(newPartAllocator()));
 	}
 
 	@Nonnull
-	private UncheckedFunction<byte[], ZipArchive> newStandardMapping() {
+	private UncheckedFunction<MemorySegment, ZipArchive> newStandardMapping() {
 		return input -> ZipIO.read(input, new ForwardScanZipReader(newPartAllocator()) {
 			@Override
 			public void postProcessLocalFileHeader(@Nonnull LocalFileHeader file) {
@@ -164,7 +201,7 @@ public void postProcessLocalFileHeader(@Nonnull LocalFileHeader file) {
 	}
 
 	@Nonnull
-	private UncheckedFunction<byte[], ZipArchive> newJvmMapping() {
+	private UncheckedFunction<MemorySegment, ZipArchive> newJvmMapping() {
 		return input -> ZipIO.read(input, new JvmZipReader(skipRevisitedCenToLocalLinks.getValue(), allowBasicJvmBaseOffsetZeroCheck.getValue()));
 	}
 
@@ -187,9 +187,8 @@ private <I extends Info, P extends PathNode<?>> void visitDirtyItems(@Nonnull Wo
 		BundlePathNode bundlePath = PathNodes.bundlePath(workspace, resource, bundle);
 		Set<String> dirtyKeys = bundle.getDirtyKeys();
 		for (String dirtyKey : dirtyKeys) {
-			Stack<I> history = bundle.getHistory(dirtyKey);
-			I current = history.peek();
-			I oldest = history.elementAt(0);
+			I current = bundle.get(dirtyKey);
+			I oldest = bundle.getInitial(dirtyKey);
 			int lastDirSeparator = dirtyKey.lastIndexOf('/');
 			String directoryName = lastDirSeparator >= 0 ? dirtyKey.substring(0, lastDirSeparator) : null;
 			DirectoryPathNode directoryPath = bundlePath.child(directoryName);
@@ -0,0 +1,103 @@
+package software.coley.recaf.services.workspace.processors;
+
+import jakarta.annotation.Nonnull;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.behavior.PriorityKeys;
+import software.coley.recaf.info.BasicJvmClassInfo;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.properties.BasicPropertyContainer;
+import software.coley.recaf.info.properties.builtin.BytecodeStorageProperty;
+import software.coley.recaf.info.storage.BytecodeStorage;
+import software.coley.recaf.info.storage.BytecodeStorageType;
+import software.coley.recaf.services.workspace.WorkspaceManagerConfig;
+import software.coley.recaf.services.workspace.WorkspaceProcessor;
+import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.WorkspaceModificationListener;
+import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+
+/**
+ * Workspace processor that moves the bytecode of classes in resources into the storage selected for each resource.
+ * A resource can select its storage with {@link BytecodeStorageProperty}. Otherwise, supporting resources use the
+ * {@link WorkspaceManagerConfig#getSupportingBytecodeStorage() configured storage}, as they are rarely modified,
+ * and their classes are mostly looked up by their models rather than read, so they can be held compactly.
+ *
+ * @author Matt Coley
+ */
+@Dependent
+public class BytecodeStorageProcessor implements WorkspaceProcessor {
+	private final WorkspaceManagerConfig config;
+
+	@Inject
+	public BytecodeStorageProcessor(@Nonnull WorkspaceManagerConfig config) {
+		this.config = config;
+	}
+
+	@Override
+	public void processWorkspace(@Nonnull Workspace workspace) {
+		applyStorage(workspace.getPrimaryResource(), BytecodeStorageProperty.get(workspace.getPrimaryResource()));
+		for (WorkspaceResource resource : workspace.getSupportingResources())
+			applyStorage(resource, supportingStorageType(resource));
+		workspace.addWorkspaceModificationListener(new WorkspaceModificationListener() {
+			@Override
+			public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+				applyStorage(library, supportingStorageType(library));
+			}
+
+			@Override
+			public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+				// no-op
+			}
+
+			@Override
+			public int getPriority() {
+				// Classes must be replaced before other listeners start tracking them.
+				return PriorityKeys.EARLIEST;
+			}
+		});
+	}
+
+	@Nonnull
+	private BytecodeStorageType supportingStorageType(@Nonnull WorkspaceResource resource) {
+		BytecodeStorageType type = BytecodeStorageProperty.get(resource);
+		return type == null ? config.getSupportingBytecodeStorage().getValue() : type;
+	}
+
+	private static void applyStorage(@Nonnull WorkspaceResource resource, @Nullable BytecodeStorageType type) {
+		if (type != null && type != BytecodeStorageType.HEAP)
+			applyStorage(resource, type.newStorage());
+	}
+
+	@Nonnull
+	@Override
+	public String name() {
+		return "Supporting resource bytecode storage";
+	}
+
+	/**
+	 * Moves the bytecode of all classes in the resource, including embedded resources, into the given storage.
+	 * Class models and properties are retained. Bundle listeners are not notified, so this must happen before
+	 * anything tracks the classes by instance. Processors run before other workspace open listeners, so services
+	 * such as the search index and call graph only ever see the replaced classes.
+	 *
+	 * @param resource
+	 * 		Resource to update.
+	 * @param storage
+	 * 		Storage to hold the bytecode of the resource's classes in.
+	 */
+	public static void applyStorage(@Nonnull WorkspaceResource resource, @Nonnull BytecodeStorage storage) {
+		resource.jvmClassBundleStreamRecursive().forEach(bundle -> {
+			if (bundle instanceof BasicJvmClassBundle basicBundle)
+				basicBundle.replaceEquivalentItems(cls -> {
+					if (cls instanceof BasicJvmClassInfo basicCls && basicCls.getBytecodeStorage() == storage)
+						return cls;
+					return new JvmClassInfoBuilder(cls)
+							.withBytecodeStorage(storage)
+							.withPropertyContainer(new BasicPropertyContainer(cls.getProperties()))
+							.build();
+				});
+		});
+	}
+}
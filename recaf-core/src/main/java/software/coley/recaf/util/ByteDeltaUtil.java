@@ -0,0 +1,144 @@
+package software.coley.recaf.util;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary delta encoding. A delta describes how to build some target content out of some base content,
+ * using a series of copies from the base, and inserts of new data.
+ * <br>
+ * Deltas are small when the target shares large runs of bytes with the base, even if those runs have moved.
+ *
+ * @author Matt Coley
+ */
+public class ByteDeltaUtil {
+	private static final int BLOCK_SIZE = 16;
+
+	/**
+	 * Deny all constructions.
+	 */
+	private ByteDeltaUtil() {
+	}
+
+	/**
+	 * @param base
+	 * 		Content to reference.
+	 * @param target
+	 * 		Content to describe.
+	 *
+	 * @return Delta which creates the target content when {@link #apply(byte[], byte[]) applied} to the base content.
+	 */
+	@Nonnull
+	public static byte[] encode(@Nonnull byte[] base, @Nonnull byte[] target) {
+		// Index blocks of the base content by their hash.
+		Map<Integer, Integer> blockOffsets = new HashMap<>();
+		for (int i = 0; i + BLOCK_SIZE <= base.length; i += BLOCK_SIZE)
+			blockOffsets.putIfAbsent(hash(base, i), i);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(16, target.length / 8));
+		writeVarInt(out, target.length);
+		int literalStart = 0;
+		int pos = 0;
+		while (pos + BLOCK_SIZE <= target.length) {
+			Integer baseOffset = blockOffsets.get(hash(target, pos));
+			if (baseOffset == null || !Arrays.equals(base, baseOffset, baseOffset + BLOCK_SIZE,
+					target, pos, pos + BLOCK_SIZE)) {
+				pos++;
+				continue;
+			}
+
+			// Extend the match backwards into the pending literal, and forwards as far as possible.
+			int matchBase = baseOffset;
+			int matchTarget = pos;
+			while (matchBase > 0 && matchTarget > literalStart && base[matchBase - 1] == target[matchTarget - 1]) {
+				matchBase--;
+				matchTarget--;
+			}
+			int matchEnd = pos + BLOCK_SIZE;
+			int matchBaseEnd = baseOffset + BLOCK_SIZE;
+			while (matchEnd < target.length && matchBaseEnd < base.length && base[matchBaseEnd] == target[matchEnd]) {
+				matchEnd++;
+				matchBaseEnd++;
+			}
+
+			// Emit pending literal, then the copy.
+			writeInsert(out, target, literalStart, matchTarget);
+			writeVarInt(out, ((matchEnd - matchTarget) << 1) | 1);
+			writeVarInt(out, matchBase);
+			pos = matchEnd;
+			literalStart = matchEnd;
+		}
+		writeInsert(out, target, literalStart, target.length);
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param base
+	 * 		Content the delta references.
+	 * @param delta
+	 * 		Delta from {@link #encode(byte[], byte[])}.
+	 *
+	 * @return Target content described by the delta.
+	 */
+	@Nonnull
+	public static byte[] apply(@Nonnull byte[] base, @Nonnull byte[] delta) {
+		int[] cursor = new int[1];
+		int length = readVarInt(delta, cursor);
+		byte[] target = new byte[length];
+		int pos = 0;
+		while (cursor[0] < delta.length) {
+			int tag = readVarInt(delta, cursor);
+			int opLength = tag >>> 1;
+			if ((tag & 1) == 1) {
+				int baseOffset = readVarInt(delta, cursor);
+				System.arraycopy(base, baseOffset, target, pos, opLength);
+			} else {
+				System.arraycopy(delta, cursor[0], target, pos, opLength);
+				cursor[0] += opLength;
+			}
+			pos += opLength;
+		}
+		if (pos != length)
+			throw new IllegalArgumentException("Delta does not describe content of expected length " + length);
+		return target;
+	}
+
+	private static void writeInsert(@Nonnull ByteArrayOutputStream out, @Nonnull byte[] data, int start, int end) {
+		int length = end - start;
+		if (length <= 0)
+			return;
+		writeVarInt(out, length << 1);
+		out.write(data, start, length);
+	}
+
+	private static int hash(@Nonnull byte[] data, int offset) {
+		int hash = 1;
+		for (int i = offset; i < offset + BLOCK_SIZE; i++)
+			hash = 31 * hash + data[i];
+		return hash;
+	}
+
+	private static void writeVarInt(@Nonnull ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarInt(@Nonnull byte[] data, @Nonnull int[] cursor) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = data[cursor[0]++];
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+}
@@ -1,16 +1,22 @@
 package software.coley.recaf.util;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
- * Memoized functions.
+ * Memoized functions. Safe for use across multiple threads.
+ * <br>
+ * Values are computed outside any lock, so the wrapped function may recurse into other memoized functions freely.
+ * If two threads compute a value for the same key at once, the first value stored is used by both.
+ * {@code null} results are memoized too, so failing lookups are not repeated.
  *
  * @author Amejonah
  */
 public class MemoizedFunctions {
+	private static final Object NULL = new Object();
+
 	public static <Key, Value> Function<Key, Value> memoize(Function<Key, Value> function) {
 		return new MemoizedFunction<>(function);
 	}
@@ -19,8 +25,17 @@ public static <KeyA, KeyB, Value> BiFunction<KeyA, KeyB, Value> memoize(BiFuncti
 		return new BiMemoizedFunction<>(function);
 	}
 
+	@SuppressWarnings("unchecked")
+	private static <Value> Value unwrap(Object value) {
+		return value == NULL ? null : (Value) value;
+	}
+
+	private static Object wrap(Object value) {
+		return value == null ? NULL : value;
+	}
+
 	private static class MemoizedFunction<Key, Value> implements Function<Key, Value> {
-		private final Map<Key, Value> cache = new HashMap<>();
+		private final Map<Key, Object> cache = new ConcurrentHashMap<>();
 		private final Function<Key, Value> function;
 
 		private MemoizedFunction(Function<Key, Value> function) {
@@ -29,12 +44,18 @@ private MemoizedFunction(Function<Key, Value> function) {
 
 		@Override
 		public Value apply(Key key) {
-			return cache.computeIfAbsent(key, function);
+			Object value = cache.get(key);
+			if (value == null) {
+				value = wrap(function.apply(key));
+				Object existing = cache.putIfAbsent(key, value);
+				if (existing != null) value = existing;
+			}
+			return unwrap(value);
 		}
 	}
 
 	private static class BiMemoizedFunction<KeyA, KeyB, Value> implements BiFunction<KeyA, KeyB, Value> {
-		private final Map<KeyA, Map<KeyB, Value>> cache = new HashMap<>();
+		private final Map<KeyA, Map<KeyB, Object>> cache = new ConcurrentHashMap<>();
 		private final BiFunction<KeyA, KeyB, Value> function;
 
 		private BiMemoizedFunction(BiFunction<KeyA, KeyB, Value> function) {
@@ -44,7 +65,14 @@ private BiMemoizedFunction(BiFunction<KeyA, KeyB, Value> function) {
 
 		@Override
 		public Value apply(KeyA keyA, KeyB keyB) {
-			return cache.computeIfAbsent(keyA, __ -> new HashMap<>()).computeIfAbsent(keyB, k -> function.apply(keyA, keyB));
+			Map<KeyB, Object> subCache = cache.computeIfAbsent(keyA, __ -> new ConcurrentHashMap<>());
+			Object value = subCache.get(keyB);
+			if (value == null) {
+				value = wrap(function.apply(keyA, keyB));
+				Object existing = subCache.putIfAbsent(keyB, value);
+				if (existing != null) value = existing;
+			}
+			return unwrap(value);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -25,29 +25,52 @@
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.util.AccessFlag;
 import software.coley.recaf.util.BlwUtil;
+import software.coley.recaf.util.analysis.lookup.BasicInvokeStaticLookup;
+import software.coley.recaf.util.analysis.lookup.BasicInvokeVirtualLookup;
 import software.coley.recaf.util.analysis.lookup.GetFieldLookup;
 import software.coley.recaf.util.analysis.lookup.GetStaticLookup;
 import software.coley.recaf.util.analysis.lookup.InvokeStaticLookup;
 import software.coley.recaf.util.analysis.lookup.InvokeVirtualLookup;
+import software.coley.recaf.util.analysis.value.DoubleValue;
+import software.coley.recaf.util.analysis.value.FloatValue;
 import software.coley.recaf.util.analysis.value.IntValue;
+import software.coley.recaf.util.analysis.value.LongValue;
 import software.coley.recaf.util.analysis.value.ObjectValue;
 import software.coley.recaf.util.analysis.value.ReValue;
+import software.coley.recaf.util.analysis.value.StringValue;
 import software.coley.recaf.util.visitors.MemberFilteringVisitor;
 import software.coley.recaf.workspace.model.Workspace;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
 /**
  * Simple method evaluator.
+ * <br>
+ * Methods looked up by name in the workspace are parsed and checked for evaluation support once, and the result is
+ * re-used until the class is updated in the workspace. Optionally, the results of methods which only depend on their
+ * parameters can be memoized, so that repeated calls with the same parameter values are not evaluated again.
+ * <br>
+ * Native execution can also be enabled, where supported methods are compiled into an isolated class loader and
+ * executed directly instead of being interpreted. See {@link #setNativeExecutionTimeout(long)}.
  *
  * @author Matt Coley
  */
 public class ReEvaluator {
+	private final Map<String, EvaluationTarget> targets = new ConcurrentHashMap<>();
+	private final Map<MemoKey, ReValue> memoizedResults;
 	private final Workspace workspace;
 	private final ReInterpreter interpreter;
+	private final AtomicLong nativeExecutions = new AtomicLong();
 	private final int maxSteps;
+	private volatile long nativeTimeoutNanos;
 
 	/**
 	 * @param workspace
@@ -58,9 +81,62 @@ public class ReEvaluator {
 	 * 		Maximum number of steps to allow when evaluating a method.
 	 */
 	public ReEvaluator(@Nonnull Workspace workspace, @Nonnull ReInterpreter interpreter, int maxSteps) {
+		this(workspace, interpreter, maxSteps, 0);
+	}
+
+	/**
+	 * @param workspace
+	 * 		Workspace to pull classes from.
+	 * @param interpreter
+	 * 		Interpreter to evaluate instructions with.
+	 * @param maxSteps
+	 * 		Maximum number of steps to allow when evaluating a method.
+	 * @param maxMemoizedResults
+	 * 		Maximum number of results of side effect free methods to memoize.
+	 * 		Memoization is disabled when zero or less. Only enable this when the interpreter's method lookups
+	 * 		are also side effect free, as is the case for {@link BasicInvokeStaticLookup} and {@link BasicInvokeVirtualLookup}.
+	 * 		Methods invoking lookups which are not {@link BasicInvokeStaticLookup#isDeterministic(MethodInsnNode) deterministic}
+	 * 		are never memoized.
+	 */
+	public ReEvaluator(@Nonnull Workspace workspace, @Nonnull ReInterpreter interpreter, int maxSteps, int maxMemoizedResults) {
 		this.workspace = workspace;
 		this.interpreter = interpreter;
 		this.maxSteps = maxSteps;
+		this.memoizedResults = maxMemoizedResults <= 0 ? null : Collections.synchronizedMap(new LinkedHashMap<MemoKey, ReValue>(256, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MemoKey, ReValue> eldest) {
+				return size() > maxMemoizedResults;
+			}
+		});
+	}
+
+	/**
+	 * Enables native execution of methods evaluated by name, for methods which:
+	 * <ul>
+	 *     <li>Are static, and have no try-catch blocks</li>
+	 *     <li>Only take and return primitives and strings</li>
+	 *     <li>Do not access fields, and only reference JDK types</li>
+	 *     <li>Only invoke methods supported by {@link BasicInvokeStaticLookup} and {@link BasicInvokeVirtualLookup}</li>
+	 * </ul>
+	 * Native execution is limited by the same max step count as interpretation, and the given timeout.
+	 * If native execution fails for any reason, the method is interpreted instead.
+	 * Only enable this when the interpreter's method lookups behave the same as the basic lookups.
+	 *
+	 * @param timeoutMillis
+	 * 		Maximum time to allow when natively executing a method.
+	 * 		Native execution is disabled when zero or less, which is the default.
+	 */
+	public void setNativeExecutionTimeout(long timeoutMillis) {
+		nativeTimeoutNanos = timeoutMillis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+	}
+
+	/**
+	 * @return Number of evaluations which yielded a result from native execution.
+	 *
+	 * @see #setNativeExecutionTimeout(long)
+	 */
+	public long getNativeExecutionCount() {
+		return nativeExecutions.get();
 	}
 
 	/**
@@ -76,21 +152,8 @@ public ReEvaluator(@Nonnull Workspace workspace, @Nonnull ReInterpreter interpre
 	public boolean canEvaluate(@Nonnull String className,
 	                           @Nonnull String methodName,
 	                           @Nonnull String methodDescriptor) {
-		// Find class in workspace.
-		ClassPathNode classPath = workspace.findClass(className);
-		if (classPath == null)
-			return false;
-
-		// Ensure method exists in class.
-		JvmClassInfo jvmClass = classPath.getValue().asJvmClass();
-		MethodMember method = jvmClass.getDeclaredMethod(methodName, methodDescriptor);
-		if (method == null)
-			return false;
-
-		// Extract method-node model and delegate to evaluate check.
-		ClassNode node = new ClassNode();
-		jvmClass.getClassReader().accept(new MemberFilteringVisitor(node, method), ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
-		return node.methods.size() == 1 && canEvaluate(node.methods.getFirst());
+		EvaluationTarget target = getTarget(false, className, methodName, methodDescriptor);
+		return target != null && target.evaluable;
 	}
 
 	/**
@@ -163,23 +226,40 @@ public ReValue evaluate(@Nonnull String className,
 		if (methodType.getReturnType() == Type.VOID_TYPE)
 			throw new ReEvaluationException("Method must yield a value");
 
-		ClassPathNode classPath = workspace.findClass(true, className);
-		if (classPath == null)
+		EvaluationTarget target = getTarget(true, className, methodName, methodDescriptor);
+		if (target == null)
 			throw new ReEvaluationException("Class not found in workspace: " + className);
-
-		JvmClassInfo classInfo = classPath.getValue().asJvmClass();
-		if (classInfo.getDeclaredMethod(methodName, methodDescriptor) == null)
+		if (target.classNode == null || target.methodNode == null)
 			throw new ReEvaluationException("Method not found in class: " + className + "." + methodName + methodDescriptor);
+		if (!target.evaluable)
+			throw new ReEvaluationException("Target method does not support evaluation: " + className + "." + methodName + methodDescriptor);
+
+		// Check for a prior result of the same side effect free method with the same parameters.
+		MemoKey memoKey = memoizedResults != null && target.pure ? MemoKey.of(target, parameters) : null;
+		if (memoKey != null) {
+			ReValue memoized = memoizedResults.get(memoKey);
+			if (memoized != null)
+				return memoized;
+		}
 
-		ClassNode classNode = new ClassNode();
-		ClassReader reader = classInfo.getClassReader();
-		reader.accept(classNode, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
-
-		for (MethodNode methodNode : classNode.methods)
-			if (methodName.equals(methodNode.name) && methodDescriptor.equals(methodNode.desc))
-				return evaluate(classNode, methodNode, classInstance, parameters);
-
-		throw new ReEvaluationException("Method exists in class model, but not in tree node representation");
+		ReValue result = null;
+		long timeoutNanos = nativeTimeoutNanos;
+		if (timeoutNanos > 0) {
+			ReNativeMethod nativeMethod = target.getNativeMethod();
+			if (nativeMethod != null) {
+				try {
+					result = nativeMethod.invoke(parameters, maxSteps, timeoutNanos);
+					nativeExecutions.incrementAndGet();
+				} catch (ReEvaluationException ignored) {
+					// Interpretation is the reference behavior, so any failure falls back to it.
+				}
+			}
+		}
+		if (result == null)
+			result = execute(target.classNode, target.methodNode, classInstance, parameters);
+		if (memoKey != null)
+			memoizedResults.put(memoKey, result);
+		return result;
 	}
 
 	/**
@@ -206,7 +286,14 @@ public ReValue evaluate(@Nonnull ClassNode classNode,
 		// Must support evaluation
 		if (!canEvaluate(methodNode))
 			throw new ReEvaluationException("Target method does not support evaluation: " + classNode.name + "." + methodNode.name + methodNode.desc);
+		return execute(classNode, methodNode, classInstance, parameters);
+	}
 
+	@Nonnull
+	private ReValue execute(@Nonnull ClassNode classNode,
+	                        @Nonnull MethodNode methodNode,
+	                        @Nullable ReValue classInstance,
+	                        @Nonnull List<ReValue> parameters) throws ReEvaluationException {
 		// Sanity check parameters
 		Type methodType = Type.getMethodType(methodNode.desc);
 		if (parameters.size() != methodType.getArgumentCount())
@@ -297,6 +384,148 @@ public ReValue evaluateBlock(@Nonnull InsnList instructionBlock,
 		throw new ReEvaluationException("Block did not yield an value in " + maxSteps + " steps");
 	}
 
+	/**
+	 * @param includeInternal
+	 * 		Flag to include internal supporting resources when looking up the class.
+	 * @param className
+	 * 		Name of class defining the target method.
+	 * @param methodName
+	 * 		Name of the target method.
+	 * @param methodDescriptor
+	 * 		Descriptor of the target method.
+	 *
+	 * @return Parsed and checked evaluation target, or {@code null} when the class was not found.
+	 */
+	@Nullable
+	private EvaluationTarget getTarget(boolean includeInternal,
+	                                   @Nonnull String className,
+	                                   @Nonnull String methodName,
+	                                   @Nonnull String methodDescriptor) {
+		ClassPathNode classPath = workspace.findClass(includeInternal, className);
+		if (classPath == null)
+			return null;
+
+		// Class info instances are replaced when a class is updated in the workspace,
+		// so a target made from a different instance is outdated.
+		JvmClassInfo classInfo = classPath.getValue().asJvmClass();
+		String key = className + '.' + methodName + methodDescriptor;
+		EvaluationTarget target = targets.get(key);
+		if (target == null || target.classInfo != classInfo) {
+			target = createTarget(classInfo, methodName, methodDescriptor);
+			targets.put(key, target);
+		}
+		return target;
+	}
+
+	@Nonnull
+	private EvaluationTarget createTarget(@Nonnull JvmClassInfo classInfo,
+	                                      @Nonnull String methodName,
+	                                      @Nonnull String methodDescriptor) {
+		// Ensure method exists in class.
+		MethodMember method = classInfo.getDeclaredMethod(methodName, methodDescriptor);
+		if (method == null)
+			return new EvaluationTarget(classInfo, null, null, false, false);
+
+		// Extract method-node model and check for evaluation support.
+		ClassNode node = new ClassNode();
+		classInfo.getClassReader().accept(new MemberFilteringVisitor(node, method), ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+		if (node.methods.size() != 1)
+			return new EvaluationTarget(classInfo, null, null, false, false);
+		MethodNode methodNode = node.methods.getFirst();
+		boolean evaluable = canEvaluate(methodNode);
+		return new EvaluationTarget(classInfo, node, methodNode, evaluable, evaluable && isSideEffectFree(methodNode));
+	}
+
+	/**
+	 * @param method
+	 * 		Method to check, which is known to support evaluation.
+	 *
+	 * @return {@code true} when the result of evaluating the method only depends on the parameter values.
+	 */
+	private static boolean isSideEffectFree(@Nonnull MethodNode method) {
+		// Instance methods depend on the state of 'this'.
+		if (!AccessFlag.isStatic(method.access))
+			return false;
+		for (AbstractInsnNode instruction : method.instructions) {
+			int op = instruction.getOpcode();
+
+			// Field lookups may yield different values over time, and reference comparisons
+			// depend on parameter identity, which is not part of memoized parameter equality.
+			if (op == Opcodes.GETSTATIC || op == Opcodes.GETFIELD || op == Opcodes.IF_ACMPEQ || op == Opcodes.IF_ACMPNE)
+				return false;
+
+			// Some method lookups yield different values on each call.
+			if (op == Opcodes.INVOKESTATIC && !BasicInvokeStaticLookup.isDeterministic((MethodInsnNode) instruction))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parsed method model, and the results of checks on it.
+	 * Compared by identity, so that memoized results are tied to the class state they were computed from.
+	 */
+	private static final class EvaluationTarget {
+		private final JvmClassInfo classInfo;
+		private final ClassNode classNode;
+		private final MethodNode methodNode;
+		private final boolean evaluable;
+		private final boolean pure;
+		private ReNativeMethod nativeMethod;
+		private boolean nativeCompiled;
+
+		private EvaluationTarget(@Nonnull JvmClassInfo classInfo, @Nullable ClassNode classNode,
+		                         @Nullable MethodNode methodNode, boolean evaluable, boolean pure) {
+			this.classInfo = classInfo;
+			this.classNode = classNode;
+			this.methodNode = methodNode;
+			this.evaluable = evaluable;
+			this.pure = pure;
+		}
+
+		/**
+		 * @return Method compiled for native execution, or {@code null} when the method does not support it.
+		 */
+		@Nullable
+		private synchronized ReNativeMethod getNativeMethod() {
+			if (!nativeCompiled) {
+				nativeCompiled = true;
+				if (evaluable && classNode != null && methodNode != null)
+					nativeMethod = ReNativeMethod.compile(classNode, methodNode);
+			}
+			return nativeMethod;
+		}
+	}
+
+	/**
+	 * @param target
+	 * 		Evaluated method.
+	 * @param parameters
+	 * 		Parameter values the method was evaluated with.
+	 */
+	private record MemoKey(@Nonnull EvaluationTarget target, @Nonnull List<ReValue> parameters) {
+		/**
+		 * @param target
+		 * 		Method to evaluate.
+		 * @param parameters
+		 * 		Parameter values to evaluate with.
+		 *
+		 * @return Key for memoizing the result, or {@code null} when any parameter value is not known
+		 * or is not a primitive or string.
+		 */
+		@Nullable
+		private static MemoKey of(@Nonnull EvaluationTarget target, @Nonnull List<ReValue> parameters) {
+			for (ReValue parameter : parameters) {
+				if (!parameter.hasKnownValue())
+					return null;
+				if (!(parameter instanceof IntValue || parameter instanceof LongValue || parameter instanceof FloatValue
+						|| parameter instanceof DoubleValue || parameter instanceof StringValue))
+					return null;
+			}
+			return new MemoKey(target, List.copyOf(parameters));
+		}
+	}
+
 	/**
 	 * Frame extension to support control flow processing of this evaluator.
 	 */
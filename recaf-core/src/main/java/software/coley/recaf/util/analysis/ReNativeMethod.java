@@ -0,0 +1,561 @@
+package software.coley.recaf.util.analysis;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import software.coley.recaf.analytics.logging.DebuggingLogger;
+import software.coley.recaf.analytics.logging.Logging;
+import software.coley.recaf.util.AccessFlag;
+import software.coley.recaf.util.analysis.lookup.BasicInvokeStaticLookup;
+import software.coley.recaf.util.analysis.lookup.BasicInvokeVirtualLookup;
+import software.coley.recaf.util.analysis.value.DoubleValue;
+import software.coley.recaf.util.analysis.value.FloatValue;
+import software.coley.recaf.util.analysis.value.IntValue;
+import software.coley.recaf.util.analysis.value.LongValue;
+import software.coley.recaf.util.analysis.value.ObjectValue;
+import software.coley.recaf.util.analysis.value.ReValue;
+import software.coley.recaf.util.analysis.value.StringValue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Method compiled into an isolated class loader for native execution by {@link ReEvaluator}.
+ * <br>
+ * Only static methods which use primitives and strings as parameters and return values, and only invoke methods
+ * supported by {@link BasicInvokeStaticLookup} and {@link BasicInvokeVirtualLookup} can be compiled. Since those
+ * lookups only cover JDK methods, the method itself is the only code from the workspace that is executed.
+ * The class loader can only resolve classes in the {@code java} package hierarchy, so the compiled method cannot reach
+ * any other classes even if a type reference were to be missed by these checks.
+ * <br>
+ * The compiled method has guards inserted to enforce a step and time limit. Steps are counted per instruction,
+ * but are charged at the end of each straight-line sequence of instructions rather than for every instruction.
+ * Array creation is charged one step per element before the array is allocated. Strings and arrays returned by
+ * invoked methods are charged one step per element after the call returns, which also checks the time limit.
+ * Invoked methods which can allocate or run for longer than is proportional to their inputs, such as
+ * {@link String#repeat(int)} or anything using regular expressions, are not supported. Together these keep
+ * the memory and time the method can use proportional to the step limit and the size of the parameters.
+ *
+ * @author Matt Coley
+ */
+final class ReNativeMethod implements Opcodes {
+	private static final DebuggingLogger logger = Logging.get(ReNativeMethod.class);
+	private static final BasicInvokeStaticLookup STATIC_LOOKUP = new BasicInvokeStaticLookup();
+	private static final BasicInvokeVirtualLookup VIRTUAL_LOOKUP = new BasicInvokeVirtualLookup();
+	private static final String SANDBOX_CLASS = "sandbox/Evaluation";
+	private static final String SANDBOX_METHOD = "evaluate";
+	private static final String GUARD_METHOD = "guard";
+	private static final String SIZE_METHOD = "size";
+	private static final String LIMIT_MESSAGE = "Step or time limit exceeded";
+	private static final int TIME_CHECK_MASK = 1023;
+	private static final int GUARD_LOCALS = 4; // int steps, long deadline, int branches
+	private static final Set<String> UNBOUNDED_METHODS = Set.of(
+			// Regular expressions can backtrack for exponential time
+			"java/lang/String.matches",
+			"java/lang/String.replaceFirst",
+			"java/lang/String.replaceAll",
+			"java/lang/String.split",
+			"java/lang/String.splitWithDelimiters",
+			// Output size is controlled by an integer or format argument rather than the input size
+			"java/lang/String.repeat",
+			"java/lang/String.indent",
+			"java/lang/String.format",
+			"java/lang/String.formatted",
+			"java/util/Arrays.copyOf",
+			"java/util/Arrays.copyOfRange",
+			// Output size is the product of the input sizes
+			"java/lang/String.join",
+			"java/lang/String.replace(Ljava/lang/CharSequence;Ljava/lang/CharSequence;)Ljava/lang/String;"
+	);
+	private final Method method;
+	private final Type[] argumentTypes;
+	private final Type returnType;
+
+	private ReNativeMethod(@Nonnull Method method, @Nonnull Type[] argumentTypes, @Nonnull Type returnType) {
+		this.method = method;
+		this.argumentTypes = argumentTypes;
+		this.returnType = returnType;
+	}
+
+	/**
+	 * @param classNode
+	 * 		Class defining the method.
+	 * @param methodNode
+	 * 		Method to compile. Should already be known to pass {@link ReEvaluator#canEvaluate(MethodNode)}.
+	 *
+	 * @return Compiled method, or {@code null} when the method is not supported for native execution.
+	 */
+	@Nullable
+	static ReNativeMethod compile(@Nonnull ClassNode classNode, @Nonnull MethodNode methodNode) {
+		if (!isSupported(methodNode))
+			return null;
+		try {
+			Type methodType = Type.getMethodType(methodNode.desc);
+			byte[] bytecode = createSandboxClass(methodNode);
+			Class<?> sandboxClass = new SandboxClassLoader(bytecode).loadClass(SANDBOX_CLASS.replace('/', '.'));
+			Type[] argumentTypes = methodType.getArgumentTypes();
+			Class<?>[] parameterClasses = new Class<?>[argumentTypes.length + 2];
+			for (int i = 0; i < argumentTypes.length; i++)
+				parameterClasses[i] = toClass(argumentTypes[i]);
+			parameterClasses[argumentTypes.length] = int.class;
+			parameterClasses[argumentTypes.length + 1] = long.class;
+			Method method = sandboxClass.getDeclaredMethod(SANDBOX_METHOD, parameterClasses);
+			return new ReNativeMethod(method, argumentTypes, methodType.getReturnType());
+		} catch (Throwable t) {
+			// Generally this would be the result of code that does not pass verification.
+			logger.debugging(l -> l.warn("Failed compiling {}.{}{} for native execution",
+					classNode.name, methodNode.name, methodNode.desc, t));
+			return null;
+		}
+	}
+
+	/**
+	 * @param parameters
+	 * 		Parameters to pass to the method.
+	 * @param maxSteps
+	 * 		Maximum number of instructions to execute.
+	 * @param timeoutNanos
+	 * 		Maximum time to execute for.
+	 *
+	 * @return Return value of the method when invoked with the given parameters.
+	 *
+	 * @throws ReEvaluationException
+	 * 		When the parameters do not have known values, the method throws an exception,
+	 * 		or the method exceeds the step or time limit.
+	 */
+	@Nonnull
+	ReValue invoke(@Nonnull List<ReValue> parameters, int maxSteps, long timeoutNanos) throws ReEvaluationException {
+		if (parameters.size() != argumentTypes.length)
+			throw new ReEvaluationException("Mismatched parameter count, method expects "
+					+ argumentTypes.length + " but was given " + parameters.size() + " parameters");
+		Object[] args = new Object[argumentTypes.length + 2];
+		for (int i = 0; i < argumentTypes.length; i++)
+			args[i] = toJava(argumentTypes[i], parameters.get(i), i);
+		args[argumentTypes.length] = maxSteps;
+		args[argumentTypes.length + 1] = System.nanoTime() + timeoutNanos;
+
+		Object result;
+		try {
+			result = method.invoke(null, args);
+		} catch (InvocationTargetException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IllegalStateException && LIMIT_MESSAGE.equals(cause.getMessage()))
+				throw new ReEvaluationException(cause, "Method did not yield a value in " + maxSteps
+						+ " steps or " + timeoutNanos + "ns");
+			throw new ReEvaluationException(cause == null ? ex : cause, "Method threw an exception");
+		} catch (ReflectiveOperationException | IllegalArgumentException ex) {
+			throw new ReEvaluationException(ex, "Failed invoking compiled method");
+		}
+		return toValue(returnType, result);
+	}
+
+	/**
+	 * @param method
+	 * 		Method to check.
+	 *
+	 * @return {@code true} when the method can be compiled for native execution.
+	 */
+	private static boolean isSupported(@Nonnull MethodNode method) {
+		// Instance methods would need an instance of a workspace class.
+		if (!AccessFlag.isStatic(method.access))
+			return false;
+
+		// Guards throw exceptions to exit on a step or time limit, which must not be caught.
+		if (method.tryCatchBlocks != null && !method.tryCatchBlocks.isEmpty())
+			return false;
+
+		// Parameters and return values must be convertible to and from values.
+		Type methodType = Type.getMethodType(method.desc);
+		for (Type argumentType : methodType.getArgumentTypes())
+			if (!isSupportedValueType(argumentType))
+				return false;
+		if (!isSupportedValueType(methodType.getReturnType()))
+			return false;
+
+		// Instructions must only refer to JDK types, and only invoke methods known to be safe.
+		for (AbstractInsnNode insn : method.instructions) {
+			if (insn instanceof MethodInsnNode min) {
+				String key = min.owner + '.' + min.name;
+				if (UNBOUNDED_METHODS.contains(key) || UNBOUNDED_METHODS.contains(key + min.desc))
+					return false;
+				int op = min.getOpcode();
+				if (op == INVOKESTATIC) {
+					if (!STATIC_LOOKUP.hasLookup(min))
+						return false;
+				} else if (op == INVOKEVIRTUAL || op == INVOKEINTERFACE) {
+					if (!VIRTUAL_LOOKUP.hasLookup(min))
+						return false;
+				} else {
+					return false;
+				}
+			} else if (insn instanceof FieldInsnNode) {
+				return false;
+			} else if (insn instanceof TypeInsnNode tin) {
+				if (tin.getOpcode() == NEW || !isJdkType(Type.getObjectType(tin.desc)))
+					return false;
+			} else if (insn instanceof MultiANewArrayInsnNode) {
+				// Only single dimension array creation is charged against the step limit.
+				return false;
+			} else if (insn instanceof LdcInsnNode ldc) {
+				Object cst = ldc.cst;
+				if (cst instanceof Type type) {
+					if (type.getSort() == Type.METHOD || !isJdkType(type))
+						return false;
+				} else if (!(cst instanceof Number || cst instanceof String)) {
+					return false;
+				}
+			} else {
+				int op = insn.getOpcode();
+				if (op == INVOKEDYNAMIC || op == JSR || op == RET || op == ATHROW)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSupportedValueType(@Nonnull Type type) {
+		int sort = type.getSort();
+		return (sort >= Type.BOOLEAN && sort <= Type.DOUBLE) || "java/lang/String".equals(type.getInternalName());
+	}
+
+	private static boolean isMeasuredType(@Nonnull Type type) {
+		return type.getSort() == Type.ARRAY || "java/lang/String".equals(type.getInternalName());
+	}
+
+	private static boolean isJdkType(@Nonnull Type type) {
+		if (type.getSort() == Type.ARRAY)
+			type = type.getElementType();
+		return type.getSort() != Type.OBJECT || type.getInternalName().startsWith("java/");
+	}
+
+	/**
+	 * @param method
+	 * 		Method to copy into the sandbox class.
+	 *
+	 * @return Bytecode of sandbox class containing a copy of the method with guards inserted.
+	 */
+	@Nonnull
+	private static byte[] createSandboxClass(@Nonnull MethodNode method) {
+		Type methodType = Type.getMethodType(method.desc);
+		Type[] argumentTypes = methodType.getArgumentTypes();
+		Type[] guardedArgumentTypes = new Type[argumentTypes.length + 2];
+		System.arraycopy(argumentTypes, 0, guardedArgumentTypes, 0, argumentTypes.length);
+		guardedArgumentTypes[argumentTypes.length] = Type.INT_TYPE;
+		guardedArgumentTypes[argumentTypes.length + 1] = Type.LONG_TYPE;
+		String guardedDesc = Type.getMethodDescriptor(methodType.getReturnType(), guardedArgumentTypes);
+
+		// Guard values are passed after the original parameters, so the original method's other
+		// local variables need to be shifted over to make room for them.
+		int parametersSize = (Type.getArgumentsAndReturnSizes(method.desc) >> 2) - 1;
+		int stepsIndex = parametersSize;
+		int deadlineIndex = parametersSize + 1;
+		int branchesIndex = parametersSize + 3;
+		MethodNode copy = new MethodNode(ACC_PUBLIC | ACC_STATIC, SANDBOX_METHOD, guardedDesc, null, null);
+		method.accept(copy);
+		copy.maxLocals += GUARD_LOCALS;
+		for (AbstractInsnNode insn : copy.instructions) {
+			if (insn instanceof VarInsnNode vin && vin.var >= parametersSize)
+				vin.var += GUARD_LOCALS;
+			else if (insn instanceof IincInsnNode iin && iin.var >= parametersSize)
+				iin.var += GUARD_LOCALS;
+		}
+
+		// Insert step and time guards at the end of each straight-line sequence of instructions.
+		// Guards are calls to a method which throws when a limit is exceeded, so they can be placed
+		// anywhere regardless of what is on the stack.
+		InsnList instructions = copy.instructions;
+		int pending = 0;
+		for (AbstractInsnNode insn : instructions.toArray()) {
+			int op = insn.getOpcode();
+			if (insn instanceof LabelNode) {
+				if (pending > 0)
+					instructions.insertBefore(insn, guard(pending, false, stepsIndex, deadlineIndex, branchesIndex));
+				pending = 0;
+			} else if (op >= 0) {
+				pending++;
+				if (insn instanceof JumpInsnNode || insn instanceof TableSwitchInsnNode || insn instanceof LookupSwitchInsnNode) {
+					instructions.insertBefore(insn, guard(pending, true, stepsIndex, deadlineIndex, branchesIndex));
+					pending = 0;
+				} else if (op >= IRETURN && op <= RETURN) {
+					pending = 0;
+				} else if (op == NEWARRAY || op == ANEWARRAY) {
+					instructions.insertBefore(insn, allocationGuard(stepsIndex, deadlineIndex));
+				} else if (insn instanceof MethodInsnNode min && isMeasuredType(Type.getReturnType(min.desc))) {
+					instructions.insert(insn, resultGuard(stepsIndex, deadlineIndex));
+				}
+			}
+		}
+
+		// Initialize the branch counter.
+		InsnList prefix = new InsnList();
+		prefix.add(new InsnNode(ICONST_0));
+		prefix.add(new VarInsnNode(ISTORE, branchesIndex));
+		instructions.insert(prefix);
+
+		ClassNode sandbox = new ClassNode();
+		sandbox.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, SANDBOX_CLASS, null, "java/lang/Object", null);
+		sandbox.methods.add(copy);
+		sandbox.methods.add(createGuardMethod());
+		sandbox.methods.add(createSizeMethod());
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+		sandbox.accept(writer);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * @param steps
+	 * 		Number of steps to charge.
+	 * @param branch
+	 * 		Flag indicating the guard is for a branch, which counts towards periodic checks of the deadline.
+	 * @param stepsIndex
+	 * 		Local variable index of the remaining steps.
+	 * @param deadlineIndex
+	 * 		Local variable index of the deadline.
+	 * @param branchesIndex
+	 * 		Local variable index of the branch counter.
+	 *
+	 * @return Guard instructions.
+	 */
+	@Nonnull
+	private static InsnList guard(int steps, boolean branch, int stepsIndex, int deadlineIndex, int branchesIndex) {
+		InsnList list = new InsnList();
+		while (steps > 0) {
+			int charge = Math.min(steps, Short.MAX_VALUE);
+			list.add(new IincInsnNode(stepsIndex, -charge));
+			steps -= charge;
+		}
+		list.add(new VarInsnNode(ILOAD, stepsIndex));
+		if (branch) {
+			list.add(new IincInsnNode(branchesIndex, 1));
+			list.add(new VarInsnNode(ILOAD, branchesIndex));
+		} else {
+			// Any value that does not trigger a deadline check.
+			list.add(new InsnNode(ICONST_1));
+		}
+		list.add(new VarInsnNode(LLOAD, deadlineIndex));
+		list.add(new MethodInsnNode(INVOKESTATIC, SANDBOX_CLASS, GUARD_METHOD, "(IIJ)V", false));
+		return list;
+	}
+
+	/**
+	 * @param stepsIndex
+	 * 		Local variable index of the remaining steps.
+	 * @param deadlineIndex
+	 * 		Local variable index of the deadline.
+	 *
+	 * @return Guard instructions which charge the array length on the top of the stack as steps,
+	 * leaving the length on the stack for the array creation instruction which follows.
+	 */
+	@Nonnull
+	private static InsnList allocationGuard(int stepsIndex, int deadlineIndex) {
+		InsnList list = new InsnList();
+		list.add(new InsnNode(DUP));
+		list.add(new VarInsnNode(ILOAD, stepsIndex));
+		list.add(new InsnNode(SWAP));
+		list.add(new InsnNode(ISUB));
+		list.add(new VarInsnNode(ISTORE, stepsIndex));
+		list.add(new VarInsnNode(ILOAD, stepsIndex));
+		list.add(new InsnNode(ICONST_1)); // Any value that does not trigger a deadline check.
+		list.add(new VarInsnNode(LLOAD, deadlineIndex));
+		list.add(new MethodInsnNode(INVOKESTATIC, SANDBOX_CLASS, GUARD_METHOD, "(IIJ)V", false));
+		return list;
+	}
+
+	/**
+	 * @param stepsIndex
+	 * 		Local variable index of the remaining steps.
+	 * @param deadlineIndex
+	 * 		Local variable index of the deadline.
+	 *
+	 * @return Guard instructions which charge the size of the string or array on the top of the stack as steps,
+	 * leaving the value on the stack. The deadline is always checked, since the preceding call may have taken a while.
+	 */
+	@Nonnull
+	private static InsnList resultGuard(int stepsIndex, int deadlineIndex) {
+		InsnList list = new InsnList();
+		list.add(new InsnNode(DUP));
+		list.add(new MethodInsnNode(INVOKESTATIC, SANDBOX_CLASS, SIZE_METHOD, "(Ljava/lang/Object;)I", false));
+		list.add(new VarInsnNode(ILOAD, stepsIndex));
+		list.add(new InsnNode(SWAP));
+		list.add(new InsnNode(ISUB));
+		list.add(new VarInsnNode(ISTORE, stepsIndex));
+		list.add(new VarInsnNode(ILOAD, stepsIndex));
+		list.add(new InsnNode(ICONST_0)); // Any value that triggers a deadline check.
+		list.add(new VarInsnNode(LLOAD, deadlineIndex));
+		list.add(new MethodInsnNode(INVOKESTATIC, SANDBOX_CLASS, GUARD_METHOD, "(IIJ)V", false));
+		return list;
+	}
+
+	/**
+	 * @return Method taking the remaining steps, branch counter, and deadline, which throws when a limit is exceeded.
+	 * The deadline is only checked every {@link #TIME_CHECK_MASK} + 1 branches, or when the branch counter is zero.
+	 */
+	@Nonnull
+	private static MethodNode createGuardMethod() {
+		MethodNode guard = new MethodNode(ACC_PRIVATE | ACC_STATIC, GUARD_METHOD, "(IIJ)V", null, null);
+		InsnList code = guard.instructions;
+		LabelNode withinLimits = new LabelNode();
+		LabelNode limitExceeded = new LabelNode();
+		code.add(new VarInsnNode(ILOAD, 0));
+		code.add(new JumpInsnNode(IFLT, limitExceeded));
+		code.add(new VarInsnNode(ILOAD, 1));
+		code.add(new IntInsnNode(SIPUSH, TIME_CHECK_MASK));
+		code.add(new InsnNode(IAND));
+		code.add(new JumpInsnNode(IFNE, withinLimits));
+		code.add(new MethodInsnNode(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false));
+		code.add(new VarInsnNode(LLOAD, 2));
+		code.add(new InsnNode(LSUB));
+		code.add(new InsnNode(LCONST_0));
+		code.add(new InsnNode(LCMP));
+		code.add(new JumpInsnNode(IFGT, limitExceeded));
+		code.add(withinLimits);
+		code.add(new InsnNode(RETURN));
+		code.add(limitExceeded);
+		code.add(new TypeInsnNode(NEW, "java/lang/IllegalStateException"));
+		code.add(new InsnNode(DUP));
+		code.add(new LdcInsnNode(LIMIT_MESSAGE));
+		code.add(new MethodInsnNode(INVOKESPECIAL, "java/lang/IllegalStateException", "<init>", "(Ljava/lang/String;)V", false));
+		code.add(new InsnNode(ATHROW));
+		return guard;
+	}
+
+	/**
+	 * @return Method taking a string or array, which returns its length, or zero for {@code null}.
+	 */
+	@Nonnull
+	private static MethodNode createSizeMethod() {
+		MethodNode size = new MethodNode(ACC_PRIVATE | ACC_STATIC, SIZE_METHOD, "(Ljava/lang/Object;)I", null, null);
+		InsnList code = size.instructions;
+		LabelNode nonNull = new LabelNode();
+		LabelNode array = new LabelNode();
+		code.add(new VarInsnNode(ALOAD, 0));
+		code.add(new JumpInsnNode(IFNONNULL, nonNull));
+		code.add(new InsnNode(ICONST_0));
+		code.add(new InsnNode(IRETURN));
+		code.add(nonNull);
+		code.add(new VarInsnNode(ALOAD, 0));
+		code.add(new TypeInsnNode(INSTANCEOF, "java/lang/String"));
+		code.add(new JumpInsnNode(IFEQ, array));
+		code.add(new VarInsnNode(ALOAD, 0));
+		code.add(new TypeInsnNode(CHECKCAST, "java/lang/String"));
+		code.add(new MethodInsnNode(INVOKEVIRTUAL, "java/lang/String", "length", "()I", false));
+		code.add(new InsnNode(IRETURN));
+		code.add(array);
+		code.add(new VarInsnNode(ALOAD, 0));
+		code.add(new MethodInsnNode(INVOKESTATIC, "java/lang/reflect/Array", "getLength", "(Ljava/lang/Object;)I", false));
+		code.add(new InsnNode(IRETURN));
+		return size;
+	}
+
+	@Nonnull
+	private static Class<?> toClass(@Nonnull Type type) {
+		return switch (type.getSort()) {
+			case Type.BOOLEAN -> boolean.class;
+			case Type.CHAR -> char.class;
+			case Type.BYTE -> byte.class;
+			case Type.SHORT -> short.class;
+			case Type.INT -> int.class;
+			case Type.FLOAT -> float.class;
+			case Type.LONG -> long.class;
+			case Type.DOUBLE -> double.class;
+			default -> String.class;
+		};
+	}
+
+	@Nonnull
+	private static Object toJava(@Nonnull Type type, @Nonnull ReValue value, int index) throws ReEvaluationException {
+		if (value instanceof IntValue iv && iv.hasKnownValue()) {
+			int i = iv.value().getAsInt();
+			switch (type.getSort()) {
+				case Type.BOOLEAN:
+					return i != 0;
+				case Type.CHAR:
+					return (char) i;
+				case Type.BYTE:
+					return (byte) i;
+				case Type.SHORT:
+					return (short) i;
+				case Type.INT:
+					return i;
+			}
+		} else if (value instanceof LongValue lv && lv.hasKnownValue() && type.getSort() == Type.LONG) {
+			return lv.value().getAsLong();
+		} else if (value instanceof FloatValue fv && fv.hasKnownValue() && type.getSort() == Type.FLOAT) {
+			return (float) fv.value().getAsDouble();
+		} else if (value instanceof DoubleValue dv && dv.hasKnownValue() && type.getSort() == Type.DOUBLE) {
+			return dv.value().getAsDouble();
+		} else if (value instanceof StringValue sv && sv.getText().isPresent() && type.getSort() == Type.OBJECT) {
+			return sv.getText().get();
+		}
+		throw new ReEvaluationException("Parameter at index " + index + " does not have a known value of type " + type);
+	}
+
+	@Nonnull
+	private static ReValue toValue(@Nonnull Type type, @Nullable Object value) throws ReEvaluationException {
+		if (value instanceof Boolean z)
+			return IntValue.of(z ? 1 : 0);
+		if (value instanceof Character c)
+			return IntValue.of(c);
+		if (value instanceof Long j)
+			return LongValue.of(j);
+		if (value instanceof Float f)
+			return FloatValue.of(f);
+		if (value instanceof Double d)
+			return DoubleValue.of(d);
+		if (value instanceof Number n)
+			return IntValue.of(n.intValue());
+		if (value instanceof String s)
+			return ObjectValue.string(s);
+		throw new ReEvaluationException("Unsupported return value for type " + type + ": " + value);
+	}
+
+	/**
+	 * Class loader which only defines the sandbox class, and only resolves other classes in the {@code java} package
+	 * hierarchy from the platform class loader.
+	 */
+	private static class SandboxClassLoader extends ClassLoader {
+		private final byte[] bytecode;
+
+		private SandboxClassLoader(@Nonnull byte[] bytecode) {
+			super(ClassLoader.getPlatformClassLoader());
+			this.bytecode = bytecode;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (name.startsWith("java."))
+				return super.loadClass(name, resolve);
+			if (!name.equals(SANDBOX_CLASS.replace('/', '.')))
+				throw new ClassNotFoundException(name);
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> cls = findLoadedClass(name);
+				if (cls == null)
+					cls = defineClass(name, bytecode, 0, bytecode.length);
+				if (resolve)
+					resolveClass(cls);
+				return cls;
+			}
+		}
+	}
+}
@@ -22,6 +22,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Basic implementation of {@link InvokeStaticLookup} for common static fields.
@@ -32,6 +33,7 @@
  */
 public class BasicInvokeStaticLookup extends BasicLookupUtils implements InvokeStaticLookup {
 	private static final Map<String, Func> METHODS = new HashMap<>();
+	private static final Set<String> NON_DETERMINISTIC_METHODS = Set.of("java/lang/Math.random()D", "java/lang/StrictMath.random()D");
 	private static final DebuggingLogger logger = Logging.get(BasicInvokeStaticLookup.class);
 
 	@Nonnull
@@ -63,6 +65,17 @@ public boolean hasLookup(@Nonnull MethodInsnNode method) {
 		return METHODS.containsKey(getKey(method));
 	}
 
+	/**
+	 * @param method
+	 * 		Method invocation.
+	 *
+	 * @return {@code true} when the lookup for the method yields the same result for the same parameter values.
+	 * {@code false} for lookups like {@code Math.random()} which yield different results on each call.
+	 */
+	public static boolean isDeterministic(@Nonnull MethodInsnNode method) {
+		return !NON_DETERMINISTIC_METHODS.contains(getKey(method));
+	}
+
 	@Nonnull
 	private static String getKey(@Nonnull MethodInsnNode method) {
 		return method.owner + "." + method.name + method.desc;
@@ -8,6 +8,7 @@
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Byte source utilities.
@@ -111,4 +112,20 @@ public static ByteSource forPath(@Nonnull Path path) {
 	public static ByteSource forMemorySegment(@Nonnull MemorySegment data) {
 		return new MemorySegmentDataSource(data);
 	}
+
+	/**
+	 * Creates a byte source which reads through a bounded cache.
+	 *
+	 * @param sourceFactory
+	 * 		Factory of sources to read content from when the content is not cached.
+	 * 		A new source is requested for each read that misses the cache.
+	 * @param cache
+	 * 		Cache to hold read content in.
+	 *
+	 * @return New byte source.
+	 */
+	@Nonnull
+	public static ByteSource cached(@Nonnull Supplier<ByteSource> sourceFactory, @Nonnull ContentCache cache) {
+		return new CachedByteSource(sourceFactory, cache);
+	}
 }
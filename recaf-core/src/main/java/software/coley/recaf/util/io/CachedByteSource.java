@@ -0,0 +1,66 @@
+package software.coley.recaf.util.io;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Byte source which reads through a {@link ContentCache}.
+ * The backing source is created on demand for each read, so no decoded content is held outside the cache.
+ *
+ * @author Matt Coley
+ */
+final class CachedByteSource implements ByteSource {
+	private final Supplier<ByteSource> sourceFactory;
+	private final ContentCache cache;
+
+	/**
+	 * @param sourceFactory
+	 * 		Factory of sources to read content from when not cached.
+	 * @param cache
+	 * 		Cache to hold read content in.
+	 */
+	CachedByteSource(@Nonnull Supplier<ByteSource> sourceFactory, @Nonnull ContentCache cache) {
+		this.sourceFactory = sourceFactory;
+		this.cache = cache;
+	}
+
+	@Nonnull
+	@Override
+	public byte[] readAll() throws IOException {
+		return cache.get(this, sourceFactory.get());
+	}
+
+	@Nonnull
+	@Override
+	public byte[] peek(int count) throws IOException {
+		byte[] content = readShared();
+		return Arrays.copyOf(content, Math.min(count, content.length));
+	}
+
+	@Nonnull
+	@Override
+	public InputStream openStream() throws IOException {
+		// The stream does not expose the array, so there is no need to copy it.
+		return new ByteArrayInputStream(readShared());
+	}
+
+	@Nonnull
+	@Override
+	public MemorySegment mmap() throws IOException {
+		return MemorySegment.ofArray(readShared()).asReadOnly();
+	}
+
+	/**
+	 * @return Cached content, which must not be modified.
+	 */
+	@Nonnull
+	private byte[] readShared() throws IOException {
+		return cache.getShared(this, sourceFactory.get());
+	}
+}
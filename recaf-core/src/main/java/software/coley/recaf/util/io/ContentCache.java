@@ -0,0 +1,105 @@
+package software.coley.recaf.util.io;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded least-recently-used cache of decoded byte content.
+ * The cache is bounded by the total number of bytes it holds, rather than by the number of entries.
+ * Cached content is shared between readers, so {@link #get(Object, ByteSource)} hands out copies.
+ *
+ * @author Matt Coley
+ * @see ByteSources#cached(Supplier, ContentCache)
+ */
+public class ContentCache {
+	private final Map<Object, byte[]> cache = new LinkedHashMap<>(16, 0.75F, true);
+	private final LongSupplier maxBytes;
+	private long size;
+
+	/**
+	 * @param maxBytes
+	 * 		Supplier of the maximum number of bytes to hold in the cache.
+	 */
+	public ContentCache(@Nonnull LongSupplier maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * @param key
+	 * 		Key of content, compared by identity.
+	 * @param source
+	 * 		Source to read content from when not cached.
+	 *
+	 * @return Copy of the content of the source, which the caller is free to modify.
+	 *
+	 * @throws IOException
+	 * 		When the source could not be read.
+	 */
+	@Nonnull
+	public byte[] get(@Nonnull Object key, @Nonnull ByteSource source) throws IOException {
+		return getShared(key, source).clone();
+	}
+
+	/**
+	 * @param key
+	 * 		Key of content, compared by identity.
+	 * @param source
+	 * 		Source to read content from when not cached.
+	 *
+	 * @return Content of the source, which may be shared with other readers and <b>must not be modified</b>.
+	 *
+	 * @throws IOException
+	 * 		When the source could not be read.
+	 */
+	@Nonnull
+	byte[] getShared(@Nonnull Object key, @Nonnull ByteSource source) throws IOException {
+		synchronized (cache) {
+			byte[] content = cache.get(key);
+			if (content != null)
+				return content;
+		}
+
+		// Read outside the lock so that slow sources do not block other lookups.
+		byte[] content = source.readAll();
+		long max = maxBytes.getAsLong();
+		if (content.length > max)
+			return content;
+		synchronized (cache) {
+			byte[] existing = cache.putIfAbsent(key, content);
+			if (existing != null)
+				return existing;
+			size += content.length;
+			Iterator<byte[]> iterator = cache.values().iterator();
+			while (size > max && iterator.hasNext()) {
+				size -= iterator.next().length;
+				iterator.remove();
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * Removes all cached content.
+	 */
+	public void clear() {
+		synchronized (cache) {
+			cache.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * @return Total number of bytes currently held in the cache.
+	 */
+	public long getSize() {
+		synchronized (cache) {
+			return size;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package software.coley.recaf.util.io;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import software.coley.lljzip.format.compression.ZipCompressions;
 import software.coley.lljzip.format.model.LocalFileHeader;
 import software.coley.lljzip.util.MemorySegmentUtil;
@@ -9,6 +10,9 @@
 import java.io.InputStream;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 /**
  * Byte source from {@link LocalFileHeader}.
@@ -38,6 +42,12 @@ public byte[] readAll() throws IOException {
 	@Nonnull
 	@Override
 	public byte[] peek(int count) throws IOException {
+		// Avoid decompressing the whole entry when only the start of it is needed.
+		if (decompressed == null) {
+			byte[] prefix = peekCompressed(count);
+			if (prefix != null)
+				return prefix;
+		}
 		MemorySegment data = decompress();
 		long length = data.byteSize();
 		if (length < count)
@@ -70,6 +80,36 @@ public boolean isEmpty() throws IOException {
 		return decompress().byteSize() == 0;
 	}
 
+	/**
+	 * @param count
+	 * 		Maximum number of bytes to read from the start of the content.
+	 *
+	 * @return Start of the content, or {@code null} if it cannot be read without decompressing all the content.
+	 */
+	@Nullable
+	private byte[] peekCompressed(int count) {
+		MemorySegment data = fileHeader.getFileData();
+		int method = fileHeader.getCompressionMethod();
+		if (method == ZipCompressions.STORED)
+			return data.asSlice(0, Math.min(count, data.byteSize())).toArray(ValueLayout.JAVA_BYTE);
+		if (method != ZipCompressions.DEFLATED || data.byteSize() > Integer.MAX_VALUE)
+			return null;
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data.asByteBuffer());
+			byte[] buffer = new byte[count];
+			int read = 0;
+			while (read < count && !inflater.finished() && !inflater.needsInput() && !inflater.needsDictionary())
+				read += inflater.inflate(buffer, read, count - read);
+			return read == count ? buffer : Arrays.copyOf(buffer, read);
+		} catch (DataFormatException ex) {
+			// Let the full decompression handle malformed content
+			return null;
+		} finally {
+			inflater.end();
+		}
+	}
+
 	private MemorySegment decompress() throws IOException {
 		try {
 			MemorySegment decompressed = this.decompressed;
@@ -0,0 +1,30 @@
+package software.coley.recaf.util.threading;
+
+/**
+ * Named lanes of work supported by {@link ComputeScheduler}.
+ *
+ * @author Matt Coley
+ */
+public enum ComputeLane {
+	/**
+	 * Work that is bound by computation, such as parsing and transforming classes.
+	 * Sized to the number of available processors.
+	 */
+	CPU,
+	/**
+	 * Speculative or maintenance work that nobody is currently waiting on, such as building indexes and
+	 * prefetching results. Kept separate from {@link #CPU} and sized smaller, with lower priority threads,
+	 * so that it does not compete with interactive work.
+	 */
+	BACKGROUND,
+	/**
+	 * Work that is mostly bound by reading and writing data, such as importing and exporting archives.
+	 * Sized larger than {@link #CPU} since tasks spend time waiting on IO.
+	 */
+	IO,
+	/**
+	 * Work that may block for long periods of time, such as waiting on external processes or user input.
+	 * Uses virtual threads when supported, so blocked tasks do not hold onto platform threads.
+	 */
+	BLOCKING
+}
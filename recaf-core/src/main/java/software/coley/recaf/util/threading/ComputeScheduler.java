@@ -0,0 +1,380 @@
+package software.coley.recaf.util.threading;
+
+import jakarta.annotation.Nonnull;
+import org.slf4j.Logger;
+import software.coley.recaf.analytics.logging.Logging;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared scheduler for compute work across Recaf.
+ * <br>
+ * Rather than each operation allocating its own thread pool, operations create lightweight
+ * {@link #newTaskGroup(String, ComputeLane, int) task groups} which feed tasks into one of a few shared
+ * {@link ComputeLane lanes}. The {@link ComputeLane#CPU}, {@link ComputeLane#BACKGROUND} and {@link ComputeLane#IO}
+ * lanes are backed by work-stealing {@link ForkJoinPool}s, and the {@link ComputeLane#BLOCKING} lane is backed by
+ * virtual threads.
+ * <br>
+ * Task groups behave like regular {@link ExecutorService} instances, so existing
+ * {@code shutdown()}/{@code awaitTermination(...)} usage continues to work. Blocking on a group's futures from
+ * within a lane worker is done through {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}, allowing
+ * the lane to compensate with additional workers so that nested groups do not starve the shared pool.
+ *
+ * @author Matt Coley
+ */
+public class ComputeScheduler {
+	private static final Logger logger = Logging.get(ComputeScheduler.class);
+	private static final int CORES = Runtime.getRuntime().availableProcessors();
+	private static final ComputeScheduler DEFAULT = new ComputeScheduler();
+	private final Map<ComputeLane, Lane> lanes = new EnumMap<>(ComputeLane.class);
+
+	/**
+	 * New scheduler with lanes sized to the current system.
+	 */
+	public ComputeScheduler() {
+		lanes.put(ComputeLane.CPU, new Lane(ComputeLane.CPU, newWorkStealingPool("cpu", CORES, Thread.NORM_PRIORITY)));
+		lanes.put(ComputeLane.BACKGROUND, new Lane(ComputeLane.BACKGROUND,
+				newWorkStealingPool("background", Math.max(1, CORES / 2), Thread.MIN_PRIORITY)));
+		lanes.put(ComputeLane.IO, new Lane(ComputeLane.IO, newWorkStealingPool("io", Math.max(4, CORES * 2), Thread.NORM_PRIORITY)));
+		lanes.put(ComputeLane.BLOCKING, new Lane(ComputeLane.BLOCKING,
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Recaf-blocking-", 0).factory())));
+	}
+
+	/**
+	 * @return Shared scheduler instance.
+	 */
+	@Nonnull
+	public static ComputeScheduler getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @param lane
+	 * 		Lane to get the executor of.
+	 *
+	 * @return Executor which runs tasks directly in the given lane.
+	 */
+	@Nonnull
+	public Executor executor(@Nonnull ComputeLane lane) {
+		return lanes.get(lane);
+	}
+
+	/**
+	 * @param name
+	 * 		Group name, used for logging.
+	 * @param lane
+	 * 		Lane to run tasks in.
+	 * @param maxConcurrency
+	 * 		Maximum number of tasks from the group to run at the same time.
+	 *
+	 * @return New task group that runs tasks in the given lane.
+	 * Shutting down the group does not affect the lane or other groups.
+	 */
+	@Nonnull
+	public ExecutorService newTaskGroup(@Nonnull String name, @Nonnull ComputeLane lane, int maxConcurrency) {
+		return new TaskGroup(name, lanes.get(lane), Math.max(1, maxConcurrency));
+	}
+
+	/**
+	 * @param lane
+	 * 		Lane to get metrics of.
+	 *
+	 * @return Snapshot of the lane's current activity.
+	 */
+	@Nonnull
+	public LaneMetrics getMetrics(@Nonnull ComputeLane lane) {
+		return lanes.get(lane).metrics();
+	}
+
+	/**
+	 * @return Snapshot of all lane's current activity.
+	 */
+	@Nonnull
+	public List<LaneMetrics> getMetrics() {
+		List<LaneMetrics> metrics = new ArrayList<>(lanes.size());
+		for (Lane lane : lanes.values())
+			metrics.add(lane.metrics());
+		return metrics;
+	}
+
+	/**
+	 * Shuts down all lanes. Pending tasks will be allowed to finish, but new tasks will be rejected.
+	 */
+	public void shutdown() {
+		logger.trace("Shutting down compute lanes");
+		for (Lane lane : lanes.values())
+			lane.service.shutdown();
+	}
+
+	@Nonnull
+	private static ForkJoinPool newWorkStealingPool(@Nonnull String name, int parallelism, int priority) {
+		AtomicInteger counter = new AtomicInteger();
+		ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setDaemon(true);
+			thread.setPriority(priority);
+			thread.setName("Recaf-" + name + "-" + counter.getAndIncrement());
+			return thread;
+		};
+		Thread.UncaughtExceptionHandler handler = (thread, t) ->
+				logger.error("Unhandled exception on thread '{}'", thread.getName(), t);
+		return new ForkJoinPool(parallelism, factory, handler, true);
+	}
+
+	/**
+	 * Executor wrapper of a lane's backing service which records activity metrics.
+	 */
+	private static class Lane implements Executor {
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicInteger active = new AtomicInteger();
+		private final LongAdder completed = new LongAdder();
+		private final LongAdder busyNanos = new LongAdder();
+		private final ComputeLane lane;
+		private final ExecutorService service;
+
+		private Lane(@Nonnull ComputeLane lane, @Nonnull ExecutorService service) {
+			this.lane = lane;
+			this.service = service;
+		}
+
+		@Override
+		public void execute(@Nonnull Runnable command) {
+			queued.incrementAndGet();
+			try {
+				service.execute(() -> {
+					queued.decrementAndGet();
+					active.incrementAndGet();
+					long start = System.nanoTime();
+					try {
+						command.run();
+					} finally {
+						busyNanos.add(System.nanoTime() - start);
+						active.decrementAndGet();
+						completed.increment();
+					}
+				});
+			} catch (RejectedExecutionException ex) {
+				queued.decrementAndGet();
+				throw ex;
+			}
+		}
+
+		@Nonnull
+		private LaneMetrics metrics() {
+			return new LaneMetrics(lane, queued.get(), active.get(), completed.sum(), busyNanos.sum());
+		}
+	}
+
+	/**
+	 * Executor service view of a lane which limits concurrency and tracks its own lifecycle.
+	 */
+	private static class TaskGroup extends AbstractExecutorService {
+		private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+		private final Set<Thread> workers = new HashSet<>();
+		private final AtomicInteger running = new AtomicInteger();
+		private final AtomicInteger outstanding = new AtomicInteger();
+		private final Object terminationLock = new Object();
+		private final String name;
+		private final Lane lane;
+		private final int maxConcurrency;
+		private volatile boolean shutdown;
+		private volatile boolean stopped;
+
+		private TaskGroup(@Nonnull String name, @Nonnull Lane lane, int maxConcurrency) {
+			this.name = name;
+			this.lane = lane;
+			this.maxConcurrency = maxConcurrency;
+		}
+
+		@Override
+		public void execute(@Nonnull Runnable command) {
+			if (shutdown)
+				throw new RejectedExecutionException("Task group '" + name + "' has been shut down");
+			outstanding.incrementAndGet();
+			pending.add(command);
+			drain();
+		}
+
+		/**
+		 * Moves pending tasks into the lane while the group is under its concurrency limit.
+		 */
+		private void drain() {
+			while (!pending.isEmpty()) {
+				int current = running.get();
+				if (current >= maxConcurrency)
+					return;
+				if (!running.compareAndSet(current, current + 1))
+					continue;
+				Runnable task = pending.poll();
+				if (task == null) {
+					running.decrementAndGet();
+					continue;
+				}
+				try {
+					lane.execute(() -> {
+						Thread thread = Thread.currentThread();
+						synchronized (workers) {
+							workers.add(thread);
+						}
+						try {
+							if (!stopped)
+								task.run();
+						} finally {
+							synchronized (workers) {
+								workers.remove(thread);
+							}
+
+							// Lane threads are shared with other groups, so an interrupt sent by 'shutdownNow()'
+							// must not carry over to the next task the thread runs.
+							if (stopped)
+								Thread.interrupted();
+							running.decrementAndGet();
+							onTaskDone();
+							drain();
+						}
+					});
+				} catch (RejectedExecutionException ex) {
+					running.decrementAndGet();
+					onTaskDone();
+					throw ex;
+				}
+			}
+		}
+
+		private void onTaskDone() {
+			if (outstanding.decrementAndGet() == 0 && shutdown)
+				synchronized (terminationLock) {
+					terminationLock.notifyAll();
+				}
+		}
+
+		@Override
+		public void shutdown() {
+			shutdown = true;
+			if (outstanding.get() == 0)
+				synchronized (terminationLock) {
+					terminationLock.notifyAll();
+				}
+		}
+
+		@Nonnull
+		@Override
+		public List<Runnable> shutdownNow() {
+			stopped = true;
+			shutdown();
+			List<Runnable> remaining = new ArrayList<>();
+			Runnable task;
+			while ((task = pending.poll()) != null) {
+				remaining.add(task);
+				onTaskDone();
+			}
+
+			// Interrupt tasks of this group which are already running, leaving other groups in the lane alone.
+			synchronized (workers) {
+				for (Thread worker : workers)
+					worker.interrupt();
+			}
+			return remaining;
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return shutdown;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return shutdown && outstanding.get() == 0;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+				@Override
+				public boolean block() throws InterruptedException {
+					synchronized (terminationLock) {
+						long remaining = deadline - System.nanoTime();
+						if (!isReleasable() && remaining > 0)
+							TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+					}
+					return isReleasable();
+				}
+
+				@Override
+				public boolean isReleasable() {
+					return isTerminated() || deadline - System.nanoTime() <= 0;
+				}
+			};
+			ForkJoinPool.managedBlock(blocker);
+			return isTerminated();
+		}
+
+		@Override
+		protected <T> RunnableFuture<T> newTaskFor(@Nonnull Runnable runnable, T value) {
+			return new ManagedFutureTask<>(Executors.callable(runnable, value));
+		}
+
+		@Override
+		protected <T> RunnableFuture<T> newTaskFor(@Nonnull Callable<T> callable) {
+			return new ManagedFutureTask<>(callable);
+		}
+	}
+
+	/**
+	 * Future task which informs the calling {@link ForkJoinPool} when waiting on the result,
+	 * so that it may compensate for the blocked worker.
+	 *
+	 * @param <T>
+	 * 		Task result type.
+	 */
+	private static class ManagedFutureTask<T> extends FutureTask<T> implements ForkJoinPool.ManagedBlocker {
+		private ManagedFutureTask(@Nonnull Callable<T> callable) {
+			super(callable);
+		}
+
+		@Override
+		public T get() throws InterruptedException, ExecutionException {
+			if (!isDone() && Thread.currentThread() instanceof ForkJoinWorkerThread)
+				ForkJoinPool.managedBlock(this);
+			return super.get();
+		}
+
+		@Override
+		public boolean block() throws InterruptedException {
+			try {
+				super.get();
+			} catch (ExecutionException | CancellationException ignored) {
+				// Handled by the caller of 'get()'
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isReleasable() {
+			return isDone();
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package software.coley.recaf.util.threading;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Snapshot of activity within a {@link ComputeLane}.
+ *
+ * @param lane
+ * 		Lane the metrics are for.
+ * @param queueDepth
+ * 		Number of tasks submitted to the lane which have not yet started.
+ * @param activeTasks
+ * 		Number of tasks currently running in the lane.
+ * @param completedTasks
+ * 		Number of tasks that have finished running in the lane.
+ * @param busyTimeNanos
+ * 		Total time spent running tasks in the lane, in nanoseconds.
+ *
+ * @author Matt Coley
+ */
+public record LaneMetrics(@Nonnull ComputeLane lane, int queueDepth, int activeTasks,
+                          long completedTasks, long busyTimeNanos) {
+}
@@ -9,6 +9,10 @@
 
 /**
  * Wrapper for {@link ExecutorService} with easier inline configuration.
+ * <br>
+ * Daemon fixed and cached pools are not backed by dedicated threads, but are instead task groups within
+ * the shared {@link ComputeScheduler}. Fixed pools run in the {@link ComputeLane#CPU} lane unless another lane
+ * is specified, and cached pools run in the {@link ComputeLane#BLOCKING} lane.
  *
  * @author Matt Coley
  */
@@ -48,9 +52,37 @@ public static ExecutorService newFixedThreadPool(String name, boolean daemon) {
 	 * @return {@link Executors#newFixedThreadPool(int)}.
 	 */
 	public static ExecutorService newFixedThreadPool(String name, int size, boolean daemon) {
+		if (daemon)
+			return newFixedThreadPool(name, size, ComputeLane.CPU);
 		return new ExecutorServiceDelegate(Executors.newFixedThreadPool(Math.min(MAX, size), new FactoryImpl(name, daemon)));
 	}
 
+	/**
+	 * @param name
+	 * 		Task group name.
+	 * @param lane
+	 * 		Shared lane to run tasks in.
+	 *
+	 * @return Task group in the {@link ComputeScheduler#getDefault() shared scheduler}.
+	 */
+	public static ExecutorService newFixedThreadPool(String name, ComputeLane lane) {
+		return newFixedThreadPool(name, MAX, lane);
+	}
+
+	/**
+	 * @param name
+	 * 		Task group name.
+	 * @param size
+	 * 		Maximum number of tasks from the group to run at the same time.
+	 * @param lane
+	 * 		Shared lane to run tasks in.
+	 *
+	 * @return Task group in the {@link ComputeScheduler#getDefault() shared scheduler}.
+	 */
+	public static ExecutorService newFixedThreadPool(String name, int size, ComputeLane lane) {
+		return new ExecutorServiceDelegate(ComputeScheduler.getDefault().newTaskGroup(name, lane, Math.min(MAX, size)));
+	}
+
 	/**
 	 * @param name
 	 * 		Thread pool name.
@@ -70,6 +102,9 @@ public static ExecutorService newCachedThreadPool(String name) {
 	 * @return {@link Executors#newCachedThreadPool()}.
 	 */
 	public static ExecutorService newCachedThreadPool(String name, boolean daemon) {
+		if (daemon)
+			return new ExecutorServiceDelegate(ComputeScheduler.getDefault()
+					.newTaskGroup(name, ComputeLane.BLOCKING, Integer.MAX_VALUE));
 		return new ExecutorServiceDelegate(Executors.newCachedThreadPool(new FactoryImpl(name, daemon)));
 	}
 
@@ -5,6 +5,8 @@
 import org.slf4j.Logger;
 import software.coley.recaf.analytics.logging.Logging;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -23,13 +25,14 @@
 
 /**
  * Common threading utility. Used for <i>"miscellaneous"</i> threads.
- * Larger thread operations should create their own pools using {@link ThreadPoolFactory}.
+ * Larger thread operations should create their own task groups using {@link ThreadPoolFactory}.
  *
  * @author Matt Coley
  */
 public class ThreadUtil {
 	private static final Logger logger = Logging.get(ThreadUtil.class);
 	private static final ScheduledExecutorService scheduledService = newScheduledThreadPool("misc");
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
 
 	/**
 	 * @param action
@@ -39,7 +42,7 @@ public class ThreadUtil {
 	 */
 	@Nonnull
 	public static CompletableFuture<?> run(@Nonnull Runnable action) {
-		return CompletableFuture.runAsync(wrap(action), scheduledService);
+		return CompletableFuture.runAsync(wrap(action), ComputeScheduler.getDefault().executor(ComputeLane.BLOCKING));
 	}
 
 	/**
@@ -52,7 +55,7 @@ public static CompletableFuture<?> run(@Nonnull Runnable action) {
 	 */
 	@Nonnull
 	public static <T> CompletableFuture<T> supply(@Nonnull Supplier<T> action, @Nullable T fallback) {
-		return CompletableFuture.supplyAsync(wrap(action, fallback), scheduledService);
+		return CompletableFuture.supplyAsync(wrap(action, fallback), ComputeScheduler.getDefault().executor(ComputeLane.BLOCKING));
 	}
 
 	/**
@@ -373,6 +376,45 @@ public static <V> CompletableFuture<V> failedFuture(@Nonnull Throwable t) {
 	public static void shutdown() {
 		logger.trace("Shutting misc executors");
 		scheduledService.shutdown();
+		ComputeScheduler.getDefault().shutdown();
+	}
+
+	/**
+	 * @return CPU time used by the current thread in nanoseconds,
+	 * or {@code -1} if the JVM does not support measuring it.
+	 */
+	public static long getCurrentThreadCpuTime() {
+		if (THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled())
+			return THREADS.getCurrentThreadCpuTime();
+		return -1;
+	}
+
+	/**
+	 * @return Total number of bytes allocated by the current thread,
+	 * or {@code -1} if the JVM does not support measuring it.
+	 */
+	public static long getCurrentThreadAllocatedBytes() {
+		if (isAllocationMeasurable())
+			return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+		return -1;
+	}
+
+	/**
+	 * @param thread
+	 * 		Some thread.
+	 *
+	 * @return Total number of bytes allocated by the given thread,
+	 * or {@code -1} if the JVM does not support measuring it.
+	 */
+	public static long getThreadAllocatedBytes(@Nonnull Thread thread) {
+		if (isAllocationMeasurable())
+			return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(thread.threadId());
+		return -1;
+	}
+
+	private static boolean isAllocationMeasurable() {
+		return THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()
+				&& threads.isThreadAllocatedMemoryEnabled();
 	}
 
 	/**
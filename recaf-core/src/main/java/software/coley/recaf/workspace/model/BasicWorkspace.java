@@ -1,11 +1,13 @@
 package software.coley.recaf.workspace.model;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import software.coley.collections.Unchecked;
 import software.coley.recaf.analytics.logging.Logging;
 import software.coley.recaf.behavior.Closing;
 import software.coley.recaf.behavior.PrioritySortable;
+import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.workspace.model.resource.AndroidApiResource;
 import software.coley.recaf.workspace.model.resource.RuntimeWorkspaceResource;
@@ -25,6 +27,7 @@
 public class BasicWorkspace implements Workspace {
 	private static final Logger logger = Logging.get(BasicWorkspace.class);
 	private final List<WorkspaceModificationListener> modificationListeners = new CopyOnWriteArrayList<>();
+	private final WorkspaceClassIndex classIndex = new WorkspaceClassIndex(this);
 	private final WorkspaceResource primary;
 	private final List<WorkspaceResource> supporting = new ArrayList<>();
 	private final List<WorkspaceResource> internal;
@@ -93,6 +96,7 @@ public List<WorkspaceResource> getInternalSupportingResources() {
 	@Override
 	public void addSupportingResource(@Nonnull WorkspaceResource resource) {
 		supporting.add(resource);
+		classIndex.onAddLibrary(this, resource);
 		Unchecked.checkedForEach(modificationListeners, listener -> listener.onAddLibrary(this, resource),
 				(listener, t) -> logger.error("Exception thrown when adding supporting resource", t));
 	}
@@ -101,6 +105,7 @@ public void addSupportingResource(@Nonnull WorkspaceResource resource) {
 	public boolean removeSupportingResource(@Nonnull WorkspaceResource resource) {
 		boolean remove = supporting.remove(resource);
 		if (remove) {
+			classIndex.onRemoveLibrary(this, resource);
 			Unchecked.checkedForEach(modificationListeners, listener -> listener.onRemoveLibrary(this, resource),
 					(listener, t) -> logger.error("Exception thrown when removing supporting resource", t));
 		}
@@ -123,12 +128,53 @@ public void removeWorkspaceModificationListener(@Nonnull WorkspaceModificationLi
 		modificationListeners.remove(listener);
 	}
 
+	@Nullable
+	@Override
+	public ClassPathNode findJvmClass(boolean includeInternal, @Nonnull String name) {
+		if (classIndex.isSupported())
+			return classIndex.findJvmClass(includeInternal, name);
+		return Workspace.super.findJvmClass(includeInternal, name);
+	}
+
+	@Nullable
+	@Override
+	public ClassPathNode findVersionedJvmClass(@Nonnull String name, int version) {
+		if (classIndex.isSupported())
+			return classIndex.findVersionedJvmClass(name, version);
+		return Workspace.super.findVersionedJvmClass(name, version);
+	}
+
+	@Nullable
+	@Override
+	public ClassPathNode findAndroidClass(@Nonnull String name) {
+		if (classIndex.isSupported())
+			return classIndex.findAndroidClass(name);
+		return Workspace.super.findAndroidClass(name);
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getJvmClassNames() {
+		if (classIndex.isSupported())
+			return classIndex.getJvmClassNames();
+		return Workspace.super.getJvmClassNames();
+	}
+
+	@Nonnull
+	@Override
+	public List<ClassPathNode> findJvmClassesInPackage(@Nonnull String packageName, boolean recurse) {
+		if (classIndex.isSupported())
+			return classIndex.findJvmClassesInPackage(packageName, recurse);
+		return Workspace.super.findJvmClassesInPackage(packageName, recurse);
+	}
+
 	/**
 	 * Called by {@link WorkspaceManager} when the workspace is closed.
 	 */
 	@Override
 	public void close() {
 		modificationListeners.clear();
+		classIndex.clear();
 		supporting.forEach(Closing::close);
 		primary.close();
 	}
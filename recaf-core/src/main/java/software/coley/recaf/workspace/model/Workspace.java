@@ -291,6 +291,44 @@ default ClassPathNode findAndroidClass(@Nonnull String name) {
 		return null;
 	}
 
+	/**
+	 * @return Names of all JVM classes in the {@link WorkspaceResource#jvmAllClassBundleStream() JVM bundles} of all
+	 * resources in the workspace <i>(Including embedded resources in other resources)</i>. Names which exist in
+	 * multiple bundles are only listed once. Implementations may return the same unmodifiable list until a class
+	 * name is added or removed, so callers can cache data derived from the names by identity.
+	 */
+	@Nonnull
+	default List<String> getJvmClassNames() {
+		return allResourcesStream(false)
+				.flatMap(WorkspaceResource::jvmAllClassBundleStreamRecursive)
+				.flatMap(bundle -> bundle.keySet().stream())
+				.distinct()
+				.toList();
+	}
+
+	/**
+	 * @param packageName
+	 * 		Internal package name, such as {@code com/example}, or an empty string for the default package.
+	 * @param recurse
+	 * 		Flag to include classes in sub-packages.
+	 *
+	 * @return Paths to <i>the first</i> JVM class of each name in the package, as given by {@link #findJvmClass(boolean, String)}.
+	 * Internal supporting resources are not included.
+	 */
+	@Nonnull
+	default List<ClassPathNode> findJvmClassesInPackage(@Nonnull String packageName, boolean recurse) {
+		String prefix = packageName.isEmpty() ? "" : packageName + '/';
+		List<ClassPathNode> paths = new ArrayList<>();
+		for (String name : getJvmClassNames()) {
+			if (name.startsWith(prefix) && (recurse || name.indexOf('/', prefix.length()) < 0)) {
+				ClassPathNode path = findJvmClass(false, name);
+				if (path != null)
+					paths.add(path);
+			}
+		}
+		return paths;
+	}
+
 	/**
 	 * @param name
 	 * 		Package name.
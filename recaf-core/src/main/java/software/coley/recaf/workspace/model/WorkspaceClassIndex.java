@@ -0,0 +1,446 @@
+package software.coley.recaf.workspace.model;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.ClassInfo;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.path.PathNodes;
+import software.coley.recaf.workspace.model.bundle.Bundle;
+import software.coley.recaf.workspace.model.bundle.BundleListener;
+import software.coley.recaf.workspace.model.bundle.ClassBundle;
+import software.coley.recaf.workspace.model.bundle.VersionedJvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceRemoteVmResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Index of class names to the bundles containing them, for the primary and supporting resources of a workspace
+ * <i>(Including embedded resources in those resources)</i>. The index is kept up to date by listening to changes
+ * in the indexed bundles, and by being notified of supporting resources being added or removed from the workspace.
+ * <br>
+ * Lookups yield the same results as the default {@link Workspace} implementations, which scan all resources.
+ * When a class name exists in multiple bundles, the resource order is used to determine which is <i>"the first"</i>.
+ * Internal resources such as {@link software.coley.recaf.workspace.model.resource.RuntimeWorkspaceResource}
+ * load their classes on demand, and are not indexed, but are still checked after the indexed resources.
+ * <br>
+ * The list of JVM class names is only re-created when a name is added or removed, and is otherwise shared
+ * between callers.
+ *
+ * @author Matt Coley
+ */
+class WorkspaceClassIndex implements WorkspaceModificationListener {
+	private final Map<String, List<Location>> jvmClasses = new ConcurrentHashMap<>();
+	private final Map<String, List<Location>> androidClasses = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> jvmPackages = new ConcurrentHashMap<>();
+	private final AtomicReference<NamesSnapshot> jvmNames = new AtomicReference<>();
+	private final AtomicInteger jvmNamesGeneration = new AtomicInteger();
+	private final Map<Bundle<?>, BundleListener<?>> bundleListeners = Collections.synchronizedMap(new IdentityHashMap<>());
+	private final Workspace workspace;
+	private volatile boolean initialized;
+	private volatile int unsupportedResources;
+
+	/**
+	 * @param workspace
+	 * 		Workspace to index.
+	 */
+	WorkspaceClassIndex(@Nonnull Workspace workspace) {
+		this.workspace = workspace;
+	}
+
+	/**
+	 * Resources which can have bundles added to them at any time, such as {@link WorkspaceRemoteVmResource},
+	 * cannot be tracked by the index. When they are in the workspace, lookups should fall back to scanning.
+	 *
+	 * @return {@code true} when the index can be used for lookups.
+	 */
+	boolean isSupported() {
+		ensureInitialized();
+		return unsupportedResources == 0;
+	}
+
+	/**
+	 * @param includeInternal
+	 * 		Flag to include internal supporting resources.
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return Path to <i>the first</i> JVM class matching the given name.
+	 *
+	 * @see Workspace#findJvmClass(boolean, String)
+	 */
+	@Nullable
+	ClassPathNode findJvmClass(boolean includeInternal, @Nonnull String name) {
+		Location location = first(candidates(jvmClasses, name), WorkspaceResource::jvmAllClassBundleStream);
+		if (location != null)
+			return location.toPath(workspace, name);
+		if (includeInternal) {
+			for (WorkspaceResource resource : workspace.getInternalSupportingResources()) {
+				ClassBundle<?> bundle = resource.jvmAllClassBundleStream()
+						.filter(b -> b.get(name) != null)
+						.findFirst().orElse(null);
+				if (bundle != null)
+					return new Location(resource, bundle).toPath(workspace, name);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 * @param version
+	 * 		Version to look for.
+	 *
+	 * @return Path to <i>the highest</i> versioned JVM class matching the given name, supporting the given version.
+	 *
+	 * @see Workspace#findVersionedJvmClass(String, int)
+	 */
+	@Nullable
+	ClassPathNode findVersionedJvmClass(@Nonnull String name, int version) {
+		List<Location> candidates = candidates(jvmClasses, name);
+		candidates.removeIf(l -> !(l.bundle instanceof VersionedJvmClassBundle versioned) || versioned.version() > version);
+		if (candidates.isEmpty())
+			return null;
+
+		// Of the candidates in the first resource containing the class, use the highest version.
+		WorkspaceResource resource = first(candidates, WorkspaceResource::versionedJvmClassBundleStream).resource;
+		Location highest = null;
+		for (Location candidate : candidates)
+			if (candidate.resource == resource && (highest == null || version(candidate) > version(highest)))
+				highest = candidate;
+		return highest.toPath(workspace, name);
+	}
+
+	/**
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return Path to <i>the first</i> Android class matching the given name.
+	 *
+	 * @see Workspace#findAndroidClass(String)
+	 */
+	@Nullable
+	ClassPathNode findAndroidClass(@Nonnull String name) {
+		Location location = first(candidates(androidClasses, name), WorkspaceResource::androidClassBundleStream);
+		return location == null ? null : location.toPath(workspace, name);
+	}
+
+	/**
+	 * @return Names of all indexed JVM classes.
+	 *
+	 * @see Workspace#getJvmClassNames()
+	 */
+	@Nonnull
+	List<String> getJvmClassNames() {
+		ensureInitialized();
+
+		// The snapshot is only valid if it was built in the current generation of the names.
+		int generation = jvmNamesGeneration.get();
+		NamesSnapshot snapshot = jvmNames.get();
+		if (snapshot != null && snapshot.generation() == generation)
+			return snapshot.names();
+
+		// If names are added or removed while building or after recording the list, the generation
+		// will not match anymore, so the list will not be used by later calls.
+		List<String> names = List.copyOf(jvmClasses.keySet());
+		jvmNames.compareAndSet(snapshot, new NamesSnapshot(generation, names));
+		return names;
+	}
+
+	/**
+	 * @param packageName
+	 * 		Internal package name, or an empty string for the default package.
+	 * @param recurse
+	 * 		Flag to include classes in sub-packages.
+	 *
+	 * @return Paths to <i>the first</i> JVM class of each name in the package.
+	 *
+	 * @see Workspace#findJvmClassesInPackage(String, boolean)
+	 */
+	@Nonnull
+	List<ClassPathNode> findJvmClassesInPackage(@Nonnull String packageName, boolean recurse) {
+		ensureInitialized();
+		List<ClassPathNode> paths = new ArrayList<>();
+		if (recurse) {
+			String prefix = packageName.isEmpty() ? "" : packageName + '/';
+			for (Map.Entry<String, Set<String>> entry : jvmPackages.entrySet()) {
+				String entryPackage = entry.getKey();
+				if (packageName.isEmpty() || entryPackage.equals(packageName) || entryPackage.startsWith(prefix))
+					addJvmPaths(paths, entry.getValue());
+			}
+		} else {
+			Set<String> names = jvmPackages.get(packageName);
+			if (names != null)
+				addJvmPaths(paths, names);
+		}
+		return paths;
+	}
+
+	@Override
+	public void onAddLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+		if (initialized)
+			synchronized (this) {
+				index(library);
+			}
+	}
+
+	@Override
+	public void onRemoveLibrary(@Nonnull Workspace workspace, @Nonnull WorkspaceResource library) {
+		if (initialized)
+			synchronized (this) {
+				unindex(library);
+			}
+	}
+
+	/**
+	 * Removes all listeners the index has registered on bundles in the workspace.
+	 */
+	synchronized void clear() {
+		if (!initialized)
+			return;
+		workspace.allResourcesStream(false).forEach(this::unindex);
+		jvmClasses.clear();
+		jvmPackages.clear();
+		androidClasses.clear();
+		jvmNames.set(null);
+		jvmNamesGeneration.incrementAndGet();
+		bundleListeners.clear();
+		initialized = false;
+	}
+
+	private void ensureInitialized() {
+		if (!initialized)
+			synchronized (this) {
+				if (!initialized) {
+					workspace.allResourcesStream(false).forEach(this::index);
+					initialized = true;
+				}
+			}
+	}
+
+	private void index(@Nonnull WorkspaceResource resource) {
+		if (resource instanceof WorkspaceRemoteVmResource)
+			unsupportedResources++;
+		resource.jvmAllClassBundleStream().forEach(bundle -> indexBundle(jvmClasses, resource, bundle));
+		resource.androidClassBundleStream().forEach(bundle -> indexBundle(androidClasses, resource, bundle));
+		resource.getEmbeddedResources().values().forEach(this::index);
+	}
+
+	private void unindex(@Nonnull WorkspaceResource resource) {
+		if (resource instanceof WorkspaceRemoteVmResource)
+			unsupportedResources--;
+		resource.jvmAllClassBundleStream().forEach(bundle -> unindexBundle(jvmClasses, bundle));
+		resource.androidClassBundleStream().forEach(bundle -> unindexBundle(androidClasses, bundle));
+		resource.getEmbeddedResources().values().forEach(this::unindex);
+	}
+
+	private <I extends ClassInfo> void indexBundle(@Nonnull Map<String, List<Location>> index,
+	                                               @Nonnull WorkspaceResource resource,
+	                                               @Nonnull ClassBundle<I> bundle) {
+		if (bundleListeners.containsKey(bundle))
+			return;
+		Location location = new Location(resource, bundle);
+		BundleListener<I> listener = new BundleListener<>() {
+			@Override
+			public void onNewItem(@Nonnull String key, @Nonnull I value) {
+				add(index, key, location);
+			}
+
+			@Override
+			public void onUpdateItem(@Nonnull String key, @Nonnull I oldValue, @Nonnull I newValue) {
+				// Names of items do not change on update
+			}
+
+			@Override
+			public void onRemoveItem(@Nonnull String key, @Nonnull I value) {
+				remove(index, key, bundle);
+			}
+		};
+		bundleListeners.put(bundle, listener);
+		bundle.addBundleListener(listener);
+		for (String key : bundle.keySet())
+			add(index, key, location);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void unindexBundle(@Nonnull Map<String, List<Location>> index, @Nonnull ClassBundle<?> bundle) {
+		BundleListener listener = bundleListeners.remove(bundle);
+		if (listener == null)
+			return;
+		bundle.removeBundleListener(listener);
+		for (String key : bundle.keySet())
+			remove(index, key, bundle);
+	}
+
+	/**
+	 * @param index
+	 * 		Index to pull from.
+	 * @param name
+	 * 		Class name.
+	 *
+	 * @return Locations of bundles which currently contain the given class.
+	 */
+	@Nonnull
+	private static List<Location> candidates(@Nonnull Map<String, List<Location>> index, @Nonnull String name) {
+		List<Location> locations = index.get(name);
+		if (locations == null)
+			return new ArrayList<>(0);
+		List<Location> candidates = new ArrayList<>(locations.size());
+		for (Location location : locations)
+			if (location.bundle.get(name) != null)
+				candidates.add(location);
+		return candidates;
+	}
+
+	/**
+	 * @param candidates
+	 * 		Locations to pick from.
+	 * @param bundleLister
+	 * 		Lists the bundles of a resource in the order they are checked in.
+	 *
+	 * @return First location of the candidates, following the resource order of the workspace.
+	 */
+	@Nullable
+	private Location first(@Nonnull List<Location> candidates,
+	                       @Nonnull Function<WorkspaceResource, Stream<? extends ClassBundle<?>>> bundleLister) {
+		if (candidates.size() <= 1)
+			return candidates.isEmpty() ? null : candidates.getFirst();
+
+		// Multiple bundles have the class, so we need to follow the same order as if we were scanning the workspace.
+		Queue<WorkspaceResource> resourceQueue = new ArrayDeque<>(workspace.getAllResources(false));
+		while (!resourceQueue.isEmpty()) {
+			WorkspaceResource resource = resourceQueue.remove();
+			for (ClassBundle<?> bundle : bundleLister.apply(resource).toList())
+				for (Location candidate : candidates)
+					if (candidate.bundle == bundle)
+						return candidate;
+			resourceQueue.addAll(resource.getEmbeddedResources().values());
+		}
+		return candidates.getFirst();
+	}
+
+	private void add(@Nonnull Map<String, List<Location>> index, @Nonnull String key, @Nonnull Location location) {
+		index.compute(key, (k, locations) -> {
+			if (locations == null) {
+				onNameAdded(index, key);
+				return List.of(location);
+			}
+			for (Location existing : locations)
+				if (existing.bundle == location.bundle)
+					return locations;
+			List<Location> updated = new ArrayList<>(locations.size() + 1);
+			updated.addAll(locations);
+			updated.add(location);
+			return Collections.unmodifiableList(updated);
+		});
+	}
+
+	private void remove(@Nonnull Map<String, List<Location>> index, @Nonnull String key, @Nonnull Bundle<?> bundle) {
+		index.computeIfPresent(key, (k, locations) -> {
+			List<Location> updated = new ArrayList<>(locations.size());
+			for (Location existing : locations)
+				if (existing.bundle != bundle)
+					updated.add(existing);
+			if (updated.isEmpty()) {
+				onNameRemoved(index, key);
+				return null;
+			}
+			return Collections.unmodifiableList(updated);
+		});
+	}
+
+	/**
+	 * @param index
+	 * 		Index which had a name added.
+	 * @param name
+	 * 		Added name.
+	 */
+	private void onNameAdded(@Nonnull Map<String, List<Location>> index, @Nonnull String name) {
+		if (index == jvmClasses) {
+			jvmPackages.computeIfAbsent(packageOf(name), p -> ConcurrentHashMap.newKeySet()).add(name);
+			jvmNamesGeneration.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @param index
+	 * 		Index which had a name removed.
+	 * @param name
+	 * 		Removed name.
+	 */
+	private void onNameRemoved(@Nonnull Map<String, List<Location>> index, @Nonnull String name) {
+		if (index == jvmClasses) {
+			jvmPackages.computeIfPresent(packageOf(name), (p, names) -> {
+				names.remove(name);
+				return names.isEmpty() ? null : names;
+			});
+			jvmNamesGeneration.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @param paths
+	 * 		List to add to.
+	 * @param names
+	 * 		Names of JVM classes to add the paths of.
+	 */
+	private void addJvmPaths(@Nonnull List<ClassPathNode> paths, @Nonnull Collection<String> names) {
+		for (String name : names) {
+			Location location = first(candidates(jvmClasses, name), WorkspaceResource::jvmAllClassBundleStream);
+			ClassPathNode path = location == null ? null : location.toPath(workspace, name);
+			if (path != null)
+				paths.add(path);
+		}
+	}
+
+	@Nonnull
+	private static String packageOf(@Nonnull String name) {
+		int split = name.lastIndexOf('/');
+		return split < 0 ? "" : name.substring(0, split);
+	}
+
+	private static int version(@Nonnull Location location) {
+		return ((VersionedJvmClassBundle) location.bundle).version();
+	}
+
+	/**
+	 * @param generation
+	 * 		Generation of the names the list was built in.
+	 * @param names
+	 * 		Names of the index.
+	 */
+	private record NamesSnapshot(int generation, @Nonnull List<String> names) {}
+
+	/**
+	 * Bundle and the resource holding it. Compared by identity, since bundle equality is based on their contents.
+	 */
+	private static final class Location {
+		private final WorkspaceResource resource;
+		private final ClassBundle<?> bundle;
+
+		private Location(@Nonnull WorkspaceResource resource, @Nonnull ClassBundle<?> bundle) {
+			this.resource = resource;
+			this.bundle = bundle;
+		}
+
+		@Nullable
+		private ClassPathNode toPath(@Nonnull Workspace workspace, @Nonnull String name) {
+			ClassInfo classInfo = bundle.get(name);
+			return classInfo == null ? null : PathNodes.classPath(workspace, resource, bundle, classInfo);
+		}
+	}
+}
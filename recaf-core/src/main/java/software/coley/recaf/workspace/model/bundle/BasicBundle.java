@@ -10,15 +10,18 @@
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.Stack;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
 
 /**
  * Basic bundle implementation.
@@ -30,11 +33,12 @@
  */
 public class BasicBundle<I extends Info> implements Bundle<I> {
 	private static final Logger logger = Logging.get(BasicBundle.class);
-	private final Map<String, Stack<I>> history = new ConcurrentHashMap<>();
+	private final Map<String, ItemHistory<I>> history = new ConcurrentHashMap<>();
 	private final List<BundleListener<I>> listeners = new CopyOnWriteArrayList<>();
 	private final Map<String, I> backing = new ConcurrentHashMap<>();
 	private final Set<String> initialKeys = ConcurrentHashMap.newKeySet();
 	private final NavigableSet<String> removed = Collections.synchronizedNavigableSet(new TreeSet<>());
+	private volatile HistoryRetention historyRetention = new HistoryRetention();
 	private int hash;
 
 	/**
@@ -44,9 +48,29 @@
 	 * 		Origin item.
 	 */
 	private void initHistory(@Nonnull I info) {
-		Stack<I> itemHistory = new Stack<>();
-		itemHistory.push(info);
-		history.put(info.getName(), itemHistory);
+		ItemHistory<I> replaced = history.put(info.getName(), new ItemHistory<>(historyRetention, info));
+		if (replaced != null)
+			replaced.release();
+	}
+
+	/**
+	 * @return Limits on the intermediate states retained in the history of items in this bundle.
+	 */
+	@Nonnull
+	public HistoryRetention getHistoryRetention() {
+		return historyRetention;
+	}
+
+	/**
+	 * Moves the history of items in this bundle over to the given retention, so that its limits are shared with
+	 * other bundles using the same retention.
+	 *
+	 * @param historyRetention
+	 * 		Limits on the intermediate states retained in the history of items in this bundle.
+	 */
+	public void setHistoryRetention(@Nonnull HistoryRetention historyRetention) {
+		this.historyRetention = historyRetention;
+		history.values().forEach(itemHistory -> itemHistory.moveTo(historyRetention));
 	}
 
 	/**
@@ -87,18 +111,33 @@ public I put(@Nonnull I info) {
 
 	/**
 	 * History contains a stack of prior states of items.
-	 * If an item has not been modified there is no entry in this map.
+	 * Intermediate states may be trimmed according to the {@link #getHistoryRetention() history retention}.
 	 *
-	 * @return Map of historical states of items within this bundle.
+	 * @return Copy of the historical states of items within this bundle.
 	 */
 	@Nonnull
 	protected Map<String, Stack<I>> getHistory() {
-		return history;
+		Map<String, Stack<I>> copy = new TreeMap<>();
+		history.forEach((key, itemHistory) -> copy.put(key, itemHistory.toStack()));
+		return copy;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The returned stack is a copy. Intermediate states may be reconstructed, in which case they are
+	 * equal to, but not the same instances as, the items originally put into the bundle.
+	 */
 	@Override
 	public Stack<I> getHistory(@Nonnull String key) {
-		return history.get(key);
+		ItemHistory<I> itemHistory = history.get(key);
+		return itemHistory == null ? null : itemHistory.toStack();
+	}
+
+	@Override
+	public I getInitial(@Nonnull String key) {
+		ItemHistory<I> itemHistory = history.get(key);
+		return itemHistory == null ? null : itemHistory.initial();
 	}
 
 	@Nonnull
@@ -121,14 +160,14 @@ public Set<String> getRemovedKeys() {
 	@Override
 	public boolean hasHistory(@Nonnull String key) {
 		// History implies there are past entries for the current value, hence more than one entry.
-		Stack<I> stack = history.get(key);
-		return stack != null && stack.size() > 1;
+		ItemHistory<I> itemHistory = history.get(key);
+		return itemHistory != null && itemHistory.size() > 1;
 	}
 
 	@Override
 	public void incrementHistory(@Nonnull I info) {
 		String key = info.getName();
-		Stack<I> itemHistory = getHistory(key);
+		ItemHistory<I> itemHistory = history.get(key);
 		if (itemHistory == null)
 			throw new IllegalStateException("Failed history increment, no prior history to build on for: " + key);
 		itemHistory.push(info);
@@ -139,21 +178,14 @@ public void incrementHistory(@Nonnull I info) {
 
 	@Override
 	public void decrementHistory(@Nonnull String key) {
-		Stack<I> itemHistory = getHistory(key);
+		ItemHistory<I> itemHistory = history.get(key);
 		if (itemHistory == null) {
 			throw new IllegalStateException("Failed history decrement, no prior history to read from for: " + key);
 		}
-		int size = itemHistory.size();
 
-		// Update map with prior entry
+		// Update map with prior entry, popping the current value off the history if there is a prior value.
 		I currentItem = get(key);
-		I priorItem;
-		if (size > 1) {
-			itemHistory.pop(); // Pop current value off stack.
-			priorItem = itemHistory.peek(); // Yield prior value.
-		} else {
-			priorItem = itemHistory.peek();
-		}
+		I priorItem = itemHistory.pop();
 		backing.put(key, priorItem);
 
 		// Clear cached hash
@@ -164,6 +196,27 @@ public void decrementHistory(@Nonnull String key) {
 				(listener, t) -> logger.error("Exception thrown when decrementing bundle history", t));
 	}
 
+	/**
+	 * Replaces all items, including their historical states, with equivalent items, without notifying listeners.
+	 * History is not incremented since the items are expected to represent the same content. Since nothing is
+	 * told of the replacement, this should be done before anything tracks the items by instance, for instance
+	 * by a workspace processor.
+	 * Items appearing in multiple places <i>(such as the current item and the top of its history)</i>
+	 * are only mapped once, so they remain the same instance after replacement.
+	 *
+	 * @param mapper
+	 * 		Mapping of existing items to equivalent replacement items.
+	 */
+	public void replaceEquivalentItems(@Nonnull UnaryOperator<I> mapper) {
+		Map<I, I> mapped = new IdentityHashMap<>();
+		UnaryOperator<I> mapOnce = item -> mapped.computeIfAbsent(item, mapper);
+		backing.replaceAll((key, item) -> mapOnce.apply(item));
+		history.values().forEach(itemHistory -> itemHistory.replaceAll(mapOnce));
+
+		// Clear cached hash
+		resetHash();
+	}
+
 	@Override
 	public void addBundleListener(@Nonnull BundleListener<I> listener) {
 		PrioritySortable.add(listeners, listener);
@@ -243,7 +296,9 @@ public I remove(@Nonnull Object key) {
 				removed.add(keyStr);
 
 			// Update history
-			history.remove(key);
+			ItemHistory<I> itemHistory = history.remove(key);
+			if (itemHistory != null)
+				itemHistory.release();
 
 			// Clear cached hash
 			resetHash();
@@ -264,6 +319,7 @@ public void putAll(@Nonnull Map<? extends String, ? extends I> map) {
 	public void clear() {
 		removed.addAll(initialKeys);
 		backing.clear();
+		history.values().forEach(ItemHistory::release);
 		history.clear();
 		resetHash();
 	}
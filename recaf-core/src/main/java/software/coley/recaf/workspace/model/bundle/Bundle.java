@@ -28,6 +28,21 @@
 	@Nullable
 	Stack<I> getHistory(String key);
 
+	/**
+	 * Original state for the given item key. Unlike {@link #getHistory(String)} this does not need to
+	 * copy or reconstruct the intermediate states of the item.
+	 *
+	 * @param key
+	 * 		Item key.
+	 *
+	 * @return Original state of item, or {@code null} if there is no history for the key.
+	 */
+	@Nullable
+	default I getInitial(String key) {
+		Stack<I> history = getHistory(key);
+		return history == null || history.isEmpty() ? null : history.firstElement();
+	}
+
 	/**
 	 * @return Keys of items that have been modified <i>(Containing any history values)</i>.
 	 */
@@ -0,0 +1,125 @@
+package software.coley.recaf.workspace.model.bundle;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits on how much item history {@link BasicBundle} instances retain.
+ * <br>
+ * The original state of an item and its current state are always retained, so that dirty tracking and
+ * patch generation continue to work. The limits only apply to the intermediate states between the two.
+ * When the memory budget is exceeded, the oldest intermediate states across all items sharing this
+ * retention are evicted first.
+ * <br>
+ * Each bundle starts with its own retention. Bundles of the current workspace share the retention of the
+ * workspace manager, so that limits apply to the workspace as a whole.
+ *
+ * @author Matt Coley
+ * @see BasicBundle#setHistoryRetention(HistoryRetention)
+ */
+public class HistoryRetention {
+	/** Default maximum number of intermediate states to retain per item. */
+	public static final int DEFAULT_MAX_DEPTH = 100;
+	/** Default maximum number of bytes to use for intermediate states. */
+	public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+	private final NavigableMap<Long, ItemHistory<?>> revisions = new ConcurrentSkipListMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong usage = new AtomicLong();
+	private volatile int maxDepth = DEFAULT_MAX_DEPTH;
+	private volatile long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+	/**
+	 * @return Maximum number of intermediate states to retain per item.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @param maxDepth
+	 * 		Maximum number of intermediate states to retain per item.
+	 * 		Negative values are treated as zero.
+	 */
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = Math.max(0, maxDepth);
+	}
+
+	/**
+	 * @return Maximum number of bytes to use for intermediate states, across all items sharing this retention.
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Changes the memory budget. If the current usage exceeds the new budget, the oldest intermediate states
+	 * are evicted immediately.
+	 *
+	 * @param memoryBudget
+	 * 		Maximum number of bytes to use for intermediate states, across all items sharing this retention.
+	 * 		Negative values are treated as zero.
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = Math.max(0, memoryBudget);
+		evictOverBudget();
+	}
+
+	/**
+	 * @return Estimated number of bytes currently used for intermediate states, across all items sharing this retention.
+	 */
+	public long getUsage() {
+		return usage.get();
+	}
+
+	/**
+	 * @return {@code true} when the current usage exceeds the memory budget.
+	 */
+	boolean isOverBudget() {
+		return usage.get() > memoryBudget;
+	}
+
+	/**
+	 * @param delta
+	 * 		Change in bytes used for intermediate states.
+	 */
+	void recordUsage(long delta) {
+		usage.addAndGet(delta);
+	}
+
+	/**
+	 * @param owner
+	 * 		History holding a new intermediate state.
+	 *
+	 * @return Sequence number of the new intermediate state.
+	 */
+	long track(@Nonnull ItemHistory<?> owner) {
+		long id = sequence.incrementAndGet();
+		revisions.put(id, owner);
+		return id;
+	}
+
+	/**
+	 * @param id
+	 * 		Sequence number of an intermediate state which is no longer held.
+	 */
+	void untrack(long id) {
+		revisions.remove(id);
+	}
+
+	/**
+	 * Evicts the oldest intermediate states, regardless of which item they belong to, until the current
+	 * usage fits within the memory budget.
+	 */
+	void evictOverBudget() {
+		while (isOverBudget()) {
+			Map.Entry<Long, ItemHistory<?>> oldest = revisions.pollFirstEntry();
+			if (oldest == null)
+				break;
+			oldest.getValue().evict(this, oldest.getKey());
+		}
+	}
+}
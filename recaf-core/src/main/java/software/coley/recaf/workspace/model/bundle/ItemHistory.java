@@ -0,0 +1,378 @@
+package software.coley.recaf.workspace.model.bundle;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import software.coley.recaf.info.BasicFileInfo;
+import software.coley.recaf.info.BasicJvmClassInfo;
+import software.coley.recaf.info.Info;
+import software.coley.recaf.info.TextFileInfo;
+import software.coley.recaf.info.builder.FileInfoBuilder;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.properties.BasicPropertyContainer;
+import software.coley.recaf.info.properties.Property;
+import software.coley.recaf.util.ByteDeltaUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Stack;
+import java.util.function.UnaryOperator;
+
+/**
+ * History of a single bundle item.
+ * <br>
+ * The original and current states of the item are held as-is. Intermediate states are held as reverse deltas
+ * against the next newer state where the item content supports it, so that repeated small edits of large items
+ * do not retain full copies of each revision. Intermediate states are trimmed oldest-first according to
+ * the {@link HistoryRetention} of the history, which is safe since each delta only depends on newer states. The depth
+ * limit applies to each item on its own, while the memory budget evicts the oldest intermediate states across all
+ * items sharing the retention.
+ *
+ * @param <I>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+class ItemHistory<I extends Info> {
+	private final List<Revision<I>> revisions = new ArrayList<>();
+	private HistoryRetention retention;
+	private I initial;
+	private I current;
+	private boolean modified;
+	private long usage;
+
+	/**
+	 * @param retention
+	 * 		Limits on the intermediate states to retain.
+	 * @param initial
+	 * 		Original state of the item.
+	 */
+	ItemHistory(@Nonnull HistoryRetention retention, @Nonnull I initial) {
+		this.retention = retention;
+		this.initial = initial;
+		this.current = initial;
+	}
+
+	/**
+	 * @return Number of states in the history, including the original and current states.
+	 */
+	synchronized int size() {
+		return modified ? revisions.size() + 2 : 1;
+	}
+
+	/**
+	 * @return Original state of the item.
+	 */
+	@Nonnull
+	synchronized I initial() {
+		return initial;
+	}
+
+	/**
+	 * @return Current state of the item.
+	 */
+	@Nonnull
+	synchronized I peek() {
+		return current;
+	}
+
+	/**
+	 * @param item
+	 * 		New current state of the item.
+	 */
+	void push(@Nonnull I item) {
+		HistoryRetention pushRetention;
+		synchronized (this) {
+			pushRetention = retention;
+			if (modified) {
+				Revision<I> revision = encode(current, item, pushRetention.track(this));
+				revisions.add(revision);
+				record(revision.size());
+			}
+			current = item;
+			modified = true;
+			trim();
+		}
+
+		// Must not hold the lock of this history, as the oldest states may belong to other histories.
+		pushRetention.evictOverBudget();
+	}
+
+	/**
+	 * Moves the intermediate states of this history over to another retention.
+	 * The states keep their relative order, but are considered newer than the states already in the target.
+	 *
+	 * @param target
+	 * 		New limits on the intermediate states to retain.
+	 */
+	void moveTo(@Nonnull HistoryRetention target) {
+		synchronized (this) {
+			if (retention == target)
+				return;
+			for (Revision<I> revision : revisions)
+				retention.untrack(revision.sequence());
+			retention.recordUsage(-usage);
+			retention = target;
+			revisions.replaceAll(revision -> revision.withSequence(target.track(this)));
+			target.recordUsage(usage);
+			trim();
+		}
+
+		// Must not hold the lock of this history, as the oldest states may belong to other histories.
+		target.evictOverBudget();
+	}
+
+	/**
+	 * Drops the current state, restoring the prior state. If there is no prior state, nothing changes.
+	 *
+	 * @return New current state of the item.
+	 */
+	@Nonnull
+	synchronized I pop() {
+		if (!modified)
+			return current;
+		if (revisions.isEmpty()) {
+			current = initial;
+			modified = false;
+		} else {
+			Revision<I> revision = revisions.removeLast();
+			drop(revision);
+			current = revision.decode(current);
+		}
+		return current;
+	}
+
+	/**
+	 * @return Copy of all states in the history, oldest at the bottom of the stack.
+	 * Intermediate states held as deltas are reconstructed as new instances.
+	 */
+	@Nonnull
+	synchronized Stack<I> toStack() {
+		Stack<I> stack = new Stack<>();
+		stack.push(initial);
+		if (!modified)
+			return stack;
+		List<I> intermediates = new ArrayList<>(revisions.size());
+		I newer = current;
+		for (int i = revisions.size() - 1; i >= 0; i--) {
+			newer = revisions.get(i).decode(newer);
+			intermediates.add(newer);
+		}
+		for (int i = intermediates.size() - 1; i >= 0; i--)
+			stack.push(intermediates.get(i));
+		stack.push(current);
+		return stack;
+	}
+
+	/**
+	 * Replaces all states held as-is with equivalent items.
+	 *
+	 * @param mapper
+	 * 		Mapping of existing items to equivalent replacement items.
+	 */
+	synchronized void replaceAll(@Nonnull UnaryOperator<I> mapper) {
+		initial = mapper.apply(initial);
+		current = mapper.apply(current);
+		revisions.replaceAll(revision -> revision instanceof Full<I> full ? new Full<>(mapper.apply(full.item()), full.sequence()) : revision);
+	}
+
+	/**
+	 * Releases the memory accounted to this history.
+	 */
+	synchronized void release() {
+		for (Revision<I> revision : revisions)
+			retention.untrack(revision.sequence());
+		record(-usage);
+		revisions.clear();
+	}
+
+	/**
+	 * Drops the oldest intermediate state, if it is the given revision.
+	 *
+	 * @param from
+	 * 		Retention the revision was tracked by.
+	 * @param sequence
+	 * 		Sequence number of the revision to drop.
+	 *
+	 * @see HistoryRetention#evictOverBudget()
+	 */
+	synchronized void evict(@Nonnull HistoryRetention from, long sequence) {
+		// The history may have moved to another retention since the revision was polled.
+		if (retention == from && !revisions.isEmpty() && revisions.getFirst().sequence() == sequence)
+			record(-revisions.removeFirst().size());
+	}
+
+	/**
+	 * Drops the oldest intermediate states until the history fits within the {@link HistoryRetention} depth limit.
+	 */
+	private void trim() {
+		int maxDepth = retention.getMaxDepth();
+		while (revisions.size() > maxDepth)
+			drop(revisions.removeFirst());
+	}
+
+	private void drop(@Nonnull Revision<I> revision) {
+		retention.untrack(revision.sequence());
+		record(-revision.size());
+	}
+
+	private void record(long size) {
+		usage += size;
+		retention.recordUsage(size);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof ItemHistory<?> other))
+			return false;
+		return toStack().equals(other.toStack());
+	}
+
+	@Override
+	public synchronized int hashCode() {
+		return Objects.hash(initial, current, size());
+	}
+
+	@Nonnull
+	private static <I extends Info> Revision<I> encode(@Nonnull I older, @Nonnull I newer, long sequence) {
+		if (older.getClass() == newer.getClass()) {
+			byte[] olderContent = content(older);
+			byte[] newerContent = olderContent == null ? null : content(newer);
+			if (newerContent != null)
+				return new Delta<>(ByteDeltaUtil.encode(newerContent, olderContent), older.getProperties(), sequence);
+		}
+		return new Full<>(older, sequence);
+	}
+
+	/**
+	 * @param info
+	 * 		Some item.
+	 *
+	 * @return Content of the item, if it is a type which can be rebuilt from its content alone.
+	 */
+	@Nullable
+	private static byte[] content(@Nonnull Info info) {
+		if (info instanceof BasicJvmClassInfo classInfo)
+			return classInfo.getBytecode();
+		if (info.getClass() == BasicFileInfo.class || info instanceof TextFileInfo)
+			return info.asFile().getRawContent();
+		return null;
+	}
+
+	/**
+	 * Prior state of an item.
+	 *
+	 * @param <I>
+	 * 		Item type.
+	 */
+	private sealed interface Revision<I extends Info> {
+		/**
+		 * @param newer
+		 * 		The next newer state of the item.
+		 *
+		 * @return State of the item this revision represents.
+		 */
+		@Nonnull
+		I decode(@Nonnull I newer);
+
+		/**
+		 * @return Estimated number of bytes used by this revision.
+		 */
+		long size();
+
+		/**
+		 * @return Sequence number of this revision, ordering it against revisions of all items.
+		 */
+		long sequence();
+
+		/**
+		 * @param sequence
+		 * 		New sequence number.
+		 *
+		 * @return Copy of this revision with the given sequence number.
+		 */
+		@Nonnull
+		Revision<I> withSequence(long sequence);
+	}
+
+	/**
+	 * Prior state held as-is.
+	 *
+	 * @param item
+	 * 		Prior state.
+	 * @param sequence
+	 * 		Sequence number of the revision.
+	 * @param <I>
+	 * 		Item type.
+	 */
+	private record Full<I extends Info>(@Nonnull I item, long sequence) implements Revision<I> {
+		@Nonnull
+		@Override
+		public I decode(@Nonnull I newer) {
+			return item;
+		}
+
+		@Override
+		public long size() {
+			byte[] content = content(item);
+			return content == null ? 0 : content.length;
+		}
+
+		@Nonnull
+		@Override
+		public Revision<I> withSequence(long sequence) {
+			return new Full<>(item, sequence);
+		}
+	}
+
+	/**
+	 * Prior state held as a delta against the next newer state.
+	 *
+	 * @param delta
+	 * 		Delta which produces the prior content from the newer content.
+	 * @param properties
+	 * 		Properties of the prior state.
+	 * @param sequence
+	 * 		Sequence number of the revision.
+	 * @param <I>
+	 * 		Item type.
+	 */
+	private record Delta<I extends Info>(@Nonnull byte[] delta,
+	                                     @Nonnull Map<String, Property<?>> properties,
+	                                     long sequence) implements Revision<I> {
+		private Delta {
+			properties = Map.copyOf(properties);
+		}
+
+		@Nonnull
+		@Override
+		@SuppressWarnings("unchecked")
+		public I decode(@Nonnull I newer) {
+			byte[] content = ByteDeltaUtil.apply(Objects.requireNonNull(content(newer)), delta);
+			BasicPropertyContainer container = new BasicPropertyContainer(properties);
+			if (newer instanceof BasicJvmClassInfo classInfo)
+				return (I) new JvmClassInfoBuilder(content)
+						.withBytecodeStorage(classInfo.getBytecodeStorage())
+						.withPropertyContainer(container)
+						.build();
+			return (I) FileInfoBuilder.forFile(newer.asFile())
+					.withRawContent(content)
+					.withProperties(container)
+					.build();
+		}
+
+		@Override
+		public long size() {
+			return delta.length;
+		}
+
+		@Nonnull
+		@Override
+		public Revision<I> withSequence(long sequence) {
+			return new Delta<>(delta, properties, sequence);
+		}
+	}
+}
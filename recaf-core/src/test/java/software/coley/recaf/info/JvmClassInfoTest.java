@@ -2,8 +2,12 @@
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.objectweb.asm.Opcodes;
 import software.coley.cafedude.classfile.VersionConstants;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.info.storage.BytecodeStorageType;
 import software.coley.recaf.test.TestClassUtils;
 import software.coley.recaf.test.dummy.AccessibleFields;
 import software.coley.recaf.util.ByteHeaderUtil;
@@ -103,4 +107,18 @@ void toBuilder() {
 		assertNotEquals(accessibleFields, builderModifiedCopy,
 				"Direct copy via builder should have same class equality");
 	}
-}
\ No newline at end of file
+
+	@ParameterizedTest
+	@EnumSource(BytecodeStorageType.class)
+	void bytecodeStorage(BytecodeStorageType type) {
+		JvmClassInfo stored = new JvmClassInfoBuilder(accessibleFields)
+				.withBytecodeStorage(type.newStorage())
+				.build();
+		assertArrayEquals(accessibleFields.getBytecode(), stored.getBytecode(),
+				"Stored bytecode should match original bytecode");
+		assertEquals(accessibleFields, stored,
+				"Storage type should not affect class equality");
+		assertEquals(type, ((BasicJvmClassInfo) stored).getBytecodeStorage().getType());
+		assertEquals(accessibleFields.getName(), stored.getClassReader().getClassName());
+	}
+}
@@ -10,11 +10,16 @@
 import software.coley.recaf.info.builder.JvmClassInfoBuilder;
 import software.coley.recaf.path.ClassPathNode;
 import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.DiamondA;
+import software.coley.recaf.test.dummy.DiamondB;
+import software.coley.recaf.test.dummy.DiamondC;
 import software.coley.recaf.test.dummy.StringConsumer;
 import software.coley.recaf.test.dummy.StringConsumerUser;
 import software.coley.recaf.workspace.model.Workspace;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.objectweb.asm.Opcodes.*;
@@ -93,6 +98,62 @@ void testUnresolvedCall() {
 		//  We probably want to prune the call-graph model when things get removed.
 	}
 
+	@Test
+	@Timeout(10)
+	void testUpdateRelinksClass() throws IOException {
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(
+				StringConsumer.class,
+				StringConsumerUser.class
+		));
+		JvmClassInfo mainClass = workspace.findJvmClass(StringConsumerUser.class.getName().replace('.', '/')).getValue().asJvmClass();
+		JvmClassInfo functionClass = workspace.findJvmClass(StringConsumer.class.getName().replace('.', '/')).getValue().asJvmClass();
+
+		CallGraph callGraph = newCallGraph(workspace);
+		assertTrue(callGraph.isReady(workspace.getPrimaryResource()).getValue(), "Primary resource should be marked ready");
+		MethodVertex mainVertex = callGraph.getClassMethodsContainer(mainClass).getVertex("main", "([Ljava/lang/String;)V");
+		assertNotNull(mainVertex, "Missing method vertex for 'main'");
+
+		// Update the called class, callers should be linked to the methods of the new class.
+		JvmClassInfo updatedFunctionClass = new JvmClassInfoBuilder(functionClass.getBytecode()).build();
+		workspace.getPrimaryResource().getJvmClassBundle().put(updatedFunctionClass);
+		MethodVertex acceptVertex = callGraph.getClassMethodsContainer(updatedFunctionClass).getVertex("accept", "(Ljava/lang/String;)V");
+		assertNotNull(acceptVertex, "Missing method vertex for 'accept'");
+		assertTrue(acceptVertex.getCallers().stream().anyMatch(v -> v == mainVertex), "Caller not moved to updated class");
+		assertEquals(2, mainVertex.getCalls().size());
+		assertTrue(mainVertex.getCalls().stream().anyMatch(v -> v == acceptVertex), "Call not moved to updated class");
+
+		// Update the calling class, outgoing calls should be re-linked from the new class.
+		JvmClassInfo updatedMainClass = new JvmClassInfoBuilder(mainClass.getBytecode()).build();
+		workspace.getPrimaryResource().getJvmClassBundle().put(updatedMainClass);
+		MethodVertex updatedMainVertex = callGraph.getClassMethodsContainer(updatedMainClass).getVertex("main", "([Ljava/lang/String;)V");
+		assertNotNull(updatedMainVertex, "Missing method vertex for updated 'main'");
+		assertEquals(2, updatedMainVertex.getCalls().size());
+		assertTrue(acceptVertex.getCallers().stream().anyMatch(v -> v == updatedMainVertex), "Missing call from updated class");
+		assertTrue(acceptVertex.getCallers().stream().noneMatch(v -> v == mainVertex), "Stale caller still linked");
+	}
+
+	@Test
+	void testLinkedClassLooksUpMissingParentsOnce() throws IOException {
+		JvmClassInfo classC = TestClassUtils.fromRuntimeClass(DiamondC.class);
+		String nameA = DiamondA.class.getName().replace('.', '/');
+		String nameB = DiamondB.class.getName().replace('.', '/');
+		List<String> lookups = new ArrayList<>();
+		LinkedClass linkedC = new LinkedClass(classC, (child, parentName) -> {
+			lookups.add(parentName);
+			return null;
+		});
+
+		// Parent types are only looked up when requested.
+		assertTrue(lookups.isEmpty());
+
+		// Failed lookups should be remembered rather than repeated.
+		assertNull(linkedC.superClass());
+		assertNull(linkedC.superClass());
+		assertTrue(linkedC.interfaces().isEmpty());
+		assertTrue(linkedC.interfaces().isEmpty());
+		assertEquals(List.of(nameB, nameA), lookups);
+	}
+
 	@Nonnull
 	static CallGraph newCallGraph(@Nonnull Workspace workspace) {
 		CallGraph callGraph = new CallGraph(workspace);
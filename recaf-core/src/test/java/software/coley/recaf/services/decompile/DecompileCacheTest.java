@@ -0,0 +1,104 @@
+package software.coley.recaf.services.decompile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.FieldNode;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.ClassWithInner;
+import software.coley.recaf.util.IOUtil;
+import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link DecompileCache}.
+ */
+class DecompileCacheTest {
+	private static final JvmDecompiler decompiler = NoopJvmDecompiler.getInstance();
+	private Path directory;
+
+	@BeforeEach
+	void setup() throws IOException {
+		directory = Files.createTempDirectory("recaf-decompile-cache");
+	}
+
+	@AfterEach
+	void cleanup() throws IOException {
+		IOUtil.cleanDirectory(directory);
+		Files.deleteIfExists(directory);
+	}
+
+	@Test
+	void keyDependsOnBytecode() {
+		String key = DecompileCache.key(decompiler, new byte[]{1, 2, 3});
+		assertEquals(key, DecompileCache.key(decompiler, new byte[]{1, 2, 3}), "Keys should be deterministic");
+		assertNotEquals(key, DecompileCache.key(decompiler, new byte[]{1, 2, 4}), "Keys should depend on bytecode");
+	}
+
+	@Test
+	void keyDependsOnInnerClasses() throws IOException {
+		JvmClassInfo outer = TestClassUtils.fromRuntimeClass(ClassWithInner.class);
+		JvmClassInfo inner = TestClassUtils.fromRuntimeClass(ClassWithInner.TheInner.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(outer, inner);
+		Workspace workspace = TestClassUtils.fromBundle(bundle);
+		String key = DecompileCache.key(decompiler, workspace, outer, outer.getBytecode());
+		assertEquals(key, DecompileCache.key(decompiler, workspace, outer, outer.getBytecode()), "Keys should be deterministic");
+
+		// Changing the inner class changes the output of the outer class, so the key should change too
+		bundle.put(TestClassUtils.createClass(inner.getName(), n -> n.fields.add(new FieldNode(0, "added", "I", null, null))));
+		assertNotEquals(key, DecompileCache.key(decompiler, workspace, outer, outer.getBytecode()), "Keys should depend on inner classes");
+	}
+
+	@Test
+	void hitsAndMissesAreTracked() {
+		DecompileCache cache = new DecompileCache(directory, () -> Long.MAX_VALUE);
+		String key = DecompileCache.key(decompiler, new byte[]{1, 2, 3});
+		assertNull(cache.get(decompiler, key));
+		cache.put(decompiler, key, "class Foo {}");
+		assertEquals("class Foo {}", cache.get(decompiler, key));
+
+		DecompileCache.Statistics statistics = cache.getStatistics(decompiler);
+		assertEquals(1, statistics.hits());
+		assertEquals(1, statistics.misses());
+		assertEquals(1, statistics.writes());
+		assertEquals(0.5, statistics.hitRate());
+	}
+
+	@Test
+	void entriesPersistAcrossInstances() {
+		String key = DecompileCache.key(decompiler, new byte[]{1, 2, 3});
+		new DecompileCache(directory, () -> Long.MAX_VALUE).put(decompiler, key, "class Foo {}");
+
+		// A new instance pointing to the same directory should see the prior entry
+		DecompileCache cache = new DecompileCache(directory, () -> Long.MAX_VALUE);
+		assertEquals(1, cache.getEntryCount());
+		assertEquals("class Foo {}", cache.get(decompiler, key));
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvicted() {
+		DecompileCache unbounded = new DecompileCache(directory, () -> Long.MAX_VALUE);
+		String keyA = DecompileCache.key(decompiler, new byte[]{1});
+		unbounded.put(decompiler, keyA, "class A {}");
+		long entrySize = unbounded.getSize();
+
+		// Cache which can only fit two entries
+		DecompileCache cache = new DecompileCache(directory, () -> entrySize * 2);
+		String keyB = DecompileCache.key(decompiler, new byte[]{2});
+		String keyC = DecompileCache.key(decompiler, new byte[]{3});
+		cache.put(decompiler, keyB, "class B {}");
+		assertNotNull(cache.get(decompiler, keyA)); // Use 'A' so that 'B' is the least recently used
+		cache.put(decompiler, keyC, "class C {}");
+		assertEquals(2, cache.getEntryCount());
+		assertNotNull(cache.get(decompiler, keyA));
+		assertNull(cache.get(decompiler, keyB));
+		assertNotNull(cache.get(decompiler, keyC));
+	}
+}
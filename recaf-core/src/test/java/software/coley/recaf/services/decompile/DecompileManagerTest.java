@@ -7,6 +7,10 @@
 import software.coley.observables.ObservableBoolean;
 import software.coley.recaf.info.ClassInfo;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.properties.builtin.CachedDecompileProperty;
+import software.coley.recaf.info.properties.builtin.DecompileRaceWinnerProperty;
+import software.coley.recaf.services.decompile.batch.BatchDecompileResult;
+import software.coley.recaf.services.decompile.batch.DecompileOutputWriter;
 import software.coley.recaf.services.decompile.cfr.CfrDecompiler;
 import software.coley.recaf.services.decompile.fallback.FallbackDecompiler;
 import software.coley.recaf.services.decompile.filter.JvmBytecodeFilter;
@@ -15,14 +19,21 @@
 import software.coley.recaf.services.decompile.vineflower.VineflowerDecompiler;
 import software.coley.recaf.test.TestBase;
 import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.ClassWithInner;
 import software.coley.recaf.test.dummy.HelloWorld;
+import software.coley.recaf.util.IOUtil;
 import software.coley.recaf.util.ReflectUtil;
 import software.coley.recaf.workspace.model.Workspace;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -149,6 +160,122 @@ void testFilterHollow() {
 		assertFalse(decompilationAfter.contains("\"Hello world\""));
 	}
 
+	@Test
+	void testBatchDecompile() throws Exception {
+		JvmClassInfo outer = TestClassUtils.fromRuntimeClass(ClassWithInner.class);
+		JvmClassInfo inner = TestClassUtils.fromRuntimeClass(ClassWithInner.TheInner.class);
+		List<JvmClassInfo> classes = List.of(classHelloWorld, outer, inner);
+		Workspace batchWorkspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(classHelloWorld, outer, inner));
+
+		// Vineflower decompiles all classes of a batch in a single shared context
+		JvmDecompiler decompiler = decompilerManager.getJvmDecompiler(VineflowerDecompiler.NAME);
+		assertNotNull(decompiler, "Vineflower decompiler was never registered with manager");
+		Path directory = Files.createTempDirectory("recaf-decompile-batch");
+		try (DecompileOutputWriter writer = DecompileOutputWriter.directory(directory)) {
+			AtomicInteger completed = new AtomicInteger();
+			BatchDecompileResult result = decompilerManager.decompileAll(decompiler, batchWorkspace, classes, writer,
+					name -> completed.incrementAndGet()).get(30, TimeUnit.SECONDS);
+
+			// The inner class is skipped since it is emitted with its outer class
+			assertTrue(result.getFailures().isEmpty(), "Unexpected failures: " + result.getFailures());
+			assertEquals(2, result.getDecompiledCount());
+			assertEquals(1, result.getSkippedCount());
+			assertEquals(2, completed.get());
+			assertTrue(result.getClassesPerSecond() > 0);
+
+			// Outputs are written as sources following the package structure
+			String helloWorld = Files.readString(directory.resolve(classHelloWorld.getName() + ".java"));
+			assertTrue(helloWorld.contains("\"Hello world\""), "Decompilation seems to be wrong");
+			String outerSource = Files.readString(directory.resolve(outer.getName() + ".java"));
+			assertTrue(outerSource.contains("TheInner"), "Outer class output should contain the inner class");
+			assertFalse(Files.exists(directory.resolve(inner.getName() + ".java")), "Inner class should not be written separately");
+		} finally {
+			IOUtil.cleanDirectory(directory);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Test
+	void testBatchDecompileBudget() throws Exception {
+		// A stalled class should fail on its own once its budget runs out, rather than hanging the batch
+		StallingDecompiler decompiler = new StallingDecompiler();
+		Path directory = Files.createTempDirectory("recaf-decompile-batch");
+		try (DecompileOutputWriter writer = DecompileOutputWriter.directory(directory)) {
+			BatchDecompileResult result = decompilerManager.decompileAll(decompiler, workspace, List.of(classHelloWorld),
+					writer, null, new DecompileBudget(100, 0)).get(30, TimeUnit.SECONDS);
+			assertEquals(0, result.getDecompiledCount());
+			assertInstanceOf(TimeoutException.class, result.getFailures().get(classHelloWorld.getName()));
+		} finally {
+			IOUtil.cleanDirectory(directory);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Test
+	void testPrefetch() throws Exception {
+		decompilerManagerConfig.getCacheDecompilations().setValue(true);
+		decompilerManagerConfig.getPrefetchDecompilations().setValue(true);
+		JvmClassInfo outer = TestClassUtils.fromRuntimeClass(ClassWithInner.class);
+		JvmClassInfo inner = TestClassUtils.fromRuntimeClass(ClassWithInner.TheInner.class);
+		JvmClassInfo neighbor = TestClassUtils.fromRuntimeClass(HelloWorld.class);
+		Workspace prefetchWorkspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(outer, inner, neighbor));
+
+		// Opening the outer class should decompile its inner class and package neighbors in the background
+		JvmDecompiler decompiler = decompilerManager.getJvmDecompiler(FallbackDecompiler.NAME);
+		assertNotNull(decompiler, "Fallback decompiler was never registered with manager");
+		decompilerManager.prefetch(decompiler, prefetchWorkspace, outer).get(30, TimeUnit.SECONDS);
+		assertNotNull(CachedDecompileProperty.get(inner, decompiler), "Inner class was not prefetched");
+		assertNotNull(CachedDecompileProperty.get(neighbor, decompiler), "Package neighbor was not prefetched");
+		assertNull(CachedDecompileProperty.get(outer, decompiler), "Opened class should not be prefetched");
+
+		// Prefetching is skipped when there is no cache to put results in
+		decompilerManagerConfig.getCacheDecompilations().setValue(false);
+		CachedDecompileProperty.remove(inner);
+		decompilerManager.prefetch(decompiler, prefetchWorkspace, outer).get(1, TimeUnit.SECONDS);
+		assertNull(CachedDecompileProperty.get(inner, decompiler));
+	}
+
+	@Test
+	void testPrefetchAbandonsSlowClasses() throws Exception {
+		decompilerManagerConfig.getCacheDecompilations().setValue(true);
+		decompilerManagerConfig.getPrefetchDecompilations().setValue(true);
+		decompilerManagerConfig.getPrefetchTimeoutSeconds().setValue(1);
+		JvmClassInfo outer = TestClassUtils.fromRuntimeClass(ClassWithInner.class);
+		JvmClassInfo inner = TestClassUtils.fromRuntimeClass(ClassWithInner.TheInner.class);
+		Workspace prefetchWorkspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(outer, inner));
+
+		// The stalled decompilation should be cut off by the prefetch budget, letting the prefetch complete
+		StallingDecompiler decompiler = new StallingDecompiler();
+		decompilerManager.prefetch(decompiler, prefetchWorkspace, outer).get(30, TimeUnit.SECONDS);
+		assertTrue(decompiler.interrupted.await(10, TimeUnit.SECONDS), "Decompiler thread was not interrupted");
+	}
+
+	@Test
+	void testBudgetTimeout() throws Exception {
+		StallingDecompiler decompiler = new StallingDecompiler();
+		DecompileResult result = decompilerManager.decompile(decompiler, workspace, classHelloWorld, new DecompileBudget(100, 0))
+				.get(10, TimeUnit.SECONDS);
+
+		// The result should report the timeout, and the stalled decompiler should be asked to stop
+		assertEquals(DecompileResult.ResultType.FAILURE, result.getType());
+		assertInstanceOf(TimeoutException.class, result.getException());
+		assertTrue(decompiler.interrupted.await(10, TimeUnit.SECONDS), "Decompiler thread was not interrupted");
+	}
+
+	@Test
+	void testRaceFallback() throws Exception {
+		decompilerManagerConfig.getRaceFallback().setValue(true);
+		JvmClassInfo classInfo = TestClassUtils.fromRuntimeClass(HelloWorld.class);
+		StallingDecompiler decompiler = new StallingDecompiler();
+		DecompileResult result = decompilerManager.decompile(decompiler, workspace, classInfo, new DecompileBudget(100, 0))
+				.get(10, TimeUnit.SECONDS);
+
+		// The fallback decompiler should provide the result, and be recorded as the winner for the class
+		assertEquals(DecompileResult.ResultType.SUCCESS, result.getType());
+		assertTrue(result.getText().contains("\"Hello world\""), "Decompilation seems to be wrong");
+		assertEquals(FallbackDecompiler.NAME, DecompileRaceWinnerProperty.get(classInfo, decompiler));
+	}
+
 	@Test
 	void testDisplay() {
 		for (JvmDecompiler decompiler : decompilerManager.getJvmDecompilers()) {
@@ -195,6 +322,28 @@ private static void runJvmDecompilation(@Nonnull JvmDecompiler decompiler) {
 		}
 	}
 
+	/**
+	 * Decompiler which never completes unless interrupted.
+	 */
+	static class StallingDecompiler extends AbstractJvmDecompiler {
+		private final CountDownLatch interrupted = new CountDownLatch(1);
+
+		StallingDecompiler() {
+			super("stalling", "1.0.0", new NoopDecompilerConfig());
+		}
+
+		@Nonnull
+		@Override
+		protected DecompileResult decompileInternal(@Nonnull Workspace workspace, @Nonnull JvmClassInfo classInfo) {
+			try {
+				Thread.sleep(Long.MAX_VALUE);
+			} catch (InterruptedException ex) {
+				interrupted.countDown();
+			}
+			return new DecompileResult(new IllegalStateException("Interrupted"), getConfig().getHash());
+		}
+	}
+
 	static class TestJvmBytecodeFilter implements JvmBytecodeFilter {
 		@Nonnull
 		@Override
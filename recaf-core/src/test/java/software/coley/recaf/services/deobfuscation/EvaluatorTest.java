@@ -20,6 +20,9 @@
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class EvaluatorTest extends BaseDeobfuscationTest {
@@ -118,13 +121,295 @@ void testXorString() throws ReEvaluationException {
 			fail("Evaluation failure");
 	}
 
+	@Test
+	void testMemoizedPureMethod() throws ReEvaluationException {
+		String src = """
+				.method static add (II)I {
+				    parameters: { a, b },
+				    code: {
+				    A:
+				        iload a
+				        iload b
+				        iadd
+				        ireturn
+				    B:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 16);
+		ReValue first = evaluator.evaluate(CLASS_NAME, "add", "(II)I", null, List.of(IntValue.of(1), IntValue.of(2)));
+		ReValue second = evaluator.evaluate(CLASS_NAME, "add", "(II)I", null, List.of(IntValue.of(1), IntValue.of(2)));
+		ReValue other = evaluator.evaluate(CLASS_NAME, "add", "(II)I", null, List.of(IntValue.of(2), IntValue.of(2)));
+		assertEquals(IntValue.of(3), first);
+		assertSame(first, second, "Same parameter values should yield the memoized result");
+		assertEquals(IntValue.of(4), other);
+
+		// Memoization is disabled by default.
+		evaluator = newEvaluator(src, 0);
+		first = evaluator.evaluate(CLASS_NAME, "add", "(II)I", null, List.of(IntValue.of(1), IntValue.of(2)));
+		second = evaluator.evaluate(CLASS_NAME, "add", "(II)I", null, List.of(IntValue.of(1), IntValue.of(2)));
+		assertEquals(first, second);
+		assertNotSame(first, second);
+	}
+
+	@Test
+	void testNoMemoizationForNonDeterministicLookups() throws ReEvaluationException {
+		String src = """
+				.method static roll ()D {
+				    code: {
+				    A:
+				        invokestatic java/lang/Math.random ()D
+				        dreturn
+				    B:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 16);
+		ReValue first = evaluator.evaluate(CLASS_NAME, "roll", "()D", null, Collections.emptyList());
+		ReValue second = evaluator.evaluate(CLASS_NAME, "roll", "()D", null, Collections.emptyList());
+		assertNotSame(first, second, "Random values must not be memoized");
+	}
+
+	@Test
+	void testUpdatedClassInvalidatesMemoizedResults() throws ReEvaluationException {
+		String src = """
+				.method static calc (II)I {
+				    parameters: { a, b },
+				    code: {
+				    A:
+				        iload a
+				        iload b
+				        %s
+				        ireturn
+				    B:
+				    }
+				}
+				""";
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(assemble(src.formatted("iadd"), false)));
+		ReEvaluator evaluator = newEvaluator(workspace, 16);
+		List<ReValue> parameters = List.of(IntValue.of(5), IntValue.of(2));
+		ReValue first = evaluator.evaluate(CLASS_NAME, "calc", "(II)I", null, parameters);
+		assertEquals(IntValue.of(7), first);
+		assertSame(first, evaluator.evaluate(CLASS_NAME, "calc", "(II)I", null, parameters));
+
+		// Updating the class should not yield results of the prior class state.
+		workspace.getPrimaryResource().getJvmClassBundle().put(assemble(src.formatted("isub"), false));
+		assertEquals(IntValue.of(3), evaluator.evaluate(CLASS_NAME, "calc", "(II)I", null, parameters));
+	}
+
+	@Test
+	void testNoMemoizationForIdentityComparison() throws ReEvaluationException {
+		String src = """
+				.method static same (Ljava/lang/String;Ljava/lang/String;)I {
+				    parameters: { a, b },
+				    code: {
+				    A:
+				        aload a
+				        aload b
+				        if_acmpne B
+				        iconst_1
+				        ireturn
+				    B:
+				        iconst_0
+				        ireturn
+				    C:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 16);
+		ReValue string = ObjectValue.string("value");
+		ReValue first = evaluator.evaluate(CLASS_NAME, "same", "(Ljava/lang/String;Ljava/lang/String;)I", null, List.of(string, string));
+		ReValue second = evaluator.evaluate(CLASS_NAME, "same", "(Ljava/lang/String;Ljava/lang/String;)I", null,
+				List.of(string, ObjectValue.string("value")));
+		assertEquals(IntValue.of(1), first);
+		assertEquals(IntValue.of(0), second, "Reference comparisons depend on parameter identity, so must not be memoized");
+	}
+
+	@Test
+	void testNativeExecutionMatchesInterpretation() throws ReEvaluationException {
+		String src = """
+				.method static shift (Ljava/lang/String;I)Ljava/lang/String; {
+				    parameters: { input, key },
+				    code: {
+				    A:
+				        aload input
+				        invokevirtual java/lang/String.toCharArray ()[C
+				        astore chars
+				        iconst_0
+				        istore i
+				    B:
+				        iload i
+				        aload chars
+				        arraylength
+				        if_icmpge D
+				    C:
+				        aload chars
+				        iload i
+				        aload chars
+				        iload i
+				        caload
+				        iload key
+				        iload i
+				        iadd
+				        isub
+				        i2c
+				        castore
+				        iinc i 1
+				        goto B
+				    D:
+				        aload chars
+				        invokestatic java/lang/String.valueOf ([C)Ljava/lang/String;
+				        areturn
+				    E:
+				    }
+				}
+				""";
+		List<ReValue> parameters = List.of(ObjectValue.string("Igopt"), IntValue.of(1));
+		ReValue interpreted = newEvaluator(src, 0).evaluate(CLASS_NAME, "shift", "(Ljava/lang/String;I)Ljava/lang/String;", null, parameters);
+		ReEvaluator evaluator = newEvaluator(src, 0);
+		evaluator.setNativeExecutionTimeout(1000);
+		ReValue executed = evaluator.evaluate(CLASS_NAME, "shift", "(Ljava/lang/String;I)Ljava/lang/String;", null, parameters);
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Method should have been natively executed");
+		if (executed instanceof StringValue str)
+			assertEquals("Hello", str.getText().orElse(null));
+		else
+			fail("Evaluation failure");
+		assertEquals(interpreted, executed);
+	}
+
+	@Test
+	void testNativeExecutionStepLimit() throws ReEvaluationException {
+		String src = """
+				.method static spin (I)I {
+				    parameters: { x },
+				    code: {
+				    A:
+				        iload x
+				        ifeq B
+				        iinc x 1
+				        goto A
+				    B:
+				        iload x
+				        ireturn
+				    C:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 0);
+		evaluator.setNativeExecutionTimeout(1000);
+		assertEquals(IntValue.of(0), evaluator.evaluate(CLASS_NAME, "spin", "(I)I", null, List.of(IntValue.of(0))));
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Method should have been natively executed");
+
+		// Native execution exceeds the step limit, so falls back to interpretation, which also exceeds the limit.
+		assertThrows(ReEvaluationException.class, () -> evaluator.evaluate(CLASS_NAME, "spin", "(I)I", null, List.of(IntValue.of(1))));
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Native execution should have been aborted by the step limit");
+	}
+
+	@Test
+	void testNativeExecutionArrayLengthLimit() throws ReEvaluationException {
+		String src = """
+				.method static alloc (I)I {
+				    parameters: { length },
+				    code: {
+				    A:
+				        iload length
+				        newarray int
+				        arraylength
+				        ireturn
+				    B:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 0);
+		evaluator.setNativeExecutionTimeout(1000);
+		assertEquals(IntValue.of(10), evaluator.evaluate(CLASS_NAME, "alloc", "(I)I", null, List.of(IntValue.of(10))));
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Method should have been natively executed");
+
+		// Array elements are charged as steps, so natively allocating more elements than the step limit is aborted.
+		// Interpretation only tracks the array length, so it can still yield a value.
+		assertEquals(IntValue.of(100_000), evaluator.evaluate(CLASS_NAME, "alloc", "(I)I", null, List.of(IntValue.of(100_000))));
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Native execution should have been aborted by the array length");
+	}
+
+	@Test
+	void testNativeExecutionResultSizeLimit() throws ReEvaluationException {
+		String src = """
+				.method static grow (Ljava/lang/String;I)I {
+				    parameters: { text, count },
+				    code: {
+				    A:
+				        iload count
+				        ifle B
+				        aload text
+				        aload text
+				        invokevirtual java/lang/String.concat (Ljava/lang/String;)Ljava/lang/String;
+				        astore text
+				        iinc count -1
+				        goto A
+				    B:
+				        aload text
+				        invokevirtual java/lang/String.length ()I
+				        ireturn
+				    C:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 0);
+		evaluator.setNativeExecutionTimeout(1000);
+		assertEquals(IntValue.of(16), evaluator.evaluate(CLASS_NAME, "grow", "(Ljava/lang/String;I)I", null,
+				List.of(ObjectValue.string("a"), IntValue.of(4))));
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Method should have been natively executed");
+
+		// Returned strings are charged as steps, so doubling a string past the step limit is aborted in few steps.
+		assertEquals(IntValue.of(4096), evaluator.evaluate(CLASS_NAME, "grow", "(Ljava/lang/String;I)I", null,
+				List.of(ObjectValue.string("a"), IntValue.of(12))));
+		assertEquals(1, evaluator.getNativeExecutionCount(), "Native execution should have been aborted by the string length");
+	}
+
+	@Test
+	void testNativeExecutionSkipsUnboundedCalls() throws ReEvaluationException {
+		String src = """
+				.method static repeat (Ljava/lang/String;I)Ljava/lang/String; {
+				    parameters: { text, count },
+				    code: {
+				    A:
+				        aload text
+				        iload count
+				        invokevirtual java/lang/String.repeat (I)Ljava/lang/String;
+				        areturn
+				    B:
+				    }
+				}
+				""";
+		ReEvaluator evaluator = newEvaluator(src, 0);
+		evaluator.setNativeExecutionTimeout(1000);
+		ReValue value = evaluator.evaluate(CLASS_NAME, "repeat", "(Ljava/lang/String;I)Ljava/lang/String;", null,
+				List.of(ObjectValue.string("ab"), IntValue.of(3)));
+		if (value instanceof StringValue str)
+			assertEquals("ababab", str.getText().orElse(null));
+		else
+			fail("Evaluation failure");
+
+		// Output size of repeat is not proportional to its inputs, so it is only ever interpreted.
+		assertEquals(0, evaluator.getNativeExecutionCount(), "Method should not have been natively executed");
+	}
+
 	@Nonnull
 	private ReValue evaluate(@Nonnull String src, @Nonnull String name, @Nonnull String desc,
 	                         @Nullable ReValue classInstance, @Nonnull List<ReValue> parameters) throws ReEvaluationException {
+		return newEvaluator(src, 0).evaluate(CLASS_NAME, name, desc, classInstance, parameters);
+	}
+
+	@Nonnull
+	private ReEvaluator newEvaluator(@Nonnull String src, int maxMemoizedResults) {
 		JvmClassInfo assembled = assemble(src, false);
-		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(assembled));
+		return newEvaluator(TestClassUtils.fromBundle(TestClassUtils.fromClasses(assembled)), maxMemoizedResults);
+	}
+
+	@Nonnull
+	private ReEvaluator newEvaluator(@Nonnull Workspace workspace, int maxMemoizedResults) {
 		JvmTransformerContext ctx = new JvmTransformerContext(workspace, workspace.getPrimaryResource(), Collections.emptyList());
 		ReInterpreter interpreter = ctx.newInterpreter(new InheritanceGraph(workspace));
-		return new ReEvaluator(workspace, interpreter, 1000).evaluate(CLASS_NAME, name, desc, classInstance, parameters);
+		return new ReEvaluator(workspace, interpreter, 1000, maxMemoizedResults);
 	}
 }
@@ -127,6 +127,23 @@ void isAssignableFrom() {
 		// Apple.class.isAssignableFrom(Edible.class) --> false
 		assertFalse(inheritanceGraph.isAssignableFrom(appleName, edibleName), "Apple should not be assignable from Edible");
 		assertFalse(inheritanceGraph.isAssignableFrom(grapeName, edibleName), "Grape should not be assignable from Edible");
+
+		// Throwable.class.isAssignableFrom(NotFoodException.class) --> true, through the indirect parent
+		String notFoodExceptionName = Inheritance.NotFoodException.class.getName().replace('.', '/');
+		assertTrue(inheritanceGraph.isAssignableFrom("java/lang/Throwable", notFoodExceptionName),
+				"Throwable should be assignable from NotFoodException");
+		assertFalse(inheritanceGraph.isAssignableFrom(notFoodExceptionName, "java/lang/Throwable"),
+				"NotFoodException should not be assignable from Throwable");
+		assertFalse(inheritanceGraph.isAssignableFrom(edibleName, notFoodExceptionName),
+				"Edible should not be assignable from NotFoodException");
+
+		// Hierarchies outside the primary resource are also supported
+		assertTrue(inheritanceGraph.isAssignableFrom("java/util/List", "java/util/ArrayList"),
+				"List should be assignable from ArrayList");
+		assertTrue(inheritanceGraph.isAssignableFrom("java/util/Collection", "java/util/ArrayList"),
+				"Collection should be assignable from ArrayList");
+		assertFalse(inheritanceGraph.isAssignableFrom("java/util/ArrayList", "java/util/List"),
+				"ArrayList should not be assignable from List");
 	}
 
 	@Test
@@ -0,0 +1,89 @@
+package software.coley.recaf.services.mapping;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.AnonymousLambda;
+import software.coley.recaf.test.dummy.ClassWithInner;
+import software.coley.recaf.test.dummy.HelloWorld;
+import software.coley.recaf.test.dummy.StringSupplier;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MappedReferenceFilter}.
+ */
+class MappedReferenceFilterTest {
+	static JvmClassInfo helloWorld;
+	static JvmClassInfo stringSupplier;
+	static JvmClassInfo anonymousLambda;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		helloWorld = TestClassUtils.fromRuntimeClass(HelloWorld.class);
+		stringSupplier = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		anonymousLambda = TestClassUtils.fromRuntimeClass(AnonymousLambda.class);
+	}
+
+	@Test
+	void mappedClassAffectsReferencingClasses() {
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addClass(stringSupplier.getName(), "renamed/Supplier");
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
+		assertNotNull(filter);
+		assertTrue(filter.mayBeAffected(stringSupplier), "Mapped class itself should be affected");
+		assertTrue(filter.mayBeAffected(anonymousLambda), "Class referencing mapped class should be affected");
+		assertFalse(filter.mayBeAffected(helloWorld), "Unrelated class should not be affected");
+	}
+
+	@Test
+	void mappedClassInDescriptorAffectsClass() {
+		// 'String' is only used in the descriptor of 'main' and in the 'println' call descriptor
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addClass("java/lang/String", "renamed/String");
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
+		assertNotNull(filter);
+		assertTrue(filter.mayBeAffected(helloWorld));
+	}
+
+	@Test
+	void mappedOuterClassAffectsInnerClass() throws IOException {
+		JvmClassInfo inner = TestClassUtils.fromRuntimeClass(ClassWithInner.TheInner.class);
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addClass(ClassWithInner.class.getName().replace('.', '/'), "renamed/Outer");
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
+		assertNotNull(filter);
+		assertTrue(filter.mayBeAffected(inner), "Inner class of mapped class should be affected");
+		assertFalse(filter.mayBeAffected(helloWorld), "Unrelated class should not be affected");
+	}
+
+	@Test
+	void mappedMemberNameAffectsClassRegardlessOfOwner() {
+		// Hierarchy lookups can map 'println' references through child types of the mapped owner,
+		// so any mention of the name must be treated as a potential match.
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addMethod("some/Other", "println", "(Ljava/lang/String;)V", "renamed");
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
+		assertNotNull(filter);
+		assertTrue(filter.mayBeAffected(helloWorld));
+		assertFalse(filter.mayBeAffected(stringSupplier));
+	}
+
+	@Test
+	void mappedVariableAffectsOwner() {
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addVariable(stringSupplier.getName(), "get", "()Ljava/lang/Object;", "x", null, 0, "renamed");
+		MappedReferenceFilter filter = MappedReferenceFilter.create(mappings);
+		assertNotNull(filter);
+		assertTrue(filter.mayBeAffected(stringSupplier));
+		assertFalse(filter.mayBeAffected(helloWorld));
+	}
+
+	@Test
+	void mappingsWhichCannotBeEnumeratedAreNotFiltered() {
+		assertNull(MappedReferenceFilter.create(new IntermediateMappings()));
+	}
+}
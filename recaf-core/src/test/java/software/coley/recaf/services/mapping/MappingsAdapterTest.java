@@ -0,0 +1,78 @@
+package software.coley.recaf.services.mapping;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import software.coley.recaf.services.inheritance.InheritanceGraph;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.DiamondA;
+import software.coley.recaf.test.dummy.DiamondB;
+import software.coley.recaf.test.dummy.DiamondC;
+import software.coley.recaf.workspace.model.Workspace;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MappingsAdapter} hierarchy lookups.
+ */
+class MappingsAdapterTest {
+	static final String A = DiamondA.class.getName().replace('.', '/');
+	static final String B = DiamondB.class.getName().replace('.', '/');
+	static final String C = DiamondC.class.getName().replace('.', '/');
+	static InheritanceGraph graph;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(
+				DiamondA.class, DiamondB.class, DiamondC.class
+		));
+		graph = new InheritanceGraph(workspace);
+	}
+
+	@Test
+	void childReferencesResolveToParentMapping() {
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addMethod(B, "diamond", "()V", "renamed");
+		mappings.enableHierarchyLookup(graph);
+
+		// Repeated lookups should yield the same result, both for hits and misses.
+		for (int i = 0; i < 2; i++) {
+			assertEquals("renamed", mappings.getMappedMethodName(C, "diamond", "()V"));
+			assertNull(mappings.getMappedMethodName(C, "diamond", "(I)V"));
+			assertNull(mappings.getMappedMethodName(C, "other", "()V"));
+		}
+	}
+
+	@Test
+	void cachedLookupsAreResetWhenMappingsChange() {
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.addMethod(B, "unrelated", "()V", "renamed");
+		mappings.enableHierarchyLookup(graph);
+		assertNull(mappings.getMappedMethodName(C, "diamond", "()V"));
+
+		// Adding the parent mapping should be visible to the prior miss.
+		mappings.addMethod(A, "diamond", "()V", "renamed");
+		assertEquals("renamed", mappings.getMappedMethodName(C, "diamond", "()V"));
+	}
+
+	@Test
+	void addedMembersAreVisibleToPriorLookups() {
+		MappingsAdapter mappings = new MappingsAdapter(true, true);
+		mappings.enableHierarchyLookup(graph);
+		assertNull(mappings.getMappedFieldName(C, "value", "I"));
+		assertNull(mappings.getMappedMethodName(C, "diamond", "()V"));
+
+		// Names added after the member names were computed should be recorded incrementally.
+		mappings.addField(A, "value", "I", "renamedField");
+		assertEquals("renamedField", mappings.getMappedFieldName(C, "value", "I"));
+		assertNull(mappings.getMappedMethodName(C, "diamond", "()V"));
+
+		// Merged mappings should be visible too.
+		MappingsAdapter other = new MappingsAdapter(true, true);
+		other.addMethod(A, "diamond", "()V", "renamedMethod");
+		mappings.addAll(other);
+		assertEquals("renamedMethod", mappings.getMappedMethodName(C, "diamond", "()V"));
+		assertEquals("renamedField", mappings.getMappedFieldName(C, "value", "I"));
+	}
+}
@@ -20,6 +20,7 @@
 import software.coley.recaf.services.mapping.gen.filter.IncludeModifiersNameFilter;
 import software.coley.recaf.services.mapping.gen.filter.IncludeNameFilter;
 import software.coley.recaf.services.mapping.gen.filter.NameGeneratorFilter;
+import software.coley.recaf.services.mapping.gen.naming.AlphabetNameGenerator;
 import software.coley.recaf.services.mapping.gen.naming.NameGenerator;
 import software.coley.recaf.services.search.match.StringPredicate;
 import software.coley.recaf.services.search.match.StringPredicateProvider;
@@ -114,6 +115,44 @@ void testGeneral() {
 		assertNotNull(mappings.getMappedVariableName(className, "main", "([Ljava/lang/String;)V", "args", "[Ljava/lang/String;", 0));
 	}
 
+	@Test
+	void testParallelGenerationMatchesSequential() {
+		// The alphabet generator is stateless, so families are generated in parallel.
+		// Wrapping it in a generator that does not declare itself as stateless forces sequential generation.
+		AlphabetNameGenerator stateless = new AlphabetNameGenerator("abcdefghijklmnopqrstuvwxyz", 6);
+		NameGenerator sequential = new NameGenerator() {
+			@Nonnull
+			@Override
+			public String mapClass(@Nonnull ClassInfo info) {
+				return stateless.mapClass(info);
+			}
+
+			@Nonnull
+			@Override
+			public String mapField(@Nonnull ClassInfo owner, @Nonnull FieldMember field) {
+				return stateless.mapField(owner, field);
+			}
+
+			@Nonnull
+			@Override
+			public String mapMethod(@Nonnull ClassInfo owner, @Nonnull MethodMember method) {
+				return stateless.mapMethod(owner, method);
+			}
+
+			@Nonnull
+			@Override
+			public String mapVariable(@Nonnull ClassInfo owner, @Nonnull MethodMember declaringMethod, @Nonnull LocalVariable variable) {
+				return stateless.mapVariable(owner, declaringMethod, variable);
+			}
+		};
+		IntermediateMappings parallelMappings = mappingGenerator.generate(workspace, resource, inheritanceGraph, stateless, null).exportIntermediate();
+		IntermediateMappings sequentialMappings = mappingGenerator.generate(workspace, resource, inheritanceGraph, sequential, null).exportIntermediate();
+		assertFalse(parallelMappings.isEmpty());
+		assertEquals(sequentialMappings.getClasses(), parallelMappings.getClasses());
+		assertEquals(sequentialMappings.getFields(), parallelMappings.getFields());
+		assertEquals(sequentialMappings.getMethods(), parallelMappings.getMethods());
+	}
+
 	@Nested
 	class Filters {
 		@Test
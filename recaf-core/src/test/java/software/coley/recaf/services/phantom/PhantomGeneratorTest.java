@@ -15,7 +15,9 @@
 import software.coley.recaf.services.compile.JavacArgumentsBuilder;
 import software.coley.recaf.services.compile.JavacCompiler;
 import software.coley.recaf.test.TestBase;
+import software.coley.recaf.test.TestClassUtils;
 import software.coley.recaf.workspace.model.EmptyWorkspace;
+import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
@@ -39,24 +41,7 @@ static void setup() {
 
 	@Test
 	void test() {
-		// Make a dummy ctor to point to ClassDoesNotExist.<init> and a method in InterfaceDoesNotExist.
-		ClassNode node = new ClassNode();
-		node.visit(V11, ACC_PUBLIC | ACC_ABSTRACT, "Example", null, "ClassDoesNotExist", new String[]{"InterfaceDoesNotExist"});
-		MethodNode constructor = new MethodNode(ACC_PUBLIC, "<init>", "()V", null, null);
-		constructor.visitVarInsn(ALOAD, 0);
-		constructor.visitMethodInsn(INVOKESPECIAL, "ClassDoesNotExist", "<init>", "()V", false);
-		constructor.visitVarInsn(ALOAD, 0);
-		constructor.visitMethodInsn(INVOKEINTERFACE, "InterfaceDoesNotExist", "doSomething", "()V", false);
-		constructor.visitInsn(RETURN);
-		constructor.visitMaxs(1, 1);
-		node.methods.add(constructor);
-
-		// Create the class
-		ClassWriter writer = new ClassWriter(0);
-		node.accept(writer);
-		byte[] dummy = writer.toByteArray();
-		JvmClassInfo dummyInfo = new JvmClassInfoBuilder(dummy).build();
-		List<JvmClassInfo> dummyWrapped = Collections.singletonList(dummyInfo);
+		List<JvmClassInfo> dummyWrapped = Collections.singletonList(createDummy());
 
 		// Generate phantoms
 		EmptyWorkspace workspace = EmptyWorkspace.get();
@@ -92,4 +77,43 @@ public Example() {
 		assertFalse(resultWithoutPhantoms.wasSuccess(), "Class should not compile without phantoms");
 		assertTrue(resultWithPhantoms.wasSuccess(), "Class should compile with phantoms");
 	}
+
+	@Test
+	void cachedPhantomsAreFilteredByWorkspace() {
+		List<JvmClassInfo> dummyWrapped = Collections.singletonList(createDummy());
+
+		// Repeated generation for the same input should yield the same phantoms.
+		WorkspaceResource first = assertDoesNotThrow(() -> generator.createPhantomsForClasses(EmptyWorkspace.get(), dummyWrapped));
+		WorkspaceResource second = assertDoesNotThrow(() -> generator.createPhantomsForClasses(EmptyWorkspace.get(), dummyWrapped));
+		assertEquals(first.getJvmClassBundle().keySet(), second.getJvmClassBundle().keySet());
+		assertNotNull(second.getJvmClassBundle().get("ClassDoesNotExist"));
+
+		// Reusing the prior output in a workspace which has one of the missing types should not yield a phantom for it.
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(
+				TestClassUtils.createEmptyClass("ClassDoesNotExist")
+		));
+		WorkspaceResource filtered = assertDoesNotThrow(() -> generator.createPhantomsForClasses(workspace, dummyWrapped));
+		assertNull(filtered.getJvmClassBundle().get("ClassDoesNotExist"));
+		assertNotNull(filtered.getJvmClassBundle().get("InterfaceDoesNotExist"));
+	}
+
+	private static JvmClassInfo createDummy() {
+		// Make a dummy ctor to point to ClassDoesNotExist.<init> and a method in InterfaceDoesNotExist.
+		ClassNode node = new ClassNode();
+		node.visit(V11, ACC_PUBLIC | ACC_ABSTRACT, "Example", null, "ClassDoesNotExist", new String[]{"InterfaceDoesNotExist"});
+		MethodNode constructor = new MethodNode(ACC_PUBLIC, "<init>", "()V", null, null);
+		constructor.visitVarInsn(ALOAD, 0);
+		constructor.visitMethodInsn(INVOKESPECIAL, "ClassDoesNotExist", "<init>", "()V", false);
+		constructor.visitVarInsn(ALOAD, 0);
+		constructor.visitMethodInsn(INVOKEINTERFACE, "InterfaceDoesNotExist", "doSomething", "()V", false);
+		constructor.visitInsn(RETURN);
+		constructor.visitMaxs(1, 1);
+		node.methods.add(constructor);
+
+		// Create the class
+		ClassWriter writer = new ClassWriter(0);
+		node.accept(writer);
+		byte[] dummy = writer.toByteArray();
+		return new JvmClassInfoBuilder(dummy).build();
+	}
 }
@@ -1,5 +1,6 @@
 package software.coley.recaf.services.search;
 
+import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@
 import software.coley.recaf.services.search.match.StringPredicateProvider;
 import software.coley.recaf.services.search.query.DeclarationQuery;
 import software.coley.recaf.services.search.query.InstructionQuery;
+import software.coley.recaf.services.search.query.JvmClassQuery;
 import software.coley.recaf.services.search.query.NumberQuery;
 import software.coley.recaf.services.search.query.Query;
 import software.coley.recaf.services.search.query.ReferenceQuery;
@@ -34,11 +36,15 @@
 import software.coley.recaf.test.dummy.TypeAnnotationImpl;
 import software.coley.recaf.workspace.model.EmptyWorkspace;
 import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,6 +120,36 @@ void testClassNumbers() {
 			assertEquals(26, results.size());
 		}
 
+		@Test
+		void testResultLimitAndStreaming() {
+			List<Result<?>> streamed = new CopyOnWriteArrayList<>();
+			SearchFeedback feedback = new SearchFeedback() {
+				@Override
+				public int getResultLimit() {
+					return 3;
+				}
+
+				@Override
+				public void onResultsFound(@Nonnull List<Result<?>> results) {
+					streamed.addAll(results);
+				}
+			};
+
+			// There are 26 matches, but we only want the first 3
+			Query query = new NumberQuery(numMatchProvider.newNotEqualsPredicate(4));
+			Results results = searchService.search(classesWorkspace, query, feedback);
+			assertEquals(3, streamed.size());
+			assertFalse(results.isEmpty());
+			assertTrue(results.size() <= 3);
+		}
+
+		@Test
+		void testSearchAsync() {
+			Query query = new NumberQuery(numMatchProvider.newNotEqualsPredicate(4));
+			Results results = searchService.searchAsync(classesWorkspace, List.of(query), SearchFeedback.NO_OP).join();
+			assertEquals(26, results.size());
+		}
+
 		@Test
 		void testClassStrings() {
 			Results results = searchService.search(classesWorkspace, new StringQuery(strMatchProvider.newEqualPredicate("Hello world")));
@@ -315,6 +351,115 @@ void testMemberDeclarations() {
 		}
 	}
 
+	@Nested
+	class Index {
+		@Test
+		void testIndexMatchesVisitorSearch() {
+			SearchIndex index = new SearchIndex(classesWorkspace);
+			index.build();
+			try {
+				List<JvmClassQuery> queries = List.of(
+						new ReferenceQuery(strMatchProvider.newEqualPredicate("java/lang/System")),
+						new ReferenceQuery(strMatchProvider.newStartsWithPredicate("java/lang/")),
+						new ReferenceQuery(
+								strMatchProvider.newEqualPredicate("java/lang/System"),
+								strMatchProvider.newEqualPredicate("out"),
+								null),
+						new ReferenceQuery(
+								null,
+								strMatchProvider.newEqualPredicate("out"),
+								strMatchProvider.newEqualPredicate("Ljava/io/PrintStream;")),
+						new StringQuery(strMatchProvider.newEqualPredicate("Hello world")),
+						new StringQuery(strMatchProvider.newStartsWithPredicate("Hello")),
+						new NumberQuery(numMatchProvider.newEqualsPredicate(4)),
+						new NumberQuery(numMatchProvider.newGreaterThanPredicate(4))
+				);
+				for (JvmClassQuery query : queries) {
+					assertTrue(index.canAnswer(query), "Index should support query: " + query);
+
+					Set<PathNode<?>> indexPaths = new HashSet<>();
+					index.search(query, SearchFeedback.NO_OP, (path, value) -> indexPaths.add(path));
+					Set<PathNode<?>> visitorPaths = searchService.search(classesWorkspace, query).stream()
+							.map(Result::getPath)
+							.collect(Collectors.toSet());
+					assertFalse(visitorPaths.isEmpty());
+					assertEquals(visitorPaths, indexPaths, "Index and visitor results differ for: " + query);
+				}
+			} finally {
+				index.close();
+			}
+		}
+
+		@Test
+		void testIndexStopsFeedingOnceCancelled() {
+			SearchIndex index = new SearchIndex(classesWorkspace);
+			index.build();
+			try {
+				// There are 26 matches, but the sink requests no more values once it has 3
+				List<Object> values = new ArrayList<>();
+				SearchFeedback feedback = new SearchFeedback() {
+					@Override
+					public boolean hasRequestedCancellation() {
+						return values.size() >= 3;
+					}
+				};
+				index.search(new NumberQuery(numMatchProvider.newNotEqualsPredicate(4)), feedback,
+						(path, value) -> values.add(value));
+				assertEquals(3, values.size());
+			} finally {
+				index.close();
+			}
+		}
+
+		@Test
+		void testClosedIndexIsNotBuilt() throws IOException {
+			BasicJvmClassBundle bundle = fromClasses(fromRuntimeClass(HelloWorld.class));
+			Workspace workspace = fromBundle(bundle);
+			SearchIndex index = new SearchIndex(workspace);
+
+			// A workspace closed before the background build starts should not have the index register listeners
+			index.close();
+			index.build();
+			assertFalse(index.isReady());
+			StringQuery query = new StringQuery(strMatchProvider.newStartsWithPredicate("Consumed"));
+			Set<PathNode<?>> paths = new HashSet<>();
+			bundle.put(fromRuntimeClass(StringConsumer.class));
+			index.search(query, SearchFeedback.NO_OP, (path, value) -> paths.add(path));
+			assertTrue(paths.isEmpty(), "Closed index should not track classes");
+		}
+
+		@Test
+		void testIndexDoesNotSupportRegex() {
+			SearchIndex index = new SearchIndex(EmptyWorkspace.get());
+			assertFalse(index.canAnswer(new StringQuery(strMatchProvider.newPartialRegexPredicate("\\w+"))));
+			assertFalse(index.canAnswer(new ReferenceQuery(strMatchProvider.newContainsPredicate("System"))));
+		}
+
+		@Test
+		void testIndexUpdatesWithClasses() throws IOException {
+			BasicJvmClassBundle bundle = fromClasses(fromRuntimeClass(HelloWorld.class));
+			Workspace workspace = fromBundle(bundle);
+			SearchIndex index = new SearchIndex(workspace);
+			index.build();
+
+			StringQuery query = new StringQuery(strMatchProvider.newStartsWithPredicate("Consumed"));
+			Set<PathNode<?>> paths = new HashSet<>();
+			index.search(query, SearchFeedback.NO_OP, (path, value) -> paths.add(path));
+			assertTrue(paths.isEmpty(), "Class not yet in workspace should not be indexed");
+
+			// Adding a class should index it
+			bundle.put(fromRuntimeClass(StringConsumer.class));
+			index.search(query, SearchFeedback.NO_OP, (path, value) -> paths.add(path));
+			assertEquals(1, paths.size(), "Newly added class should be indexed");
+
+			// Removing a class should remove its values from the index
+			paths.clear();
+			bundle.remove(StringConsumer.class.getName().replace('.', '/'));
+			index.search(query, SearchFeedback.NO_OP, (path, value) -> paths.add(path));
+			assertTrue(paths.isEmpty(), "Removed class should not be indexed");
+		}
+	}
+
 	@Nested
 	class File {
 		@Test
@@ -0,0 +1,54 @@
+package software.coley.recaf.services.transform;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.ClassWithExceptions;
+import software.coley.recaf.test.dummy.ClassWithLambda;
+import software.coley.recaf.test.dummy.HelloWorld;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link JvmClassSummary}.
+ */
+class JvmClassSummaryTest {
+	@Test
+	void helloWorld() throws IOException {
+		JvmClassInfo cls = TestClassUtils.fromRuntimeClass(HelloWorld.class);
+		JvmClassSummary summary = JvmClassSummary.of(cls.getBytecode());
+		assertEquals(cls.getName(), summary.getName());
+		assertEquals(1, summary.getOpcodeCount(Opcodes.GETSTATIC));
+		assertEquals(1, summary.getOpcodeCount(Opcodes.LDC));
+		assertTrue(summary.hasOpcode(Opcodes.INVOKEVIRTUAL));
+		assertFalse(summary.hasOpcode(Opcodes.INVOKESTATIC));
+		assertTrue(summary.getReferencedOwners().contains("java/lang/System"));
+		assertTrue(summary.getReferencedOwners().contains("java/io/PrintStream"));
+		assertFalse(summary.hasTryCatch());
+		assertFalse(summary.hasInvokeDynamic());
+	}
+
+	@Test
+	void tryCatchAndInvokeDynamic() throws IOException {
+		assertTrue(JvmClassSummary.of(TestClassUtils.fromRuntimeClass(ClassWithExceptions.class).getBytecode()).hasTryCatch());
+		assertTrue(JvmClassSummary.of(TestClassUtils.fromRuntimeClass(ClassWithLambda.class).getBytecode()).hasInvokeDynamic());
+	}
+
+	@Test
+	void nodeAndBytecodeSummariesMatch() throws IOException {
+		JvmClassInfo cls = TestClassUtils.fromRuntimeClass(ClassWithLambda.class);
+		ClassNode node = new ClassNode();
+		cls.getClassReader().accept(node, ClassReader.SKIP_FRAMES);
+		JvmClassSummary fromBytecode = JvmClassSummary.of(cls.getBytecode());
+		JvmClassSummary fromNode = JvmClassSummary.of(node);
+		for (int op = 0; op < 256; op++)
+			assertEquals(fromBytecode.getOpcodeCount(op), fromNode.getOpcodeCount(op), "Opcode count mismatch: " + op);
+		assertEquals(fromBytecode.getReferencedOwners(), fromNode.getReferencedOwners());
+		assertEquals(fromBytecode.hasTryCatch(), fromNode.hasTryCatch());
+	}
+}
@@ -0,0 +1,137 @@
+package software.coley.recaf.services.transform;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Frame;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.inheritance.InheritanceGraph;
+import software.coley.recaf.services.inheritance.InheritanceGraphService;
+import software.coley.recaf.test.TestBase;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.HelloWorld;
+import software.coley.recaf.util.analysis.value.ReValue;
+import software.coley.recaf.workspace.model.Workspace;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.NOP;
+
+/**
+ * Tests for {@link JvmTransformerContext} analysis frame caching.
+ */
+class JvmTransformerContextTest extends TestBase {
+	private static final Workspace workspace;
+	private static final InheritanceGraph inheritanceGraph;
+	private static final JvmClassBundle bundle;
+	private static final JvmClassInfo cls;
+	private JvmTransformerContext context;
+
+	static {
+		try {
+			workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(HelloWorld.class));
+			inheritanceGraph = recaf.get(InheritanceGraphService.class).newInheritanceGraph(workspace);
+			bundle = workspace.getPrimaryResource().getJvmClassBundle();
+			cls = bundle.iterator().next();
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to read input class for context test", e);
+		}
+	}
+
+	@BeforeEach
+	void setup() {
+		context = new JvmTransformerContext(workspace, workspace.getPrimaryResource());
+	}
+
+	@Test
+	void unmodifiedCopiesShareFrames() throws TransformationException {
+		ClassNode first = context.getNode(bundle, cls);
+		ClassNode second = context.getNode(bundle, cls);
+		Frame<ReValue>[] firstFrames = context.analyze(inheritanceGraph, first, main(first));
+		assertEquals(0, context.getFrameCacheHits());
+		assertEquals(1, context.getFrameCacheMisses());
+
+		// Same method in another copy of the class is not modified, so it should reuse the frames.
+		assertSame(firstFrames, context.analyze(inheritanceGraph, second, main(second)));
+		assertSame(firstFrames, context.analyze(inheritanceGraph, first, main(first)));
+		assertEquals(2, context.getFrameCacheHits());
+		assertEquals(1, context.getFrameCacheMisses());
+	}
+
+	@Test
+	void modifiedMethodIsAnalyzedAgain() throws TransformationException {
+		ClassNode node = context.getNode(bundle, cls);
+		MethodNode method = main(node);
+		Frame<ReValue>[] frames = context.analyze(inheritanceGraph, node, method);
+
+		method.instructions.insert(new InsnNode(NOP));
+		Frame<ReValue>[] modifiedFrames = context.analyze(inheritanceGraph, node, method);
+		assertNotSame(frames, modifiedFrames);
+		assertEquals(frames.length + 1, modifiedFrames.length);
+		assertEquals(2, context.getFrameCacheMisses());
+
+		// Other copies are not modified, so they should not see frames of the modified method.
+		ClassNode other = context.getNode(bundle, cls);
+		assertEquals(frames.length, context.analyze(inheritanceGraph, other, main(other)).length);
+	}
+
+	@Test
+	void committedNodeSharesFramesOfUnmodifiedMethods() throws TransformationException {
+		ClassNode node = context.getNode(bundle, cls);
+		Frame<ReValue>[] frames = context.analyze(inheritanceGraph, node, main(node));
+		context.setNode(bundle, cls, node);
+
+		// Copies of the committed node should reuse the frames computed before the commit.
+		ClassNode copy = context.getNode(bundle, cls);
+		assertSame(frames, context.analyze(inheritanceGraph, copy, main(copy)));
+		assertEquals(1, context.getFrameCacheHits());
+	}
+
+	@Test
+	void modifiedOperandIsAnalyzedAgain() throws TransformationException {
+		ClassNode node = context.getNode(bundle, cls);
+		MethodNode method = main(node);
+		Frame<ReValue>[] frames = context.analyze(inheritanceGraph, node, method);
+
+		// Changing the operand of an existing instruction must not yield old frames.
+		LdcInsnNode ldc = (LdcInsnNode) Arrays.stream(method.instructions.toArray())
+				.filter(insn -> insn instanceof LdcInsnNode)
+				.findFirst()
+				.orElseThrow();
+		ldc.cst = "Goodbye world";
+		assertNotSame(frames, context.analyze(inheritanceGraph, node, method));
+		assertEquals(0, context.getFrameCacheHits());
+		assertEquals(2, context.getFrameCacheMisses());
+	}
+
+	@Test
+	void changedClassDataInvalidatesFramesOfReferencingMethods() throws TransformationException {
+		ClassNode node = context.getNode(bundle, cls);
+		MethodNode method = main(node);
+		Frame<ReValue>[] frames = context.analyze(inheritanceGraph, node, method);
+
+		// Changes to data of classes not referenced by the method should not affect its frames.
+		context.markClassDataChanged("some/OtherClass");
+		assertSame(frames, context.analyze(inheritanceGraph, node, method));
+		assertEquals(1, context.getFrameCacheHits());
+
+		// Analysis may use collected data of referenced classes, so changes to their data must not yield old frames.
+		context.markClassDataChanged("java/lang/System");
+		assertNotSame(frames, context.analyze(inheritanceGraph, node, method));
+		assertEquals(1, context.getFrameCacheHits());
+		assertEquals(2, context.getFrameCacheMisses());
+	}
+
+	private static MethodNode main(ClassNode node) {
+		return node.methods.stream()
+				.filter(m -> m.name.equals("main"))
+				.findFirst()
+				.orElseThrow();
+	}
+}
@@ -1,28 +1,46 @@
 package software.coley.recaf.services.transform;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.deobfuscation.transform.generic.StaticValueCollectionTransformer;
 import software.coley.recaf.services.inheritance.InheritanceGraph;
 import software.coley.recaf.services.inheritance.InheritanceGraphService;
 import software.coley.recaf.services.mapping.MappingApplier;
 import software.coley.recaf.services.mapping.MappingApplierService;
+import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.test.TestBase;
 import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.AccessibleFields;
 import software.coley.recaf.test.dummy.HelloWorld;
+import software.coley.recaf.test.dummy.StringConsumer;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceResource;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -126,6 +144,116 @@ void cycleSingle() {
 		verify(transformer, never()).transform(any(), same(workspace), any(), any(), any());
 	}
 
+	@Test
+	void multiPassRevisitsOnlyModifiedClasses() throws IOException {
+		// Make a workspace with two classes, where only one of them will be modified by the transformer
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(HelloWorld.class, StringConsumer.class));
+		InheritanceGraph inheritanceGraph = recaf.get(InheritanceGraphService.class).newInheritanceGraph(workspace);
+		MappingApplier mappingApplier = recaf.get(MappingApplierService.class).inWorkspace(workspace);
+		JvmModifyOnceTransformer transformer = spy(new JvmModifyOnceTransformer());
+		Map<Class<? extends JvmClassTransformer>, Supplier<JvmClassTransformer>> map = new IdentityHashMap<>();
+		map.put(JvmModifyOnceTransformer.class, () -> transformer);
+
+		// Pass 1 visits both classes and modifies 'HelloWorld'
+		// Pass 2 only visits 'HelloWorld' and does no work, so no further passes are run
+		TransformationManager manager = new TransformationManager(map);
+		TransformationApplier applier = new TransformationApplier(manager, config, inheritanceGraph, mappingApplier, workspace);
+		applier.setMaxPasses(5);
+		assertDoesNotThrow(() -> applier.transformJvm(Collections.singletonList(JvmModifyOnceTransformer.class)));
+		verify(transformer, times(2)).transform(any(), same(workspace), any(), any(),
+				argThat(cls -> cls.getName().equals(JvmModifyOnceTransformer.TARGET)));
+		verify(transformer, times(1)).transform(any(), same(workspace), any(), any(),
+				argThat(cls -> !cls.getName().equals(JvmModifyOnceTransformer.TARGET)));
+	}
+
+	@Test
+	void unchangedCollectedDataDoesNotScheduleRevisits() throws IOException {
+		// Make a workspace with a class holding static constants, and a class that will be modified by another transformer
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(HelloWorld.class, AccessibleFields.class));
+		InheritanceGraph inheritanceGraph = recaf.get(InheritanceGraphService.class).newInheritanceGraph(workspace);
+		MappingApplier mappingApplier = recaf.get(MappingApplierService.class).inWorkspace(workspace);
+		StaticValueCollectionTransformer collector = spy(new StaticValueCollectionTransformer(
+				recaf.get(WorkspaceManager.class), recaf.get(InheritanceGraphService.class)));
+		JvmModifyOnceTransformer modifier = new JvmModifyOnceTransformer();
+		Map<Class<? extends JvmClassTransformer>, Supplier<JvmClassTransformer>> map = new IdentityHashMap<>();
+		map.put(StaticValueCollectionTransformer.class, () -> collector);
+		map.put(JvmModifyOnceTransformer.class, () -> modifier);
+
+		// Pass 1 visits both classes, recording the constants of 'AccessibleFields' for the first time
+		// Pass 2 only visits 'HelloWorld' since the values of 'AccessibleFields' did not change from a prior pass
+		TransformationManager manager = new TransformationManager(map);
+		TransformationApplier applier = new TransformationApplier(manager, config, inheritanceGraph, mappingApplier, workspace);
+		applier.setMaxPasses(5);
+		assertDoesNotThrow(() -> applier.transformJvm(List.of(StaticValueCollectionTransformer.class, JvmModifyOnceTransformer.class)));
+		assertNotNull(collector.getStaticValue(AccessibleFields.class.getName().replace('.', '/'), "CONSTANT_FIELD", "I"));
+		verify(collector, times(2)).transform(any(), same(workspace), any(), any(),
+				argThat(cls -> cls.getName().equals(JvmModifyOnceTransformer.TARGET)));
+		verify(collector, times(1)).transform(any(), same(workspace), any(), any(),
+				argThat(cls -> !cls.getName().equals(JvmModifyOnceTransformer.TARGET)));
+	}
+
+	@Test
+	void callersOfModifiedClassesAreRevisited() throws Exception {
+		// Make a workspace where one class calls a method in another class
+		JvmClassInfo caller = TestClassUtils.createClass(JvmCallerInliningTransformer.CALLER, n -> {
+			MethodNode method = new MethodNode(Opcodes.ACC_STATIC, "run", "()I", null, null);
+			method.instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, JvmCallerInliningTransformer.CALLEE, "value", "()I"));
+			method.instructions.add(new InsnNode(Opcodes.IRETURN));
+			n.methods.add(method);
+		});
+		JvmClassInfo callee = TestClassUtils.createClass(JvmCallerInliningTransformer.CALLEE, null);
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(caller, callee));
+		InheritanceGraph inheritanceGraph = recaf.get(InheritanceGraphService.class).newInheritanceGraph(workspace);
+		MappingApplier mappingApplier = recaf.get(MappingApplierService.class).inWorkspace(workspace);
+		JvmCallerInliningTransformer inliner = spy(new JvmCallerInliningTransformer());
+		Map<Class<? extends JvmClassTransformer>, Supplier<JvmClassTransformer>> map = new IdentityHashMap<>();
+		map.put(JvmCallerInliningTransformer.class, () -> inliner);
+		map.put(JvmCalleeSimplifyingTransformer.class, JvmCalleeSimplifyingTransformer::new);
+
+		// Pass 1 cannot inline the call since the callee is only simplified afterward.
+		// Pass 2 must revisit the caller even though only the callee was modified in pass 1,
+		// giving the same output as if all classes were visited in every pass.
+		TransformationManager manager = new TransformationManager(map);
+		TransformationApplier applier = new TransformationApplier(manager, config, inheritanceGraph, mappingApplier, workspace);
+		applier.setMaxPasses(5);
+		JvmTransformResult result = applier.transformJvm(List.of(JvmCallerInliningTransformer.class, JvmCalleeSimplifyingTransformer.class));
+		Map<String, JvmClassInfo> transformed = new HashMap<>();
+		result.getTransformedClasses().values().forEach(cls -> transformed.put(cls.getName(), cls));
+		assertEquals(Set.of(JvmCallerInliningTransformer.CALLER, JvmCallerInliningTransformer.CALLEE), transformed.keySet());
+		assertTrue(transformed.get(JvmCallerInliningTransformer.CALLER).getFields().stream()
+				.anyMatch(f -> f.getName().equals(JvmCallerInliningTransformer.MARKER)));
+		verify(inliner, times(3)).transform(any(), same(workspace), any(), any(),
+				argThat(cls -> cls.getName().equals(JvmCallerInliningTransformer.CALLER)));
+	}
+
+	@Test
+	void profileRecordsTransformerCosts() throws Exception {
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(HelloWorld.class, StringConsumer.class));
+		InheritanceGraph inheritanceGraph = recaf.get(InheritanceGraphService.class).newInheritanceGraph(workspace);
+		MappingApplier mappingApplier = recaf.get(MappingApplierService.class).inWorkspace(workspace);
+		Map<Class<? extends JvmClassTransformer>, Supplier<JvmClassTransformer>> map = new IdentityHashMap<>();
+		map.put(JvmModifyOnceTransformer.class, JvmModifyOnceTransformer::new);
+
+		// Same passes as the prior test, so the transformer is run 2 times in pass 1 and 1 time in pass 2
+		TransformationManager manager = new TransformationManager(map);
+		TransformationApplier applier = new TransformationApplier(manager, config, inheritanceGraph, mappingApplier, workspace);
+		applier.setMaxPasses(5);
+		JvmTransformProfile profile = applier.transformJvm(Collections.singletonList(JvmModifyOnceTransformer.class)).getProfile();
+		assertEquals(2, profile.getPasses());
+		assertEquals(3, profile.getTransformerCosts().get(JvmModifyOnceTransformer.class).invocations());
+		assertEquals(2, profile.getPassCosts().get(1).get(JvmModifyOnceTransformer.class).invocations());
+		assertEquals(1, profile.getPassCosts().get(2).get(JvmModifyOnceTransformer.class).invocations());
+		assertEquals(3, profile.getSlowestClasses().size());
+		assertTrue(profile.getTotalWallNanos() > 0);
+
+		// Report should be valid JSON
+		JsonObject json = JsonParser.parseString(profile.toJson()).getAsJsonObject();
+		assertEquals(2, json.get("passes").getAsInt());
+		assertEquals(1, json.getAsJsonArray("transformers").size());
+		assertEquals(2, json.getAsJsonArray("pass-costs").size());
+		assertEquals(3, json.getAsJsonArray("slowest-classes").size());
+	}
+
 	@Test
 	void missingRegistration() {
 		// If we transform with a transformer that is not registered in the manager, the transform should fail
@@ -150,6 +278,78 @@ public String name() {
 		}
 	}
 
+	static class JvmModifyOnceTransformer implements JvmClassTransformer {
+		private static final String TARGET = HelloWorld.class.getName().replace('.', '/');
+		private final Set<String> modified = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
+		                      @Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
+		                      @Nonnull JvmClassInfo initialClassState) {
+			if (initialClassState.getName().equals(TARGET) && modified.add(TARGET))
+				context.setBytecode(bundle, initialClassState, context.getBytecode(bundle, initialClassState));
+		}
+
+		@Nonnull
+		@Override
+		public String name() {
+			return "jvm-modify-once";
+		}
+	}
+
+	static class JvmCallerInliningTransformer implements JvmClassTransformer {
+		private static final String CALLER = "Caller";
+		private static final String CALLEE = "Callee";
+		private static final String MARKER = "simplified";
+
+		@Override
+		public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
+		                      @Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
+		                      @Nonnull JvmClassInfo initialClassState) {
+			// Mark the caller once the transformed state of the callee is marked
+			if (!initialClassState.getName().equals(CALLER))
+				return;
+			JvmClassInfo callee = bundle.get(CALLEE);
+			ClassNode node = context.getNode(bundle, initialClassState);
+			if (callee != null && hasMarker(context.getNode(bundle, callee)) && !hasMarker(node)) {
+				node.fields.add(new FieldNode(Opcodes.ACC_STATIC, MARKER, "I", null, null));
+				context.setNode(bundle, initialClassState, node);
+			}
+		}
+
+		private static boolean hasMarker(@Nonnull ClassNode node) {
+			return node.fields.stream().anyMatch(f -> f.name.equals(MARKER));
+		}
+
+		@Nonnull
+		@Override
+		public String name() {
+			return "jvm-caller-inlining";
+		}
+	}
+
+	static class JvmCalleeSimplifyingTransformer implements JvmClassTransformer {
+		@Override
+		public void transform(@Nonnull JvmTransformerContext context, @Nonnull Workspace workspace,
+		                      @Nonnull WorkspaceResource resource, @Nonnull JvmClassBundle bundle,
+		                      @Nonnull JvmClassInfo initialClassState) {
+			// Mark the callee once
+			if (!initialClassState.getName().equals(JvmCallerInliningTransformer.CALLEE))
+				return;
+			ClassNode node = context.getNode(bundle, initialClassState);
+			if (!JvmCallerInliningTransformer.hasMarker(node)) {
+				node.fields.add(new FieldNode(Opcodes.ACC_STATIC, JvmCallerInliningTransformer.MARKER, "I", null, null));
+				context.setNode(bundle, initialClassState, node);
+			}
+		}
+
+		@Nonnull
+		@Override
+		public String name() {
+			return "jvm-callee-simplifying";
+		}
+	}
+
 	static class JvmTransformerB implements JvmClassTransformer {
 
 		@Override
@@ -3,11 +3,14 @@
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
+import software.coley.recaf.info.BasicFileInfo;
 import software.coley.recaf.info.BasicNativeLibraryFileInfo;
 import software.coley.recaf.info.FileInfo;
+import software.coley.recaf.info.ImageFileInfo;
 import software.coley.recaf.info.Info;
 import software.coley.recaf.info.JarFileInfo;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.TextFileInfo;
 import software.coley.recaf.info.properties.builtin.ZipAccessTimeProperty;
 import software.coley.recaf.info.properties.builtin.ZipCommentProperty;
 import software.coley.recaf.info.properties.builtin.ZipCreationTimeProperty;
@@ -397,6 +400,67 @@ void testImportsFromDifferentSourcesAreTheSame() throws IOException {
 		assertEquals(fromByteSource, fromUrl);
 	}
 
+	@Test
+	void testLazyZipContent() throws IOException {
+		// Create zip:
+		//  - data.bin
+		//  - image.png
+		//  - hello.txt
+		//  - foo.zip (containing foo)
+		//  - bla/bla/bla/HelloWorld.class
+		byte[] data = new byte[4096];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (byte) (i * 31);
+		Map<String, byte[]> map = new LinkedHashMap<>();
+		byte[] image = Arrays.copyOf(new byte[]{(byte) 0x89, 'P', 'N', 'G'}, 256);
+		map.put("data.bin", data);
+		map.put("image.png", image);
+		map.put("hello.txt", "Hello world".getBytes(StandardCharsets.UTF_8));
+		map.put(HelloWorld.class.getName().replace(".", "/") + ".class",
+				TestClassUtils.fromRuntimeClass(HelloWorld.class).getBytecode());
+		map.put("foo.zip", ZipCreationUtils.createSingleEntryZip("foo", new byte[]{1, 2, 3}));
+		byte[] zipBytes = ZipCreationUtils.createZip(map);
+		File tempFile = File.createTempFile("recaf", "test.zip");
+		Files.write(tempFile.toPath(), zipBytes);
+		tempFile.deleteOnExit();
+
+		// Import with content read on demand
+		ResourceImporterConfig config = new ResourceImporterConfig();
+		config.doLazyZipContent().setValue(true);
+		ResourceImporter lazyImporter = new BasicResourceImporter(
+				new BasicInfoImporter(new InfoImporterConfig(), new TextFormatConfig(), new BasicClassPatcher()),
+				config
+		);
+		WorkspaceResource lazyResource = lazyImporter.importResource(tempFile.toPath());
+
+		// Binary content should not be held, but should still be readable
+		FileInfo dataInfo = lazyResource.getFileBundle().get("data.bin");
+		assertNotNull(dataInfo);
+		assertTrue(assertInstanceOf(BasicFileInfo.class, dataInfo).isLazy(), "Binary content should be lazy");
+		assertArrayEquals(data, dataInfo.getRawContent());
+
+		// Content read on demand is not shared between readers
+		dataInfo.getRawContent()[0] = 42;
+		assertArrayEquals(data, dataInfo.getRawContent());
+
+		// Media is typed from the start of its content, without holding the content
+		FileInfo imageInfo = lazyResource.getFileBundle().get("image.png");
+		assertInstanceOf(ImageFileInfo.class, imageInfo);
+		assertTrue(assertInstanceOf(BasicFileInfo.class, imageInfo).isLazy(), "Media content should be lazy");
+		assertArrayEquals(image, imageInfo.getRawContent());
+
+		// Text and classes are still read eagerly, and embedded archives are still populated.
+		FileInfo textInfo = lazyResource.getFileBundle().get("hello.txt");
+		assertInstanceOf(TextFileInfo.class, textInfo);
+		assertEquals(1, lazyResource.getJvmClassBundle().size());
+		WorkspaceFileResource embedded = lazyResource.getEmbeddedResources().get("foo.zip");
+		assertNotNull(embedded);
+		assertArrayEquals(new byte[]{1, 2, 3}, embedded.getFileBundle().get("foo").getRawContent());
+
+		// Should be equal to the eager import
+		assertEquals(importer.importResource(tempFile.toPath()), lazyResource);
+	}
+
 	@Test
 	void testSkipDirectories() throws IOException {
 		byte[] empty = new byte[0];
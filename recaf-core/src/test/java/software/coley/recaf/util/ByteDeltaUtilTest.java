@@ -0,0 +1,60 @@
+package software.coley.recaf.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ByteDeltaUtil}.
+ */
+class ByteDeltaUtilTest {
+	@Test
+	void testIdentity() {
+		byte[] data = randomData(4096, 0);
+		byte[] delta = ByteDeltaUtil.encode(data, data);
+		assertArrayEquals(data, ByteDeltaUtil.apply(data, delta));
+		assertTrue(delta.length < 16, "Identical content should encode as a single copy");
+	}
+
+	@Test
+	void testSmallEdit() {
+		byte[] base = randomData(8192, 1);
+		byte[] target = base.clone();
+		target[100] ^= 1;
+		target[5000] ^= 1;
+		byte[] delta = ByteDeltaUtil.encode(base, target);
+		assertArrayEquals(target, ByteDeltaUtil.apply(base, delta));
+		assertTrue(delta.length < 128, "Small edits should produce small deltas");
+	}
+
+	@Test
+	void testMovedAndInsertedContent() {
+		byte[] base = randomData(2048, 2);
+		byte[] inserted = "inserted".getBytes(StandardCharsets.UTF_8);
+		byte[] target = new byte[base.length + inserted.length];
+		System.arraycopy(base, 1024, target, 0, 1024);
+		System.arraycopy(inserted, 0, target, 1024, inserted.length);
+		System.arraycopy(base, 0, target, 1024 + inserted.length, 1024);
+		byte[] delta = ByteDeltaUtil.encode(base, target);
+		assertArrayEquals(target, ByteDeltaUtil.apply(base, delta));
+		assertTrue(delta.length < 64, "Moved content should be copied from the base");
+	}
+
+	@Test
+	void testUnrelatedAndEmptyContent() {
+		byte[] base = randomData(1000, 3);
+		byte[] target = randomData(777, 4);
+		assertArrayEquals(target, ByteDeltaUtil.apply(base, ByteDeltaUtil.encode(base, target)));
+		assertArrayEquals(new byte[0], ByteDeltaUtil.apply(base, ByteDeltaUtil.encode(base, new byte[0])));
+		assertArrayEquals(target, ByteDeltaUtil.apply(new byte[0], ByteDeltaUtil.encode(new byte[0], target)));
+	}
+
+	private static byte[] randomData(int length, long seed) {
+		byte[] data = new byte[length];
+		new Random(seed).nextBytes(data);
+		return data;
+	}
+}
@@ -0,0 +1,112 @@
+package software.coley.recaf.util.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ComputeScheduler}.
+ */
+class ComputeSchedulerTest {
+	@Test
+	void testGroupConcurrencyLimit() throws Exception {
+		ComputeScheduler scheduler = new ComputeScheduler();
+		try {
+			ExecutorService group = scheduler.newTaskGroup("test", ComputeLane.CPU, 2);
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < 20; i++)
+				tasks.add(() -> {
+					int current = running.incrementAndGet();
+					maxRunning.accumulateAndGet(current, Math::max);
+					Thread.sleep(5);
+					running.decrementAndGet();
+					return null;
+				});
+			group.invokeAll(tasks);
+			group.shutdown();
+			assertTrue(group.awaitTermination(10, TimeUnit.SECONDS), "Group did not terminate");
+			assertTrue(maxRunning.get() <= 2, "Group exceeded concurrency limit");
+
+			// Metrics should reflect the completed work.
+			// The lane records completion just after the group does, so allow it a moment to catch up.
+			LaneMetrics metrics = scheduler.getMetrics(ComputeLane.CPU);
+			for (int i = 0; i < 100 && metrics.completedTasks() < 20; i++) {
+				Thread.sleep(10);
+				metrics = scheduler.getMetrics(ComputeLane.CPU);
+			}
+			assertEquals(20, metrics.completedTasks());
+			assertEquals(0, metrics.queueDepth());
+			assertTrue(metrics.busyTimeNanos() > 0);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void testNestedGroupsDoNotDeadlock() throws Exception {
+		ComputeScheduler scheduler = new ComputeScheduler();
+		try {
+			// Outer tasks block on inner groups, which share the same lane.
+			int cores = Runtime.getRuntime().availableProcessors();
+			ExecutorService outer = scheduler.newTaskGroup("outer", ComputeLane.CPU, cores);
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < cores * 2; i++)
+				futures.add(outer.submit(() -> {
+					ExecutorService inner = scheduler.newTaskGroup("inner", ComputeLane.CPU, cores);
+					Future<Integer> value = inner.submit(() -> 1);
+					inner.shutdown();
+					assertTrue(inner.awaitTermination(10, TimeUnit.SECONDS));
+					return value.get();
+				}));
+			int sum = 0;
+			for (Future<Integer> future : futures)
+				sum += future.get(10, TimeUnit.SECONDS);
+			assertEquals(cores * 2, sum);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void testShutdownNowInterruptsRunningTasks() throws Exception {
+		ComputeScheduler scheduler = new ComputeScheduler();
+		try {
+			ExecutorService group = scheduler.newTaskGroup("test", ComputeLane.BACKGROUND, 1);
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+			group.execute(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+				} catch (InterruptedException ex) {
+					interrupted.countDown();
+				}
+			});
+			assertTrue(started.await(10, TimeUnit.SECONDS), "Task did not start");
+			group.shutdownNow();
+			assertTrue(interrupted.await(10, TimeUnit.SECONDS), "Running task was not interrupted");
+			assertTrue(group.awaitTermination(10, TimeUnit.SECONDS), "Group did not terminate");
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void testShutdownRejectsNewTasks() {
+		ExecutorService group = ComputeScheduler.getDefault().newTaskGroup("test", ComputeLane.BLOCKING, 1);
+		group.shutdown();
+		assertTrue(group.isTerminated());
+		assertThrows(Exception.class, () -> group.submit(() -> {}));
+	}
+}
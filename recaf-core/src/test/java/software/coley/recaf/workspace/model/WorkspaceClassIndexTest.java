@@ -0,0 +1,92 @@
+package software.coley.recaf.workspace.model;
+
+import org.junit.jupiter.api.Test;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.path.ClassPathNode;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.ClassWithInner;
+import software.coley.recaf.test.dummy.HelloWorld;
+import software.coley.recaf.test.dummy.StringSupplier;
+import software.coley.recaf.workspace.model.bundle.BasicJvmClassBundle;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
+import software.coley.recaf.workspace.model.resource.WorkspaceResource;
+import software.coley.recaf.workspace.model.resource.WorkspaceResourceBuilder;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link WorkspaceClassIndex}.
+ */
+class WorkspaceClassIndexTest {
+	@Test
+	void classNamesFollowWorkspaceChanges() throws IOException {
+		JvmClassInfo helloWorld = TestClassUtils.fromRuntimeClass(HelloWorld.class);
+		JvmClassInfo classWithInner = TestClassUtils.fromRuntimeClass(ClassWithInner.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(helloWorld);
+		Workspace workspace = TestClassUtils.fromBundle(bundle);
+		assertEquals(Set.of(helloWorld.getName()), names(workspace));
+
+		// Names are shared between lookups while they do not change
+		List<String> names = workspace.getJvmClassNames();
+		assertSame(names, workspace.getJvmClassNames());
+		bundle.put(new JvmClassInfoBuilder(helloWorld.getBytecode()).build());
+		assertSame(names, workspace.getJvmClassNames(), "Updating a class should not change the names");
+
+		// Adding and removing classes updates the names
+		bundle.put(classWithInner);
+		assertEquals(Set.of(helloWorld.getName(), classWithInner.getName()), names(workspace));
+		bundle.remove(classWithInner.getName());
+		assertEquals(Set.of(helloWorld.getName()), names(workspace));
+
+		// Libraries are tracked, and names in multiple resources are only listed once
+		JvmClassInfo supplier = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		WorkspaceResource library = new WorkspaceResourceBuilder()
+				.withJvmClassBundle(TestClassUtils.fromClasses(helloWorld, supplier))
+				.build();
+		workspace.addSupportingResource(library);
+		assertEquals(2, workspace.getJvmClassNames().size());
+		assertEquals(Set.of(helloWorld.getName(), supplier.getName()), names(workspace));
+		workspace.removeSupportingResource(library);
+		assertEquals(Set.of(helloWorld.getName()), names(workspace));
+	}
+
+	@Test
+	void listsPackageContents() {
+		Workspace workspace = TestClassUtils.fromBundle(TestClassUtils.fromClasses(
+				TestClassUtils.createEmptyClass("Root"),
+				TestClassUtils.createEmptyClass("a/A"),
+				TestClassUtils.createEmptyClass("a/b/B")
+		));
+		assertEquals(Set.of("Root"), names(workspace.findJvmClassesInPackage("", false)));
+		assertEquals(Set.of("a/A"), names(workspace.findJvmClassesInPackage("a", false)));
+		assertEquals(Set.of("a/A", "a/b/B"), names(workspace.findJvmClassesInPackage("a", true)));
+		assertEquals(Set.of("Root", "a/A", "a/b/B"), names(workspace.findJvmClassesInPackage("", true)));
+		assertTrue(workspace.findJvmClassesInPackage("c", false).isEmpty());
+
+		// Package contents follow bundle changes
+		JvmClassBundle bundle = workspace.getPrimaryResource().getJvmClassBundle();
+		bundle.put(TestClassUtils.createEmptyClass("a/Added"));
+		assertEquals(Set.of("a/A", "a/Added"), names(workspace.findJvmClassesInPackage("a", false)));
+		bundle.remove("a/A");
+		assertEquals(Set.of("a/Added"), names(workspace.findJvmClassesInPackage("a", false)));
+		bundle.remove("a/Added");
+		assertTrue(workspace.findJvmClassesInPackage("a", false).isEmpty());
+	}
+
+	private static Set<String> names(List<ClassPathNode> paths) {
+		return paths.stream()
+				.map(path -> path.getValue().getName())
+				.collect(Collectors.toSet());
+	}
+
+	private static Set<String> names(Workspace workspace) {
+		return new HashSet<>(workspace.getJvmClassNames());
+	}
+}
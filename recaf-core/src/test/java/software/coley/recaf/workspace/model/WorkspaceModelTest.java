@@ -14,6 +14,7 @@
 import software.coley.recaf.test.dummy.ClassWithExceptions;
 import software.coley.recaf.workspace.model.bundle.BasicAndroidClassBundle;
 import software.coley.recaf.workspace.model.bundle.Bundle;
+import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
 import software.coley.recaf.workspace.model.resource.AndroidApiResource;
 import software.coley.recaf.workspace.model.resource.RuntimeWorkspaceResource;
 import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
@@ -30,6 +31,7 @@
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static software.coley.recaf.test.TestClassUtils.fromClasses;
+import static software.coley.recaf.test.TestClassUtils.fromRuntimeClass;
 
 /**
  * Tests for the {@link Workspace} model.
@@ -250,6 +252,37 @@ void findClass_embeddedDeeperInPrimary() throws IOException {
 			assertEquals(result, allClassPaths.first());
 		}
 
+		@Test
+		void findClass_tracksChanges() throws IOException {
+			JvmClassBundle primaryClasses = fromClasses(AccessibleFields.class);
+			WorkspaceResource primary = new WorkspaceResourceBuilder().withJvmClassBundle(primaryClasses).build();
+			Workspace workspace = new BasicWorkspace(primary, Collections.emptyList(), false);
+			assertNotNull(findClass(workspace, AccessibleFields.class, false));
+			assertNull(findClass(workspace, ClassWithExceptions.class, false));
+
+			// Classes added and removed after the first lookup should be reflected in later lookups.
+			primaryClasses.put(fromRuntimeClass(ClassWithExceptions.class));
+			assertNotNull(findClass(workspace, ClassWithExceptions.class, false));
+			primaryClasses.remove(ClassWithExceptions.class.getName().replace('.', '/'));
+			assertNull(findClass(workspace, ClassWithExceptions.class, false));
+
+			// Supporting resources added later should be found, but the primary resource should take priority.
+			WorkspaceResource supporting = new WorkspaceResourceBuilder()
+					.withJvmClassBundle(fromClasses(AccessibleFields.class, ClassWithConstructor.class))
+					.build();
+			workspace.addSupportingResource(supporting);
+			assertSame(primary, findClass(workspace, AccessibleFields.class, false).getValueOfType(WorkspaceResource.class));
+			assertSame(supporting, findClass(workspace, ClassWithConstructor.class, false).getValueOfType(WorkspaceResource.class));
+
+			// Removing the primary copy should make the supporting copy the first match.
+			primaryClasses.remove(AccessibleFields.class.getName().replace('.', '/'));
+			assertSame(supporting, findClass(workspace, AccessibleFields.class, false).getValueOfType(WorkspaceResource.class));
+
+			// Removed supporting resources should no longer be found.
+			workspace.removeSupportingResource(supporting);
+			assertNull(findClass(workspace, ClassWithConstructor.class, false));
+		}
+
 		/**
 		 * @param workspace
 		 * 		Workspace to search in.
@@ -0,0 +1,181 @@
+package software.coley.recaf.workspace.model.bundle;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.info.builder.JvmClassInfoBuilder;
+import software.coley.recaf.test.TestClassUtils;
+import software.coley.recaf.test.dummy.StringSupplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for item history tracking in {@link BasicBundle}.
+ */
+class BundleHistoryTest {
+	@Test
+	void historyIsReconstructed() throws Exception {
+		JvmClassInfo original = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(original);
+		String key = original.getName();
+		List<JvmClassInfo> revisions = putRevisions(bundle, original, 5);
+
+		// Intermediate states should be equal to what was put, even if they are not the same instances.
+		Stack<JvmClassInfo> history = bundle.getHistory(key);
+		assertNotNull(history);
+		assertEquals(revisions.size() + 1, history.size());
+		assertSame(original, history.getFirst());
+		assertSame(original, bundle.getInitial(key));
+		for (int i = 0; i < revisions.size(); i++)
+			assertEquals(revisions.get(i), history.get(i + 1));
+		assertTrue(bundle.getDirtyKeys().contains(key));
+
+		// Undo all the way back to the original.
+		for (int i = revisions.size() - 2; i >= 0; i--) {
+			bundle.decrementHistory(key);
+			assertEquals(revisions.get(i), bundle.get(key));
+		}
+		bundle.decrementHistory(key);
+		assertSame(original, bundle.get(key));
+		assertFalse(bundle.hasHistory(key));
+		assertFalse(bundle.getDirtyKeys().contains(key));
+	}
+
+	@Test
+	void historyDepthIsLimited() throws Exception {
+		JvmClassInfo original = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(original);
+		bundle.getHistoryRetention().setMaxDepth(2);
+		String key = original.getName();
+		List<JvmClassInfo> revisions = putRevisions(bundle, original, 6);
+
+		// Original + 2 intermediate + current
+		Stack<JvmClassInfo> history = bundle.getHistory(key);
+		assertNotNull(history);
+		assertEquals(4, history.size());
+		assertSame(original, history.getFirst());
+		assertEquals(revisions.get(3), history.get(1));
+		assertEquals(revisions.get(4), history.get(2));
+		assertSame(revisions.getLast(), history.getLast());
+
+		// Undo skips over the trimmed states, directly to the original.
+		bundle.decrementHistory(key);
+		bundle.decrementHistory(key);
+		bundle.decrementHistory(key);
+		assertSame(original, bundle.get(key));
+		assertFalse(bundle.getDirtyKeys().contains(key));
+	}
+
+	@Test
+	void memoryBudgetEvictsOldestStatesAcrossItems() throws Exception {
+		HistoryRetention retention = new HistoryRetention();
+		JvmClassInfo original = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		BasicJvmClassBundle first = TestClassUtils.fromClasses(original);
+		BasicJvmClassBundle second = TestClassUtils.fromClasses(original);
+		first.setHistoryRetention(retention);
+		second.setHistoryRetention(retention);
+		String key = original.getName();
+		putRevisions(first, original, 3);
+		putRevisions(second, original, 1);
+		assertEquals(4, first.getHistory(key).size());
+		assertEquals(2, second.getHistory(key).size());
+
+		// Exceeding the budget with a new state of the second item should evict states of the first item,
+		// rather than the only intermediate state of the item being pushed to.
+		retention.setMemoryBudget(retention.getUsage());
+		putRevisions(second, second.get(key), 1);
+		assertEquals(3, second.getHistory(key).size());
+		assertTrue(first.getHistory(key).size() < 4);
+		assertTrue(retention.getUsage() <= retention.getMemoryBudget());
+	}
+
+	@Test
+	void historyMovesBetweenRetentions() throws Exception {
+		JvmClassInfo original = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(original);
+		String key = original.getName();
+		List<JvmClassInfo> revisions = putRevisions(bundle, original, 3);
+		HistoryRetention initialRetention = bundle.getHistoryRetention();
+		long usage = initialRetention.getUsage();
+		assertTrue(usage > 0);
+
+		// Usage is accounted to the new retention, and the history is left intact.
+		HistoryRetention retention = new HistoryRetention();
+		bundle.setHistoryRetention(retention);
+		assertEquals(0, initialRetention.getUsage());
+		assertEquals(usage, retention.getUsage());
+		assertEquals(revisions.getFirst(), bundle.getHistory(key).get(1));
+
+		// Limits of the new retention apply to the moved history.
+		retention.setMemoryBudget(0);
+		assertEquals(0, retention.getUsage());
+		assertEquals(2, bundle.getHistory(key).size());
+		assertSame(original, bundle.getInitial(key));
+	}
+
+	@Test
+	void removalReleasesMemory() throws Exception {
+		JvmClassInfo original = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(original);
+		HistoryRetention retention = bundle.getHistoryRetention();
+		putRevisions(bundle, original, 3);
+		assertTrue(retention.getUsage() > 0);
+		bundle.remove(original.getName());
+		assertEquals(0, retention.getUsage());
+	}
+
+	@Test
+	void replacingEquivalentItemsIsSilent() throws Exception {
+		JvmClassInfo original = TestClassUtils.fromRuntimeClass(StringSupplier.class);
+		BasicJvmClassBundle bundle = TestClassUtils.fromClasses(original);
+		String key = original.getName();
+		bundle.addBundleListener(new BundleListener<>() {
+			@Override
+			public void onNewItem(@Nonnull String key, @Nonnull JvmClassInfo value) {
+				fail("Replacement is not a new item");
+			}
+
+			@Override
+			public void onUpdateItem(@Nonnull String key, @Nonnull JvmClassInfo oldValue, @Nonnull JvmClassInfo newValue) {
+				fail("Replacement is not an update");
+			}
+
+			@Override
+			public void onRemoveItem(@Nonnull String key, @Nonnull JvmClassInfo value) {
+				fail("Replacement is not a removal");
+			}
+		});
+		bundle.replaceEquivalentItems(cls -> new JvmClassInfoBuilder(cls).build());
+
+		// The new instance should be used, without the replacement being recorded as a change.
+		JvmClassInfo replacement = bundle.get(key);
+		assertNotSame(original, replacement);
+		assertEquals(original, replacement);
+		assertFalse(bundle.hasHistory(key));
+		assertSame(replacement, bundle.getInitial(key));
+	}
+
+	private static List<JvmClassInfo> putRevisions(BasicJvmClassBundle bundle, JvmClassInfo original, int count) {
+		List<JvmClassInfo> revisions = new ArrayList<>();
+		JvmClassInfo current = original;
+		for (int i = 0; i < count; i++) {
+			ClassNode node = new ClassNode();
+			current.getClassReader().accept(node, 0);
+			node.fields.add(new FieldNode(Opcodes.ACC_PUBLIC, "field" + i, "I", null, null));
+			ClassWriter writer = new ClassWriter(0);
+			node.accept(writer);
+			current = new JvmClassInfoBuilder(writer.toByteArray()).build();
+			revisions.add(current);
+			bundle.put(current);
+		}
+		return revisions;
+	}
+}
@@ -19,8 +19,10 @@
 import software.coley.observables.ObservableObject;
 import software.coley.recaf.analytics.logging.Logging;
 import software.coley.recaf.info.JvmClassInfo;
+import software.coley.recaf.services.decompile.DecompileBudget;
 import software.coley.recaf.services.decompile.DecompilerManager;
 import software.coley.recaf.services.decompile.JvmDecompiler;
+import software.coley.recaf.services.decompile.batch.DecompileOutputWriter;
 import software.coley.recaf.services.workspace.WorkspaceManager;
 import software.coley.recaf.ui.config.RecentFilesConfig;
 import software.coley.recaf.ui.control.ActionButton;
@@ -33,19 +35,15 @@
 import software.coley.recaf.util.FxThreadUtil;
 import software.coley.recaf.util.Lang;
 import software.coley.recaf.util.StringUtil;
-import software.coley.recaf.util.ZipCreationUtils;
 import software.coley.recaf.workspace.model.Workspace;
 import software.coley.recaf.workspace.model.bundle.JvmClassBundle;
 import software.coley.recaf.workspace.model.resource.WorkspaceFileResource;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
@@ -100,10 +98,6 @@ public DecompileAllPopup(@Nonnull DecompilerManager decompilerManager,
 
 				// Determine which classes to decompile
 				List<JvmClassInfo> targetClasses = targetBundle.stream().filter(cls -> {
-					// Skip inner classes
-					if (cls.isInnerClass())
-						return false;
-
 					// Skip special case classes like 'module-info' and 'package-info'
 					String name = cls.getName();
 					if (cls.getSuperName() == null || name.equals("module-info") || name.endsWith("package-info"))
@@ -113,46 +107,41 @@ public DecompileAllPopup(@Nonnull DecompilerManager decompilerManager,
 					return namePredicate.test(name);
 				}).toList();
 
-				// Determine delta of each decompilation
+				// Track progress of the decompilation
 				int targetCount = targetClasses.size();
-				AtomicInteger actionedClasses = new AtomicInteger(targetCount);
+				AtomicInteger actionedClasses = new AtomicInteger();
 
-				// Decompile all classes
+				// Decompile all classes, streaming the results into the output archive.
+				// Inner classes are skipped by the manager when their outer class is also being decompiled.
+				// Each class is limited to the same timeout as decompilations in the editor.
 				JvmDecompiler decompiler = decompilerProperty.getValue();
-				ZipCreationUtils.ZipBuilder builder = ZipCreationUtils.builder();
-				targetClasses.forEach(cls -> {
-					String name = cls.getName();
-					decompilerManager.decompile(decompiler, workspace, cls)
-							.orTimeout(decompilerPaneConfig.getTimeoutSeconds().getValue(), TimeUnit.SECONDS)
-							.whenComplete((result, error) -> {
-								int remaining = actionedClasses.decrementAndGet();
-								if (result != null) {
-									// Handle errors
-									if (result.getException() != null) {
-										logger.error("Failed to decompile '{}'", name, result.getException());
-										return;
-									}
-
-									// Write decompilation output
-									String text = result.getText();
-									if (text != null)
-										builder.add(name + ".java", text.getBytes(StandardCharsets.UTF_8));
-								} else {
-									logger.error("Failed to decompile '{}'", name, error);
-								}
-
-								// If done, write the zip file
-								if (remaining <= 0) {
-									inProgressProperty.setValue(false);
-									Path path = pathProperty.get();
-									try {
-										Files.write(path, builder.bytes());
-									} catch (IOException ex) {
-										logger.error("Failed to write archive of decompiled classes to '{}'", path, ex);
-									}
-								}
-							}).thenRunAsync(() -> progress.setProgress(1 - (actionedClasses.doubleValue() / targetCount)), FxThreadUtil.executor());
-				});
+				Path path = pathProperty.get();
+				DecompileOutputWriter writer = DecompileOutputWriter.zip(path);
+				DecompileBudget budget = new DecompileBudget(decompilerPaneConfig.getTimeoutSeconds().getValue() * 1000L,
+						decompilerManager.getDefaultBudget().maxAllocatedBytes());
+				decompilerManager.decompileAll(decompiler, workspace, targetClasses, writer, name -> {
+							double delta = actionedClasses.incrementAndGet() / (double) targetCount;
+							FxThreadUtil.run(() -> progress.setProgress(Math.min(delta, 0.99)));
+						}, budget)
+						.whenComplete((result, error) -> {
+							try {
+								writer.close();
+							} catch (IOException ex) {
+								logger.error("Failed to write archive of decompiled classes to '{}'", path, ex);
+							}
+							if (result != null) {
+								result.getFailures().forEach((name, failure) -> logger.error("Failed to decompile '{}'", name, failure));
+								logger.info("Decompiled {} classes to '{}' ({} failed, {} classes/second)",
+										result.getDecompiledCount(), path, result.getFailures().size(),
+										String.format("%.1f", result.getClassesPerSecond()));
+							} else {
+								logger.error("Failed to decompile classes", error);
+							}
+							FxThreadUtil.run(() -> {
+								inProgressProperty.setValue(false);
+								progress.setProgress(1);
+							});
+						});
 			} catch (Throwable t) {
 				logger.error("Failed to schedule all classes for decompilation", t);
 				inProgressProperty.setValue(false);
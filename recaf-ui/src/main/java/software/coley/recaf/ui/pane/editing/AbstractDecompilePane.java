@@ -311,6 +311,10 @@ public void decompile() {
 						}
 					}
 
+					// Decompile classes likely to be opened next in the background.
+					if (resultType == DecompileResult.ResultType.SUCCESS)
+						decompilerManager.prefetch(decompiler.getValue(), workspace, classInfo);
+
 					// Schedule AST parsing for context action support.
 					contextActionSupport.scheduleAstParse();
 